@@ -0,0 +1,42 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Class which runs the benchmarks of this package with the GC profiler, so the
+ * allocation rates are reported alongside the results. Command line arguments
+ * are the usual JMH arguments; for example, <code>ExecutionBenchmark -p
+ * unit=impl</code> runs only the execution benchmark of the
+ * {@link hr.fer.zemris.java.simplecomp.ExecutionUnitImpl}. Benchmarks have to
+ * be run from the root directory of the project, where the directory
+ * <code>examples</code> is.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+	/**
+	 * Method which starts the program.
+	 * 
+	 * @param args
+	 *            command line arguments
+	 * @throws Exception
+	 *             if the arguments are invalid or the benchmarks fail
+	 */
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine).addProfiler(GCProfiler.class);
+		if (args.length == 0) {
+			builder.include(BenchmarkRunner.class.getPackage().getName());
+		}
+		Options options = builder.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,173 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+
+/**
+ * Benchmark which measures the decoding of the instruction arguments: reading
+ * of the values trough
+ * {@link InstructionsUtil#getValueFromLocation(Computer, InstructionArgument)}
+ * and decoding of the register descriptors by the {@link RegisterUtil}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodingBenchmark {
+	/**
+	 * Number of the register descriptors.
+	 */
+	private static final int DESCRIPTORS = 64;
+
+	/**
+	 * Computer whose registers and memory are read.
+	 */
+	private Computer computer;
+	/**
+	 * Argument which represents the register r3.
+	 */
+	private InstructionArgument register;
+	/**
+	 * Argument which represents the memory location [r15+2].
+	 */
+	private InstructionArgument indirect;
+	/**
+	 * Register descriptors which are decoded.
+	 */
+	private int[] descriptors;
+
+	/**
+	 * Creates the computer and the arguments.
+	 */
+	@Setup
+	public void setUp() {
+		computer = new ComputerImpl(256, 16);
+		computer.getRegisters().setRegisterValue(3, 1234);
+		computer.getRegisters().setRegisterValue(15, 200);
+		computer.getMemory().setLocation(202, 5678);
+
+		register = new Argument(3);
+		indirect = new Argument(descriptor(15, 2, true));
+
+		descriptors = new int[DESCRIPTORS];
+		for (int i = 0; i < DESCRIPTORS; i++) {
+			descriptors[i] = descriptor(i % 16, i - DESCRIPTORS / 2,
+					i % 2 == 0);
+		}
+	}
+
+	/**
+	 * Reads the value of the register.
+	 * 
+	 * @return read value
+	 */
+	@Benchmark
+	public Object registerValue() {
+		return InstructionsUtil.getValueFromLocation(computer, register);
+	}
+
+	/**
+	 * Reads the value of the memory location addressed indirectly.
+	 * 
+	 * @return read value
+	 */
+	@Benchmark
+	public Object indirectValue() {
+		return InstructionsUtil.getValueFromLocation(computer, indirect);
+	}
+
+	/**
+	 * Decodes all parts of the register descriptors.
+	 * 
+	 * @param blackhole
+	 *            consumer of the decoded values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(DESCRIPTORS)
+	public void registerUtil(Blackhole blackhole) {
+		for (int descriptor : descriptors) {
+			blackhole.consume(RegisterUtil.getRegisterIndex(descriptor));
+			blackhole.consume(RegisterUtil.isIndirect(descriptor));
+			blackhole.consume(RegisterUtil.getRegisterOffset(descriptor));
+		}
+	}
+
+	/**
+	 * Helper method which encodes the register descriptor.
+	 * 
+	 * @param index
+	 *            index of the register
+	 * @param offset
+	 *            offset of the indirect address
+	 * @param indirect
+	 *            flag that determines if the register is used for the
+	 *            indirect addressing
+	 * @return register descriptor
+	 */
+	private static int descriptor(int index, int offset, boolean indirect) {
+		return index | ((offset & 0xFFFF) << 8) | (indirect ? 1 << 24 : 0);
+	}
+
+	/**
+	 * Instruction argument which represents a register.
+	 */
+	private static class Argument implements InstructionArgument {
+		/**
+		 * Register descriptor.
+		 */
+		private final Integer descriptor;
+
+		/**
+		 * Constructor which sets the register descriptor.
+		 * 
+		 * @param descriptor
+		 *            register descriptor
+		 */
+		Argument(int descriptor) {
+			this.descriptor = descriptor;
+		}
+
+		@Override
+		public boolean isRegister() {
+			return true;
+		}
+
+		@Override
+		public boolean isString() {
+			return false;
+		}
+
+		@Override
+		public boolean isNumber() {
+			return false;
+		}
+
+		@Override
+		public Object getValue() {
+			return descriptor;
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.StackWindowExecutionUnit;
+import hr.fer.zemris.java.simplecomp.compiler.CompilingExecutionUnit;
+import hr.fer.zemris.java.simplecomp.compiler.TracingExecutionUnit;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.machine.MachineExecutionUnit;
+import hr.fer.zemris.java.simplecomp.memo.MemoizingExecutionUnit;
+import hr.fer.zemris.java.simplecomp.metrics.ComputerMetrics;
+import hr.fer.zemris.java.simplecomp.metrics.MeteredExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.parser.InstructionCreatorImpl;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+import hr.fer.zemris.java.simplecomp.threaded.ThreadedExecutionUnit;
+import hr.fer.zemris.java.simplecomp.verifier.TypeSpecialization;
+
+/**
+ * <p>
+ * Benchmark which measures the execution of the example programs from the
+ * <code>examples</code> directory by the execution units.
+ * </p>
+ * 
+ * <p>
+ * Program is parsed only once. Before every execution, the memory and the
+ * registers of the computer are restored to the state they had after the
+ * parsing, which is included in the measured time, but takes only a few
+ * hundred stores. Everything the programs write to the standard output is
+ * discarded and the programs which read a number get the same number on every
+ * execution. Directory with the programs can be changed by the system property
+ * <code>simplecomp.examples</code>.
+ * </p>
+ * 
+ * <p>
+ * Programs can also be run after the {@link TypeSpecialization}. Its effect on
+ * the allocation is best seen with the JMH option <code>-prof gc</code>.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutionBenchmark {
+	/**
+	 * Size of the memory of the computer.
+	 */
+	private static final int MEMORY_SIZE = 256;
+	/**
+	 * Number of the registers of the computer.
+	 */
+	private static final int REGISTERS = 16;
+
+	/**
+	 * Name of the program, without the extension.
+	 */
+	@Param({ "asmProgram1", "asmProgram2", "asmProgram3", "asmProgram4",
+			"asmProgram5", "prim1", "prim2", "prim3" })
+	public String program;
+
+	/**
+	 * Execution unit which executes the program.
+	 */
+	@Param({ "impl", "threaded", "machine", "stackWindow", "compiling",
+			"tracing", "memoizing", "metered" })
+	public String unit;
+
+	/**
+	 * Flag which determines if the program is specialized by the
+	 * {@link TypeSpecialization} after the parsing.
+	 */
+	@Param({ "false", "true" })
+	public boolean specialized;
+
+	/**
+	 * Computer on which the program is executed.
+	 */
+	private Computer computer;
+	/**
+	 * Content of the memory after the parsing.
+	 */
+	private Object[] memoryImage;
+	/**
+	 * Content of the registers after the parsing.
+	 */
+	private Object[] registersImage;
+	/**
+	 * Execution unit which executes the program.
+	 */
+	private ExecutionUnit executionUnit;
+	/**
+	 * Input of the program.
+	 */
+	private byte[] input;
+	/**
+	 * Standard output stream, restored after the benchmark.
+	 */
+	private PrintStream standardOutput;
+	/**
+	 * Standard input stream, restored after the benchmark.
+	 */
+	private InputStream standardInput;
+
+	/**
+	 * Parses the program and redirects the standard streams.
+	 * 
+	 * @throws Exception
+	 *             if the program can not be parsed
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		String directory = System.getProperty("simplecomp.examples",
+				"examples");
+
+		computer = new ComputerImpl(MEMORY_SIZE, REGISTERS);
+		ProgramParser.parse(
+				Paths.get(directory, program + ".txt").toString(), computer,
+				new InstructionCreatorImpl(
+						"hr.fer.zemris.java.simplecomp.impl.instructions"));
+		if (specialized) {
+			TypeSpecialization.specialize(computer);
+		}
+
+		memoryImage = new Object[MEMORY_SIZE];
+		for (int i = 0; i < MEMORY_SIZE; i++) {
+			memoryImage[i] = computer.getMemory().getLocation(i);
+		}
+		registersImage = new Object[REGISTERS];
+		for (int i = 0; i < REGISTERS; i++) {
+			registersImage[i] = computer.getRegisters().getRegisterValue(i);
+		}
+
+		executionUnit = createUnit(unit);
+		input = (program.equals("prim3") ? "10\n" : "7\n")
+				.getBytes(StandardCharsets.UTF_8);
+
+		standardOutput = System.out;
+		standardInput = System.in;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+			}
+		}));
+	}
+
+	/**
+	 * Restores the standard streams.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		System.setOut(standardOutput);
+		System.setIn(standardInput);
+	}
+
+	/**
+	 * Restores the computer to the state after the parsing and executes the
+	 * program.
+	 * 
+	 * @return result of the execution unit
+	 */
+	@Benchmark
+	public boolean go() {
+		Memory memory = computer.getMemory();
+		for (int i = 0; i < MEMORY_SIZE; i++) {
+			memory.setLocation(i, memoryImage[i]);
+		}
+		Registers registers = computer.getRegisters();
+		for (int i = 0; i < REGISTERS; i++) {
+			registers.setRegisterValue(i, registersImage[i]);
+		}
+		registers.setFlag(false);
+		registers.setProgramCounter(0);
+
+		System.setIn(new ByteArrayInputStream(input));
+
+		return executionUnit.go(computer);
+	}
+
+	/**
+	 * Helper method which creates the execution unit with the provided name.
+	 * 
+	 * @param name
+	 *            name of the execution unit
+	 * @return execution unit
+	 */
+	static ExecutionUnit createUnit(String name) {
+		switch (name) {
+		case "impl":
+			return new ExecutionUnitImpl();
+		case "threaded":
+			return new ThreadedExecutionUnit();
+		case "machine":
+			return new MachineExecutionUnit();
+		case "stackWindow":
+			return new StackWindowExecutionUnit();
+		case "compiling":
+			return new CompilingExecutionUnit();
+		case "tracing":
+			return new TracingExecutionUnit();
+		case "memoizing":
+			return new MemoizingExecutionUnit();
+		case "metered":
+			return new MeteredExecutionUnit(new ComputerMetrics());
+		default:
+			throw new IllegalArgumentException(
+					"Unknown execution unit: " + name + ".");
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.simplecomp.impl.CopyOnWriteMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.MemoryImpl;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.impl.RegistersImpl;
+import hr.fer.zemris.java.simplecomp.impl.TaggedMemoryImpl;
+
+/**
+ * Benchmark which measures the access to the memory and the registers, both
+ * trough the methods which work with objects and trough the methods which work
+ * with integers. Every operation stores and then loads a single value.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+	/**
+	 * Size of the memory.
+	 */
+	private static final int SIZE = 256;
+	/**
+	 * Number of the registers.
+	 */
+	private static final int REGISTERS = 16;
+
+	/**
+	 * Implementation of the memory.
+	 */
+	@Param({ "plain", "tagged", "copyOnWrite", "paged" })
+	public String memoryType;
+
+	/**
+	 * Memory which is accessed.
+	 */
+	private IntMemory memory;
+	/**
+	 * Registers which are accessed.
+	 */
+	private RegistersImpl registers;
+
+	/**
+	 * Creates the memory and the registers.
+	 */
+	@Setup
+	public void setUp() {
+		switch (memoryType) {
+		case "tagged":
+			memory = new TaggedMemoryImpl(SIZE);
+			break;
+		case "copyOnWrite":
+			memory = new CopyOnWriteMemory(SIZE);
+			break;
+		case "paged":
+			memory = new PagedMemory(SIZE);
+			break;
+		default:
+			memory = new MemoryImpl(SIZE);
+		}
+		registers = new RegistersImpl(REGISTERS);
+	}
+
+	/**
+	 * Stores and loads the values of all memory locations as objects.
+	 * 
+	 * @return sum of the loaded values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int memoryObjects() {
+		int sum = 0;
+		for (int i = 0; i < SIZE; i++) {
+			memory.setLocation(i, i * 1000);
+			sum += (Integer) memory.getLocation(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Stores and loads the values of all memory locations as integers.
+	 * 
+	 * @return sum of the loaded values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(SIZE)
+	public int memoryIntegers() {
+		int sum = 0;
+		for (int i = 0; i < SIZE; i++) {
+			memory.setInt(i, i * 1000);
+			sum += memory.getInt(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Stores and loads the values of all registers as objects.
+	 * 
+	 * @return sum of the loaded values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(REGISTERS)
+	public int registerObjects() {
+		int sum = 0;
+		for (int i = 0; i < REGISTERS; i++) {
+			registers.setRegisterValue(i, i * 1000);
+			sum += (Integer) registers.getRegisterValue(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Stores and loads the values of all registers as integers.
+	 * 
+	 * @return sum of the loaded values
+	 */
+	@Benchmark
+	@OperationsPerInvocation(REGISTERS)
+	public int registerIntegers() {
+		int sum = 0;
+		for (int i = 0; i < REGISTERS; i++) {
+			registers.setInt(i, i * 1000);
+			sum += registers.getInt(i);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,157 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.simplecomp.image.Assembler;
+import hr.fer.zemris.java.simplecomp.image.ImageLoader;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
+import hr.fer.zemris.java.simplecomp.parser.InstructionCreatorImpl;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+
+/**
+ * Benchmark which measures the parsing of large programs. Program with the
+ * requested number of instructions is generated to a temporary file before the
+ * benchmark and parsed into a new computer on every operation. For comparison,
+ * the program is also assembled to a binary image, which is loaded into a new
+ * computer without parsing. Instructions are created either by the reflective
+ * creator from the parser or by the {@link InstructionRegistry}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+	/**
+	 * Lines of a single block of the generated program. Character '#' is
+	 * replaced by the number of the block.
+	 */
+	private static final String[] BLOCK = { "@loop#:\t\tmove r1, 10",
+			"\t\tincrement r0", "\t\ttestEquals r0, r1",
+			"\t\tjumpIfTrue @loop#", "\t\tmove r2, [r15+1]",
+			"\t\tpush r2", "\t\tpop r2",
+			"\t\techo r2\t\t; ispis vrijednosti" };
+
+	/**
+	 * Number of the instructions in the generated program.
+	 */
+	@Param({ "1000", "10000", "100000" })
+	public int instructions;
+
+	/**
+	 * Creator of the instructions: "reflective" for the creator from the
+	 * parser, which uses reflection, or "registry" for the
+	 * {@link InstructionRegistry}.
+	 */
+	@Param({ "reflective", "registry" })
+	public String creatorType;
+
+	/**
+	 * Generated program.
+	 */
+	private Path file;
+	/**
+	 * Binary image of the generated program.
+	 */
+	private Path image;
+	/**
+	 * Creator of the instructions.
+	 */
+	private InstructionCreator creator;
+
+	/**
+	 * Generates the program and assembles it.
+	 * 
+	 * @throws Exception
+	 *             if the program can not be written or assembled
+	 */
+	@Setup
+	public void setUp() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for (int block = 0; block * BLOCK.length < instructions; block++) {
+			for (String line : BLOCK) {
+				sb.append(line.replace("#", Integer.toString(block)))
+						.append('\n');
+			}
+		}
+		sb.append("\t\thalt\n");
+		sb.append("@number:\tDEFINT 5\n");
+		sb.append("@text:\t\tDEFSTR \"Kraj programa.\"\n");
+
+		file = Files.createTempFile("simplecomp", ".txt");
+		Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+
+		creator = creatorType.equals("registry") ? new InstructionRegistry()
+				: new InstructionCreatorImpl(
+						"hr.fer.zemris.java.simplecomp.impl.instructions");
+
+		image = Files.createTempFile("simplecomp", ".sci");
+		Assembler.assemble(file.toString(), image.toString());
+	}
+
+	/**
+	 * Deletes the generated program and its image.
+	 * 
+	 * @throws IOException
+	 *             if the files can not be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(image);
+	}
+
+	/**
+	 * Parses the generated program.
+	 * 
+	 * @return computer which holds the parsed program
+	 * @throws Exception
+	 *             if the program can not be parsed
+	 */
+	@Benchmark
+	public Computer parse() throws Exception {
+		Computer computer = new ComputerImpl(instructions + BLOCK.length + 16,
+				16);
+		ProgramParser.parse(file.toString(), computer, creator);
+		return computer;
+	}
+
+	/**
+	 * Loads the binary image of the generated program.
+	 * 
+	 * @return computer which holds the loaded program
+	 * @throws IOException
+	 *             if the image can not be read
+	 */
+	@Benchmark
+	public Computer loadImage() throws IOException {
+		Computer computer = new ComputerImpl(instructions + BLOCK.length + 16,
+				16);
+		ImageLoader.load(image.toString(), computer, creator);
+		return computer;
+	}
+}
@@ -0,0 +1,142 @@
+package hr.fer.zemris.java.simplecomp.benchmarks;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.simplecomp.batch.ProgramImage;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.io.MemoryOutputDevice;
+import hr.fer.zemris.java.simplecomp.scheduler.Guest;
+import hr.fer.zemris.java.simplecomp.scheduler.GuestScheduler;
+import hr.fer.zemris.java.simplecomp.scheduler.SchedulerMetrics;
+
+/**
+ * <p>
+ * Benchmark which measures the {@link GuestScheduler} executing many guests at
+ * the same time. Guests execute the example programs from the
+ * <code>examples</code> directory in turns, and every guest writes to its own
+ * {@link MemoryOutputDevice}. Input is offered only after all guests are
+ * submitted, so the guests which read a number are parked first. Directory
+ * with the programs can be changed by the system property
+ * <code>simplecomp.examples</code>.
+ * </p>
+ * 
+ * <p>
+ * Metrics of the scheduler from the last operation of every iteration are
+ * printed after the iteration.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+	/**
+	 * Names of the example programs, without the extension.
+	 */
+	private static final String[] PROGRAMS = { "asmProgram1", "asmProgram2",
+			"asmProgram3", "asmProgram4", "asmProgram5", "prim1", "prim2",
+			"prim3" };
+
+	/**
+	 * Number of the guests executed at the same time.
+	 */
+	@Param({ "10000" })
+	public int guests;
+
+	/**
+	 * Number of the instructions in a quantum.
+	 */
+	@Param({ "100", "1000", "10000" })
+	public long quantum;
+
+	/**
+	 * Images of the example programs.
+	 */
+	private ProgramImage[] images;
+	/**
+	 * Metrics of the scheduler from the last operation.
+	 */
+	private SchedulerMetrics metrics;
+
+	/**
+	 * Parses the example programs.
+	 * 
+	 * @throws Exception
+	 *             if a program can not be parsed
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		String directory = System.getProperty("simplecomp.examples",
+				"examples");
+
+		images = new ProgramImage[PROGRAMS.length];
+		for (int i = 0; i < PROGRAMS.length; i++) {
+			images[i] = ProgramImage.parse(
+					Paths.get(directory, PROGRAMS[i] + ".txt").toString());
+		}
+	}
+
+	/**
+	 * Prints the metrics of the scheduler from the last operation.
+	 */
+	@TearDown(Level.Iteration)
+	public void printMetrics() {
+		if (metrics != null) {
+			System.out.println();
+			System.out.println(metrics);
+		}
+	}
+
+	/**
+	 * Executes all guests until they halt.
+	 * 
+	 * @return number of the instructions executed by all guests
+	 */
+	@Benchmark
+	public long run() {
+		try (GuestScheduler scheduler = new GuestScheduler(
+				Runtime.getRuntime().availableProcessors(), quantum)) {
+			Guest[] submitted = new Guest[guests];
+			CompletableFuture<?>[] completions = new CompletableFuture<?>[guests];
+
+			for (int i = 0; i < guests; i++) {
+				ComputerImpl computer = images[i % images.length]
+						.newComputer();
+				computer.setOutputDevice(new MemoryOutputDevice());
+				submitted[i] = scheduler.submit(computer);
+				completions[i] = submitted[i].getCompletion();
+			}
+
+			for (int i = 0; i < guests; i++) {
+				String program = PROGRAMS[i % PROGRAMS.length];
+				submitted[i].offer(program.equals("prim3") ? "10" : "7");
+				submitted[i].closeInput();
+			}
+
+			CompletableFuture.allOf(completions).join();
+			metrics = scheduler.getMetrics();
+			return metrics.getExecutedInstructions();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package hr.fer.zemris.java.simplecomp;
+
+/**
+ * States in which the {@link ResumableExecution} can stop.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public enum ExecutionStatus {
+	/**
+	 * Program executed the instruction halt and can not be resumed.
+	 */
+	HALTED,
+	/**
+	 * Program executed the allowed number of the instructions or reached the
+	 * deadline, and can be resumed.
+	 */
+	BUDGET_EXHAUSTED,
+	/**
+	 * Next instruction of the program reads the input which is not available
+	 * yet. Program can be resumed when the input device of the computer is
+	 * ready.
+	 */
+	WAITING_FOR_INPUT
+}
@@ -1,5 +1,6 @@
 package hr.fer.zemris.java.simplecomp;
 
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
 import hr.fer.zemris.java.simplecomp.models.Instruction;
@@ -15,7 +16,8 @@ import hr.fer.zemris.java.simplecomp.models.Registers;
  * It implements interface {@link ExecutionUnit} and provides a single method
  * {@link #go(Computer)} which starts the work of the computer. Method generates
  * instructions and executes them. The work of the computer ends when halt
- * instruction is executed.
+ * instruction is executed, and its output is then flushed, even if the work
+ * ended with an exception.
  * </p>
  * 
  * @author Luka Lazanja
@@ -28,15 +30,19 @@ public class ExecutionUnitImpl implements ExecutionUnit {
 		Registers registers = computer.getRegisters();
 		registers.setProgramCounter(0);
 
-		while (true) {
-			Instruction instruction = (Instruction) computer.getMemory()
-					.getLocation(registers.getProgramCounter());
+		try {
+			while (true) {
+				Instruction instruction = (Instruction) computer.getMemory()
+						.getLocation(registers.getProgramCounter());
 
-			registers.incrementProgramCounter();
+				registers.incrementProgramCounter();
 
-			if (instruction.execute(computer) == true) {
-				break;
+				if (instruction.execute(computer) == true) {
+					break;
+				}
 			}
+		} finally {
+			InstructionsUtil.flushOutput(computer);
 		}
 
 		return true;
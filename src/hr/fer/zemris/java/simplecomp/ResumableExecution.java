@@ -0,0 +1,183 @@
+package hr.fer.zemris.java.simplecomp;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Execution of a program which can be stopped and resumed. Instead of running
+ * the program until the instruction halt, like the {@link ExecutionUnitImpl},
+ * every call of {@link #run(long)} executes at most the provided number of the
+ * instructions and returns the {@link ExecutionStatus} which tells why it
+ * stopped. Since the state of the program is kept in the computer, including
+ * the program counter, the next call continues where the last one stopped.
+ * </p>
+ * 
+ * <p>
+ * Execution also stops before the instruction iinput if the input device of
+ * the computer is not ready, so a host can execute many computers on a few
+ * threads without blocking any of them. Output of the computer is flushed
+ * whenever the execution stops.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ResumableExecution {
+	/**
+	 * Number of the instructions executed between two checks of the
+	 * deadline.
+	 */
+	private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+	/**
+	 * Computer which executes the program.
+	 */
+	private final Computer computer;
+	/**
+	 * Status in which the execution last stopped.
+	 */
+	private ExecutionStatus status = ExecutionStatus.BUDGET_EXHAUSTED;
+	/**
+	 * Number of the instructions executed since the start.
+	 */
+	private long executed;
+
+	/**
+	 * Constructor which prepares the execution of the program from the
+	 * address 0.
+	 * 
+	 * @param computer
+	 *            computer which executes the program
+	 */
+	public ResumableExecution(Computer computer) {
+		if (computer == null) {
+			throw new IllegalArgumentException("Computer can not be null!");
+		}
+		this.computer = computer;
+		computer.getRegisters().setProgramCounter(0);
+	}
+
+	/**
+	 * Executes at most the provided number of the instructions.
+	 * 
+	 * @param budget
+	 *            maximal number of the executed instructions
+	 * @return status in which the execution stopped
+	 */
+	public ExecutionStatus run(long budget) {
+		return run(budget, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Executes at most the provided number of the instructions, stopping
+	 * earlier if the deadline is reached. Deadline is compared to
+	 * {@link System#nanoTime()} once in every 1024 instructions, so the
+	 * execution can stop a little after it.
+	 * 
+	 * @param budget
+	 *            maximal number of the executed instructions
+	 * @param deadline
+	 *            value of {@link System#nanoTime()} at which the execution
+	 *            stops
+	 * @return status in which the execution stopped
+	 */
+	public ExecutionStatus run(long budget, long deadline) {
+		if (budget < 0) {
+			throw new IllegalArgumentException(
+					"Budget can not be negative. It was " + budget + ".");
+		}
+		if (status == ExecutionStatus.HALTED) {
+			return status;
+		}
+
+		Registers registers = computer.getRegisters();
+		long count = 0;
+
+		try {
+			while (true) {
+				if (count == budget || (count % DEADLINE_CHECK_INTERVAL == 0
+						&& count > 0 && System.nanoTime() >= deadline)) {
+					status = ExecutionStatus.BUDGET_EXHAUSTED;
+					break;
+				}
+
+				Instruction instruction = (Instruction) computer.getMemory()
+						.getLocation(registers.getProgramCounter());
+
+				if (instruction instanceof InstrIinput && !isInputReady()) {
+					status = ExecutionStatus.WAITING_FOR_INPUT;
+					break;
+				}
+
+				registers.incrementProgramCounter();
+				count++;
+
+				if (instruction.execute(computer) == true) {
+					status = ExecutionStatus.HALTED;
+					break;
+				}
+			}
+		} finally {
+			executed += count;
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return status;
+	}
+
+	/**
+	 * Gets the status in which the execution last stopped. Before the first
+	 * run, status is {@link ExecutionStatus#BUDGET_EXHAUSTED}.
+	 * 
+	 * @return status of the execution
+	 */
+	public ExecutionStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Checks if the program has executed the instruction halt.
+	 * 
+	 * @return <code>true</code> if the program has halted, <code>false</code>
+	 *         otherwise
+	 */
+	public boolean isHalted() {
+		return status == ExecutionStatus.HALTED;
+	}
+
+	/**
+	 * Gets the number of the instructions executed since the start.
+	 * 
+	 * @return number of the executed instructions
+	 */
+	public long getExecutedInstructions() {
+		return executed;
+	}
+
+	/**
+	 * Gets the computer which executes the program.
+	 * 
+	 * @return computer which executes the program
+	 */
+	public Computer getComputer() {
+		return computer;
+	}
+
+	/**
+	 * Helper method which checks if the input device of the computer is
+	 * ready. Only a {@link ComputerImpl} has an input device, other computers
+	 * are considered always ready.
+	 * 
+	 * @return <code>true</code> if the input can be read without waiting,
+	 *         <code>false</code> otherwise
+	 */
+	private boolean isInputReady() {
+		return !(computer instanceof ComputerImpl)
+				|| ((ComputerImpl) computer).getInputDevice().isReady();
+	}
+}
@@ -1,27 +1,73 @@
 package hr.fer.zemris.java.simplecomp;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
+import hr.fer.zemris.java.simplecomp.image.Assembler;
+import hr.fer.zemris.java.simplecomp.image.ImageLoader;
 import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionFusion;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.io.StandardInputDevice;
+import hr.fer.zemris.java.simplecomp.memo.MemoizingExecutionUnit;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
 import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
-import hr.fer.zemris.java.simplecomp.parser.InstructionCreatorImpl;
 import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+import hr.fer.zemris.java.simplecomp.trace.RecordingExecutionUnit;
+import hr.fer.zemris.java.simplecomp.trace.TraceDump;
+import hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier;
+import hr.fer.zemris.java.simplecomp.verifier.TypeSpecialization;
 
 /**
+ * <p>
  * Class which simulates the work of the class {@link ExecutionUnitImpl}. A
  * single argument has to be provided: path to the text file which contains
- * assembly code. This argument can be provided trough command line or trough
- * standard input (if no arguments have been provided trough command line).
+ * assembly code, or to the binary image of the program written by the
+ * {@link Assembler}. This argument can be provided trough command line or
+ * trough standard input (if no arguments have been provided trough command
+ * line).
+ * </p>
+ * 
+ * <p>
+ * Before the path, size of the memory can be provided by the option
+ * <code>-m size</code> and the number of registers by the option
+ * <code>-r count</code>. By default, the computer has 256 memory locations and
+ * 16 registers. Memory is a {@link PagedMemory}, so it can have up to
+ * {@link Integer#MAX_VALUE} locations, of which only the used ones take
+ * space.
+ * </p>
+ * 
+ * <p>
+ * Option <code>-c capacity</code> executes the program by the
+ * {@link MemoizingExecutionUnit}, which caches up to the provided number of
+ * the results of the pure subroutines. Program is then not fused, since the
+ * fused instructions can not be analyzed.
+ * </p>
+ * 
+ * <p>
+ * Option <code>-t file</code> executes the program by the
+ * {@link RecordingExecutionUnit}, which writes the trace of every executed
+ * instruction to the provided file. Trace can be printed by the
+ * {@link TraceDump}. Program is then not fused either, so the trace holds the
+ * instructions from the assembly code.
+ * </p>
  * 
  * @author Luka Lazanja
  * @version 1.0
  */
 public class Simulator {
+	/**
+	 * Default size of the memory.
+	 */
+	private static final int DEFAULT_MEMORY_SIZE = 256;
+	/**
+	 * Default number of registers.
+	 */
+	private static final int DEFAULT_REGISTERS = 16;
+
 	/**
 	 * Method which starts the program.
 	 * 
@@ -31,22 +77,90 @@ public class Simulator {
 	 *             if there has been an error while parsing
 	 */
 	public static void main(String[] args) throws Exception {
-		String fileName = getFileName(args);
+		int memorySize = DEFAULT_MEMORY_SIZE;
+		int registers = DEFAULT_REGISTERS;
+		int cacheCapacity = 0;
+		String traceFile = null;
 
-		// Stvori računalo s 256 memorijskih lokacija i 16 registara
-		Computer comp = new ComputerImpl(256, 16);
+		// Pročitaj opcije koje se nalaze prije imena datoteke
+		int index = 0;
+		while (index + 1 < args.length && args[index].startsWith("-")) {
+			switch (args[index]) {
+			case "-m":
+				memorySize = parseOption(args[index], args[index + 1]);
+				break;
+			case "-r":
+				registers = parseOption(args[index], args[index + 1]);
+				break;
+			case "-c":
+				cacheCapacity = parseOption(args[index], args[index + 1]);
+				break;
+			case "-t":
+				traceFile = args[index + 1];
+				break;
+			default:
+				System.err.println("Unknown option " + args[index] + "!");
+				System.exit(-1);
+			}
+			index += 2;
+		}
+
+		if (cacheCapacity != 0 && traceFile != null) {
+			System.err.println("Options -c and -t can not be used together!");
+			System.exit(-1);
+		}
+
+		String fileName = getFileName(
+				Arrays.copyOfRange(args, index, args.length));
+
+		// Stvori računalo sa zadanim brojem memorijskih lokacija i registara;
+		// stranice memorije stvaraju se tek kada se u njih nešto zapiše
+		PagedMemory memory = new PagedMemory(memorySize);
+		Computer comp = new ComputerImpl(memory, registers);
 
 		// Stvori objekt koji zna stvarati primjerke instrukcija
-		InstructionCreator creator = new InstructionCreatorImpl(
-				"hr.fer.zemris.java.simplecomp.impl.instructions");
+		InstructionCreator creator = new InstructionRegistry();
 
 		// Napuni memoriju računala programom iz datoteke; instrukcije stvaraj
-		// uporabom predanog objekta za stvaranje instrukcija
-		ProgramParser.parse(fileName, comp, creator);
+		// uporabom predanog objekta za stvaranje instrukcija. Binarnu sliku
+		// programa učitaj bez parsiranja
+		if (ImageLoader.isImage(fileName)) {
+			ImageLoader.load(fileName, comp, creator);
+		} else {
+			ProgramParser.parse(fileName, comp, creator);
+		}
+
+		// Provjeri adrese i registre koje instrukcije koriste; neispravne
+		// operande samo prijavi, jer se instrukcija koja ih koristi možda
+		// nikada ne izvede, a ako se izvede, baca iznimku
+		for (String violation : BoundsVerifier.verify(comp)) {
+			System.err.println("Warning: " + violation);
+		}
+
+		// Zamijeni aritmetičke instrukcije čiji registri uvijek sadrže cijele
+		// brojeve inačicama koje rade s primitivnim cijelim brojevima; mora se
+		// napraviti prije spajanja instrukcija
+		TypeSpecialization.specialize(comp);
+
+		// Spoji česte nizove instrukcija u jednu instrukciju; prolazi se samo
+		// kroz dio memorije u koji je program učitan. Ako se pamte rezultati
+		// potprograma, instrukcije se ne spajaju jer se spojene instrukcije
+		// ne mogu analizirati, a ni kada se izvođenje prati, kako bi se u
+		// tragu vidjele instrukcije iz programa
+		if (cacheCapacity == 0 && traceFile == null) {
+			InstructionFusion.fuse(memory, memory.getUsedSize());
+		}
 
 		try {
 			// Stvori izvršnu jedinicu
-			ExecutionUnit exec = new ExecutionUnitImpl();
+			ExecutionUnit exec;
+			if (traceFile != null) {
+				exec = new RecordingExecutionUnit(Paths.get(traceFile));
+			} else if (cacheCapacity != 0) {
+				exec = new MemoizingExecutionUnit(cacheCapacity);
+			} else {
+				exec = new ExecutionUnitImpl();
+			}
 
 			// Izvedi program
 			exec.go(comp);
@@ -55,6 +169,35 @@ public class Simulator {
 		}
 	}
 
+	/**
+	 * Help method which parses the value of a numeric option. Valid value is a
+	 * number larger than zero. Otherwise, appropriate message is written to
+	 * user and program will be terminated.
+	 * 
+	 * @param option
+	 *            name of the option
+	 * @param value
+	 *            value of the option
+	 * @return parsed value
+	 */
+	private static int parseOption(String option, String value) {
+		int number;
+		try {
+			number = Integer.parseInt(value);
+		} catch (NumberFormatException nfe) {
+			number = 0;
+		}
+
+		if (number < 1) {
+			System.err.println("Option " + option
+					+ " expects a number larger than zero, but got " + value
+					+ "!");
+			System.exit(-1);
+		}
+
+		return number;
+	}
+
 	/**
 	 * Help method which checks if user has entered valid arguments. If args
 	 * array contains a single argument, that argument is returned as the name
@@ -63,7 +206,7 @@ public class Simulator {
 	 * written to user and program will be terminated.
 	 * 
 	 * @param args
-	 *            command line arguments
+	 *            command line arguments which follow the options
 	 * @return name of the file with assembly code
 	 * @throws IOException
 	 *             if there has been an input error
@@ -73,14 +216,13 @@ public class Simulator {
 			return args[0];
 
 		} else if (args.length == 0) {
-			BufferedReader reader = new BufferedReader(
-					new InputStreamReader(new BufferedInputStream(System.in)));
-
 			System.out.println(
 					"Please provide path to the file with assemly code: ");
 			System.out.print(">");
 
-			return reader.readLine().trim();
+			// Čitaj preko istog spremnika koji koristi instrukcija iinput,
+			// kako se ne bi izgubio ostatak ulaza
+			return new StandardInputDevice().readLine().trim();
 
 		} else {
 			System.err.println("Expected none or a single argument!");
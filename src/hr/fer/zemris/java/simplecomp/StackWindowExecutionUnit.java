@@ -0,0 +1,137 @@
+package hr.fer.zemris.java.simplecomp;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.StackWindowMemory;
+import hr.fer.zemris.java.simplecomp.machine.MachineExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Execution unit which executes the program by another execution unit, while
+ * the stack of the program is kept in a {@link StackWindowMemory}.
+ * </p>
+ * 
+ * <p>
+ * Before the execution, the region of the memory below the top of the stack,
+ * the value of the register {@link Registers#STACK_REGISTER_INDEX}, is copied
+ * into the window, and the program is executed on a computer which shares the
+ * registers and the devices with the provided one, but uses the window as its
+ * memory. After the execution, also when it fails, the changed locations are
+ * written back to the memory of the computer, so the result is the same as
+ * when the program is executed by the other unit alone.
+ * </p>
+ * 
+ * <p>
+ * Window pays off with the units which decode the program before the
+ * execution, like the {@link MachineExecutionUnit}, while the units which
+ * fetch every instruction from the memory, like the {@link ExecutionUnitImpl},
+ * also fetch it trough the window. Computers whose memory does not implement
+ * {@link IntMemory}, or whose stack register does not hold a location of the
+ * memory, are executed by the other unit directly.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class StackWindowExecutionUnit implements ExecutionUnit {
+	/**
+	 * Default number of the locations of the window.
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 1024;
+
+	/**
+	 * Execution unit which executes the program.
+	 */
+	private final ExecutionUnit unit;
+	/**
+	 * Maximal number of the locations of the window.
+	 */
+	private final int windowSize;
+
+	/**
+	 * Constructor which creates an execution unit which executes the program
+	 * by the {@link MachineExecutionUnit}, with the default size of the
+	 * window.
+	 */
+	public StackWindowExecutionUnit() {
+		this(new MachineExecutionUnit(), DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructor which creates an execution unit which executes the program
+	 * by the provided unit.
+	 * 
+	 * @param unit
+	 *            execution unit which executes the program
+	 * @param windowSize
+	 *            maximal number of the locations of the window
+	 */
+	public StackWindowExecutionUnit(ExecutionUnit unit, int windowSize) {
+		if (unit == null) {
+			throw new IllegalArgumentException(
+					"Execution unit can not be null!");
+		} else if (windowSize < 1) {
+			throw new IllegalArgumentException(
+					"Size of the window must be positive. It was "
+							+ windowSize + ".");
+		}
+
+		this.unit = unit;
+		this.windowSize = windowSize;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		Memory memory = computer.getMemory();
+		Object top = computer.getRegisters()
+				.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+
+		if (!(memory instanceof IntMemory) || !(top instanceof Integer)
+				|| (Integer) top < 0
+				|| (Integer) top >= ((IntMemory) memory).getSize()) {
+			return unit.go(computer);
+		}
+
+		StackWindowMemory window = new StackWindowMemory((IntMemory) memory,
+				(Integer) top, windowSize);
+
+		try {
+			return unit.go(withMemory(computer, window));
+		} finally {
+			window.flush();
+		}
+	}
+
+	/**
+	 * Helper method which creates a computer which shares the registers with
+	 * the provided one, but uses the provided memory.
+	 * 
+	 * @param computer
+	 *            computer whose registers are shared
+	 * @param memory
+	 *            memory of the created computer
+	 * @return computer with the provided memory
+	 */
+	private static Computer withMemory(Computer computer, Memory memory) {
+		if (computer instanceof ComputerImpl) {
+			return ((ComputerImpl) computer).withMemory(memory);
+		}
+
+		return new Computer() {
+
+			@Override
+			public Registers getRegisters() {
+				return computer.getRegisters();
+			}
+
+			@Override
+			public Memory getMemory() {
+				return memory;
+			}
+		};
+	}
+}
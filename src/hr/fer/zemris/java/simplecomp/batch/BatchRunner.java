@@ -0,0 +1,182 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+import hr.fer.zemris.java.simplecomp.batch.RunResult.Status;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.io.MemoryInputDevice;
+import hr.fer.zemris.java.simplecomp.io.MemoryOutputDevice;
+
+/**
+ * <p>
+ * Runner which executes many programs, or one program with many different
+ * inputs, in parallel on all available cores. Every run gets its own computer
+ * created from a {@link ProgramImage}, so the program is parsed only once, and
+ * its own input and output: input is read from a {@link MemoryInputDevice},
+ * and output is written to a {@link MemoryOutputDevice} and stored into the
+ * {@link RunResult}.
+ * </p>
+ * 
+ * <p>
+ * Every run is stopped after the provided number of the executed instructions,
+ * so a program which never halts can not block the whole batch.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class BatchRunner implements AutoCloseable {
+	/**
+	 * Pool which executes the runs.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Flag that determines if the pool was created by this runner.
+	 */
+	private final boolean ownsPool;
+
+	/**
+	 * Constructor which creates a runner which uses all available cores.
+	 */
+	public BatchRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor which creates a runner which executes at most the provided
+	 * number of the runs at the same time.
+	 * 
+	 * @param parallelism
+	 *            number of the runs executed at the same time
+	 */
+	public BatchRunner(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be positive. It was " + parallelism
+							+ ".");
+		}
+
+		this.pool = new ForkJoinPool(parallelism);
+		this.ownsPool = true;
+	}
+
+	/**
+	 * Constructor which creates a runner which executes the runs in the
+	 * provided pool. Pool is not shut down when the runner is closed.
+	 * 
+	 * @param pool
+	 *            pool which executes the runs
+	 */
+	public BatchRunner(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool can not be null.");
+		}
+
+		this.pool = pool;
+		this.ownsPool = false;
+	}
+
+	/**
+	 * Executes the program once for every provided input.
+	 * 
+	 * @param image
+	 *            image of the program
+	 * @param inputs
+	 *            standard inputs of the runs
+	 * @param cycleLimit
+	 *            maximal number of the instructions executed by a single run
+	 * @return results of the runs, in the order of the inputs
+	 */
+	public Stream<RunResult> run(ProgramImage image, List<String> inputs,
+			long cycleLimit) {
+		return run(Collections.nCopies(inputs.size(), image), inputs,
+				cycleLimit);
+	}
+
+	/**
+	 * Executes every provided program once, with the input at the same index.
+	 * 
+	 * @param images
+	 *            images of the programs
+	 * @param inputs
+	 *            standard inputs of the runs
+	 * @param cycleLimit
+	 *            maximal number of the instructions executed by a single run
+	 * @return results of the runs, in the order of the programs
+	 */
+	public Stream<RunResult> run(List<ProgramImage> images,
+			List<String> inputs, long cycleLimit) {
+		if (images.size() != inputs.size()) {
+			throw new IllegalArgumentException("Got " + images.size()
+					+ " programs, but " + inputs.size() + " inputs.");
+		}
+		if (cycleLimit < 1) {
+			throw new IllegalArgumentException(
+					"Cycle limit must be positive. It was " + cycleLimit
+							+ ".");
+		}
+
+		List<ForkJoinTask<RunResult>> tasks = new ArrayList<>(images.size());
+		for (int i = 0; i < images.size(); i++) {
+			int index = i;
+			ProgramImage image = images.get(i);
+			String input = inputs.get(i);
+
+			tasks.add(pool.submit(
+					() -> execute(index, image, input, cycleLimit)));
+		}
+
+		return tasks.stream().map(ForkJoinTask::join);
+	}
+
+	/**
+	 * Executes a single run in the current thread.
+	 * 
+	 * @param index
+	 *            index of the run in the batch
+	 * @param image
+	 *            image of the program
+	 * @param input
+	 *            standard input of the run
+	 * @param cycleLimit
+	 *            maximal number of the executed instructions
+	 * @return result of the run
+	 */
+	public static RunResult execute(int index, ProgramImage image, String input,
+			long cycleLimit) {
+		ComputerImpl computer = image.newComputer();
+		MemoryOutputDevice output = new MemoryOutputDevice();
+		computer.setOutputDevice(output);
+		computer.setInputDevice(new MemoryInputDevice(input));
+		CycleLimitedExecutionUnit unit = new CycleLimitedExecutionUnit(
+				cycleLimit);
+
+		Status status = Status.HALTED;
+		Throwable error = null;
+
+		try {
+			unit.go(computer);
+		} catch (CycleLimitExceededException ex) {
+			status = Status.CYCLE_LIMIT_EXCEEDED;
+			error = ex;
+		} catch (Exception ex) {
+			status = Status.FAILED;
+			error = ex;
+		}
+
+		return new RunResult(index, input, output.getText(), status,
+				unit.getCycles(), error);
+	}
+
+	@Override
+	public void close() {
+		if (ownsPool) {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+/**
+ * Exception which is thrown by the {@link CycleLimitedExecutionUnit} when the
+ * program executes more instructions than it is allowed to.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class CycleLimitExceededException extends RuntimeException {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor which creates the exception for the provided limit.
+	 * 
+	 * @param limit
+	 *            maximal number of the executed instructions
+	 */
+	public CycleLimitExceededException(long limit) {
+		super("Program did not halt in " + limit + " cycles.");
+	}
+}
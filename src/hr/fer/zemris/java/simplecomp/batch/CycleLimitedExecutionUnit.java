@@ -0,0 +1,81 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Execution unit which executes the program the same way the
+ * {@link ExecutionUnitImpl} does, but stops it with a
+ * {@link CycleLimitExceededException} if it executes more instructions than
+ * the provided limit. Every executed instruction is counted as a single cycle.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class CycleLimitedExecutionUnit implements ExecutionUnit {
+	/**
+	 * Maximal number of the executed instructions.
+	 */
+	private final long limit;
+	/**
+	 * Number of the instructions executed by the last execution.
+	 */
+	private long cycles;
+
+	/**
+	 * Constructor which creates an execution unit with the provided limit.
+	 * 
+	 * @param limit
+	 *            maximal number of the executed instructions
+	 */
+	public CycleLimitedExecutionUnit(long limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException(
+					"Cycle limit must be positive. It was " + limit + ".");
+		}
+
+		this.limit = limit;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		Registers registers = computer.getRegisters();
+		registers.setProgramCounter(0);
+		cycles = 0;
+
+		try {
+			while (true) {
+				if (cycles == limit) {
+					throw new CycleLimitExceededException(limit);
+				}
+				cycles++;
+
+				Instruction instruction = (Instruction) computer.getMemory()
+						.getLocation(registers.getProgramCounter());
+
+				registers.incrementProgramCounter();
+
+				if (instruction.execute(computer) == true) {
+					break;
+				}
+			}
+		} finally {
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the number of the instructions executed by the last execution.
+	 * 
+	 * @return number of the executed instructions
+	 */
+	public long getCycles() {
+		return cycles;
+	}
+}
@@ -0,0 +1,183 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+import hr.fer.zemris.java.simplecomp.image.ImageLoader;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.CopyOnWriteMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionFusion;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+
+/**
+ * <p>
+ * Immutable image of a loaded program: content of the memory and the
+ * registers of the computer after the program has been parsed. Any number of
+ * computers which hold the program can be created from the image by
+ * {@link #newComputer()}, without parsing the program again.
+ * </p>
+ * 
+ * <p>
+ * Image holds a computer with a {@link CopyOnWriteMemory}, which is never
+ * executed. New computers are forked from it, so they share the pages of the
+ * memory which hold the instructions and the constant data, and copy only the
+ * pages they write to. This is safe since the instructions do not change their
+ * state while they are executed, and all other values which the parser stores
+ * (integers and strings) are immutable.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public final class ProgramImage {
+	/**
+	 * Size of the memory used by {@link #parse(String)}.
+	 */
+	public static final int DEFAULT_MEMORY_SIZE = 256;
+	/**
+	 * Number of the registers used by {@link #parse(String)}.
+	 */
+	public static final int DEFAULT_REGISTERS = 16;
+
+	/**
+	 * Computer from which the new computers are forked.
+	 */
+	private final ComputerImpl template;
+	/**
+	 * Number of the registers.
+	 */
+	private final int registersCount;
+
+	/**
+	 * Constructor which initializes the image.
+	 * 
+	 * @param template
+	 *            computer from which the new computers are forked
+	 * @param registersCount
+	 *            number of the registers
+	 */
+	private ProgramImage(ComputerImpl template, int registersCount) {
+		this.template = template;
+		this.registersCount = registersCount;
+	}
+
+	/**
+	 * Parses the program from the file into a computer with 256 memory
+	 * locations and 16 registers, the same one the Simulator uses, and creates
+	 * the image of it.
+	 * 
+	 * @param fileName
+	 *            path to the file with the assembly code
+	 * @return image of the program
+	 * @throws Exception
+	 *             if there has been an error while parsing
+	 */
+	public static ProgramImage parse(String fileName) throws Exception {
+		return parse(fileName, DEFAULT_MEMORY_SIZE, DEFAULT_REGISTERS);
+	}
+
+	/**
+	 * Parses the program from the file and creates the image of it. File can
+	 * also hold a binary image written by the assembler, which is loaded
+	 * without parsing. Common sequences of the instructions are fused by the
+	 * {@link InstructionFusion}, just like in the Simulator.
+	 * 
+	 * @param fileName
+	 *            path to the file with the assembly code
+	 * @param memorySize
+	 *            size of the memory
+	 * @param registersCount
+	 *            number of the registers
+	 * @return image of the program
+	 * @throws Exception
+	 *             if there has been an error while parsing
+	 */
+	public static ProgramImage parse(String fileName, int memorySize,
+			int registersCount) throws Exception {
+		CopyOnWriteMemory memory = new CopyOnWriteMemory(memorySize);
+		ComputerImpl computer = new ComputerImpl(memory, registersCount);
+
+		InstructionCreator creator = new InstructionRegistry();
+		if (ImageLoader.isImage(fileName)) {
+			ImageLoader.load(fileName, computer, creator);
+		} else {
+			ProgramParser.parse(fileName, computer, creator);
+		}
+		InstructionFusion.fuse(memory);
+
+		return new ProgramImage(computer, registersCount);
+	}
+
+	/**
+	 * Creates the image of the computer. Memory of the computer has to
+	 * implement {@link IntMemory}, so its size is known.
+	 * 
+	 * @param computer
+	 *            computer whose memory and registers are copied
+	 * @param registersCount
+	 *            number of the registers of the computer
+	 * @return image of the computer
+	 */
+	public static ProgramImage of(Computer computer, int registersCount) {
+		if (!(computer.getMemory() instanceof IntMemory)) {
+			throw new IllegalArgumentException(
+					"Memory of the computer must implement IntMemory.");
+		}
+
+		IntMemory source = (IntMemory) computer.getMemory();
+		CopyOnWriteMemory memory = new CopyOnWriteMemory(source.getSize());
+		for (int i = 0; i < source.getSize(); i++) {
+			Object value = source.getLocation(i);
+			if (value != null) {
+				memory.setLocation(i, value);
+			}
+		}
+
+		ComputerImpl template = new ComputerImpl(memory, registersCount);
+		Registers registers = template.getRegisters();
+		for (int i = 0; i < registersCount; i++) {
+			Object value = computer.getRegisters().getRegisterValue(i);
+			if (value != null) {
+				registers.setRegisterValue(i, value);
+			}
+		}
+		registers.setFlag(computer.getRegisters().getFlag());
+
+		return new ProgramImage(template, registersCount);
+	}
+
+	/**
+	 * Creates a new computer which holds the program of this image. Computer
+	 * is forked from the computer held by the image by
+	 * {@link ComputerImpl#fork()}, so it takes constant time.
+	 * 
+	 * @return new computer
+	 */
+	public ComputerImpl newComputer() {
+		// forking changes the owner of the pages, so it must not be done by
+		// more threads at the same time
+		synchronized (template) {
+			return template.fork();
+		}
+	}
+
+	/**
+	 * Gets the size of the memory.
+	 * 
+	 * @return size of the memory
+	 */
+	public int getMemorySize() {
+		return ((IntMemory) template.getMemory()).getSize();
+	}
+
+	/**
+	 * Gets the number of the registers.
+	 * 
+	 * @return number of the registers
+	 */
+	public int getRegistersCount() {
+		return registersCount;
+	}
+}
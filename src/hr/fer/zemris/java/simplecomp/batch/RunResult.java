@@ -0,0 +1,143 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+/**
+ * Result of a single run executed by the {@link BatchRunner}: the input which
+ * was provided to the program, everything the program printed and the way the
+ * execution ended.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class RunResult {
+	/**
+	 * Ways the execution of a program can end.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	public static enum Status {
+		/**
+		 * Program executed the instruction halt.
+		 */
+		HALTED,
+		/**
+		 * Program was stopped because it executed too many instructions.
+		 */
+		CYCLE_LIMIT_EXCEEDED,
+		/**
+		 * Execution of the program threw an exception.
+		 */
+		FAILED
+	}
+
+	/**
+	 * Index of the run in the batch.
+	 */
+	private final int index;
+	/**
+	 * Standard input provided to the program.
+	 */
+	private final String input;
+	/**
+	 * Standard output of the program.
+	 */
+	private final String output;
+	/**
+	 * Way the execution ended.
+	 */
+	private final Status status;
+	/**
+	 * Number of the executed instructions.
+	 */
+	private final long cycles;
+	/**
+	 * Exception which stopped the execution, or <code>null</code>.
+	 */
+	private final Throwable error;
+
+	/**
+	 * Constructor which creates the result.
+	 * 
+	 * @param index
+	 *            index of the run in the batch
+	 * @param input
+	 *            standard input provided to the program
+	 * @param output
+	 *            standard output of the program
+	 * @param status
+	 *            way the execution ended
+	 * @param cycles
+	 *            number of the executed instructions
+	 * @param error
+	 *            exception which stopped the execution, or <code>null</code>
+	 */
+	public RunResult(int index, String input, String output, Status status,
+			long cycles, Throwable error) {
+		this.index = index;
+		this.input = input;
+		this.output = output;
+		this.status = status;
+		this.cycles = cycles;
+		this.error = error;
+	}
+
+	/**
+	 * Gets the index of the run in the batch.
+	 * 
+	 * @return index of the run
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Gets the standard input provided to the program.
+	 * 
+	 * @return standard input of the program
+	 */
+	public String getInput() {
+		return input;
+	}
+
+	/**
+	 * Gets everything the program printed to the standard output.
+	 * 
+	 * @return standard output of the program
+	 */
+	public String getOutput() {
+		return output;
+	}
+
+	/**
+	 * Gets the way the execution ended.
+	 * 
+	 * @return status of the execution
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * Gets the number of the instructions the program executed.
+	 * 
+	 * @return number of the executed instructions
+	 */
+	public long getCycles() {
+		return cycles;
+	}
+
+	/**
+	 * Gets the exception which stopped the execution.
+	 * 
+	 * @return exception which stopped the execution, or <code>null</code> if
+	 *         the program halted
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + index + " " + status + " (" + cycles + " cycles)";
+	}
+}
@@ -0,0 +1,561 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+
+/**
+ * <p>
+ * Compiler which turns basic blocks of the program into classes which
+ * implement {@link CompiledBlock}.
+ * </p>
+ * 
+ * <p>
+ * Only the instructions which work with integer registers can be compiled:
+ * add, mul, increment, decrement, testEquals, move between two registers or of
+ * a number to a register, jump, jumpIfTrue and the fused
+ * {@link InstrCompareAndBranch}. Every register used by the block
+ * is kept in a Java local variable. Registers which are read before they are
+ * written are checked to hold integers when the block is entered (if some of
+ * them does not, the block returns {@link CompiledBlock#DEOPTIMIZE}) and all
+ * written registers, as well as the flag, are stored back only when the block
+ * exits.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class BlockCompiler {
+	/**
+	 * Internal name of the interface which represents the registers.
+	 */
+	static final String REGISTERS = "hr/fer/zemris/java/simplecomp/impl/IntRegisters";
+	/**
+	 * Internal name of the interface {@link CompiledBlock}.
+	 */
+	static final String COMPILED_BLOCK = "hr/fer/zemris/java/simplecomp/compiler/CompiledBlock";
+	/**
+	 * Maximal number of instructions in a single block.
+	 */
+	private static final int MAX_BLOCK_LENGTH = 256;
+	/**
+	 * Index of the local variable which holds the registers.
+	 */
+	private static final int REGISTERS_SLOT = 1;
+
+	/**
+	 * Definer of the generated classes.
+	 */
+	private final ClassDefiner definer = new ClassDefiner();
+	/**
+	 * Number of the classes generated by this compiler, used for naming them.
+	 */
+	private int generated;
+
+	/**
+	 * Finds the basic blocks of the program which can be compiled. Value on
+	 * index <code>i</code> of the returned array is the address after the last
+	 * instruction of the block which starts on the address <code>i</code>, or
+	 * zero if no compilable block starts there. Blocks start on the address 0,
+	 * on targets of jumps and calls and after the instructions which change
+	 * the flow of the program or can not be compiled.
+	 * 
+	 * @param program
+	 *            instructions of the program by their addresses, with
+	 *            <code>null</code> on the addresses which do not hold an
+	 *            instruction
+	 * @return ends of the blocks by their starting addresses
+	 */
+	public static int[] findBlocks(Instruction[] program) {
+		int length = program.length;
+		boolean[] leaders = new boolean[length + 1];
+		leaders[0] = true;
+
+		for (int address = 0; address < length; address++) {
+			Instruction instruction = program[address];
+
+			int target = -1;
+			if (instruction instanceof InstrJump) {
+				target = ((InstrJump) instruction).getAddress();
+			} else if (instruction instanceof InstrJumpIfTrue) {
+				target = ((InstrJumpIfTrue) instruction).getAddress();
+			} else if (instruction instanceof InstrCall) {
+				target = ((InstrCall) instruction).getAddress();
+			} else if (instruction instanceof InstrCompareAndBranch) {
+				target = ((InstrCompareAndBranch) instruction).getAddress();
+			}
+			if (target >= 0 && target < length) {
+				leaders[target] = true;
+			}
+
+			if (!isCompilable(instruction) || isTerminator(instruction)
+					|| instruction instanceof InstrCall
+					|| instruction instanceof InstrRet
+					|| instruction instanceof InstrHalt) {
+				leaders[address + 1] = true;
+			}
+		}
+
+		int[] ends = new int[length];
+		for (int start = 0; start < length; start++) {
+			if (!leaders[start] || !isCompilable(program[start])) {
+				continue;
+			}
+
+			int end = start;
+			while (end < length && end - start < MAX_BLOCK_LENGTH
+					&& isCompilable(program[end])
+					&& (end == start || !leaders[end])) {
+				end++;
+				if (isTerminator(program[end - 1])) {
+					break;
+				}
+			}
+			ends[start] = end;
+		}
+
+		return ends;
+	}
+
+	/**
+	 * Checks if the instruction can be compiled by this compiler.
+	 * 
+	 * @param instruction
+	 *            instruction which is checked
+	 * @return <code>true</code> if the instruction can be compiled,
+	 *         <code>false</code> otherwise
+	 */
+	public static boolean isCompilable(Instruction instruction) {
+		if (instruction == null) {
+			return false;
+		}
+
+		Class<?> type = instruction.getClass();
+		if (type == InstrMove.class) {
+			InstrMove move = (InstrMove) instruction;
+			InstructionArgument first = move.getFirstArgument();
+			InstructionArgument second = move.getSecondArgument();
+
+			if (RegisterUtil.isIndirect((Integer) first.getValue())) {
+				return false;
+			}
+			if (second.isNumber()) {
+				return second.getValue() instanceof Integer;
+			}
+			return !RegisterUtil.isIndirect((Integer) second.getValue());
+		}
+
+		return type == InstrAdd.class || type == InstrMul.class
+				|| type == InstrIncrement.class
+				|| type == InstrDecrement.class
+				|| type == InstrTestEquals.class || type == InstrJump.class
+				|| type == InstrJumpIfTrue.class
+				|| type == InstrCompareAndBranch.class;
+	}
+
+	/**
+	 * Checks if the instruction is a jump, which ends the block.
+	 * 
+	 * @param instruction
+	 *            instruction which is checked
+	 * @return <code>true</code> if the instruction ends the block,
+	 *         <code>false</code> otherwise
+	 */
+	public static boolean isTerminator(Instruction instruction) {
+		return instruction instanceof InstrJump
+				|| instruction instanceof InstrJumpIfTrue
+				|| instruction instanceof InstrCompareAndBranch;
+	}
+
+	/**
+	 * Compiles the block of the program. If the block contains an instruction
+	 * which can not be compiled, or the generated class can not be defined,
+	 * <code>null</code> is returned.
+	 * 
+	 * @param program
+	 *            instructions of the program by their addresses
+	 * @param start
+	 *            address of the first instruction of the block
+	 * @param end
+	 *            address after the last instruction of the block
+	 * @return compiled block, or <code>null</code> if the block can not be
+	 *         compiled
+	 */
+	public CompiledBlock compile(Instruction[] program, int start, int end) {
+		for (int address = start; address < end; address++) {
+			if (!isCompilable(program[address])) {
+				return null;
+			}
+		}
+
+		String name = "hr/fer/zemris/java/simplecomp/compiler/Block"
+				+ generated++;
+		ClassFileWriter writer = new ClassFileWriter(name, COMPILED_BLOCK);
+
+		Locals locals = new Locals();
+		for (int address = start; address < end; address++) {
+			locals.analyze(program[address]);
+		}
+
+		CodeBuilder code = writer.code();
+		CodeBuilder.Label deoptimize = new CodeBuilder.Label();
+		locals.enter(code, deoptimize);
+
+		boolean exited = false;
+		for (int address = start; address < end; address++) {
+			exited = emit(code, locals, program[address], address);
+		}
+		if (!exited) {
+			locals.exit(code, end);
+		}
+
+		code.mark(deoptimize);
+		code.pushInt(CompiledBlock.DEOPTIMIZE).op(CodeBuilder.IRETURN);
+
+		byte[] bytes = writer.toByteArray("execute",
+				"(L" + REGISTERS + ";)I", 3, locals.size());
+
+		try {
+			return definer.newInstance(CompiledBlock.class,
+					name.replace('/', '.'), bytes);
+		} catch (IllegalStateException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Helper method which emits the code of a single instruction.
+	 * 
+	 * @param code
+	 *            builder of the code
+	 * @param locals
+	 *            local variables of the block
+	 * @param instruction
+	 *            instruction which is compiled
+	 * @param address
+	 *            address of the instruction
+	 * @return <code>true</code> if the emitted code always exits the block,
+	 *         <code>false</code> otherwise
+	 */
+	static boolean emit(CodeBuilder code, Locals locals,
+			Instruction instruction, int address) {
+		if (instruction instanceof InstrAdd) {
+			InstrAdd add = (InstrAdd) instruction;
+			code.iload(locals.slot(add.getRegisterIndex2()))
+					.iload(locals.slot(add.getRegisterIndex3()))
+					.op(CodeBuilder.IADD)
+					.istore(locals.slot(add.getRegisterIndex1()));
+
+		} else if (instruction instanceof InstrMul) {
+			InstrMul mul = (InstrMul) instruction;
+			code.iload(locals.slot(mul.getRegisterIndex2()))
+					.iload(locals.slot(mul.getRegisterIndex3()))
+					.op(CodeBuilder.IMUL)
+					.istore(locals.slot(mul.getRegisterIndex1()));
+
+		} else if (instruction instanceof InstrIncrement) {
+			code.iinc(locals.slot(
+					((InstrIncrement) instruction).getRegisterIndex()), 1);
+
+		} else if (instruction instanceof InstrDecrement) {
+			code.iinc(locals.slot(
+					((InstrDecrement) instruction).getRegisterIndex()), -1);
+
+		} else if (instruction instanceof InstrTestEquals) {
+			InstrTestEquals test = (InstrTestEquals) instruction;
+			CodeBuilder.Label notEqual = new CodeBuilder.Label();
+			CodeBuilder.Label done = new CodeBuilder.Label();
+			code.iload(locals.slot(test.getRegisterIndex1()))
+					.iload(locals.slot(test.getRegisterIndex2()))
+					.jump(CodeBuilder.IF_ICMPNE, notEqual)
+					.op(CodeBuilder.ICONST_1).jump(CodeBuilder.GOTO, done)
+					.mark(notEqual).op(CodeBuilder.ICONST_0).mark(done)
+					.istore(locals.flagSlot());
+
+		} else if (instruction instanceof InstrMove) {
+			InstrMove move = (InstrMove) instruction;
+			InstructionArgument source = move.getSecondArgument();
+			if (source.isNumber()) {
+				code.pushInt((Integer) source.getValue());
+			} else {
+				code.iload(locals.slot(RegisterUtil
+						.getRegisterIndex((Integer) source.getValue())));
+			}
+			code.istore(locals.slot(RegisterUtil.getRegisterIndex(
+					(Integer) move.getFirstArgument().getValue())));
+
+		} else if (instruction instanceof InstrJump) {
+			locals.exit(code, ((InstrJump) instruction).getAddress());
+			return true;
+
+		} else if (instruction instanceof InstrJumpIfTrue) {
+			CodeBuilder.Label notTaken = new CodeBuilder.Label();
+			code.iload(locals.flagSlot()).jump(CodeBuilder.IFEQ, notTaken);
+			locals.exit(code, ((InstrJumpIfTrue) instruction).getAddress());
+			code.mark(notTaken);
+			locals.exit(code, address + 1);
+			return true;
+
+		} else if (instruction instanceof InstrCompareAndBranch) {
+			InstrCompareAndBranch branch = (InstrCompareAndBranch) instruction;
+			CodeBuilder.Label notEqual = new CodeBuilder.Label();
+			code.iload(locals.slot(branch.getRegisterIndex1()))
+					.iload(locals.slot(branch.getRegisterIndex2()))
+					.jump(CodeBuilder.IF_ICMPNE, notEqual)
+					.op(CodeBuilder.ICONST_1).istore(locals.flagSlot());
+			locals.exit(code, branch.getAddress());
+			code.mark(notEqual).op(CodeBuilder.ICONST_0)
+					.istore(locals.flagSlot());
+			locals.exit(code, address + 2);
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Local variables of the compiled code. Keeps track of the registers used
+	 * by the code, which of them are read before they are written and which
+	 * are written, and emits the code which loads them when the code is
+	 * entered and stores them when it exits.
+	 */
+	static class Locals {
+		/**
+		 * Indexes of the local variables by the indexes of the registers.
+		 */
+		private final Map<Integer, Integer> slots = new LinkedHashMap<>();
+		/**
+		 * Registers which are read before they are written.
+		 */
+		private final Set<Integer> read = new LinkedHashSet<>();
+		/**
+		 * Registers which are written.
+		 */
+		private final Set<Integer> written = new LinkedHashSet<>();
+		/**
+		 * Index of the local variable which holds the flag, or -1.
+		 */
+		private int flagSlot = -1;
+		/**
+		 * Flag that determines if the flag is read before it is written.
+		 */
+		private boolean flagRead;
+		/**
+		 * Flag that determines if the flag is written.
+		 */
+		private boolean flagWritten;
+
+		/**
+		 * Records the registers and the flag used by the instruction.
+		 * 
+		 * @param instruction
+		 *            compilable instruction
+		 */
+		void analyze(Instruction instruction) {
+			if (instruction instanceof InstrAdd) {
+				InstrAdd add = (InstrAdd) instruction;
+				read(add.getRegisterIndex2());
+				read(add.getRegisterIndex3());
+				write(add.getRegisterIndex1());
+
+			} else if (instruction instanceof InstrMul) {
+				InstrMul mul = (InstrMul) instruction;
+				read(mul.getRegisterIndex2());
+				read(mul.getRegisterIndex3());
+				write(mul.getRegisterIndex1());
+
+			} else if (instruction instanceof InstrIncrement) {
+				int register = ((InstrIncrement) instruction).getRegisterIndex();
+				read(register);
+				write(register);
+
+			} else if (instruction instanceof InstrDecrement) {
+				int register = ((InstrDecrement) instruction).getRegisterIndex();
+				read(register);
+				write(register);
+
+			} else if (instruction instanceof InstrTestEquals) {
+				InstrTestEquals test = (InstrTestEquals) instruction;
+				read(test.getRegisterIndex1());
+				read(test.getRegisterIndex2());
+				flagWritten = true;
+				flagSlot();
+
+			} else if (instruction instanceof InstrCompareAndBranch) {
+				InstrCompareAndBranch branch = (InstrCompareAndBranch) instruction;
+				read(branch.getRegisterIndex1());
+				read(branch.getRegisterIndex2());
+				flagWritten = true;
+				flagSlot();
+
+			} else if (instruction instanceof InstrMove) {
+				InstrMove move = (InstrMove) instruction;
+				InstructionArgument source = move.getSecondArgument();
+				if (!source.isNumber()) {
+					read(RegisterUtil
+							.getRegisterIndex((Integer) source.getValue()));
+				}
+				write(RegisterUtil.getRegisterIndex(
+						(Integer) move.getFirstArgument().getValue()));
+
+			} else if (instruction instanceof InstrJumpIfTrue) {
+				if (!flagWritten) {
+					flagRead = true;
+				}
+				flagSlot();
+			}
+		}
+
+		/**
+		 * Gets the index of the local variable which holds the register,
+		 * allocating it if needed.
+		 * 
+		 * @param register
+		 *            index of the register
+		 * @return index of the local variable
+		 */
+		int slot(int register) {
+			Integer slot = slots.get(register);
+			if (slot == null) {
+				slot = REGISTERS_SLOT + 1 + slots.size()
+						+ (flagSlot >= 0 ? 1 : 0);
+				slots.put(register, slot);
+			}
+			return slot;
+		}
+
+		/**
+		 * Gets the index of the local variable which holds the flag,
+		 * allocating it if needed.
+		 * 
+		 * @return index of the local variable
+		 */
+		int flagSlot() {
+			if (flagSlot < 0) {
+				flagSlot = REGISTERS_SLOT + 1 + slots.size();
+			}
+			return flagSlot;
+		}
+
+		/**
+		 * Marks the written registers as read, so all of them are loaded when
+		 * the code is entered. Code which can exit before some register is
+		 * written, like a trace with guards, stores the registers it has loaded
+		 * instead of uninitialized local variables.
+		 */
+		void readWritten() {
+			read.addAll(written);
+		}
+
+		/**
+		 * Gets the number of the local variables, including the receiver and
+		 * the registers.
+		 * 
+		 * @return number of the local variables
+		 */
+		int size() {
+			return REGISTERS_SLOT + 1 + slots.size() + (flagSlot >= 0 ? 1 : 0);
+		}
+
+		/**
+		 * Emits the code which checks that the registers read by the block
+		 * hold integers, jumping to the provided label if some of them does
+		 * not, and loads them and the flag into the local variables. Indexes of
+		 * the written registers are checked as well, so an invalid register
+		 * fails before anything is changed.
+		 * 
+		 * @param code
+		 *            builder of the code
+		 * @param deoptimize
+		 *            label to which the code jumps if some register does not
+		 *            hold an integer
+		 */
+		void enter(CodeBuilder code, CodeBuilder.Label deoptimize) {
+			for (int register : read) {
+				code.aload(REGISTERS_SLOT).pushInt(register)
+						.invokeInterface(REGISTERS, "isInt", "(I)Z", 2)
+						.jump(CodeBuilder.IFEQ, deoptimize);
+			}
+			for (int register : written) {
+				if (!read.contains(register)) {
+					code.aload(REGISTERS_SLOT).pushInt(register)
+							.invokeInterface(REGISTERS, "isInt", "(I)Z", 2)
+							.op(CodeBuilder.POP);
+				}
+			}
+			for (int register : read) {
+				code.aload(REGISTERS_SLOT).pushInt(register)
+						.invokeInterface(REGISTERS, "getInt", "(I)I", 2)
+						.istore(slot(register));
+			}
+			if (flagRead) {
+				code.aload(REGISTERS_SLOT)
+						.invokeInterface(REGISTERS, "getFlag", "()Z", 1)
+						.istore(flagSlot());
+			}
+		}
+
+		/**
+		 * Emits the code which stores the written registers and the flag and
+		 * returns the provided address.
+		 * 
+		 * @param code
+		 *            builder of the code
+		 * @param next
+		 *            address of the next instruction
+		 */
+		void exit(CodeBuilder code, int next) {
+			for (int register : written) {
+				code.aload(REGISTERS_SLOT).pushInt(register)
+						.iload(slot(register))
+						.invokeInterface(REGISTERS, "setInt", "(II)V", 3);
+			}
+			if (flagWritten) {
+				code.aload(REGISTERS_SLOT).iload(flagSlot())
+						.invokeInterface(REGISTERS, "setFlag", "(Z)V", 2);
+			}
+			code.pushInt(next).op(CodeBuilder.IRETURN);
+		}
+
+		/**
+		 * Helper method which records a read of the register.
+		 * 
+		 * @param register
+		 *            index of the register
+		 */
+		private void read(int register) {
+			if (!written.contains(register)) {
+				read.add(register);
+			}
+			slot(register);
+		}
+
+		/**
+		 * Helper method which records a write to the register.
+		 * 
+		 * @param register
+		 *            index of the register
+		 */
+		private void write(int register) {
+			written.add(register);
+			slot(register);
+		}
+	}
+}
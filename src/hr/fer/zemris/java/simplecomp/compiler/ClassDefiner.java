@@ -0,0 +1,117 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+
+/**
+ * <p>
+ * Class which turns the bytes of the generated class files into classes.
+ * </p>
+ * 
+ * <p>
+ * On Java 15 and newer classes are defined as hidden classes trough
+ * <code>MethodHandles.Lookup.defineHiddenClass</code>, so they can be unloaded
+ * as soon as they are not used and the JIT compiler can trust their final
+ * fields. That method is looked up reflectively, because this project is
+ * compiled for Java 8; on older versions every definer uses its own class
+ * loader instead. Generated classes have to be in the package of this class.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ClassDefiner {
+	/**
+	 * Method <code>MethodHandles.Lookup.defineHiddenClass</code>, or
+	 * <code>null</code> if it is not available.
+	 */
+	private static final Method DEFINE_HIDDEN_CLASS;
+	/**
+	 * Empty array of the hidden class options.
+	 */
+	private static final Object NO_OPTIONS;
+
+	static {
+		Method method = null;
+		Object options = null;
+		try {
+			Class<?> optionType = Class.forName(
+					"java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			options = Array.newInstance(optionType, 0);
+			method = MethodHandles.Lookup.class.getMethod("defineHiddenClass",
+					byte[].class, boolean.class, options.getClass());
+		} catch (ReflectiveOperationException e) {
+			// older Java, class loader is used
+		}
+		DEFINE_HIDDEN_CLASS = method;
+		NO_OPTIONS = options;
+	}
+
+	/**
+	 * Class loader used when hidden classes are not available.
+	 */
+	private static class Loader extends ClassLoader {
+		/**
+		 * Creates the loader whose parent is the loader of this package.
+		 */
+		private Loader() {
+			super(ClassDefiner.class.getClassLoader());
+		}
+
+		/**
+		 * Defines the class.
+		 * 
+		 * @param name
+		 *            binary name of the class
+		 * @param bytes
+		 *            bytes of the class file
+		 * @return defined class
+		 */
+		private Class<?> define(String name, byte[] bytes) {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+
+	/**
+	 * Class loader used when hidden classes are not available, created when
+	 * it is first needed.
+	 */
+	private Loader loader;
+
+	/**
+	 * Defines the class and creates its instance trough the constructor
+	 * without arguments. If the class can not be defined or instantiated, an
+	 * {@link IllegalStateException} is thrown.
+	 * 
+	 * @param <T>
+	 *            type of the instance
+	 * @param type
+	 *            type of the instance
+	 * @param binaryName
+	 *            binary name of the class, must be unique for this definer
+	 * @param bytes
+	 *            bytes of the class file
+	 * @return instance of the defined class
+	 */
+	public <T> T newInstance(Class<T> type, String binaryName, byte[] bytes) {
+		try {
+			Class<?> defined;
+			if (DEFINE_HIDDEN_CLASS != null) {
+				MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS
+						.invoke(MethodHandles.lookup(), bytes, true, NO_OPTIONS);
+				defined = lookup.lookupClass();
+			} else {
+				if (loader == null) {
+					loader = new Loader();
+				}
+				defined = loader.define(binaryName, bytes);
+			}
+			return type.cast(defined.getDeclaredConstructor().newInstance());
+
+		} catch (ReflectiveOperationException | LinkageError e) {
+			throw new IllegalStateException(
+					"Generated class can not be defined!", e);
+		}
+	}
+}
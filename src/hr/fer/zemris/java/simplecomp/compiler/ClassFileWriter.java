@@ -0,0 +1,342 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Minimal writer of the Java class files, used by the compilers of this
+ * package so they do not depend on any external bytecode library.
+ * </p>
+ * 
+ * <p>
+ * Written class is public and final, extends {@link Object}, implements a
+ * single interface and has a public constructor without arguments and a
+ * single public method whose code is built trough the {@link CodeBuilder}
+ * returned by {@link #code()}. Class file version 49 is used, so no stack map
+ * frames have to be computed for the jumps.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ClassFileWriter {
+	/**
+	 * Major version of the written class files.
+	 */
+	private static final int VERSION = 49;
+
+	/**
+	 * Internal name of the written class.
+	 */
+	private final String className;
+	/**
+	 * Internal name of the interface implemented by the written class.
+	 */
+	private final String interfaceName;
+	/**
+	 * Entries of the constant pool, already serialized.
+	 */
+	private final List<byte[]> constants = new ArrayList<>();
+	/**
+	 * Indexes of the constant pool entries, by their serialized form.
+	 */
+	private final Map<String, Integer> constantIndexes = new HashMap<>();
+	/**
+	 * Builder of the code of the method.
+	 */
+	private final CodeBuilder code = new CodeBuilder(this);
+
+	/**
+	 * Creates the writer of the class with the provided name which implements
+	 * the provided interface.
+	 * 
+	 * @param className
+	 *            internal name of the class
+	 * @param interfaceName
+	 *            internal name of the interface
+	 */
+	public ClassFileWriter(String className, String interfaceName) {
+		this.className = className;
+		this.interfaceName = interfaceName;
+	}
+
+	/**
+	 * Gets the builder of the code of the method.
+	 * 
+	 * @return builder of the code
+	 */
+	public CodeBuilder code() {
+		return code;
+	}
+
+	/**
+	 * Writes the class file.
+	 * 
+	 * @param methodName
+	 *            name of the method
+	 * @param methodDescriptor
+	 *            descriptor of the method
+	 * @param maxStack
+	 *            maximal depth of the operand stack of the method
+	 * @param maxLocals
+	 *            number of the local variables of the method, including the
+	 *            receiver and the arguments
+	 * @return bytes of the class file
+	 */
+	public byte[] toByteArray(String methodName, String methodDescriptor,
+			int maxStack, int maxLocals) {
+		// constant pool has to be complete before it is written
+		int thisClass = classRef(className);
+		int superClass = classRef("java/lang/Object");
+		int implemented = classRef(interfaceName);
+		int initName = utf8("<init>");
+		int initDescriptor = utf8("()V");
+		int name = utf8(methodName);
+		int descriptor = utf8(methodDescriptor);
+		int codeAttribute = utf8("Code");
+
+		CodeBuilder constructor = new CodeBuilder(this);
+		constructor.aload(0)
+				.invokeSpecial("java/lang/Object", "<init>", "()V")
+				.op(CodeBuilder.RETURN);
+		byte[] constructorCode = constructor.build();
+		byte[] methodCode = code.build();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(VERSION);
+
+			out.writeShort(constants.size() + 1);
+			for (byte[] constant : constants) {
+				out.write(constant);
+			}
+
+			// public final super
+			out.writeShort(0x0031);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(1);
+			out.writeShort(implemented);
+			out.writeShort(0);
+
+			out.writeShort(2);
+			writeMethod(out, initName, initDescriptor, codeAttribute,
+					constructorCode, 1, 1);
+			writeMethod(out, name, descriptor, codeAttribute, methodCode,
+					maxStack, maxLocals);
+
+			out.writeShort(0);
+		} catch (IOException e) {
+			// can not happen when writing to an array
+			throw new IllegalStateException(e);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Gets the index of the constant pool entry which holds the provided
+	 * integer, adding it if needed.
+	 * 
+	 * @param value
+	 *            integer
+	 * @return index of the entry
+	 */
+	int integer(int value) {
+		return constant("I" + value, 3, value);
+	}
+
+	/**
+	 * Gets the index of the constant pool entry which references the provided
+	 * interface method, adding it if needed.
+	 * 
+	 * @param owner
+	 *            internal name of the interface
+	 * @param name
+	 *            name of the method
+	 * @param descriptor
+	 *            descriptor of the method
+	 * @return index of the entry
+	 */
+	int interfaceMethod(String owner, String name, String descriptor) {
+		return member(11, owner, name, descriptor);
+	}
+
+	/**
+	 * Gets the index of the constant pool entry which references the provided
+	 * class method, adding it if needed.
+	 * 
+	 * @param owner
+	 *            internal name of the class
+	 * @param name
+	 *            name of the method
+	 * @param descriptor
+	 *            descriptor of the method
+	 * @return index of the entry
+	 */
+	int method(String owner, String name, String descriptor) {
+		return member(10, owner, name, descriptor);
+	}
+
+	/**
+	 * Helper method which gets the index of the constant pool entry which
+	 * references a method, adding it if needed.
+	 * 
+	 * @param tag
+	 *            tag of the entry
+	 * @param owner
+	 *            internal name of the owner
+	 * @param name
+	 *            name of the method
+	 * @param descriptor
+	 *            descriptor of the method
+	 * @return index of the entry
+	 */
+	private int member(int tag, String owner, String name,
+			String descriptor) {
+		int ownerIndex = classRef(owner);
+		int nameAndType = constant("T" + name + " " + descriptor, 12,
+				utf8(name), utf8(descriptor));
+		return constant("M" + tag + owner + "." + name + descriptor, tag,
+				ownerIndex, nameAndType);
+	}
+
+	/**
+	 * Helper method which gets the index of the constant pool entry which
+	 * references the provided class, adding it if needed.
+	 * 
+	 * @param internalName
+	 *            internal name of the class
+	 * @return index of the entry
+	 */
+	private int classRef(String internalName) {
+		return constant("C" + internalName, 7, utf8(internalName));
+	}
+
+	/**
+	 * Helper method which gets the index of the constant pool entry which
+	 * holds the provided string, adding it if needed.
+	 * 
+	 * @param value
+	 *            string
+	 * @return index of the entry
+	 */
+	private int utf8(String value) {
+		Integer index = constantIndexes.get("U" + value);
+		if (index != null) {
+			return index;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(1);
+			out.writeUTF(value);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return add("U" + value, bytes.toByteArray());
+	}
+
+	/**
+	 * Helper method which gets the index of the constant pool entry with the
+	 * provided tag and operands, adding it if needed. Operands are written as
+	 * two bytes, except for the integer entry whose operand is written as four
+	 * bytes.
+	 * 
+	 * @param key
+	 *            key of the entry in {@link #constantIndexes}
+	 * @param tag
+	 *            tag of the entry
+	 * @param operands
+	 *            operands of the entry
+	 * @return index of the entry
+	 */
+	private int constant(String key, int tag, int... operands) {
+		Integer index = constantIndexes.get(key);
+		if (index != null) {
+			return index;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeByte(tag);
+			for (int operand : operands) {
+				if (tag == 3) {
+					out.writeInt(operand);
+				} else {
+					out.writeShort(operand);
+				}
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return add(key, bytes.toByteArray());
+	}
+
+	/**
+	 * Helper method which adds the serialized entry to the constant pool. If
+	 * the constant pool is full, an {@link IllegalStateException} is thrown.
+	 * 
+	 * @param key
+	 *            key of the entry in {@link #constantIndexes}
+	 * @param entry
+	 *            serialized entry
+	 * @return index of the entry
+	 */
+	private int add(String key, byte[] entry) {
+		if (constants.size() >= 0xFFFE) {
+			throw new IllegalStateException("Constant pool is full!");
+		}
+		constants.add(entry);
+		constantIndexes.put(key, constants.size());
+		return constants.size();
+	}
+
+	/**
+	 * Helper method which writes a public method with the provided code.
+	 * 
+	 * @param out
+	 *            stream to which the method is written
+	 * @param name
+	 *            index of the name of the method
+	 * @param descriptor
+	 *            index of the descriptor of the method
+	 * @param codeAttribute
+	 *            index of the name of the code attribute
+	 * @param code
+	 *            code of the method
+	 * @param maxStack
+	 *            maximal depth of the operand stack
+	 * @param maxLocals
+	 *            number of the local variables
+	 * @throws IOException
+	 *             if the method can not be written
+	 */
+	private static void writeMethod(DataOutputStream out, int name,
+			int descriptor, int codeAttribute, byte[] code, int maxStack,
+			int maxLocals) throws IOException {
+		out.writeShort(0x0001);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		out.writeShort(1);
+
+		out.writeShort(codeAttribute);
+		out.writeInt(12 + code.length);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.length);
+		out.write(code);
+		out.writeShort(0);
+		out.writeShort(0);
+	}
+}
@@ -0,0 +1,332 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Builder of the Java bytecode for a single method.
+ * </p>
+ * 
+ * <p>
+ * Provides methods for emitting the instructions used by the compilers of this
+ * package and supports forward and backward jumps trough {@link Label}
+ * objects, whose offsets are resolved when the code is built. Constant pool
+ * indexes needed by some instructions are taken from the
+ * {@link ClassFileWriter} which owns this builder.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class CodeBuilder {
+	/** Opcode of the instruction iconst_0. */
+	public static final int ICONST_0 = 0x03;
+	/** Opcode of the instruction iconst_1. */
+	public static final int ICONST_1 = 0x04;
+	/** Opcode of the instruction pop. */
+	public static final int POP = 0x57;
+	/** Opcode of the instruction iadd. */
+	public static final int IADD = 0x60;
+	/** Opcode of the instruction imul. */
+	public static final int IMUL = 0x68;
+	/** Opcode of the instruction ireturn. */
+	public static final int IRETURN = 0xAC;
+	/** Opcode of the instruction return. */
+	public static final int RETURN = 0xB1;
+	/** Opcode of the instruction ifeq. */
+	public static final int IFEQ = 0x99;
+	/** Opcode of the instruction ifne. */
+	public static final int IFNE = 0x9A;
+	/** Opcode of the instruction if_icmpeq. */
+	public static final int IF_ICMPEQ = 0x9F;
+	/** Opcode of the instruction if_icmpne. */
+	public static final int IF_ICMPNE = 0xA0;
+	/** Opcode of the instruction goto. */
+	public static final int GOTO = 0xA7;
+
+	/**
+	 * Position in the code to which jumps can be made.
+	 */
+	public static class Label {
+		/**
+		 * Position of the label, or -1 if it was not marked yet.
+		 */
+		private int position = -1;
+	}
+
+	/**
+	 * Jump whose offset has to be resolved when the code is built.
+	 */
+	private static class Jump {
+		/**
+		 * Position of the jump instruction.
+		 */
+		private final int position;
+		/**
+		 * Label to which the jump is made.
+		 */
+		private final Label label;
+
+		/**
+		 * Creates the jump.
+		 * 
+		 * @param position
+		 *            position of the jump instruction
+		 * @param label
+		 *            label to which the jump is made
+		 */
+		private Jump(int position, Label label) {
+			this.position = position;
+			this.label = label;
+		}
+	}
+
+	/**
+	 * Writer of the class file which owns this builder.
+	 */
+	private final ClassFileWriter writer;
+	/**
+	 * Emitted code.
+	 */
+	private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+	/**
+	 * Jumps which have to be resolved.
+	 */
+	private final List<Jump> jumps = new ArrayList<>();
+
+	/**
+	 * Creates the builder which uses the constant pool of the provided writer.
+	 * 
+	 * @param writer
+	 *            writer of the class file
+	 */
+	CodeBuilder(ClassFileWriter writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Emits an instruction without operands.
+	 * 
+	 * @param opcode
+	 *            opcode of the instruction
+	 * @return this builder
+	 */
+	public CodeBuilder op(int opcode) {
+		code.write(opcode);
+		return this;
+	}
+
+	/**
+	 * Emits the instruction which pushes the provided integer to the operand
+	 * stack, using the shortest possible form.
+	 * 
+	 * @param value
+	 *            integer which is pushed
+	 * @return this builder
+	 */
+	public CodeBuilder pushInt(int value) {
+		if (value >= -1 && value <= 5) {
+			code.write(ICONST_0 + value);
+		} else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+			code.write(0x10);
+			code.write(value);
+		} else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+			code.write(0x11);
+			writeShort(value);
+		} else {
+			int index = writer.integer(value);
+			code.write(0x13);
+			writeShort(index);
+		}
+		return this;
+	}
+
+	/**
+	 * Emits the instruction which loads an integer from the local variable.
+	 * 
+	 * @param slot
+	 *            index of the local variable
+	 * @return this builder
+	 */
+	public CodeBuilder iload(int slot) {
+		return local(0x15, slot);
+	}
+
+	/**
+	 * Emits the instruction which stores an integer to the local variable.
+	 * 
+	 * @param slot
+	 *            index of the local variable
+	 * @return this builder
+	 */
+	public CodeBuilder istore(int slot) {
+		return local(0x36, slot);
+	}
+
+	/**
+	 * Emits the instruction which loads a reference from the local variable.
+	 * 
+	 * @param slot
+	 *            index of the local variable
+	 * @return this builder
+	 */
+	public CodeBuilder aload(int slot) {
+		return local(0x19, slot);
+	}
+
+	/**
+	 * Emits the instruction which adds a constant to the integer stored in the
+	 * local variable.
+	 * 
+	 * @param slot
+	 *            index of the local variable
+	 * @param value
+	 *            constant which is added
+	 * @return this builder
+	 */
+	public CodeBuilder iinc(int slot, int value) {
+		code.write(0xC4);
+		code.write(0x84);
+		writeShort(slot);
+		writeShort(value);
+		return this;
+	}
+
+	/**
+	 * Emits the instruction which invokes an interface method.
+	 * 
+	 * @param owner
+	 *            internal name of the interface
+	 * @param name
+	 *            name of the method
+	 * @param descriptor
+	 *            descriptor of the method
+	 * @param argumentSlots
+	 *            number of the stack slots taken by the arguments, including
+	 *            the receiver
+	 * @return this builder
+	 */
+	public CodeBuilder invokeInterface(String owner, String name,
+			String descriptor, int argumentSlots) {
+		code.write(0xB9);
+		writeShort(writer.interfaceMethod(owner, name, descriptor));
+		code.write(argumentSlots);
+		code.write(0);
+		return this;
+	}
+
+	/**
+	 * Emits the instruction which invokes a constructor or a private method.
+	 * 
+	 * @param owner
+	 *            internal name of the class
+	 * @param name
+	 *            name of the method
+	 * @param descriptor
+	 *            descriptor of the method
+	 * @return this builder
+	 */
+	public CodeBuilder invokeSpecial(String owner, String name,
+			String descriptor) {
+		code.write(0xB7);
+		writeShort(writer.method(owner, name, descriptor));
+		return this;
+	}
+
+	/**
+	 * Emits the jump instruction to the provided label.
+	 * 
+	 * @param opcode
+	 *            opcode of the jump instruction
+	 * @param label
+	 *            label to which the jump is made
+	 * @return this builder
+	 */
+	public CodeBuilder jump(int opcode, Label label) {
+		jumps.add(new Jump(code.size(), label));
+		code.write(opcode);
+		writeShort(0);
+		return this;
+	}
+
+	/**
+	 * Marks the current position in the code with the provided label.
+	 * 
+	 * @param label
+	 *            label which is marked
+	 * @return this builder
+	 */
+	public CodeBuilder mark(Label label) {
+		label.position = code.size();
+		return this;
+	}
+
+	/**
+	 * Gets the size of the code emitted so far.
+	 * 
+	 * @return size of the code in bytes
+	 */
+	public int size() {
+		return code.size();
+	}
+
+	/**
+	 * Builds the code, resolving offsets of all jumps. If some jump is made to
+	 * a label which was not marked, or the code is too large, an
+	 * {@link IllegalStateException} is thrown.
+	 * 
+	 * @return built code
+	 */
+	public byte[] build() {
+		byte[] bytes = code.toByteArray();
+		if (bytes.length > 0xFFFF) {
+			throw new IllegalStateException("Code is too large!");
+		}
+
+		for (Jump jump : jumps) {
+			if (jump.label.position < 0) {
+				throw new IllegalStateException("Label was not marked!");
+			}
+			int offset = jump.label.position - jump.position;
+			bytes[jump.position + 1] = (byte) (offset >> 8);
+			bytes[jump.position + 2] = (byte) offset;
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Helper method which emits an instruction which works with a local
+	 * variable, using the wide form if the index is too large.
+	 * 
+	 * @param opcode
+	 *            opcode of the instruction
+	 * @param slot
+	 *            index of the local variable
+	 * @return this builder
+	 */
+	private CodeBuilder local(int opcode, int slot) {
+		if (slot > 0xFF) {
+			code.write(0xC4);
+			code.write(opcode);
+			writeShort(slot);
+		} else {
+			code.write(opcode);
+			code.write(slot);
+		}
+		return this;
+	}
+
+	/**
+	 * Helper method which writes two bytes of the provided value.
+	 * 
+	 * @param value
+	 *            value which is written
+	 */
+	private void writeShort(int value) {
+		code.write(value >> 8);
+		code.write(value);
+	}
+}
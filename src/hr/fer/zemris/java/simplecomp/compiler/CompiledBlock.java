@@ -0,0 +1,31 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+
+/**
+ * Represents a part of the program which was compiled to the Java bytecode by
+ * the {@link BlockCompiler}. Compiled block keeps the registers it uses in Java
+ * local variables and stores them back to the {@link IntRegisters} only when
+ * it exits.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface CompiledBlock {
+	/**
+	 * Value returned by {@link #execute(IntRegisters)} when one of the
+	 * registers read by the block does not hold an integer. In that case the
+	 * block did not change anything and it has to be interpreted instead.
+	 */
+	int DEOPTIMIZE = Integer.MIN_VALUE;
+
+	/**
+	 * Executes the compiled block.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @return address of the next instruction which has to be executed, or
+	 *         {@link #DEOPTIMIZE} if the block can not be executed
+	 */
+	int execute(IntRegisters registers);
+}
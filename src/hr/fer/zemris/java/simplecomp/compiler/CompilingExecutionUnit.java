@@ -0,0 +1,151 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.threaded.Operation;
+import hr.fer.zemris.java.simplecomp.threaded.Operations;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which compiles the frequently
+ * executed blocks of the program into Java bytecode.
+ * </p>
+ * 
+ * <p>
+ * Program is executed by the operations decoded by the {@link ProgramDecoder},
+ * while the number of entries into every block found by
+ * {@link BlockCompiler#findBlocks(Instruction[])} is counted. When the count
+ * reaches the threshold, the block is compiled by the {@link BlockCompiler}
+ * and from then on executed by the compiled code. If the compiled block finds
+ * that some of its registers does not hold an integer, it is discarded and the
+ * block is again executed by the decoded operations. Blocks which can not be
+ * compiled are always executed by the decoded operations.
+ * </p>
+ * 
+ * <p>
+ * Just like with the {@link hr.fer.zemris.java.simplecomp.threaded.ThreadedExecutionUnit},
+ * the program is decoded only once and the computers whose registers and
+ * memory do not implement {@link IntRegisters} and {@link IntMemory} are
+ * executed by the {@link ExecutionUnitImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class CompilingExecutionUnit implements ExecutionUnit {
+	/**
+	 * Default number of entries into a block after which it is compiled.
+	 */
+	public static final int DEFAULT_THRESHOLD = 1000;
+
+	/**
+	 * Number of entries into a block after which it is compiled.
+	 */
+	private final int threshold;
+
+	/**
+	 * Constructor which creates an execution unit with the default
+	 * compilation threshold.
+	 */
+	public CompilingExecutionUnit() {
+		this(DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Constructor which creates an execution unit with the provided
+	 * compilation threshold.
+	 * 
+	 * @param threshold
+	 *            number of entries into a block after which it is compiled
+	 */
+	public CompilingExecutionUnit(int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException(
+					"Compilation threshold must be positive. It was "
+							+ threshold + ".");
+		}
+
+		this.threshold = threshold;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		Instruction[] program = new Instruction[ProgramDecoder
+				.getProgramSize(memory)];
+		Operation[] operations = new Operation[program.length];
+		for (int address = 0; address < program.length; address++) {
+			Object value = SpecializedInstruction
+					.unwrap(memory.getLocation(address));
+
+			if (value instanceof Instruction) {
+				program[address] = (Instruction) value;
+				operations[address] = ProgramDecoder.decode(address,
+						program[address]);
+			} else {
+				operations[address] = new Operations.Fetch(address);
+			}
+		}
+
+		BlockCompiler compiler = new BlockCompiler();
+		int[] ends = BlockCompiler.findBlocks(program);
+		int[] counters = new int[program.length];
+		CompiledBlock[] blocks = new CompiledBlock[program.length];
+
+		int pc = 0;
+		try {
+			while (true) {
+				if (pc >= 0 && pc < program.length && ends[pc] != 0) {
+					CompiledBlock block = blocks[pc];
+
+					if (block != null) {
+						int next = block.execute(registers);
+						if (next != CompiledBlock.DEOPTIMIZE) {
+							pc = next;
+							continue;
+						}
+						blocks[pc] = null;
+						ends[pc] = 0;
+
+					} else if (++counters[pc] == threshold) {
+						blocks[pc] = compiler.compile(program, pc, ends[pc]);
+						if (blocks[pc] == null) {
+							ends[pc] = 0;
+						}
+						continue;
+					}
+				}
+
+				Operation operation = pc >= 0 && pc < operations.length
+						? operations[pc]
+						: new Operations.Fetch(pc);
+
+				int next = operation.execute(registers, memory, computer);
+
+				if (next == Operation.HALT) {
+					break;
+				}
+				pc = next;
+			}
+		} finally {
+			registers.setProgramCounter(pc + 1);
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,170 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+
+/**
+ * <p>
+ * Compiler which turns the traces recorded by the
+ * {@link TracingExecutionUnit} into classes which implement
+ * {@link CompiledBlock}.
+ * </p>
+ * 
+ * <p>
+ * Trace is the sequence of the instructions executed during a single
+ * iteration of a loop, starting and ending at the head of the loop, so the
+ * compiled trace is a Java loop without any jumps of the program. Every
+ * instruction jumpIfTrue and {@link InstrCompareAndBranch} of the trace is
+ * compiled into a guard which checks that the flag has the same value as when
+ * the trace was recorded. If it does not, the trace exits to the address which
+ * was not taken while recording. Jumps are not compiled at all, since the
+ * trace already continues at their targets. Same instructions as by the
+ * {@link BlockCompiler} can be compiled, and the registers are kept in Java
+ * local variables in the same way.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceCompiler {
+	/**
+	 * Definer of the generated classes.
+	 */
+	private final ClassDefiner definer = new ClassDefiner();
+	/**
+	 * Number of the classes generated by this compiler, used for naming them.
+	 */
+	private int generated;
+
+	/**
+	 * Compiles the trace. If the trace contains an instruction which can not
+	 * be compiled, or the generated class can not be defined,
+	 * <code>null</code> is returned.
+	 * 
+	 * @param instructions
+	 *            executed instructions, starting with the head of the loop
+	 * @param addresses
+	 *            addresses of the executed instructions
+	 * @param next
+	 *            addresses of the instructions executed after them, where the
+	 *            last one is the address of the head of the loop
+	 * @return compiled trace, or <code>null</code> if the trace can not be
+	 *         compiled
+	 */
+	public CompiledBlock compile(Instruction[] instructions, int[] addresses,
+			int[] next) {
+		for (Instruction instruction : instructions) {
+			if (!BlockCompiler.isCompilable(instruction)) {
+				return null;
+			}
+		}
+
+		String name = "hr/fer/zemris/java/simplecomp/compiler/Trace"
+				+ generated++;
+		ClassFileWriter writer = new ClassFileWriter(name,
+				BlockCompiler.COMPILED_BLOCK);
+
+		BlockCompiler.Locals locals = new BlockCompiler.Locals();
+		for (Instruction instruction : instructions) {
+			locals.analyze(instruction);
+		}
+		locals.readWritten();
+
+		CodeBuilder code = writer.code();
+		CodeBuilder.Label deoptimize = new CodeBuilder.Label();
+		CodeBuilder.Label loop = new CodeBuilder.Label();
+		locals.enter(code, deoptimize);
+		code.mark(loop);
+
+		for (int i = 0; i < instructions.length; i++) {
+			emit(code, locals, instructions[i], addresses[i], next[i]);
+		}
+		code.jump(CodeBuilder.GOTO, loop);
+
+		code.mark(deoptimize);
+		code.pushInt(CompiledBlock.DEOPTIMIZE).op(CodeBuilder.IRETURN);
+
+		byte[] bytes = writer.toByteArray("execute",
+				"(L" + BlockCompiler.REGISTERS + ";)I", 3, locals.size());
+
+		try {
+			return definer.newInstance(CompiledBlock.class,
+					name.replace('/', '.'), bytes);
+		} catch (IllegalStateException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Helper method which emits the code of a single instruction of the
+	 * trace.
+	 * 
+	 * @param code
+	 *            builder of the code
+	 * @param locals
+	 *            local variables of the trace
+	 * @param instruction
+	 *            instruction which is compiled
+	 * @param address
+	 *            address of the instruction
+	 * @param next
+	 *            address of the instruction executed after it while recording
+	 */
+	private static void emit(CodeBuilder code, BlockCompiler.Locals locals,
+			Instruction instruction, int address, int next) {
+		if (instruction instanceof InstrJump) {
+			return;
+
+		} else if (instruction instanceof InstrJumpIfTrue) {
+			int target = ((InstrJumpIfTrue) instruction).getAddress();
+			guard(code, locals, next == target, address + 1, target);
+
+		} else if (instruction instanceof InstrCompareAndBranch) {
+			InstrCompareAndBranch branch = (InstrCompareAndBranch) instruction;
+			CodeBuilder.Label notEqual = new CodeBuilder.Label();
+			CodeBuilder.Label done = new CodeBuilder.Label();
+			code.iload(locals.slot(branch.getRegisterIndex1()))
+					.iload(locals.slot(branch.getRegisterIndex2()))
+					.jump(CodeBuilder.IF_ICMPNE, notEqual)
+					.op(CodeBuilder.ICONST_1).jump(CodeBuilder.GOTO, done)
+					.mark(notEqual).op(CodeBuilder.ICONST_0).mark(done)
+					.istore(locals.flagSlot());
+			guard(code, locals, next == branch.getAddress(), address + 2,
+					branch.getAddress());
+
+		} else {
+			BlockCompiler.emit(code, locals, instruction, address);
+		}
+	}
+
+	/**
+	 * Helper method which emits the guard of a conditional jump. If the jump
+	 * goes to the same address whether it is taken or not, no guard is
+	 * needed.
+	 * 
+	 * @param code
+	 *            builder of the code
+	 * @param locals
+	 *            local variables of the trace
+	 * @param taken
+	 *            flag which determines if the jump was taken while recording
+	 * @param notTaken
+	 *            address of the next instruction if the jump is not taken
+	 * @param target
+	 *            address of the next instruction if the jump is taken
+	 */
+	private static void guard(CodeBuilder code, BlockCompiler.Locals locals,
+			boolean taken, int notTaken, int target) {
+		if (notTaken == target) {
+			return;
+		}
+
+		CodeBuilder.Label stay = new CodeBuilder.Label();
+		code.iload(locals.flagSlot()).jump(
+				taken ? CodeBuilder.IFNE : CodeBuilder.IFEQ, stay);
+		locals.exit(code, taken ? notTaken : target);
+		code.mark(stay);
+	}
+}
@@ -0,0 +1,135 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+/**
+ * Values of the statistics of a {@link TracingExecutionUnit} at a point in
+ * time. Compiled trace is left only trough a guard which has failed or, before
+ * anything is executed, because some of its registers does not hold an
+ * integer, so the number of the guard exits together with the number of the
+ * deoptimizations is equal to the number of the entries into the traces.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceStatistics {
+	/**
+	 * Number of the compiled traces.
+	 */
+	private final long tracesCompiled;
+	/**
+	 * Number of the traces whose recording was aborted.
+	 */
+	private final long tracesAborted;
+	/**
+	 * Number of the entries into the compiled traces.
+	 */
+	private final long traceEntries;
+	/**
+	 * Number of the exits from the compiled traces trough the guards.
+	 */
+	private final long guardExits;
+	/**
+	 * Number of the compiled traces discarded because some of their registers
+	 * did not hold an integer.
+	 */
+	private final long deoptimizations;
+	/**
+	 * Number of the instructions executed by the interpreter.
+	 */
+	private final long interpretedInstructions;
+
+	/**
+	 * Constructor which creates the statistics.
+	 * 
+	 * @param tracesCompiled
+	 *            number of the compiled traces
+	 * @param tracesAborted
+	 *            number of the traces whose recording was aborted
+	 * @param traceEntries
+	 *            number of the entries into the compiled traces
+	 * @param guardExits
+	 *            number of the exits from the compiled traces trough the
+	 *            guards
+	 * @param deoptimizations
+	 *            number of the discarded traces
+	 * @param interpretedInstructions
+	 *            number of the instructions executed by the interpreter
+	 */
+	public TraceStatistics(long tracesCompiled, long tracesAborted,
+			long traceEntries, long guardExits, long deoptimizations,
+			long interpretedInstructions) {
+		this.tracesCompiled = tracesCompiled;
+		this.tracesAborted = tracesAborted;
+		this.traceEntries = traceEntries;
+		this.guardExits = guardExits;
+		this.deoptimizations = deoptimizations;
+		this.interpretedInstructions = interpretedInstructions;
+	}
+
+	/**
+	 * Gets the number of the compiled traces.
+	 * 
+	 * @return number of the compiled traces
+	 */
+	public long getTracesCompiled() {
+		return tracesCompiled;
+	}
+
+	/**
+	 * Gets the number of the traces whose recording was aborted, because they
+	 * have reached an instruction which can not be compiled or were too long.
+	 * 
+	 * @return number of the aborted traces
+	 */
+	public long getTracesAborted() {
+		return tracesAborted;
+	}
+
+	/**
+	 * Gets the number of the entries into the compiled traces.
+	 * 
+	 * @return number of the entries into the compiled traces
+	 */
+	public long getTraceEntries() {
+		return traceEntries;
+	}
+
+	/**
+	 * Gets the number of the exits from the compiled traces trough the
+	 * guards.
+	 * 
+	 * @return number of the guard exits
+	 */
+	public long getGuardExits() {
+		return guardExits;
+	}
+
+	/**
+	 * Gets the number of the compiled traces discarded because some of their
+	 * registers did not hold an integer.
+	 * 
+	 * @return number of the deoptimizations
+	 */
+	public long getDeoptimizations() {
+		return deoptimizations;
+	}
+
+	/**
+	 * Gets the number of the instructions executed by the interpreter, which
+	 * includes the instructions executed while the traces are recorded.
+	 * 
+	 * @return number of the interpreted instructions
+	 */
+	public long getInterpretedInstructions() {
+		return interpretedInstructions;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d traces compiled, %d aborted, %d entries, "
+						+ "%d guard exits, %d deoptimizations, "
+						+ "%d interpreted instructions",
+				tracesCompiled, tracesAborted, traceEntries, guardExits,
+				deoptimizations, interpretedInstructions);
+	}
+}
@@ -0,0 +1,304 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which interprets the program
+ * like the {@link ExecutionUnitImpl} and compiles its hot loops into Java
+ * bytecode.
+ * </p>
+ * 
+ * <p>
+ * Every jump backwards is counted at its target, which is the head of a loop.
+ * When the count reaches the threshold, the instructions executed from the
+ * head until the execution returns to it are recorded and compiled by the
+ * {@link TraceCompiler}. From then on, the compiled trace is executed
+ * whenever the program reaches the head of the loop, until some of its guards
+ * fails and the trace exits to the interpreter. Recording is aborted if the
+ * trace reaches an instruction which can not be compiled or becomes too long,
+ * and the loop is then never recorded again. Trace whose registers do not
+ * hold integers when it is entered is discarded in the same way.
+ * </p>
+ * 
+ * <p>
+ * Just like with the {@link CompilingExecutionUnit}, traces are compiled from
+ * the instructions the program had when they were recorded, so the programs
+ * which store instructions to the memory while they run should not be
+ * executed by this unit. Computers whose registers and memory do not
+ * implement {@link IntRegisters} and {@link IntMemory} are executed by the
+ * {@link ExecutionUnitImpl}. Statistics are collected over all executions
+ * and returned by {@link #getStatistics()}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TracingExecutionUnit implements ExecutionUnit {
+	/**
+	 * Default number of the jumps to the head of a loop after which the loop
+	 * is recorded.
+	 */
+	public static final int DEFAULT_THRESHOLD = 100;
+	/**
+	 * Maximal number of the instructions in a trace.
+	 */
+	public static final int MAX_TRACE_LENGTH = 256;
+
+	/**
+	 * Number of the jumps to the head of a loop after which the loop is
+	 * recorded.
+	 */
+	private final int threshold;
+
+	/**
+	 * Number of the compiled traces.
+	 */
+	private final LongAdder tracesCompiled = new LongAdder();
+	/**
+	 * Number of the traces whose recording was aborted.
+	 */
+	private final LongAdder tracesAborted = new LongAdder();
+	/**
+	 * Number of the entries into the compiled traces.
+	 */
+	private final LongAdder traceEntries = new LongAdder();
+	/**
+	 * Number of the exits from the compiled traces trough the guards.
+	 */
+	private final LongAdder guardExits = new LongAdder();
+	/**
+	 * Number of the discarded traces.
+	 */
+	private final LongAdder deoptimizations = new LongAdder();
+	/**
+	 * Number of the instructions executed by the interpreter.
+	 */
+	private final LongAdder interpretedInstructions = new LongAdder();
+
+	/**
+	 * Constructor which creates an execution unit with the default threshold.
+	 */
+	public TracingExecutionUnit() {
+		this(DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Constructor which creates an execution unit with the provided threshold.
+	 * 
+	 * @param threshold
+	 *            number of the jumps to the head of a loop after which the
+	 *            loop is recorded
+	 */
+	public TracingExecutionUnit(int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException(
+					"Tracing threshold must be positive. It was " + threshold
+							+ ".");
+		}
+
+		this.threshold = threshold;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		int size = ProgramDecoder.getProgramSize(memory);
+		// Number of the jumps to every head, or -1 if it is never recorded
+		int[] counters = new int[size];
+		CompiledBlock[] traces = new CompiledBlock[size];
+		TraceCompiler compiler = new TraceCompiler();
+		Recording recording = null;
+		long interpreted = 0;
+
+		registers.setProgramCounter(0);
+
+		try {
+			while (true) {
+				int pc = registers.getProgramCounter();
+
+				if (recording == null && pc < size && traces[pc] != null) {
+					traceEntries.increment();
+					int next = traces[pc].execute(registers);
+
+					if (next != CompiledBlock.DEOPTIMIZE) {
+						guardExits.increment();
+						registers.setProgramCounter(next);
+						continue;
+					}
+					deoptimizations.increment();
+					traces[pc] = null;
+					counters[pc] = -1;
+				}
+
+				Instruction instruction = (Instruction) memory
+						.getLocation(pc);
+				registers.incrementProgramCounter();
+				interpreted++;
+
+				if (instruction.execute(computer) == true) {
+					break;
+				}
+
+				int next = registers.getProgramCounter();
+				Instruction executed = (Instruction) SpecializedInstruction
+						.unwrap(instruction);
+
+				if (recording != null) {
+					if (!BlockCompiler.isCompilable(executed)
+							|| recording.length() == MAX_TRACE_LENGTH) {
+						tracesAborted.increment();
+						counters[recording.head] = -1;
+						recording = null;
+						continue;
+					}
+
+					recording.add(executed, pc, next);
+					if (next == recording.head) {
+						traces[next] = recording.compile(compiler);
+						if (traces[next] != null) {
+							tracesCompiled.increment();
+						} else {
+							tracesAborted.increment();
+							counters[next] = -1;
+						}
+						recording = null;
+					}
+
+				} else if (next <= pc && next < size && counters[next] >= 0
+						&& isJump(executed)
+						&& ++counters[next] == threshold) {
+					recording = new Recording(next);
+				}
+			}
+		} finally {
+			interpretedInstructions.add(interpreted);
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the statistics collected over all executions of this unit.
+	 * 
+	 * @return current statistics
+	 */
+	public TraceStatistics getStatistics() {
+		return new TraceStatistics(tracesCompiled.sum(), tracesAborted.sum(),
+				traceEntries.sum(), guardExits.sum(), deoptimizations.sum(),
+				interpretedInstructions.sum());
+	}
+
+	/**
+	 * Helper method which checks if the instruction is a jump which can close
+	 * a loop.
+	 * 
+	 * @param instruction
+	 *            instruction which is checked
+	 * @return <code>true</code> if the instruction is a jump
+	 */
+	private static boolean isJump(Instruction instruction) {
+		return instruction instanceof InstrJump
+				|| instruction instanceof InstrJumpIfTrue
+				|| instruction instanceof InstrCompareAndBranch;
+	}
+
+	/**
+	 * Trace which is being recorded.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Recording {
+		/**
+		 * Address of the head of the loop.
+		 */
+		private final int head;
+		/**
+		 * Executed instructions.
+		 */
+		private final List<Instruction> instructions = new ArrayList<>();
+		/**
+		 * Addresses of the executed instructions.
+		 */
+		private final List<Integer> addresses = new ArrayList<>();
+		/**
+		 * Addresses of the instructions executed after them.
+		 */
+		private final List<Integer> next = new ArrayList<>();
+
+		/**
+		 * Constructor which starts the recording.
+		 * 
+		 * @param head
+		 *            address of the head of the loop
+		 */
+		public Recording(int head) {
+			this.head = head;
+		}
+
+		/**
+		 * Gets the number of the recorded instructions.
+		 * 
+		 * @return number of the recorded instructions
+		 */
+		public int length() {
+			return instructions.size();
+		}
+
+		/**
+		 * Records an executed instruction.
+		 * 
+		 * @param instruction
+		 *            executed instruction
+		 * @param address
+		 *            address of the instruction
+		 * @param nextAddress
+		 *            address of the instruction executed after it
+		 */
+		public void add(Instruction instruction, int address,
+				int nextAddress) {
+			instructions.add(instruction);
+			addresses.add(address);
+			next.add(nextAddress);
+		}
+
+		/**
+		 * Compiles the recorded trace.
+		 * 
+		 * @param compiler
+		 *            compiler of the traces
+		 * @return compiled trace, or <code>null</code> if it can not be
+		 *         compiled
+		 */
+		public CompiledBlock compile(TraceCompiler compiler) {
+			return compiler.compile(
+					instructions.toArray(new Instruction[instructions.size()]),
+					addresses.stream().mapToInt(Integer::intValue).toArray(),
+					next.stream().mapToInt(Integer::intValue).toArray());
+		}
+	}
+}
@@ -0,0 +1,371 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.TaggedMemoryImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+import hr.fer.zemris.java.simplecomp.profiler.SourceLabels;
+
+/**
+ * <p>
+ * Assembler which parses the assembly code and writes the loaded program to a
+ * binary image, in the format described in {@link ImageFormat}. Image can be
+ * loaded by the {@link ImageLoader} without parsing the assembly code.
+ * </p>
+ * 
+ * <p>
+ * Program is started with one or two arguments: path to the file with the
+ * assembly code and path to the image. If the second argument is not provided,
+ * image is written next to the assembly code, with the extension ".sci".
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class Assembler {
+	/**
+	 * Smallest size of the memory into which the program is parsed. Larger
+	 * memory is used if the program does not fit into it.
+	 */
+	public static final int MEMORY_SIZE = 256;
+	/**
+	 * Number of the registers of the computer into which the program is
+	 * parsed.
+	 */
+	public static final int REGISTERS = 16;
+
+	/**
+	 * Method which starts the program.
+	 * 
+	 * @param args
+	 *            command line arguments
+	 * @throws Exception
+	 *             if there has been an error while parsing or writing
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Expected one or two arguments!");
+			System.exit(-1);
+		}
+
+		String image = args.length == 2 ? args[1] : imageName(args[0]);
+		assemble(args[0], image);
+		System.out.println("Image written to " + image + ".");
+	}
+
+	/**
+	 * Parses the assembly code from the file and writes the program to the
+	 * image.
+	 * 
+	 * @param sourceFile
+	 *            path to the file with the assembly code
+	 * @param imageFile
+	 *            path to the file to which the image is written
+	 * @throws Exception
+	 *             if there has been an error while parsing or writing
+	 */
+	public static void assemble(String sourceFile, String imageFile)
+			throws Exception {
+		List<String> lines = Files.readAllLines(Paths.get(sourceFile),
+				StandardCharsets.UTF_8);
+
+		IntMemory memory = new TaggedMemoryImpl(
+				Math.max(MEMORY_SIZE, SourceLabels.countLocations(lines)));
+		Computer computer = new ComputerImpl(memory, REGISTERS);
+		RecordingInstructionCreator creator = new RecordingInstructionCreator(
+				new InstructionRegistry());
+
+		ProgramParser.parse(sourceFile, computer, creator);
+
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(
+						Files.newOutputStream(Paths.get(imageFile))))) {
+			new Writer(output, computer, memory, creator).write(
+					SourceLabels.read(lines),
+					SourceLabels.readLineNumbers(lines));
+		}
+	}
+
+	/**
+	 * Gets the path of the image for the provided file with the assembly code,
+	 * by replacing its extension with ".sci".
+	 * 
+	 * @param sourceFile
+	 *            path to the file with the assembly code
+	 * @return path of the image
+	 */
+	public static String imageName(String sourceFile) {
+		int dot = sourceFile.lastIndexOf('.');
+		int separator = Math.max(sourceFile.lastIndexOf('/'),
+				sourceFile.lastIndexOf('\\'));
+
+		String base = dot > separator ? sourceFile.substring(0, dot)
+				: sourceFile;
+		return base + ImageFormat.EXTENSION;
+	}
+
+	/**
+	 * Writer of a single image.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Writer {
+		/**
+		 * Stream to which the image is written.
+		 */
+		private final DataOutputStream output;
+		/**
+		 * Computer which holds the program.
+		 */
+		private final Computer computer;
+		/**
+		 * Memory of the computer.
+		 */
+		private final IntMemory memory;
+		/**
+		 * Creator which created the instructions of the program.
+		 */
+		private final RecordingInstructionCreator creator;
+		/**
+		 * Strings in the constant pool.
+		 */
+		private final List<String> constants = new ArrayList<>();
+		/**
+		 * Indexes of the strings in the constant pool.
+		 */
+		private final Map<String, Integer> constantIndexes = new HashMap<>();
+
+		/**
+		 * Constructor which creates the writer.
+		 * 
+		 * @param output
+		 *            stream to which the image is written
+		 * @param computer
+		 *            computer which holds the program
+		 * @param memory
+		 *            memory of the computer
+		 * @param creator
+		 *            creator which created the instructions of the program
+		 */
+		Writer(DataOutputStream output, Computer computer, IntMemory memory,
+				RecordingInstructionCreator creator) {
+			this.output = output;
+			this.computer = computer;
+			this.memory = memory;
+			this.creator = creator;
+		}
+
+		/**
+		 * Writes the image.
+		 * 
+		 * @param labels
+		 *            labels by their addresses
+		 * @param lineNumbers
+		 *            numbers of the lines by the addresses they define
+		 * @throws IOException
+		 *             if the image can not be written
+		 */
+		void write(Map<Integer, List<String>> labels,
+				Map<Integer, Integer> lineNumbers) throws IOException {
+			collectConstants(labels);
+
+			output.writeInt(ImageFormat.MAGIC);
+			output.writeShort(ImageFormat.VERSION);
+			output.writeInt(memory.getSize());
+
+			output.writeInt(constants.size());
+			for (String constant : constants) {
+				byte[] bytes = constant.getBytes(StandardCharsets.UTF_8);
+				output.writeInt(bytes.length);
+				output.write(bytes);
+			}
+
+			writeRegisters();
+			writeMemory();
+
+			int count = 0;
+			for (List<String> names : labels.values()) {
+				count += names.size();
+			}
+			output.writeInt(count);
+			for (Map.Entry<Integer, List<String>> label : labels.entrySet()) {
+				for (String name : label.getValue()) {
+					output.writeInt(label.getKey());
+					output.writeInt(constantIndexes.get(name));
+				}
+			}
+
+			output.writeInt(lineNumbers.size());
+			for (Map.Entry<Integer, Integer> line : lineNumbers.entrySet()) {
+				output.writeInt(line.getKey());
+				output.writeInt(line.getValue());
+			}
+		}
+
+		/**
+		 * Helper method which writes the registers which hold integers. If a
+		 * register holds anything else, an {@link IllegalArgumentException}
+		 * is thrown.
+		 * 
+		 * @throws IOException
+		 *             if the image can not be written
+		 */
+		private void writeRegisters() throws IOException {
+			List<Integer> indexes = new ArrayList<>();
+			for (int i = 0; i < REGISTERS; i++) {
+				Object value = computer.getRegisters().getRegisterValue(i);
+				if (value instanceof Integer) {
+					indexes.add(i);
+				} else if (value != null) {
+					throw new IllegalArgumentException("Register " + i
+							+ " holds a value which can not be written!");
+				}
+			}
+
+			output.writeInt(indexes.size());
+			for (int index : indexes) {
+				output.writeByte(index);
+				output.writeInt((Integer) computer.getRegisters()
+						.getRegisterValue(index));
+			}
+		}
+
+		/**
+		 * Helper method which writes the locations of the memory up to the
+		 * last one which holds a value. If a location holds a value which is not an integer, a string
+		 * or an instruction created by the parser, an
+		 * {@link IllegalArgumentException} is thrown.
+		 * 
+		 * @throws IOException
+		 *             if the image can not be written
+		 */
+		private void writeMemory() throws IOException {
+			int count = memory.getSize();
+			while (count > 0 && memory.getLocation(count - 1) == null) {
+				count--;
+			}
+
+			output.writeInt(count);
+			for (int address = 0; address < count; address++) {
+				Object value = memory.getLocation(address);
+
+				if (value == null) {
+					output.writeByte(ImageFormat.EMPTY);
+
+				} else if (value instanceof Integer) {
+					output.writeByte(ImageFormat.INTEGER);
+					output.writeInt((Integer) value);
+
+				} else if (value instanceof String) {
+					output.writeByte(ImageFormat.STRING);
+					output.writeInt(constantIndexes.get(value));
+
+				} else if (value instanceof Instruction
+						&& creator.getName((Instruction) value) != null) {
+					output.writeByte(ImageFormat.INSTRUCTION);
+					writeInstruction((Instruction) value);
+
+				} else {
+					throw new IllegalArgumentException("Location " + address
+							+ " holds a value which can not be written!");
+				}
+			}
+		}
+
+		/**
+		 * Helper method which writes the opcode and the arguments of the
+		 * instruction.
+		 * 
+		 * @param instruction
+		 *            instruction created by the parser
+		 * @throws IOException
+		 *             if the image can not be written
+		 */
+		private void writeInstruction(Instruction instruction)
+				throws IOException {
+			Opcode opcode = Opcode.forMnemonic(creator.getName(instruction));
+			List<InstructionArgument> arguments = creator
+					.getArguments(instruction);
+
+			output.writeByte(opcode.getCode());
+			output.writeByte(arguments.size());
+			for (InstructionArgument argument : arguments) {
+				if (argument.isString()) {
+					output.writeByte(ImageFormat.STRING_ARGUMENT);
+					output.writeInt(constantIndexes.get(argument.getValue()));
+				} else {
+					output.writeByte(argument.isRegister()
+							? ImageFormat.REGISTER_ARGUMENT
+							: ImageFormat.NUMBER_ARGUMENT);
+					output.writeInt((Integer) argument.getValue());
+				}
+			}
+		}
+
+		/**
+		 * Helper method which stores all strings of the program and the
+		 * labels to the constant pool.
+		 * 
+		 * @param labels
+		 *            labels by their addresses
+		 */
+		private void collectConstants(Map<Integer, List<String>> labels) {
+			for (int address = 0; address < memory.getSize(); address++) {
+				Object value = memory.getLocation(address);
+
+				if (value instanceof String) {
+					addConstant((String) value);
+
+				} else if (value instanceof Instruction) {
+					List<InstructionArgument> arguments = creator
+							.getArguments((Instruction) value);
+					if (arguments == null) {
+						continue;
+					}
+					for (InstructionArgument argument : arguments) {
+						if (argument.isString()) {
+							addConstant((String) argument.getValue());
+						}
+					}
+				}
+			}
+
+			for (List<String> names : labels.values()) {
+				for (String name : names) {
+					addConstant(name);
+				}
+			}
+		}
+
+		/**
+		 * Helper method which stores the string to the constant pool, if it
+		 * is not already there.
+		 * 
+		 * @param constant
+		 *            string which is stored
+		 */
+		private void addConstant(String constant) {
+			if (!constantIndexes.containsKey(constant)) {
+				constantIndexes.put(constant, constants.size());
+				constants.add(constant);
+			}
+		}
+	}
+}
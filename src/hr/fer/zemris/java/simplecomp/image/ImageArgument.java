@@ -0,0 +1,53 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+
+/**
+ * Argument of an instruction read from the binary image.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+class ImageArgument implements InstructionArgument {
+	/**
+	 * Kind of the argument, one of the kinds defined in {@link ImageFormat}.
+	 */
+	private final byte kind;
+	/**
+	 * Value of the argument.
+	 */
+	private final Object value;
+
+	/**
+	 * Constructor which creates the argument.
+	 * 
+	 * @param kind
+	 *            kind of the argument
+	 * @param value
+	 *            value of the argument
+	 */
+	ImageArgument(byte kind, Object value) {
+		this.kind = kind;
+		this.value = value;
+	}
+
+	@Override
+	public boolean isRegister() {
+		return kind == ImageFormat.REGISTER_ARGUMENT;
+	}
+
+	@Override
+	public boolean isString() {
+		return kind == ImageFormat.STRING_ARGUMENT;
+	}
+
+	@Override
+	public boolean isNumber() {
+		return kind == ImageFormat.NUMBER_ARGUMENT;
+	}
+
+	@Override
+	public Object getValue() {
+		return value;
+	}
+}
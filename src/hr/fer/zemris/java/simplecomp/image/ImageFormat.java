@@ -0,0 +1,81 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+/**
+ * <p>
+ * Constants of the binary image format, written by the {@link Assembler} and
+ * read by the {@link ImageLoader}. All numbers are written in big-endian byte
+ * order, and the image consists of the following sections:
+ * </p>
+ * 
+ * <ol>
+ * <li>header: magic number, version and the size of the memory</li>
+ * <li>constant pool: number of the strings, then the length and the UTF-8
+ * bytes of every string</li>
+ * <li>registers: number of the registers which hold integers, then the index
+ * and the value of every register</li>
+ * <li>memory: number of the locations up to the last one which holds a value,
+ * then the tag and the value of every location. Integer is written as is,
+ * string as an index in the constant pool, and instruction as its opcode,
+ * number of the arguments and the kind and the value of every argument. Registers are
+ * written in the encoding decoded by the RegisterUtil, and strings as the
+ * indexes in the constant pool.</li>
+ * <li>labels: number of the labels, then the address and the index of the
+ * name in the constant pool of every label. Labels of the same address are
+ * written in the order they are written in the assembly code.</li>
+ * <li>source map: number of the entries, then the address and the number of
+ * the line in the assembly code of every entry</li>
+ * </ol>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+final class ImageFormat {
+	/**
+	 * Magic number at the start of every image, "SCIM" in ASCII.
+	 */
+	static final int MAGIC = 0x5343494D;
+	/**
+	 * Version of the format.
+	 */
+	static final short VERSION = 1;
+	/**
+	 * Extension of the files which hold the images.
+	 */
+	static final String EXTENSION = ".sci";
+
+	/**
+	 * Tag of a location to which nothing was stored.
+	 */
+	static final byte EMPTY = 0;
+	/**
+	 * Tag of a location which holds an integer.
+	 */
+	static final byte INTEGER = 1;
+	/**
+	 * Tag of a location which holds a string.
+	 */
+	static final byte STRING = 2;
+	/**
+	 * Tag of a location which holds an instruction.
+	 */
+	static final byte INSTRUCTION = 3;
+
+	/**
+	 * Kind of an argument which is a register.
+	 */
+	static final byte REGISTER_ARGUMENT = 0;
+	/**
+	 * Kind of an argument which is a number.
+	 */
+	static final byte NUMBER_ARGUMENT = 1;
+	/**
+	 * Kind of an argument which is a string.
+	 */
+	static final byte STRING_ARGUMENT = 2;
+
+	/**
+	 * Constructor which prevents the creation of the instances.
+	 */
+	private ImageFormat() {
+	}
+}
@@ -0,0 +1,189 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Loader which fills the memory and the registers of a computer with the
+ * program from the binary image written by the {@link Assembler}. Image is
+ * mapped into the memory and read in a single pass, so no assembly code has to
+ * be parsed.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ImageLoader {
+
+	/**
+	 * Checks if the file with the provided path is a binary image, judging by
+	 * its extension.
+	 * 
+	 * @param fileName
+	 *            path to the file
+	 * @return <code>true</code> if the file is a binary image,
+	 *         <code>false</code> otherwise
+	 */
+	public static boolean isImage(String fileName) {
+		return fileName.endsWith(ImageFormat.EXTENSION);
+	}
+
+	/**
+	 * Loads the program from the image into the computer. If the image is not
+	 * valid, or the program does not fit into the memory of the computer, an
+	 * {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param fileName
+	 *            path to the image
+	 * @param computer
+	 *            computer into which the program is loaded
+	 * @param creator
+	 *            creator which creates the instructions
+	 * @return labels and the line numbers of the program
+	 * @throws IOException
+	 *             if the image can not be read
+	 */
+	public static SourceMap load(String fileName, Computer computer,
+			InstructionCreator creator) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName),
+				StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0,
+					channel.size());
+
+			return load(buffer, computer, creator);
+		} catch (BufferUnderflowException ex) {
+			throw new IllegalArgumentException("Image is truncated!");
+		}
+	}
+
+	/**
+	 * Helper method which loads the program from the buffer which holds the
+	 * image.
+	 * 
+	 * @param buffer
+	 *            buffer which holds the image
+	 * @param computer
+	 *            computer into which the program is loaded
+	 * @param creator
+	 *            creator which creates the instructions
+	 * @return labels and the line numbers of the program
+	 */
+	private static SourceMap load(ByteBuffer buffer, Computer computer,
+			InstructionCreator creator) {
+		if (buffer.remaining() < 10 || buffer.getInt() != ImageFormat.MAGIC) {
+			throw new IllegalArgumentException(
+					"File is not a SimpleComputer image!");
+		}
+		short version = buffer.getShort();
+		if (version != ImageFormat.VERSION) {
+			throw new IllegalArgumentException(
+					"Unsupported image version " + version + "!");
+		}
+
+		int memorySize = buffer.getInt();
+		Memory memory = computer.getMemory();
+		if (memory instanceof IntMemory
+				&& ((IntMemory) memory).getSize() < memorySize) {
+			throw new IllegalArgumentException("Image needs " + memorySize
+					+ " memory locations, but the memory has only "
+					+ ((IntMemory) memory).getSize() + "!");
+		}
+
+		String[] constants = new String[buffer.getInt()];
+		for (int i = 0; i < constants.length; i++) {
+			byte[] bytes = new byte[buffer.getInt()];
+			buffer.get(bytes);
+			constants[i] = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		Registers registers = computer.getRegisters();
+		for (int count = buffer.getInt(); count > 0; count--) {
+			int index = buffer.get() & 0xFF;
+			registers.setRegisterValue(index, buffer.getInt());
+		}
+
+		int count = buffer.getInt();
+		for (int address = 0; address < count; address++) {
+			byte tag = buffer.get();
+
+			switch (tag) {
+			case ImageFormat.EMPTY:
+				break;
+			case ImageFormat.INTEGER:
+				memory.setLocation(address, buffer.getInt());
+				break;
+			case ImageFormat.STRING:
+				memory.setLocation(address, constants[buffer.getInt()]);
+				break;
+			case ImageFormat.INSTRUCTION:
+				Opcode opcode = Opcode.forCode(buffer.get() & 0xFF);
+				List<InstructionArgument> arguments = readArguments(buffer,
+						constants);
+				memory.setLocation(address, creator
+						.getInstruction(opcode.getMnemonic(), arguments));
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown tag " + tag
+						+ " of the location " + address + "!");
+			}
+		}
+
+		Map<Integer, List<String>> labels = new HashMap<>();
+		for (count = buffer.getInt(); count > 0; count--) {
+			int address = buffer.getInt();
+			labels.computeIfAbsent(address, key -> new ArrayList<>())
+					.add(constants[buffer.getInt()]);
+		}
+
+		Map<Integer, Integer> lineNumbers = new HashMap<>();
+		for (count = buffer.getInt(); count > 0; count--) {
+			int address = buffer.getInt();
+			lineNumbers.put(address, buffer.getInt());
+		}
+
+		return new SourceMap(labels, lineNumbers);
+	}
+
+	/**
+	 * Helper method which reads the arguments of an instruction.
+	 * 
+	 * @param buffer
+	 *            buffer which holds the image
+	 * @param constants
+	 *            constant pool of the image
+	 * @return arguments of the instruction
+	 */
+	private static List<InstructionArgument> readArguments(ByteBuffer buffer,
+			String[] constants) {
+		int count = buffer.get() & 0xFF;
+		List<InstructionArgument> arguments = new ArrayList<>(count);
+
+		for (int i = 0; i < count; i++) {
+			byte kind = buffer.get();
+			int value = buffer.getInt();
+
+			arguments.add(new ImageArgument(kind,
+					kind == ImageFormat.STRING_ARGUMENT ? constants[value]
+							: Integer.valueOf(value)));
+		}
+
+		return arguments;
+	}
+}
@@ -0,0 +1,78 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
+
+/**
+ * Instruction creator which creates the instructions by the provided creator
+ * and remembers the name and the arguments of every created instruction, so
+ * the {@link Assembler} can write them to the image.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+class RecordingInstructionCreator implements InstructionCreator {
+	/**
+	 * Creator which creates the instructions.
+	 */
+	private final InstructionCreator creator;
+	/**
+	 * Names of the created instructions.
+	 */
+	private final Map<Instruction, String> names = new IdentityHashMap<>();
+	/**
+	 * Arguments of the created instructions.
+	 */
+	private final Map<Instruction, List<InstructionArgument>> arguments = new IdentityHashMap<>();
+
+	/**
+	 * Constructor which creates the recording creator.
+	 * 
+	 * @param creator
+	 *            creator which creates the instructions
+	 */
+	RecordingInstructionCreator(InstructionCreator creator) {
+		this.creator = creator;
+	}
+
+	@Override
+	public Instruction getInstruction(String name,
+			List<InstructionArgument> arguments) {
+		Instruction instruction = creator.getInstruction(name, arguments);
+
+		this.names.put(instruction, name);
+		this.arguments.put(instruction, new ArrayList<>(arguments));
+
+		return instruction;
+	}
+
+	/**
+	 * Gets the name of the instruction created by this creator.
+	 * 
+	 * @param instruction
+	 *            created instruction
+	 * @return name of the instruction, or <code>null</code> if it was not
+	 *         created by this creator
+	 */
+	String getName(Instruction instruction) {
+		return names.get(instruction);
+	}
+
+	/**
+	 * Gets the arguments of the instruction created by this creator.
+	 * 
+	 * @param instruction
+	 *            created instruction
+	 * @return arguments of the instruction, or <code>null</code> if it was not
+	 *         created by this creator
+	 */
+	List<InstructionArgument> getArguments(Instruction instruction) {
+		return arguments.get(instruction);
+	}
+}
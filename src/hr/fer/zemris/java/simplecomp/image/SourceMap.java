@@ -0,0 +1,58 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Information about the assembly code from which the binary image was
+ * assembled: labels and the numbers of the lines which define the memory
+ * locations.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class SourceMap {
+	/**
+	 * Labels by their addresses.
+	 */
+	private final Map<Integer, List<String>> labels;
+	/**
+	 * Numbers of the lines by the addresses they define.
+	 */
+	private final Map<Integer, Integer> lineNumbers;
+
+	/**
+	 * Constructor which creates the source map.
+	 * 
+	 * @param labels
+	 *            labels by their addresses
+	 * @param lineNumbers
+	 *            numbers of the lines by the addresses they define
+	 */
+	public SourceMap(Map<Integer, List<String>> labels,
+			Map<Integer, Integer> lineNumbers) {
+		this.labels = Collections.unmodifiableMap(labels);
+		this.lineNumbers = Collections.unmodifiableMap(lineNumbers);
+	}
+
+	/**
+	 * Gets the labels, without the character '@', by their addresses. An
+	 * address can have more labels.
+	 * 
+	 * @return labels by their addresses
+	 */
+	public Map<Integer, List<String>> getLabels() {
+		return labels;
+	}
+
+	/**
+	 * Gets the numbers of the lines in the assembly code, counted from 1, by
+	 * the addresses they define.
+	 * 
+	 * @return numbers of the lines by the addresses
+	 */
+	public Map<Integer, Integer> getLineNumbers() {
+		return lineNumbers;
+	}
+}
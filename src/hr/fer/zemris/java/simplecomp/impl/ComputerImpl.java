@@ -1,5 +1,9 @@
 package hr.fer.zemris.java.simplecomp.impl;
 
+import hr.fer.zemris.java.simplecomp.io.InputDevice;
+import hr.fer.zemris.java.simplecomp.io.OutputDevice;
+import hr.fer.zemris.java.simplecomp.io.StandardInputDevice;
+import hr.fer.zemris.java.simplecomp.io.StandardOutputDevice;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.Memory;
 import hr.fer.zemris.java.simplecomp.models.Registers;
@@ -10,11 +14,12 @@ import hr.fer.zemris.java.simplecomp.models.Registers;
  * </p>
  * 
  * <p>
- * Has a memory which is represented by the class {@link MemoryImpl} and
- * registers represented by the class {@link RegistersImpl}. Size of the memory
- * and the number of registers are specified by the user. Class provides methods
- * inherited from interface {@link Computer} which can be used for getting the
- * registers or memory.
+ * Has a memory which is by default represented by the class {@link MemoryImpl}
+ * and registers represented by the class {@link RegistersImpl}. Size of the
+ * memory and the number of registers are specified by the user. Class provides
+ * methods inherited from interface {@link Computer} which can be used for
+ * getting the registers or memory, and methods for getting and setting the
+ * {@link InputDevice} and the {@link OutputDevice} of the computer.
  * </p>
  * 
  * @author Luka Lazanja
@@ -28,7 +33,17 @@ public class ComputerImpl implements Computer {
 	/**
 	 * Memory of this computer.
 	 */
-	private MemoryImpl memory;
+	private Memory memory;
+	/**
+	 * Device to which this computer writes its output, created when it is
+	 * first used if it was not set.
+	 */
+	private OutputDevice outputDevice;
+	/**
+	 * Device from which this computer reads its input, created when it is
+	 * first used if it was not set.
+	 */
+	private InputDevice inputDevice;
 
 	/**
 	 * Initializes the memory of this computer, whose size is determined by the
@@ -43,9 +58,86 @@ public class ComputerImpl implements Computer {
 	 *            number of registers
 	 */
 	public ComputerImpl(int size, int regsLen) {
+		this(new MemoryImpl(size), regsLen);
+	}
+
+	/**
+	 * Initializes the registers of this computer whose size is determined by
+	 * the second argument and uses the provided memory as the memory of this
+	 * computer. This way a different implementation of the memory, for example
+	 * {@link TaggedMemoryImpl} or {@link CopyOnWriteMemory}, can be used
+	 * instead of {@link MemoryImpl}. If the memory is <code>null</code> or the
+	 * number of registers is invalid, an {@link IllegalArgumentException} is
+	 * thrown.
+	 * 
+	 * @param memory
+	 *            memory of this computer
+	 * @param regsLen
+	 *            number of registers
+	 */
+	public ComputerImpl(Memory memory, int regsLen) {
+		if (memory == null) {
+			throw new IllegalArgumentException("Memory can not be null!");
+		}
 		registers = new RegistersImpl(regsLen);
-		memory = new MemoryImpl(size);
+		this.memory = memory;
+	}
+
+	/**
+	 * Constructor used by {@link #fork()}, which uses the provided memory and
+	 * registers.
+	 * 
+	 * @param memory
+	 *            memory of this computer
+	 * @param registers
+	 *            registers of this computer
+	 */
+	private ComputerImpl(Memory memory, RegistersImpl registers) {
+		this.memory = memory;
+		this.registers = registers;
+	}
+
+	/**
+	 * Creates a copy of this computer. Registers are copied, and the memory is
+	 * forked by {@link CopyOnWriteMemory#fork()}, so the computers share all
+	 * the memory pages until one of them writes to a page. Devices are not
+	 * shared, copy uses the standard input and output until other devices are
+	 * set. Forking is supported only if the memory of this computer is a
+	 * {@link CopyOnWriteMemory}, otherwise an
+	 * {@link UnsupportedOperationException} is thrown.
+	 * 
+	 * @return copy of this computer
+	 */
+	public ComputerImpl fork() {
+		if (!(memory instanceof CopyOnWriteMemory)) {
+			throw new UnsupportedOperationException(
+					"Only a computer with a copy-on-write memory can be forked!");
+		}
+		return new ComputerImpl(((CopyOnWriteMemory) memory).fork(),
+				new RegistersImpl(registers));
+	}
+
+	/**
+	 * Creates a computer which shares the registers and the devices with this
+	 * one, but uses the provided memory. Used by the execution units which
+	 * put another memory in front of the memory of this computer while the
+	 * program runs, like the {@link StackWindowMemory}.
+	 * 
+	 * @param memory
+	 *            memory of the created computer
+	 * @return computer with the provided memory
+	 */
+	public ComputerImpl withMemory(Memory memory) {
+		if (memory == null) {
+			throw new IllegalArgumentException("Memory can not be null!");
+		}
+
+		ComputerImpl computer = new ComputerImpl(memory, registers);
+		computer.outputDevice = getOutputDevice();
+		computer.inputDevice = getInputDevice();
+		return computer;
 	}
+
 	@Override
 	public Registers getRegisters() {
 		return registers;
@@ -55,4 +147,59 @@ public class ComputerImpl implements Computer {
 	public Memory getMemory() {
 		return memory;
 	}
+
+	/**
+	 * Gets the device to which this computer writes its output. If no device
+	 * was set, a {@link StandardOutputDevice} is used.
+	 * 
+	 * @return output device of this computer
+	 */
+	public OutputDevice getOutputDevice() {
+		if (outputDevice == null) {
+			outputDevice = new StandardOutputDevice();
+		}
+		return outputDevice;
+	}
+
+	/**
+	 * Sets the device to which this computer writes its output. If the device
+	 * is <code>null</code>, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param outputDevice
+	 *            output device of this computer
+	 */
+	public void setOutputDevice(OutputDevice outputDevice) {
+		if (outputDevice == null) {
+			throw new IllegalArgumentException(
+					"Output device can not be null!");
+		}
+		this.outputDevice = outputDevice;
+	}
+
+	/**
+	 * Gets the device from which this computer reads its input. If no device
+	 * was set, a {@link StandardInputDevice} is used.
+	 * 
+	 * @return input device of this computer
+	 */
+	public InputDevice getInputDevice() {
+		if (inputDevice == null) {
+			inputDevice = new StandardInputDevice();
+		}
+		return inputDevice;
+	}
+
+	/**
+	 * Sets the device from which this computer reads its input. If the device
+	 * is <code>null</code>, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param inputDevice
+	 *            input device of this computer
+	 */
+	public void setInputDevice(InputDevice inputDevice) {
+		if (inputDevice == null) {
+			throw new IllegalArgumentException("Input device can not be null!");
+		}
+		this.inputDevice = inputDevice;
+	}
 }
\ No newline at end of file
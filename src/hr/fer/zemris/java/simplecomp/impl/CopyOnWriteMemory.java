@@ -0,0 +1,355 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+/**
+ * <p>
+ * Class which represents an implementation of computer memory divided into
+ * pages which can be shared by many memories.
+ * </p>
+ * 
+ * <p>
+ * Snapshot of the memory is taken by {@link #fork()} in constant time: the new
+ * memory shares all pages with this one, and a page is copied only when one of
+ * the memories writes to it. This way many computers can hold the same program
+ * while only the pages they write to, usually the ones with the stack, are
+ * copied. Every page has an owner, and the memory writes only to the pages it
+ * owns. On fork both memories get new owners, so all existing pages become
+ * read-only for both of them.
+ * </p>
+ * 
+ * <p>
+ * Locations of a page are stored the same way as in the
+ * {@link TaggedMemoryImpl}, so this memory is observably the same as
+ * {@link MemoryImpl}. Like the other memories, it is not thread safe, but
+ * memories created by {@link #fork()} can be used by different threads, since
+ * the pages they share are never written to.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class CopyOnWriteMemory implements IntMemory {
+	/**
+	 * Binary logarithm of the number of locations in a page.
+	 */
+	private static final int PAGE_SHIFT = 6;
+	/**
+	 * Number of locations in a page.
+	 */
+	public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	/**
+	 * Mask which extracts the location inside of a page from an address.
+	 */
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	/**
+	 * Tag of a location to which nothing was stored.
+	 */
+	private static final byte EMPTY = 0;
+	/**
+	 * Tag of a location which holds an integer.
+	 */
+	private static final byte INTEGER = 1;
+	/**
+	 * Tag of a location which holds a reference.
+	 */
+	private static final byte REFERENCE = 2;
+
+	/**
+	 * Size of this memory.
+	 */
+	private final int size;
+	/**
+	 * Pages of this memory. Page to which nothing was stored is
+	 * <code>null</code>.
+	 */
+	private Page[] pages;
+	/**
+	 * Flag that determines if the array of the pages is shared with another
+	 * memory, so it has to be copied before it is changed.
+	 */
+	private boolean pagesShared;
+	/**
+	 * Owner of the pages which this memory can write to.
+	 */
+	private Object owner;
+	/**
+	 * View of this memory which does not check the locations.
+	 */
+	private final UncheckedView unchecked = new UncheckedView();
+
+	/**
+	 * Initializes the pages of this memory whose size is represented by the
+	 * argument. Valid size of the memory is a number larger than zero. If user
+	 * enters an invalid number, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param size
+	 *            size of the memory
+	 */
+	public CopyOnWriteMemory(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException(
+					"Size of the memory must be larger than zero!");
+		}
+		this.size = size;
+		this.pages = new Page[(size + PAGE_MASK) >>> PAGE_SHIFT];
+		this.owner = new Object();
+	}
+
+	/**
+	 * Constructor used by {@link #fork()}, which creates a memory that shares
+	 * the pages with the provided one.
+	 * 
+	 * @param other
+	 *            memory whose pages are shared
+	 */
+	private CopyOnWriteMemory(CopyOnWriteMemory other) {
+		this.size = other.size;
+		this.pages = other.pages;
+		this.pagesShared = true;
+		this.owner = new Object();
+	}
+
+	/**
+	 * Creates a snapshot of this memory in constant time. Returned memory
+	 * initially holds the same values as this one, and the changes of one
+	 * memory are not visible in the other.
+	 * 
+	 * @return snapshot of this memory
+	 */
+	public CopyOnWriteMemory fork() {
+		pagesShared = true;
+		owner = new Object();
+		return new CopyOnWriteMemory(this);
+	}
+
+	@Override
+	public void setLocation(int location, Object value) {
+		isValidLocation(location);
+		unchecked.setLocation(location, value);
+	}
+
+	@Override
+	public Object getLocation(int location) {
+		isValidLocation(location);
+		return unchecked.getLocation(location);
+	}
+
+	@Override
+	public int getInt(int location) {
+		isValidLocation(location);
+		return unchecked.getInt(location);
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		isValidLocation(location);
+		unchecked.setInt(location, value);
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		isValidLocation(location);
+		return unchecked.isInt(location);
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public IntMemory unchecked() {
+		return unchecked;
+	}
+
+	/**
+	 * Gets the number of the pages which this memory can write to without
+	 * copying them, which is the number of the pages it has copied or created
+	 * since it was created or last forked.
+	 * 
+	 * @return number of the owned pages
+	 */
+	public int getOwnedPages() {
+		int count = 0;
+		for (Page page : pages) {
+			if (page != null && page.owner == owner) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Helper method which gets the page which holds the provided location and
+	 * which this memory can write to. Page is created if nothing was stored to
+	 * it, or copied if it is owned by another memory.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @return page which holds the location
+	 */
+	private Page writablePage(int location) {
+		int number = location >>> PAGE_SHIFT;
+		Page page = pages[number];
+		if (page != null && page.owner == owner) {
+			return page;
+		}
+
+		if (pagesShared) {
+			pages = pages.clone();
+			pagesShared = false;
+		}
+		page = page == null ? new Page(owner) : new Page(owner, page);
+		pages[number] = page;
+		return page;
+	}
+
+	/**
+	 * Helper method which checks if user has entered a valid memory location.
+	 * Valid location is in interval [0, size - 1]. If invalid location was
+	 * provided, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 */
+	private void isValidLocation(int location) {
+		if (location < 0 || location >= size) {
+			throw new IllegalArgumentException(
+					"Location in the memory has to be in the interval [1, size - 1]!");
+		}
+	}
+
+	/**
+	 * View of the memory which accesses the pages without checking the
+	 * locations. Checked methods of the memory delegate to it after the
+	 * check.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntMemory {
+
+		@Override
+		public void setLocation(int location, Object value) {
+			Page page = writablePage(location);
+			int index = location & PAGE_MASK;
+
+			if (value instanceof Integer) {
+				page.data[index] = (Integer) value;
+				page.references[index] = null;
+				page.tags[index] = INTEGER;
+
+			} else if (value == null) {
+				page.references[index] = null;
+				page.tags[index] = EMPTY;
+
+			} else {
+				page.references[index] = value;
+				page.tags[index] = REFERENCE;
+			}
+		}
+
+		@Override
+		public Object getLocation(int location) {
+			Page page = pages[location >>> PAGE_SHIFT];
+			if (page == null) {
+				return null;
+			}
+
+			int index = location & PAGE_MASK;
+			if (page.tags[index] == INTEGER) {
+				return Integer.valueOf(page.data[index]);
+			}
+			return page.references[index];
+		}
+
+		@Override
+		public int getInt(int location) {
+			Page page = pages[location >>> PAGE_SHIFT];
+			if (page == null) {
+				throw new NullPointerException();
+			}
+
+			int index = location & PAGE_MASK;
+			if (page.tags[index] == INTEGER) {
+				return page.data[index];
+			}
+			return (Integer) page.references[index];
+		}
+
+		@Override
+		public void setInt(int location, int value) {
+			Page page = writablePage(location);
+			int index = location & PAGE_MASK;
+
+			page.data[index] = value;
+			page.references[index] = null;
+			page.tags[index] = INTEGER;
+		}
+
+		@Override
+		public boolean isInt(int location) {
+			Page page = pages[location >>> PAGE_SHIFT];
+			return page != null && page.tags[location & PAGE_MASK] == INTEGER;
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+	}
+
+	/**
+	 * Page of the memory, which holds {@link CopyOnWriteMemory#PAGE_SIZE}
+	 * locations.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Page {
+		/**
+		 * Owner of the page, which is the only one who can write to it.
+		 */
+		private final Object owner;
+		/**
+		 * Integers stored in the page.
+		 */
+		private final int[] data;
+		/**
+		 * Tags of the locations of the page.
+		 */
+		private final byte[] tags;
+		/**
+		 * References (instructions and strings) stored in the page.
+		 */
+		private final Object[] references;
+
+		/**
+		 * Constructor which creates an empty page.
+		 * 
+		 * @param owner
+		 *            owner of the page
+		 */
+		Page(Object owner) {
+			this.owner = owner;
+			this.data = new int[PAGE_SIZE];
+			this.tags = new byte[PAGE_SIZE];
+			this.references = new Object[PAGE_SIZE];
+		}
+
+		/**
+		 * Constructor which creates a copy of the provided page.
+		 * 
+		 * @param owner
+		 *            owner of the page
+		 * @param other
+		 *            page which is copied
+		 */
+		Page(Object owner, Page other) {
+			this.owner = owner;
+			this.data = other.data.clone();
+			this.tags = other.tags.clone();
+			this.references = other.references.clone();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+/**
+ * <p>
+ * Extension of the {@link Memory} interface which provides typed access to the
+ * memory locations which hold integers.
+ * </p>
+ * 
+ * <p>
+ * Instructions which know that they work with integers (for example push, call
+ * or ret) can use methods of this interface instead of
+ * {@link Memory#getLocation(int)} and {@link Memory#setLocation(int, Object)},
+ * so implementations which store integers as primitives do not have to box and
+ * unbox them.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface IntMemory extends Memory {
+	/**
+	 * Gets the integer stored on the provided location. If the location does
+	 * not hold an integer, a {@link ClassCastException} is thrown, or a
+	 * {@link NullPointerException} if nothing was stored to it.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @return integer stored on the location
+	 */
+	int getInt(int location);
+
+	/**
+	 * Stores the integer to the provided location.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @param value
+	 *            value which will be stored
+	 */
+	void setInt(int location, int value);
+
+	/**
+	 * Checks if the provided location currently holds an integer.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @return <code>true</code> if the location holds an integer,
+	 *         <code>false</code> otherwise
+	 */
+	boolean isInt(int location);
+
+	/**
+	 * Gets the size of this memory, which is the number of its locations.
+	 * 
+	 * @return size of the memory
+	 */
+	int getSize();
+
+	/**
+	 * Gets a view of this memory which does not check the locations. View
+	 * shares the values with this memory, and using an invalid location trough
+	 * it has undefined results, so it can only be used for the fixed locations
+	 * which were verified in advance, like the ones in the program accepted
+	 * by the {@link hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier}.
+	 * By default, memory is its own view.
+	 * 
+	 * @return view of the memory without the checks
+	 */
+	default IntMemory unchecked() {
+		return this;
+	}
+}
@@ -0,0 +1,77 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Extension of the {@link Registers} interface which provides typed access to
+ * the registers which hold integers.
+ * </p>
+ * 
+ * <p>
+ * Instructions which know that they work with integers (for example add, mul
+ * or push) can use methods of this interface instead of
+ * {@link Registers#getRegisterValue(int)} and
+ * {@link Registers#setRegisterValue(int, Object)}, so no boxing and unboxing of
+ * the values has to be done.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface IntRegisters extends Registers {
+	/**
+	 * Gets the integer value stored in the register with the provided index.
+	 * If the register does not hold an integer, a {@link ClassCastException}
+	 * is thrown, or a {@link NullPointerException} if the register was never
+	 * set.
+	 * 
+	 * @param index
+	 *            index of the register
+	 * @return integer value of the register
+	 */
+	int getInt(int index);
+
+	/**
+	 * Stores the integer value to the register with the provided index.
+	 * 
+	 * @param index
+	 *            index of the register
+	 * @param value
+	 *            value which will be stored
+	 */
+	void setInt(int index, int value);
+
+	/**
+	 * Checks if the register with the provided index currently holds an
+	 * integer.
+	 * 
+	 * @param index
+	 *            index of the register
+	 * @return <code>true</code> if the register holds an integer,
+	 *         <code>false</code> otherwise
+	 */
+	boolean isInt(int index);
+
+	/**
+	 * Gets the number of the registers.
+	 * 
+	 * @return number of the registers
+	 */
+	int getSize();
+
+	/**
+	 * Gets a view of these registers which does not check the indexes of the
+	 * registers. View shares the values with these registers, and using an
+	 * invalid index trough it has undefined results, so it can only be used
+	 * by the code whose indexes were verified in advance, like the program
+	 * accepted by the
+	 * {@link hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier}. By
+	 * default, registers are their own view.
+	 * 
+	 * @return view of the registers without the checks
+	 */
+	default IntRegisters unchecked() {
+		return this;
+	}
+}
@@ -11,17 +11,22 @@ import hr.fer.zemris.java.simplecomp.models.Memory;
  * Size of the memory is determined by user. This implementation of memory
  * stores objects, not bytes. It inherits methods from interface {@link Memory}
  * which are used either for getting an object from a certain location or
- * setting an object to one.
+ * setting an object to one. Methods of the interface {@link IntMemory} are
+ * provided by boxing and unboxing the integers.
  * </p>
  * 
  * @author Luka Lazanja
  * @version 1.0
  */
-public class MemoryImpl implements Memory {
+public class MemoryImpl implements IntMemory {
 	/**
 	 * Container of objects, limited by the size of this memory.
 	 */
 	private Object[] container;
+	/**
+	 * View of this memory which does not check the locations.
+	 */
+	private final UncheckedView unchecked = new UncheckedView();
 
 	/**
 	 * Initializes the container of this memory whose size is represented by the
@@ -48,6 +53,34 @@ public class MemoryImpl implements Memory {
 		return container[location];
 	}
 
+	@Override
+	public int getInt(int location) {
+		isValidLocation(location);
+		return (Integer) container[location];
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		isValidLocation(location);
+		container[location] = Integer.valueOf(value);
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		isValidLocation(location);
+		return container[location] instanceof Integer;
+	}
+
+	@Override
+	public int getSize() {
+		return container.length;
+	}
+
+	@Override
+	public IntMemory unchecked() {
+		return unchecked;
+	}
+
 	/**
 	 * Helper method which checks if user has entered a valid memory size in the
 	 * constructor of this class. If the number is less or equal to zero, an
@@ -78,4 +111,44 @@ public class MemoryImpl implements Memory {
 					"Location in the memory has to be in the interval [1, size - 1]!");
 		}
 	}
-}
+
+	/**
+	 * View of the memory which accesses the container without checking the
+	 * locations.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntMemory {
+
+		@Override
+		public void setLocation(int location, Object value) {
+			container[location] = value;
+		}
+
+		@Override
+		public Object getLocation(int location) {
+			return container[location];
+		}
+
+		@Override
+		public int getInt(int location) {
+			return (Integer) container[location];
+		}
+
+		@Override
+		public void setInt(int location, int value) {
+			container[location] = Integer.valueOf(value);
+		}
+
+		@Override
+		public boolean isInt(int location) {
+			return container[location] instanceof Integer;
+		}
+
+		@Override
+		public int getSize() {
+			return container.length;
+		}
+	}
+}
\ No newline at end of file
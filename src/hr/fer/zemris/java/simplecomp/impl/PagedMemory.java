@@ -0,0 +1,353 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+/**
+ * <p>
+ * Class which represents an implementation of computer memory whose pages are
+ * allocated only when something is stored to them.
+ * </p>
+ * 
+ * <p>
+ * Memory can have up to {@link Integer#MAX_VALUE} locations, and its cost is
+ * proportional to the number of the pages which were written to, so a program
+ * can have large data tables or a deep stack far from its code. Pages are
+ * found trough a directory of two levels, whose second level is also
+ * allocated only when needed. Since a program usually accesses the same page
+ * many times in a row, the last accessed page is remembered and found without
+ * the directory.
+ * </p>
+ * 
+ * <p>
+ * Locations of a page are stored the same way as in the
+ * {@link TaggedMemoryImpl}, so this memory is observably the same as
+ * {@link MemoryImpl}. Reading a location of a page which was never written to
+ * returns <code>null</code> without allocating the page.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class PagedMemory implements IntMemory {
+	/**
+	 * Binary logarithm of the number of locations in a page.
+	 */
+	private static final int PAGE_SHIFT = 10;
+	/**
+	 * Number of locations in a page.
+	 */
+	public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+	/**
+	 * Mask which extracts the location inside of a page from an address.
+	 */
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	/**
+	 * Binary logarithm of the number of pages in a table of the second level
+	 * of the directory.
+	 */
+	private static final int TABLE_SHIFT = 10;
+	/**
+	 * Mask which extracts the index in a table of the second level of the
+	 * directory from the number of a page.
+	 */
+	private static final int TABLE_MASK = (1 << TABLE_SHIFT) - 1;
+
+	/**
+	 * Tag of a location to which nothing was stored.
+	 */
+	private static final byte EMPTY = 0;
+	/**
+	 * Tag of a location which holds an integer.
+	 */
+	private static final byte INTEGER = 1;
+	/**
+	 * Tag of a location which holds a reference.
+	 */
+	private static final byte REFERENCE = 2;
+
+	/**
+	 * Size of this memory.
+	 */
+	private final int size;
+	/**
+	 * First level of the directory, which holds the tables of the pages.
+	 */
+	private final Page[][] directory;
+	/**
+	 * Number of the last accessed page, or -1 if no page was accessed.
+	 */
+	private int lastNumber = -1;
+	/**
+	 * Last accessed page.
+	 */
+	private Page lastPage;
+	/**
+	 * Number of the allocated pages.
+	 */
+	private int allocatedPages;
+	/**
+	 * Number of the allocated page with the largest number, or -1 if no page
+	 * was allocated.
+	 */
+	private int highestPage = -1;
+	/**
+	 * View of this memory which does not check the locations.
+	 */
+	private final UncheckedView unchecked = new UncheckedView();
+
+	/**
+	 * Initializes the directory of this memory whose size is represented by
+	 * the argument. Valid size of the memory is a number larger than zero. If
+	 * user enters an invalid number, an {@link IllegalArgumentException} is
+	 * thrown.
+	 * 
+	 * @param size
+	 *            size of the memory
+	 */
+	public PagedMemory(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException(
+					"Size of the memory must be larger than zero!");
+		}
+		this.size = size;
+
+		int pages = (int) (((long) size + PAGE_MASK) >>> PAGE_SHIFT);
+		this.directory = new Page[(pages + TABLE_MASK) >>> TABLE_SHIFT][];
+	}
+
+	@Override
+	public void setLocation(int location, Object value) {
+		isValidLocation(location);
+		unchecked.setLocation(location, value);
+	}
+
+	@Override
+	public Object getLocation(int location) {
+		isValidLocation(location);
+		return unchecked.getLocation(location);
+	}
+
+	@Override
+	public int getInt(int location) {
+		isValidLocation(location);
+		return unchecked.getInt(location);
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		isValidLocation(location);
+		unchecked.setInt(location, value);
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		isValidLocation(location);
+		return unchecked.isInt(location);
+	}
+
+	@Override
+	public int getSize() {
+		return size;
+	}
+
+	@Override
+	public IntMemory unchecked() {
+		return unchecked;
+	}
+
+	/**
+	 * Gets the number of the pages which were allocated because something was
+	 * stored to them.
+	 * 
+	 * @return number of the allocated pages
+	 */
+	public int getAllocatedPages() {
+		return allocatedPages;
+	}
+
+	/**
+	 * Gets the number of the locations from the start of the memory to the end
+	 * of the last allocated page. All locations after it are empty, so the
+	 * passes which walk trough the whole program, like
+	 * {@link hr.fer.zemris.java.simplecomp.impl.instructions.InstructionFusion},
+	 * can stop there.
+	 * 
+	 * @return number of the used locations
+	 */
+	public int getUsedSize() {
+		return (int) Math.min(size, (long) (highestPage + 1) << PAGE_SHIFT);
+	}
+
+	/**
+	 * Helper method which gets the page which holds the provided location.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @return page which holds the location, or <code>null</code> if nothing
+	 *         was stored to it
+	 */
+	private Page page(int location) {
+		int number = location >>> PAGE_SHIFT;
+		if (number == lastNumber) {
+			return lastPage;
+		}
+
+		Page[] table = directory[number >>> TABLE_SHIFT];
+		if (table == null) {
+			return null;
+		}
+		Page page = table[number & TABLE_MASK];
+		if (page != null) {
+			lastNumber = number;
+			lastPage = page;
+		}
+		return page;
+	}
+
+	/**
+	 * Helper method which gets the page which holds the provided location,
+	 * allocating it if nothing was stored to it.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 * @return page which holds the location
+	 */
+	private Page writablePage(int location) {
+		int number = location >>> PAGE_SHIFT;
+		if (number == lastNumber) {
+			return lastPage;
+		}
+
+		Page[] table = directory[number >>> TABLE_SHIFT];
+		if (table == null) {
+			table = new Page[1 << TABLE_SHIFT];
+			directory[number >>> TABLE_SHIFT] = table;
+		}
+		Page page = table[number & TABLE_MASK];
+		if (page == null) {
+			page = new Page();
+			table[number & TABLE_MASK] = page;
+			allocatedPages++;
+			highestPage = Math.max(highestPage, number);
+		}
+
+		lastNumber = number;
+		lastPage = page;
+		return page;
+	}
+
+	/**
+	 * Helper method which checks if user has entered a valid memory location.
+	 * Valid location is in interval [0, size - 1]. If invalid location was
+	 * provided, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 */
+	private void isValidLocation(int location) {
+		if (location < 0 || location >= size) {
+			throw new IllegalArgumentException(
+					"Location in the memory has to be in the interval [0, size - 1]!");
+		}
+	}
+
+	/**
+	 * View of the memory which accesses the pages without checking the
+	 * locations. Checked methods of the memory delegate to it after the
+	 * check.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntMemory {
+
+		@Override
+		public void setLocation(int location, Object value) {
+			Page page = writablePage(location);
+			int index = location & PAGE_MASK;
+
+			if (value instanceof Integer) {
+				page.data[index] = (Integer) value;
+				page.references[index] = null;
+				page.tags[index] = INTEGER;
+
+			} else if (value == null) {
+				page.references[index] = null;
+				page.tags[index] = EMPTY;
+
+			} else {
+				page.references[index] = value;
+				page.tags[index] = REFERENCE;
+			}
+		}
+
+		@Override
+		public Object getLocation(int location) {
+			Page page = page(location);
+			if (page == null) {
+				return null;
+			}
+
+			int index = location & PAGE_MASK;
+			if (page.tags[index] == INTEGER) {
+				return Integer.valueOf(page.data[index]);
+			}
+			return page.references[index];
+		}
+
+		@Override
+		public int getInt(int location) {
+			Page page = page(location);
+			if (page == null) {
+				throw new NullPointerException();
+			}
+
+			int index = location & PAGE_MASK;
+			if (page.tags[index] == INTEGER) {
+				return page.data[index];
+			}
+			return (Integer) page.references[index];
+		}
+
+		@Override
+		public void setInt(int location, int value) {
+			Page page = writablePage(location);
+			int index = location & PAGE_MASK;
+
+			page.data[index] = value;
+			page.references[index] = null;
+			page.tags[index] = INTEGER;
+		}
+
+		@Override
+		public boolean isInt(int location) {
+			Page page = page(location);
+			return page != null && page.tags[location & PAGE_MASK] == INTEGER;
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+	}
+
+	/**
+	 * Page of the memory, which holds {@link PagedMemory#PAGE_SIZE}
+	 * locations.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Page {
+		/**
+		 * Integers stored in the page.
+		 */
+		private final int[] data = new int[PAGE_SIZE];
+		/**
+		 * Tags of the locations of the page.
+		 */
+		private final byte[] tags = new byte[PAGE_SIZE];
+		/**
+		 * References (instructions and strings) stored in the page.
+		 */
+		private final Object[] references = new Object[PAGE_SIZE];
+	}
+}
@@ -15,14 +15,32 @@ import hr.fer.zemris.java.simplecomp.models.Registers;
  * using the methods inherited from interface {@link Registers}.
  * </p>
  * 
+ * <p>
+ * General purpose registers which hold integers are stored in an array of
+ * primitive integers, so they can be read and written trough methods of the
+ * interface {@link IntRegisters} without boxing. All other values (for example
+ * strings) are stored in a separate array of references, which is rarely used.
+ * </p>
+ * 
  * @author Luka Lazanja
  * @version 1.0
  */
-public class RegistersImpl implements Registers {
+public class RegistersImpl implements IntRegisters {
+	/**
+	 * Values of the general purpose registers which hold integers.
+	 */
+	private int[] values;
+	/**
+	 * Values of the general purpose registers which hold anything other than
+	 * an integer.
+	 */
+	private Object[] references;
 	/**
-	 * Registers for general purpose.
+	 * Flags which determine if the register on the same index holds an
+	 * integer, stored in {@link #values}, or a reference, stored in
+	 * {@link #references}.
 	 */
-	private Object[] registers;
+	private boolean[] integers;
 	/**
 	 * Program counter - represents an address of a next instruction which will
 	 * be done.
@@ -33,6 +51,10 @@ public class RegistersImpl implements Registers {
 	 * <code>false</code>.
 	 */
 	private boolean flag;
+	/**
+	 * View of these registers which does not check the indexes.
+	 */
+	private final UncheckedView unchecked = new UncheckedView();
 
 	/**
 	 * Allocates a new array of registers whose size is determined by the
@@ -47,19 +69,64 @@ public class RegistersImpl implements Registers {
 	 */
 	public RegistersImpl(int regsLen) {
 		isValidRegsLen(regsLen);
-		registers = new Object[regsLen];
+		values = new int[regsLen];
+		references = new Object[regsLen];
+		integers = new boolean[regsLen];
+	}
+
+	/**
+	 * Creates a copy of the provided registers, including the program counter
+	 * and the flag register.
+	 * 
+	 * @param other
+	 *            registers which are copied
+	 */
+	public RegistersImpl(RegistersImpl other) {
+		values = other.values.clone();
+		references = other.references.clone();
+		integers = other.integers.clone();
+		programCounter = other.programCounter;
+		flag = other.flag;
 	}
 
 	@Override
 	public Object getRegisterValue(int index) {
 		isValidIndex(index);
-		return registers[index];
+		return unchecked.getRegisterValue(index);
 	}
 
 	@Override
 	public void setRegisterValue(int index, Object value) {
 		isValidIndex(index);
-		registers[index] = value;
+		unchecked.setRegisterValue(index, value);
+	}
+
+	@Override
+	public int getInt(int index) {
+		isValidIndex(index);
+		return unchecked.getInt(index);
+	}
+
+	@Override
+	public void setInt(int index, int value) {
+		isValidIndex(index);
+		unchecked.setInt(index, value);
+	}
+
+	@Override
+	public boolean isInt(int index) {
+		isValidIndex(index);
+		return integers[index];
+	}
+
+	@Override
+	public int getSize() {
+		return values.length;
+	}
+
+	@Override
+	public IntRegisters unchecked() {
+		return unchecked;
 	}
 
 	@Override
@@ -119,9 +186,91 @@ public class RegistersImpl implements Registers {
 	 *            index of the register
 	 */
 	private void isValidIndex(int index) {
-		if (index < 0 || index > registers.length) {
+		if (index < 0 || index >= values.length) {
 			throw new IllegalArgumentException(
 					"Index of the register must be in the interval [0, number of registers - 1]!");
 		}
 	}
+
+	/**
+	 * View of the registers which accesses the arrays of the registers
+	 * without checking the indexes. Checked methods of the registers delegate
+	 * to it after the check, and the program counter and the flag are
+	 * accessed trough the registers.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntRegisters {
+
+		@Override
+		public Object getRegisterValue(int index) {
+			if (integers[index]) {
+				return Integer.valueOf(values[index]);
+			}
+			return references[index];
+		}
+
+		@Override
+		public void setRegisterValue(int index, Object value) {
+			if (value instanceof Integer) {
+				values[index] = (Integer) value;
+				references[index] = null;
+				integers[index] = true;
+			} else {
+				references[index] = value;
+				integers[index] = false;
+			}
+		}
+
+		@Override
+		public int getInt(int index) {
+			if (integers[index]) {
+				return values[index];
+			}
+			return (Integer) references[index];
+		}
+
+		@Override
+		public void setInt(int index, int value) {
+			values[index] = value;
+			references[index] = null;
+			integers[index] = true;
+		}
+
+		@Override
+		public boolean isInt(int index) {
+			return integers[index];
+		}
+
+		@Override
+		public int getSize() {
+			return values.length;
+		}
+
+		@Override
+		public int getProgramCounter() {
+			return programCounter;
+		}
+
+		@Override
+		public void setProgramCounter(int value) {
+			RegistersImpl.this.setProgramCounter(value);
+		}
+
+		@Override
+		public void incrementProgramCounter() {
+			programCounter++;
+		}
+
+		@Override
+		public boolean getFlag() {
+			return flag;
+		}
+
+		@Override
+		public void setFlag(boolean value) {
+			flag = value;
+		}
+	}
 }
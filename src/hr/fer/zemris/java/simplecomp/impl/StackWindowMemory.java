@@ -0,0 +1,293 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Memory which keeps the region of another memory used by the stack in
+ * arrays of primitive integers, while the program runs.
+ * </p>
+ * 
+ * <p>
+ * Window is the range of the locations which ends at the top of the stack,
+ * the initial value of the register {@link Registers#STACK_REGISTER_INDEX},
+ * and starts a fixed number of locations below it. When the memory is
+ * created, the window is copied from the underlying memory, and all accesses
+ * to its locations are then served from the arrays, without the boxing of the
+ * integers and without the checks of the underlying memory. Pushes, pops,
+ * calls, returns and the accesses to the frames like <code>[r15+4]</code>
+ * therefore never reach the underlying memory, while all other locations are
+ * read and written trough it.
+ * </p>
+ * 
+ * <p>
+ * Changed locations of the window are written back to the underlying memory
+ * by {@link #flush()}, so the program observes exactly the same values as with
+ * the underlying memory alone, as long as the underlying memory is not
+ * accessed directly before the flush.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class StackWindowMemory implements IntMemory {
+	/**
+	 * Memory whose region is kept in the window.
+	 */
+	private final IntMemory memory;
+	/**
+	 * First location of the window.
+	 */
+	private final int base;
+	/**
+	 * Values of the locations of the window which hold integers.
+	 */
+	private final int[] values;
+	/**
+	 * Values of the locations of the window which hold anything other than an
+	 * integer.
+	 */
+	private final Object[] references;
+	/**
+	 * Flags which determine if the location on the same index holds an
+	 * integer, stored in {@link #values}, or a reference, stored in
+	 * {@link #references}.
+	 */
+	private final boolean[] integers;
+	/**
+	 * Flags which determine if the location on the same index was written
+	 * since the last flush.
+	 */
+	private final boolean[] written;
+	/**
+	 * View of this memory which does not check the locations outside of the
+	 * window.
+	 */
+	private final UncheckedView unchecked;
+
+	/**
+	 * Constructor which copies the window from the provided memory. Window
+	 * ends at the provided location and is at most of the provided size, or
+	 * smaller if it would start before the location 0. If the top of the
+	 * stack is not a location of the memory, an
+	 * {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param memory
+	 *            memory whose region is kept in the window
+	 * @param top
+	 *            top of the stack, the last location of the window
+	 * @param size
+	 *            maximal number of the locations of the window
+	 */
+	public StackWindowMemory(IntMemory memory, int top, int size) {
+		if (memory == null) {
+			throw new IllegalArgumentException("Memory can not be null!");
+		} else if (top < 0 || top >= memory.getSize()) {
+			throw new IllegalArgumentException("Top of the stack " + top
+					+ " is not a location of the memory!");
+		} else if (size < 1) {
+			throw new IllegalArgumentException(
+					"Size of the window must be larger than zero!");
+		}
+
+		this.memory = memory;
+		this.base = Math.max(0, top - size + 1);
+
+		int length = top - base + 1;
+		values = new int[length];
+		references = new Object[length];
+		integers = new boolean[length];
+		written = new boolean[length];
+
+		for (int index = 0; index < length; index++) {
+			if (memory.isInt(base + index)) {
+				values[index] = memory.getInt(base + index);
+				integers[index] = true;
+			} else {
+				references[index] = memory.getLocation(base + index);
+			}
+		}
+
+		unchecked = new UncheckedView(memory.unchecked());
+	}
+
+	/**
+	 * Gets the memory whose region is kept in the window.
+	 * 
+	 * @return underlying memory
+	 */
+	public IntMemory getMemory() {
+		return memory;
+	}
+
+	/**
+	 * Writes the locations of the window changed since the last flush to the
+	 * underlying memory.
+	 */
+	public void flush() {
+		for (int index = 0; index < written.length; index++) {
+			if (!written[index]) {
+				continue;
+			}
+
+			if (integers[index]) {
+				memory.setInt(base + index, values[index]);
+			} else {
+				memory.setLocation(base + index, references[index]);
+			}
+			written[index] = false;
+		}
+	}
+
+	@Override
+	public void setLocation(int location, Object value) {
+		int index = location - base;
+		if (index < 0 || index >= values.length) {
+			memory.setLocation(location, value);
+		} else if (value instanceof Integer) {
+			store(index, (Integer) value);
+		} else {
+			integers[index] = false;
+			references[index] = value;
+			written[index] = true;
+		}
+	}
+
+	@Override
+	public Object getLocation(int location) {
+		int index = location - base;
+		if (index < 0 || index >= values.length) {
+			return memory.getLocation(location);
+		} else if (integers[index]) {
+			return Integer.valueOf(values[index]);
+		}
+		return references[index];
+	}
+
+	@Override
+	public int getInt(int location) {
+		int index = location - base;
+		if (index < 0 || index >= values.length) {
+			return memory.getInt(location);
+		} else if (integers[index]) {
+			return values[index];
+		}
+		return (Integer) references[index];
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		int index = location - base;
+		if (index < 0 || index >= values.length) {
+			memory.setInt(location, value);
+		} else {
+			store(index, value);
+		}
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		int index = location - base;
+		if (index < 0 || index >= values.length) {
+			return memory.isInt(location);
+		}
+		return integers[index];
+	}
+
+	@Override
+	public int getSize() {
+		return memory.getSize();
+	}
+
+	@Override
+	public IntMemory unchecked() {
+		return unchecked;
+	}
+
+	/**
+	 * Help method which stores the integer to the location of the window.
+	 * 
+	 * @param index
+	 *            index of the location in the window
+	 * @param value
+	 *            integer which is stored
+	 */
+	private void store(int index, int value) {
+		values[index] = value;
+		integers[index] = true;
+		references[index] = null;
+		written[index] = true;
+	}
+
+	/**
+	 * View of this memory whose locations outside of the window are accessed
+	 * trough the view of the underlying memory which does not check them.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntMemory {
+		/**
+		 * View of the underlying memory which does not check the locations.
+		 */
+		private final IntMemory view;
+
+		/**
+		 * Constructor which creates the view.
+		 * 
+		 * @param view
+		 *            view of the underlying memory which does not check the
+		 *            locations
+		 */
+		private UncheckedView(IntMemory view) {
+			this.view = view;
+		}
+
+		@Override
+		public void setLocation(int location, Object value) {
+			if (location < base || location - base >= values.length) {
+				view.setLocation(location, value);
+			} else {
+				StackWindowMemory.this.setLocation(location, value);
+			}
+		}
+
+		@Override
+		public Object getLocation(int location) {
+			if (location < base || location - base >= values.length) {
+				return view.getLocation(location);
+			}
+			return StackWindowMemory.this.getLocation(location);
+		}
+
+		@Override
+		public int getInt(int location) {
+			if (location < base || location - base >= values.length) {
+				return view.getInt(location);
+			}
+			return StackWindowMemory.this.getInt(location);
+		}
+
+		@Override
+		public void setInt(int location, int value) {
+			if (location < base || location - base >= values.length) {
+				view.setInt(location, value);
+			} else {
+				StackWindowMemory.this.setInt(location, value);
+			}
+		}
+
+		@Override
+		public boolean isInt(int location) {
+			if (location < base || location - base >= values.length) {
+				return view.isInt(location);
+			}
+			return StackWindowMemory.this.isInt(location);
+		}
+
+		@Override
+		public int getSize() {
+			return view.getSize();
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+/**
+ * <p>
+ * Class which represents an implementation of computer memory backed by an
+ * array of primitive integers.
+ * </p>
+ * 
+ * <p>
+ * Every location of this memory has a tag which determines what the location
+ * holds: nothing, an integer or a reference. Integers are stored in an array of
+ * primitive integers, so reading and writing them trough the methods of the
+ * interface {@link IntMemory} does not allocate. All other values
+ * (instructions and strings) are stored in a side table of references.
+ * </p>
+ * 
+ * <p>
+ * This memory is observably the same as {@link MemoryImpl}, so the two can be
+ * exchanged when creating a {@link ComputerImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TaggedMemoryImpl implements IntMemory {
+	/**
+	 * Tag of a location to which nothing was stored.
+	 */
+	private static final byte EMPTY = 0;
+	/**
+	 * Tag of a location which holds an integer.
+	 */
+	private static final byte INTEGER = 1;
+	/**
+	 * Tag of a location which holds a reference.
+	 */
+	private static final byte REFERENCE = 2;
+
+	/**
+	 * Integers stored in this memory.
+	 */
+	private int[] data;
+	/**
+	 * Tags of the locations of this memory.
+	 */
+	private byte[] tags;
+	/**
+	 * References (instructions and strings) stored in this memory.
+	 */
+	private Object[] references;
+	/**
+	 * View of this memory which does not check the locations.
+	 */
+	private final UncheckedView unchecked = new UncheckedView();
+
+	/**
+	 * Initializes the arrays of this memory whose size is represented by the
+	 * argument. Valid size of the memory is a number larger than zero. If user
+	 * enters an invalid number, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param size
+	 *            size of the memory
+	 */
+	public TaggedMemoryImpl(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException(
+					"Size of the memory must be larger than zero!");
+		}
+		data = new int[size];
+		tags = new byte[size];
+		references = new Object[size];
+	}
+
+	@Override
+	public void setLocation(int location, Object value) {
+		isValidLocation(location);
+		unchecked.setLocation(location, value);
+	}
+
+	@Override
+	public Object getLocation(int location) {
+		isValidLocation(location);
+		return unchecked.getLocation(location);
+	}
+
+	@Override
+	public int getInt(int location) {
+		isValidLocation(location);
+		return unchecked.getInt(location);
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		isValidLocation(location);
+		unchecked.setInt(location, value);
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		isValidLocation(location);
+		return tags[location] == INTEGER;
+	}
+
+	@Override
+	public int getSize() {
+		return data.length;
+	}
+
+	@Override
+	public IntMemory unchecked() {
+		return unchecked;
+	}
+
+	/**
+	 * Helper method which checks if user has entered a valid memory location.
+	 * Valid location is in interval [0, size - 1]. If invalid location was
+	 * provided, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param location
+	 *            location in the memory
+	 */
+	private void isValidLocation(int location) {
+		if (location < 0 || location >= data.length) {
+			throw new IllegalArgumentException(
+					"Location in the memory has to be in the interval [1, size - 1]!");
+		}
+	}
+
+	/**
+	 * View of the memory which accesses the arrays of the memory without
+	 * checking the locations. Checked methods of the memory delegate to it
+	 * after the check.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class UncheckedView implements IntMemory {
+
+		@Override
+		public void setLocation(int location, Object value) {
+			if (value instanceof Integer) {
+				data[location] = (Integer) value;
+				references[location] = null;
+				tags[location] = INTEGER;
+
+			} else if (value == null) {
+				references[location] = null;
+				tags[location] = EMPTY;
+
+			} else {
+				references[location] = value;
+				tags[location] = REFERENCE;
+			}
+		}
+
+		@Override
+		public Object getLocation(int location) {
+			if (tags[location] == INTEGER) {
+				return Integer.valueOf(data[location]);
+			}
+			return references[location];
+		}
+
+		@Override
+		public int getInt(int location) {
+			if (tags[location] == INTEGER) {
+				return data[location];
+			}
+			return (Integer) references[location];
+		}
+
+		@Override
+		public void setInt(int location, int value) {
+			data[location] = value;
+			references[location] = null;
+			tags[location] = INTEGER;
+		}
+
+		@Override
+		public boolean isInt(int location) {
+			return tags[location] == INTEGER;
+		}
+
+		@Override
+		public int getSize() {
+			return data.length;
+		}
+	}
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import hr.fer.zemris.java.simplecomp.RegisterUtil;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.Instruction;
 import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
 
 /**
  * Represents the instruction add. This instruction requires <b>three</b>
@@ -54,14 +55,43 @@ public class InstrAdd implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
-		Object value1 = computer.getRegisters()
-				.getRegisterValue(registerIndex2);
-		Object value2 = computer.getRegisters()
-				.getRegisterValue(registerIndex3);
+		Registers registers = computer.getRegisters();
 
-		computer.getRegisters().setRegisterValue(registerIndex1,
-				Integer.valueOf((Integer) value1 + (Integer) value2));
+		int value1 = InstructionsUtil.getIntRegister(registers,
+				registerIndex2);
+		int value2 = InstructionsUtil.getIntRegister(registers,
+				registerIndex3);
+
+		InstructionsUtil.setIntRegister(registers, registerIndex1,
+				value1 + value2);
 
 		return false;
 	}
+
+	/**
+	 * Gets the index of the first register which is an argument of this instruction.
+	 * 
+	 * @return index of the first register which is an argument of this instruction
+	 */
+	public int getRegisterIndex1() {
+		return registerIndex1;
+	}
+
+	/**
+	 * Gets the index of the second register which is an argument of this instruction.
+	 * 
+	 * @return index of the second register which is an argument of this instruction
+	 */
+	public int getRegisterIndex2() {
+		return registerIndex2;
+	}
+
+	/**
+	 * Gets the index of the third register which is an argument of this instruction.
+	 * 
+	 * @return index of the third register which is an argument of this instruction
+	 */
+	public int getRegisterIndex3() {
+		return registerIndex3;
+	}
 }
\ No newline at end of file
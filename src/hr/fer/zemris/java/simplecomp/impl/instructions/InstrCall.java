@@ -43,17 +43,26 @@ public class InstrCall implements Instruction {
 	public boolean execute(Computer computer) {
 		Registers registers = computer.getRegisters();
 
-		int topOfStack = (Integer) registers
-				.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
 
-		computer.getMemory().setLocation(topOfStack,
+		InstructionsUtil.setIntLocation(computer.getMemory(), topOfStack,
 				registers.getProgramCounter());
 
-		registers.setRegisterValue(Registers.STACK_REGISTER_INDEX,
-				topOfStack - 1);
+		InstructionsUtil.setIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX, topOfStack - 1);
 
 		registers.setProgramCounter(address);
 
 		return false;
 	}
+
+	/**
+	 * Gets the address of the next instruction which will be done.
+	 * 
+	 * @return address of the next instruction which will be done
+	 */
+	public int getAddress() {
+		return address;
+	}
 }
\ No newline at end of file
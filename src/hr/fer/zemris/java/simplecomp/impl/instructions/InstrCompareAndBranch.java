@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents the instruction testEquals followed by the instruction
+ * jumpIfTrue, fused into a single instruction by the
+ * {@link InstructionFusion}. It compares the values of two registers, sets the
+ * flag register and then sets the <b>program counter</b> register to the
+ * address of the jump if the values are equal, or to the address after the
+ * jumpIfTrue instruction otherwise.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrCompareAndBranch implements Instruction {
+	/**
+	 * Index of the first register which is compared.
+	 */
+	private int registerIndex1;
+
+	/**
+	 * Index of the second register which is compared.
+	 */
+	private int registerIndex2;
+
+	/**
+	 * Address of the next instruction if the values are equal.
+	 */
+	private int address;
+
+	/**
+	 * Initializes class variables of this class from the instructions which
+	 * are fused.
+	 * 
+	 * @param test
+	 *            instruction testEquals
+	 * @param jump
+	 *            instruction jumpIfTrue which follows it
+	 */
+	public InstrCompareAndBranch(InstrTestEquals test, InstrJumpIfTrue jump) {
+		registerIndex1 = test.getRegisterIndex1();
+		registerIndex2 = test.getRegisterIndex2();
+		address = jump.getAddress();
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		boolean equal;
+		if (registers instanceof IntRegisters
+				&& ((IntRegisters) registers).isInt(registerIndex1)
+				&& ((IntRegisters) registers).isInt(registerIndex2)) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+			equal = intRegisters.getInt(registerIndex1) == intRegisters
+					.getInt(registerIndex2);
+		} else {
+			equal = registers.getRegisterValue(registerIndex1)
+					.equals(registers.getRegisterValue(registerIndex2));
+		}
+
+		registers.setFlag(equal);
+
+		if (equal) {
+			registers.setProgramCounter(address);
+		} else {
+			registers.incrementProgramCounter();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Gets the index of the first register which is compared.
+	 * 
+	 * @return index of the first register which is compared
+	 */
+	public int getRegisterIndex1() {
+		return registerIndex1;
+	}
+
+	/**
+	 * Gets the index of the second register which is compared.
+	 * 
+	 * @return index of the second register which is compared
+	 */
+	public int getRegisterIndex2() {
+		return registerIndex2;
+	}
+
+	/**
+	 * Gets the address of the next instruction if the values are equal.
+	 * 
+	 * @return address of the next instruction if the values are equal
+	 */
+	public int getAddress() {
+		return address;
+	}
+}
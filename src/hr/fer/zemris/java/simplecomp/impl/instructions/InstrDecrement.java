@@ -6,6 +6,7 @@ import hr.fer.zemris.java.simplecomp.RegisterUtil;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.Instruction;
 import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
 
 /**
  * Represents the instruction decrement. This instruction requires <b>a
@@ -40,11 +41,21 @@ public class InstrDecrement implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
-		Object value = computer.getRegisters().getRegisterValue(registerIndex);
+		Registers registers = computer.getRegisters();
 
-		computer.getRegisters().setRegisterValue(registerIndex,
-				Integer.valueOf((Integer) value - 1));
+		int value = InstructionsUtil.getIntRegister(registers, registerIndex);
+
+		InstructionsUtil.setIntRegister(registers, registerIndex, value - 1);
 
 		return false;
 	}
+
+	/**
+	 * Gets the index of the register which is the argument of this instruction.
+	 * 
+	 * @return index of the register which is the argument of this instruction
+	 */
+	public int getRegisterIndex() {
+		return registerIndex;
+	}
 }
\ No newline at end of file
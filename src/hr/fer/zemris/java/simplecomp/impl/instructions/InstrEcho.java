@@ -9,8 +9,8 @@ import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
 /**
  * Represents the instruction echo. This instruction requires <b>a single</b>
  * argument: a register which <b>can</b> support <b>indirect addressing</b>. It
- * prints the value from the location specified by the argument to the standard
- * output.
+ * prints the value from the location specified by the argument to the output
+ * of the computer, which is by default the standard output.
  * 
  * @author Luka Lazanja
  * @version 1.0
@@ -42,7 +42,7 @@ public class InstrEcho implements Instruction {
 		Object value = InstructionsUtil.getValueFromLocation(computer,
 				argument);
 
-		System.out.print(value);
+		InstructionsUtil.print(computer, String.valueOf(value));
 
 		return false;
 	}
@@ -63,4 +63,13 @@ public class InstrEcho implements Instruction {
 					"Type missmatch for argument 0, must be a register!");
 		}
 	}
-}
+
+	/**
+	 * Gets the argument of this instruction.
+	 * 
+	 * @return argument of this instruction
+	 */
+	public InstructionArgument getArgument() {
+		return argument;
+	}
+}
\ No newline at end of file
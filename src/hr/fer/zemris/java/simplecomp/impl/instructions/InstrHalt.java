@@ -9,7 +9,8 @@ import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
 
 /**
  * Represents the instruction halt. This instruction does not require any
- * arguments. It terminates the work of the {@link ExecutionUnit}.
+ * arguments. It flushes the output of the computer and terminates the work of
+ * the {@link ExecutionUnit}.
  * 
  * @author Luka Lazanja
  * @version 1.0
@@ -30,6 +31,7 @@ public class InstrHalt implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
+		InstructionsUtil.flushOutput(computer);
 		return true;
 	}
 }
\ No newline at end of file
@@ -1,9 +1,6 @@
 package hr.fer.zemris.java.simplecomp.impl.instructions;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.List;
 
 import hr.fer.zemris.java.simplecomp.models.Computer;
@@ -12,9 +9,11 @@ import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
 
 /**
  * Represents the instruction iinput. This instruction requires <b>a single</b>
- * argument: an address which represents the memory location. It reads a line
- * from the standard input. If the line represents an {@link Integer}, value of
- * the flag register is set to <code>true</code>. Otherwise, sets it to
+ * argument: an address which represents the memory location. It flushes the
+ * output of the computer, so the user can see the messages printed before, and
+ * reads a line from the input of the computer, which is by default the
+ * standard input. If the line represents an {@link Integer}, value of the flag
+ * register is set to <code>true</code>. Otherwise, sets it to
  * <code>false</code>.
  * 
  * @author Luka Lazanja
@@ -43,17 +42,17 @@ public class InstrIinput implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
-		BufferedReader reader = new BufferedReader(
-				new InputStreamReader(new BufferedInputStream(System.in)));
+		InstructionsUtil.flushOutput(computer);
 
 		try {
-			String line = reader.readLine();
+			String line = InstructionsUtil.readLine(computer);
 
 			int number = Integer.parseInt(line);
 
 			computer.getRegisters().setFlag(true);
 
-			computer.getMemory().setLocation(memoryLocation, number);
+			InstructionsUtil.setIntLocation(computer.getMemory(),
+					memoryLocation, number);
 
 		} catch (IOException e) {
 			System.err.println(e.getMessage());
@@ -65,4 +64,13 @@ public class InstrIinput implements Instruction {
 
 		return false;
 	}
+
+	/**
+	 * Gets the memory location to which the number is stored.
+	 * 
+	 * @return memory location to which the number is stored
+	 */
+	public int getMemoryLocation() {
+		return memoryLocation;
+	}
 }
\ No newline at end of file
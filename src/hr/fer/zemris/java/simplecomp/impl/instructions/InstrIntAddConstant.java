@@ -0,0 +1,127 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents the instruction increment or decrement specialized for the
+ * register which always holds an integer. It adds a constant to the primitive
+ * integer of the {@link IntRegisters}, without any casts or boxing. If the
+ * registers do not implement {@link IntRegisters} or the register does not
+ * hold an integer, the instruction is replaced by the generic
+ * {@link InstrIncrement} or {@link InstrDecrement}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrIntAddConstant extends SpecializedInstruction {
+	/**
+	 * Index of the register which is changed.
+	 */
+	private final int registerIndex;
+	/**
+	 * Constant which is added to the register.
+	 */
+	private final int constant;
+
+	/**
+	 * Initializes class variables of this class from the generic instruction
+	 * increment.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param increment
+	 *            generic instruction which is replaced
+	 */
+	public InstrIntAddConstant(int address, InstrIncrement increment) {
+		this(address, increment, true);
+	}
+
+	/**
+	 * Initializes class variables of this class from the generic instruction
+	 * increment.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param increment
+	 *            generic instruction which is replaced
+	 * @param checked
+	 *            <code>false</code> if the register is proved to hold an
+	 *            integer, so it is not checked
+	 */
+	public InstrIntAddConstant(int address, InstrIncrement increment,
+			boolean checked) {
+		this(address, increment, increment.getRegisterIndex(), 1, checked);
+	}
+
+	/**
+	 * Initializes class variables of this class from the generic instruction
+	 * decrement.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param decrement
+	 *            generic instruction which is replaced
+	 */
+	public InstrIntAddConstant(int address, InstrDecrement decrement) {
+		this(address, decrement, true);
+	}
+
+	/**
+	 * Initializes class variables of this class from the generic instruction
+	 * decrement.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param decrement
+	 *            generic instruction which is replaced
+	 * @param checked
+	 *            <code>false</code> if the register is proved to hold an
+	 *            integer, so it is not checked
+	 */
+	public InstrIntAddConstant(int address, InstrDecrement decrement,
+			boolean checked) {
+		this(address, decrement, decrement.getRegisterIndex(), -1, checked);
+	}
+
+	/**
+	 * Initializes class variables of this class.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param generic
+	 *            generic instruction which is replaced
+	 * @param registerIndex
+	 *            index of the register which is changed
+	 * @param constant
+	 *            constant which is added to the register
+	 * @param checked
+	 *            <code>false</code> if the register is proved to hold an
+	 *            integer, so it is not checked
+	 */
+	private InstrIntAddConstant(int address, Instruction generic,
+			int registerIndex, int constant, boolean checked) {
+		super(address, generic, checked);
+		this.registerIndex = registerIndex;
+		this.constant = constant;
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		if (registers instanceof IntRegisters) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+
+			if (!isChecked() || intRegisters.isInt(registerIndex)) {
+				intRegisters.setInt(registerIndex,
+						intRegisters.getInt(registerIndex) + constant);
+				return false;
+			}
+		}
+
+		return deoptimize(computer);
+	}
+}
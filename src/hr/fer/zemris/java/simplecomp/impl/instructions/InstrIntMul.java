@@ -0,0 +1,79 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents the instruction mul specialized for the registers which always
+ * hold integers. It reads and writes the primitive integers of the
+ * {@link IntRegisters}, without any casts or boxing. If the registers do not
+ * implement {@link IntRegisters} or some of the operands does not hold an
+ * integer, the instruction is replaced by the generic {@link InstrMul}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrIntMul extends SpecializedInstruction {
+	/**
+	 * Index of the register to which the product is stored.
+	 */
+	private final int registerIndex1;
+	/**
+	 * Index of the register which holds the first operand.
+	 */
+	private final int registerIndex2;
+	/**
+	 * Index of the register which holds the second operand.
+	 */
+	private final int registerIndex3;
+
+	/**
+	 * Initializes class variables of this class from the generic instruction.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param mul
+	 *            generic instruction which is replaced
+	 */
+	public InstrIntMul(int address, InstrMul mul) {
+		this(address, mul, true);
+	}
+
+	/**
+	 * Initializes class variables of this class from the generic instruction.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param mul
+	 *            generic instruction which is replaced
+	 * @param checked
+	 *            <code>false</code> if the operands are proved to be
+	 *            integers, so they are not checked
+	 */
+	public InstrIntMul(int address, InstrMul mul, boolean checked) {
+		super(address, mul, checked);
+		registerIndex1 = mul.getRegisterIndex1();
+		registerIndex2 = mul.getRegisterIndex2();
+		registerIndex3 = mul.getRegisterIndex3();
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		if (registers instanceof IntRegisters) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+
+			if (!isChecked() || intRegisters.isInt(registerIndex2)
+					&& intRegisters.isInt(registerIndex3)) {
+				intRegisters.setInt(registerIndex1,
+						intRegisters.getInt(registerIndex2)
+								* intRegisters.getInt(registerIndex3));
+				return false;
+			}
+		}
+
+		return deoptimize(computer);
+	}
+}
@@ -0,0 +1,76 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents the instruction testEquals specialized for the registers which
+ * always hold integers. It compares the primitive integers of the
+ * {@link IntRegisters}, instead of boxing them and comparing them by
+ * {@link Object#equals(Object)}. If the registers do not implement
+ * {@link IntRegisters} or some of the registers does not hold an integer, the
+ * instruction is replaced by the generic {@link InstrTestEquals}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrIntTestEquals extends SpecializedInstruction {
+	/**
+	 * Index of the first register which is compared.
+	 */
+	private final int registerIndex1;
+	/**
+	 * Index of the second register which is compared.
+	 */
+	private final int registerIndex2;
+
+	/**
+	 * Initializes class variables of this class from the generic instruction.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param test
+	 *            generic instruction which is replaced
+	 */
+	public InstrIntTestEquals(int address, InstrTestEquals test) {
+		this(address, test, true);
+	}
+
+	/**
+	 * Initializes class variables of this class from the generic instruction.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param test
+	 *            generic instruction which is replaced
+	 * @param checked
+	 *            <code>false</code> if the operands are proved to be
+	 *            integers, so they are not checked
+	 */
+	public InstrIntTestEquals(int address, InstrTestEquals test,
+			boolean checked) {
+		super(address, test, checked);
+		registerIndex1 = test.getRegisterIndex1();
+		registerIndex2 = test.getRegisterIndex2();
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		if (registers instanceof IntRegisters) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+
+			if (!isChecked() || intRegisters.isInt(registerIndex1)
+					&& intRegisters.isInt(registerIndex2)) {
+				intRegisters.setFlag(intRegisters
+						.getInt(registerIndex1) == intRegisters
+								.getInt(registerIndex2));
+				return false;
+			}
+		}
+
+		return deoptimize(computer);
+	}
+}
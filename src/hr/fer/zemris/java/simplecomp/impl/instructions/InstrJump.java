@@ -41,4 +41,13 @@ public class InstrJump implements Instruction {
 		computer.getRegisters().setProgramCounter(address);
 		return false;
 	}
+
+	/**
+	 * Gets the address of the next instruction which will be done.
+	 * 
+	 * @return address of the next instruction which will be done
+	 */
+	public int getAddress() {
+		return address;
+	}
 }
\ No newline at end of file
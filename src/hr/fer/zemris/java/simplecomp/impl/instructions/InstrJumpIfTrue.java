@@ -48,4 +48,13 @@ public class InstrJumpIfTrue implements Instruction {
 
 		return false;
 	}
+
+	/**
+	 * Gets the address of the next instruction which will be done.
+	 * 
+	 * @return address of the next instruction which will be done
+	 */
+	public int getAddress() {
+		return address;
+	}
 }
\ No newline at end of file
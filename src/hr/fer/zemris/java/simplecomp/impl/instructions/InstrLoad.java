@@ -50,9 +50,8 @@ public class InstrLoad implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
-		Object value = computer.getMemory().getLocation(memoryLocation);
-
-		computer.getRegisters().setRegisterValue(registerIndex, value);
+		InstructionsUtil.copyMemoryToRegister(computer, memoryLocation,
+				registerIndex);
 
 		return false;
 	}
@@ -80,4 +79,22 @@ public class InstrLoad implements Instruction {
 					"Type missmatch for argument 1, must be a memory location!");
 		}
 	}
+
+	/**
+	 * Gets the index of the register to which the value is loaded.
+	 * 
+	 * @return index of the register to which the value is loaded
+	 */
+	public int getRegisterIndex() {
+		return registerIndex;
+	}
+
+	/**
+	 * Gets the memory location from which the value is loaded.
+	 * 
+	 * @return memory location from which the value is loaded
+	 */
+	public int getMemoryLocation() {
+		return memoryLocation;
+	}
 }
\ No newline at end of file
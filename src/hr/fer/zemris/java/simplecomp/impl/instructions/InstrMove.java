@@ -46,16 +46,13 @@ public class InstrMove implements Instruction {
 
 	@Override
 	public boolean execute(Computer computer) {
-		Object value;
-
 		if (secondArg.isNumber()) {
-			value = secondArg.getValue();
+			InstructionsUtil.setValueToLocation(computer, firstArg,
+					secondArg.getValue());
 		} else {
-			value = InstructionsUtil.getValueFromLocation(computer, secondArg);
+			InstructionsUtil.copyValue(computer, firstArg, secondArg);
 		}
 
-		InstructionsUtil.setValueToLocation(computer, firstArg, value);
-
 		return false;
 	}
 
@@ -81,4 +78,22 @@ public class InstrMove implements Instruction {
 							+ "indirect memory address or a number.");
 		}
 	}
-}
+
+	/**
+	 * Gets the first argument of this instruction.
+	 * 
+	 * @return first argument of this instruction
+	 */
+	public InstructionArgument getFirstArgument() {
+		return firstArg;
+	}
+
+	/**
+	 * Gets the second argument of this instruction.
+	 * 
+	 * @return second argument of this instruction
+	 */
+	public InstructionArgument getSecondArgument() {
+		return secondArg;
+	}
+}
\ No newline at end of file
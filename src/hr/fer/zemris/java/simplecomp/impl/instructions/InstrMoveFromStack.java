@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents the instruction move whose first argument is a register which
+ * does not use indirect addressing and whose second argument is an indirect
+ * address relative to the stack register, for example
+ * <code>move r0, [r15+2]</code>. It is created by the
+ * {@link InstructionFusion} and copies the value from the memory location
+ * directly, without decoding the arguments.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrMoveFromStack implements Instruction {
+	/**
+	 * Index of the register to which the value is copied.
+	 */
+	private int registerIndex;
+
+	/**
+	 * Offset of the memory location from the top of the stack.
+	 */
+	private int offset;
+
+	/**
+	 * Initializes class variables of this class.
+	 * 
+	 * @param registerIndex
+	 *            index of the register to which the value is copied
+	 * @param offset
+	 *            offset of the memory location from the top of the stack
+	 */
+	public InstrMoveFromStack(int registerIndex, int offset) {
+		this.registerIndex = registerIndex;
+		this.offset = offset;
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		int topOfStack = InstructionsUtil.getIntRegister(
+				computer.getRegisters(), Registers.STACK_REGISTER_INDEX);
+
+		InstructionsUtil.copyMemoryToRegister(computer, topOfStack + offset,
+				registerIndex);
+
+		return false;
+	}
+
+	/**
+	 * Gets the index of the register to which the value is copied.
+	 * 
+	 * @return index of the register to which the value is copied
+	 */
+	public int getRegisterIndex() {
+		return registerIndex;
+	}
+
+	/**
+	 * Gets the offset of the memory location from the top of the stack.
+	 * 
+	 * @return offset of the memory location from the top of the stack
+	 */
+	public int getOffset() {
+		return offset;
+	}
+}
@@ -44,16 +44,27 @@ public class InstrPop implements Instruction {
 	public boolean execute(Computer computer) {
 		Registers registers = computer.getRegisters();
 
-		int topOfStack = (Integer) registers
-				.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
 
-		Object value = computer.getMemory().getLocation(topOfStack + 1);
+		InstructionsUtil.copyMemoryToRegister(computer, topOfStack + 1,
+				registerIndex);
 
-		registers.setRegisterValue(Registers.STACK_REGISTER_INDEX,
-				topOfStack + 1);
-
-		registers.setRegisterValue(registerIndex, value);
+		// value popped to the register r15 replaces the top of the stack
+		if (registerIndex != Registers.STACK_REGISTER_INDEX) {
+			InstructionsUtil.setIntRegister(registers,
+					Registers.STACK_REGISTER_INDEX, topOfStack + 1);
+		}
 
 		return false;
 	}
-}
+
+	/**
+	 * Gets the index of the register which is the argument of this instruction.
+	 * 
+	 * @return index of the register which is the argument of this instruction
+	 */
+	public int getRegisterIndex() {
+		return registerIndex;
+	}
+}
\ No newline at end of file
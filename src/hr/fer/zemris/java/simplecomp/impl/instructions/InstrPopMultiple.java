@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents a sequence of pop instructions, fused into a single instruction
+ * by the {@link InstructionFusion}. It pops the values from the top of the
+ * stack to the registers in the order of the original instructions and then
+ * moves the <b>program counter</b> register past the last of them.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrPopMultiple implements Instruction {
+	/**
+	 * Indexes of the registers to which the values are popped.
+	 */
+	private int[] registerIndexes;
+
+	/**
+	 * Initializes class variable of this class from the instructions which
+	 * are fused.
+	 * 
+	 * @param pops
+	 *            pop instructions, in the order in which they are stored in
+	 *            the memory
+	 */
+	public InstrPopMultiple(InstrPop... pops) {
+		registerIndexes = new int[pops.length];
+
+		for (int i = 0; i < pops.length; i++) {
+			registerIndexes[i] = pops[i].getRegisterIndex();
+		}
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		for (int registerIndex : registerIndexes) {
+			int topOfStack = InstructionsUtil.getIntRegister(registers,
+					Registers.STACK_REGISTER_INDEX);
+
+			InstructionsUtil.copyMemoryToRegister(computer, topOfStack + 1,
+					registerIndex);
+
+			// value popped to the register r15 replaces the top of the stack
+			if (registerIndex != Registers.STACK_REGISTER_INDEX) {
+				InstructionsUtil.setIntRegister(registers,
+						Registers.STACK_REGISTER_INDEX, topOfStack + 1);
+			}
+		}
+
+		registers.setProgramCounter(registers.getProgramCounter()
+				+ registerIndexes.length - 1);
+
+		return false;
+	}
+
+	/**
+	 * Gets the indexes of the registers to which the values are popped.
+	 * 
+	 * @return indexes of the registers to which the values are popped
+	 */
+	public int[] getRegisterIndexes() {
+		return registerIndexes.clone();
+	}
+}
@@ -44,16 +44,24 @@ public class InstrPush implements Instruction {
 	public boolean execute(Computer computer) {
 		Registers registers = computer.getRegisters();
 
-		Object value = registers.getRegisterValue(registerIndex);
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
 
-		int topOfStack = (Integer) registers
-				.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+		InstructionsUtil.copyRegisterToMemory(computer, registerIndex,
+				topOfStack);
 
-		computer.getMemory().setLocation(topOfStack, value);
-
-		registers.setRegisterValue(Registers.STACK_REGISTER_INDEX,
-				topOfStack - 1);
+		InstructionsUtil.setIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX, topOfStack - 1);
 
 		return false;
 	}
+
+	/**
+	 * Gets the index of the register which is the argument of this instruction.
+	 * 
+	 * @return index of the register which is the argument of this instruction
+	 */
+	public int getRegisterIndex() {
+		return registerIndex;
+	}
 }
\ No newline at end of file
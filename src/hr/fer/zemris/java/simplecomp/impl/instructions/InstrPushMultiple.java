@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * Represents a sequence of push instructions, fused into a single instruction
+ * by the {@link InstructionFusion}. It pushes the values from the registers to
+ * the top of the stack in the order of the original instructions and then
+ * moves the <b>program counter</b> register past the last of them.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrPushMultiple implements Instruction {
+	/**
+	 * Indexes of the registers which are pushed.
+	 */
+	private int[] registerIndexes;
+
+	/**
+	 * Initializes class variable of this class from the instructions which
+	 * are fused.
+	 * 
+	 * @param pushes
+	 *            push instructions, in the order in which they are stored in
+	 *            the memory
+	 */
+	public InstrPushMultiple(InstrPush... pushes) {
+		registerIndexes = new int[pushes.length];
+
+		for (int i = 0; i < pushes.length; i++) {
+			registerIndexes[i] = pushes[i].getRegisterIndex();
+		}
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
+
+		for (int registerIndex : registerIndexes) {
+			InstructionsUtil.copyRegisterToMemory(computer, registerIndex,
+					topOfStack);
+
+			topOfStack--;
+			InstructionsUtil.setIntRegister(registers,
+					Registers.STACK_REGISTER_INDEX, topOfStack);
+		}
+
+		registers.setProgramCounter(registers.getProgramCounter()
+				+ registerIndexes.length - 1);
+
+		return false;
+	}
+
+	/**
+	 * Gets the indexes of the registers which are pushed.
+	 * 
+	 * @return indexes of the registers which are pushed
+	 */
+	public int[] getRegisterIndexes() {
+		return registerIndexes.clone();
+	}
+}
@@ -33,14 +33,15 @@ public class InstrRet implements Instruction {
 	public boolean execute(Computer computer) {
 		Registers registers = computer.getRegisters();
 
-		int topOfStack = (Integer) registers
-				.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
 
-		int adress = (Integer) computer.getMemory().getLocation(topOfStack + 1);
-
-		registers.setRegisterValue(Registers.STACK_REGISTER_INDEX,
+		int adress = InstructionsUtil.getIntLocation(computer.getMemory(),
 				topOfStack + 1);
 
+		InstructionsUtil.setIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX, topOfStack + 1);
+
 		registers.setProgramCounter(adress);
 
 		return false;
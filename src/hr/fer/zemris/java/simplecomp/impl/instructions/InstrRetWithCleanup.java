@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Represents the instruction ret fused with the instructions
+ * <code>increment r15</code> which follow the calls of the subroutines and
+ * remove their arguments from the stack. It is created by the
+ * {@link InstructionFusion}.
+ * </p>
+ * 
+ * <p>
+ * The return address is popped from the stack just like with the instruction
+ * ret. If the locations starting from the return address hold the cleanup
+ * instructions, the stack register is increased by their number and the
+ * <b>program counter</b> register is set to the address after them, so they
+ * are not executed one by one.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstrRetWithCleanup implements Instruction {
+	/**
+	 * Flags which determine for every memory location if it holds a cleanup
+	 * instruction which follows a call.
+	 */
+	private boolean[] cleanup;
+
+	/**
+	 * Initializes class variable of this class. Provided array is not copied,
+	 * so it can be shared by all ret instructions of the program.
+	 * 
+	 * @param cleanup
+	 *            flags which determine for every memory location if it holds
+	 *            a cleanup instruction which follows a call
+	 */
+	public InstrRetWithCleanup(boolean[] cleanup) {
+		this.cleanup = cleanup;
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		Registers registers = computer.getRegisters();
+
+		int topOfStack = InstructionsUtil.getIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX);
+
+		int adress = InstructionsUtil.getIntLocation(computer.getMemory(),
+				topOfStack + 1);
+
+		topOfStack++;
+		while (adress >= 0 && adress < cleanup.length && cleanup[adress]) {
+			topOfStack++;
+			adress++;
+		}
+
+		InstructionsUtil.setIntRegister(registers,
+				Registers.STACK_REGISTER_INDEX, topOfStack);
+
+		registers.setProgramCounter(adress);
+
+		return false;
+	}
+}
@@ -83,4 +83,22 @@ public class InstrTestEquals implements Instruction {
 			}
 		}
 	}
-}
+
+	/**
+	 * Gets the index of the first register which is an argument of this instruction.
+	 * 
+	 * @return index of the first register which is an argument of this instruction
+	 */
+	public int getRegisterIndex1() {
+		return registerIndex1;
+	}
+
+	/**
+	 * Gets the index of the second register which is an argument of this instruction.
+	 * 
+	 * @return index of the second register which is an argument of this instruction
+	 */
+	public int getRegisterIndex2() {
+		return registerIndex2;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,239 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Optimization pass which is run on the program after it has been loaded to
+ * the memory. It replaces the frequently executed sequences of instructions
+ * with the fused instructions, so the execution unit has to fetch and execute
+ * a single instruction instead of several of them:
+ * </p>
+ * 
+ * <ul>
+ * <li>testEquals followed by jumpIfTrue is replaced by
+ * {@link InstrCompareAndBranch},</li>
+ * <li>sequences of push instructions are replaced by
+ * {@link InstrPushMultiple},</li>
+ * <li>sequences of pop instructions are replaced by
+ * {@link InstrPopMultiple},</li>
+ * <li>move from the location relative to the stack register is replaced by
+ * {@link InstrMoveFromStack},</li>
+ * <li>if some call is followed by <code>increment r15</code>, ret instructions
+ * are replaced by {@link InstrRetWithCleanup}, which executes those
+ * increments when it returns.</li>
+ * </ul>
+ * 
+ * <p>
+ * Fused instruction is stored only to the location of the first instruction of
+ * the sequence. Other instructions of the sequence are left as they are, so
+ * the jumps to the middle of the sequence still work. Since the pass is run
+ * only once, it should not be used for programs which store instructions to
+ * the memory while they run.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstructionFusion {
+
+	/**
+	 * Runs the pass on the program stored in the provided memory.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @return number of the fusions which were applied
+	 */
+	public static int fuse(IntMemory memory) {
+		return fuse(memory, memory.getSize());
+	}
+
+	/**
+	 * Runs the pass on the first locations of the provided memory. Used for
+	 * large memories, like the {@link PagedMemory}, whose program takes only
+	 * a small part of them.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param size
+	 *            number of the locations from the start of the memory which
+	 *            hold the program
+	 * @return number of the fusions which were applied
+	 */
+	public static int fuse(IntMemory memory, int size) {
+		if (size < 0 || size > memory.getSize()) {
+			throw new IllegalArgumentException("Size " + size
+					+ " is not in the interval [0, " + memory.getSize()
+					+ "]!");
+		}
+		int fusions = 0;
+
+		for (int address = 0; address < size;) {
+			Object value = SpecializedInstruction
+					.unwrap(memory.getLocation(address));
+			Object nextValue = address + 1 < size
+					? memory.getLocation(address + 1) : null;
+
+			if (isExactly(value, InstrTestEquals.class)
+					&& isExactly(nextValue, InstrJumpIfTrue.class)) {
+				memory.setLocation(address,
+						new InstrCompareAndBranch((InstrTestEquals) value,
+								(InstrJumpIfTrue) nextValue));
+				fusions++;
+				address += 2;
+
+			} else if (isExactly(value, InstrPush.class)
+					&& isExactly(nextValue, InstrPush.class)) {
+				List<InstrPush> pushes = new ArrayList<>();
+				while (address + pushes.size() < size && isExactly(
+						memory.getLocation(address + pushes.size()),
+						InstrPush.class)) {
+					pushes.add((InstrPush) memory
+							.getLocation(address + pushes.size()));
+				}
+				memory.setLocation(address, new InstrPushMultiple(
+						pushes.toArray(new InstrPush[pushes.size()])));
+				fusions++;
+				address += pushes.size();
+
+			} else if (isExactly(value, InstrPop.class)
+					&& isExactly(nextValue, InstrPop.class)) {
+				List<InstrPop> pops = new ArrayList<>();
+				while (address + pops.size() < size && isExactly(
+						memory.getLocation(address + pops.size()),
+						InstrPop.class)) {
+					pops.add((InstrPop) memory
+							.getLocation(address + pops.size()));
+				}
+				memory.setLocation(address, new InstrPopMultiple(
+						pops.toArray(new InstrPop[pops.size()])));
+				fusions++;
+				address += pops.size();
+
+			} else if (isMoveFromStack(value)) {
+				InstrMove move = (InstrMove) value;
+				int destination = (Integer) move.getFirstArgument().getValue();
+				int source = (Integer) move.getSecondArgument().getValue();
+
+				memory.setLocation(address,
+						new InstrMoveFromStack(
+								RegisterUtil.getRegisterIndex(destination),
+								RegisterUtil.getRegisterOffset(source)));
+				fusions++;
+				address++;
+
+			} else {
+				address++;
+			}
+		}
+
+		return fusions + fuseCleanups(memory, size);
+	}
+
+	/**
+	 * Helper method which replaces the ret instructions by
+	 * {@link InstrRetWithCleanup} if some call in the program is followed by
+	 * <code>increment r15</code>.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param size
+	 *            number of the locations which hold the program
+	 * @return number of the calls followed by the cleanup instructions
+	 */
+	private static int fuseCleanups(IntMemory memory, int size) {
+		boolean[] cleanup = new boolean[size];
+		int calls = 0;
+
+		for (int address = 0; address + 1 < size; address++) {
+			if (!isExactly(memory.getLocation(address), InstrCall.class)) {
+				continue;
+			}
+
+			int location = address + 1;
+			while (location < size && isCleanup(memory.getLocation(location))) {
+				cleanup[location] = true;
+				location++;
+			}
+			if (location > address + 1) {
+				calls++;
+			}
+		}
+
+		if (calls == 0) {
+			return 0;
+		}
+
+		InstrRetWithCleanup ret = new InstrRetWithCleanup(cleanup);
+		for (int address = 0; address < size; address++) {
+			if (isExactly(memory.getLocation(address), InstrRet.class)) {
+				memory.setLocation(address, ret);
+			}
+		}
+
+		return calls;
+	}
+
+	/**
+	 * Helper method which checks if the value is an instruction of exactly the
+	 * provided class. Subclasses are not accepted, since they could change the
+	 * behavior of the instruction.
+	 * 
+	 * @param value
+	 *            value which is checked
+	 * @param type
+	 *            class of the instruction
+	 * @return <code>true</code> if the value is an instruction of the provided
+	 *         class, <code>false</code> otherwise
+	 */
+	private static boolean isExactly(Object value, Class<?> type) {
+		return value != null && value.getClass() == type;
+	}
+
+	/**
+	 * Helper method which checks if the value is the instruction
+	 * <code>increment r15</code>.
+	 * 
+	 * @param value
+	 *            value which is checked
+	 * @return <code>true</code> if the value increments the stack register,
+	 *         <code>false</code> otherwise
+	 */
+	private static boolean isCleanup(Object value) {
+		return isExactly(value, InstrIncrement.class)
+				&& ((InstrIncrement) value)
+						.getRegisterIndex() == Registers.STACK_REGISTER_INDEX;
+	}
+
+	/**
+	 * Helper method which checks if the value is a move from the location
+	 * relative to the stack register to a register.
+	 * 
+	 * @param value
+	 *            value which is checked
+	 * @return <code>true</code> if the value is a move from the stack,
+	 *         <code>false</code> otherwise
+	 */
+	private static boolean isMoveFromStack(Object value) {
+		if (!isExactly(value, InstrMove.class)) {
+			return false;
+		}
+
+		InstructionArgument destination = ((InstrMove) value)
+				.getFirstArgument();
+		InstructionArgument source = ((InstrMove) value).getSecondArgument();
+
+		return !RegisterUtil.isIndirect((Integer) destination.getValue())
+				&& source.isRegister()
+				&& RegisterUtil.isIndirect((Integer) source.getValue())
+				&& RegisterUtil.getRegisterIndex((Integer) source
+						.getValue()) == Registers.STACK_REGISTER_INDEX;
+	}
+}
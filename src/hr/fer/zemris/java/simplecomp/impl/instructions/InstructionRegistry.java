@@ -0,0 +1,74 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.InstructionCreator;
+
+/**
+ * <p>
+ * Instruction creator which creates the instructions trough a table of
+ * factories, one for every mnemonic. It is populated with the constructors of
+ * all instructions listed in {@link Opcode}, so it can replace the creator
+ * from the parser, which finds the class of every instruction by its name and
+ * calls the constructor trough reflection.
+ * </p>
+ * 
+ * <p>
+ * Additional instructions can be added by
+ * {@link #register(String, Function)}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstructionRegistry implements InstructionCreator {
+	/**
+	 * Factories of the instructions by their mnemonics.
+	 */
+	private final Map<String, Function<List<InstructionArgument>, Instruction>> factories = new HashMap<>();
+
+	/**
+	 * Constructor which creates the registry of all instructions listed in
+	 * {@link Opcode}.
+	 */
+	public InstructionRegistry() {
+		for (Opcode opcode : Opcode.values()) {
+			factories.put(opcode.getMnemonic(), opcode::create);
+		}
+	}
+
+	/**
+	 * Registers the factory of the instruction with the provided mnemonic. If
+	 * the instruction has already been registered, its factory is replaced.
+	 * 
+	 * @param mnemonic
+	 *            name of the instruction used in the assembly code
+	 * @param factory
+	 *            factory which creates the instruction from its arguments
+	 */
+	public void register(String mnemonic,
+			Function<List<InstructionArgument>, Instruction> factory) {
+		if (mnemonic == null || factory == null) {
+			throw new IllegalArgumentException(
+					"Mnemonic and factory can not be null!");
+		}
+		factories.put(mnemonic, factory);
+	}
+
+	@Override
+	public Instruction getInstruction(String name,
+			List<InstructionArgument> arguments) {
+		Function<List<InstructionArgument>, Instruction> factory = factories
+				.get(name);
+		if (factory == null) {
+			throw new IllegalArgumentException(
+					"Unknown instruction " + name + "!");
+		}
+		return factory.apply(arguments);
+	}
+}
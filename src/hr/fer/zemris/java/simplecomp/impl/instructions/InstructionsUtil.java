@@ -1,10 +1,18 @@
 package hr.fer.zemris.java.simplecomp.impl.instructions;
 
+import java.io.IOException;
 import java.util.List;
 
 import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.io.InputDevice;
+import hr.fer.zemris.java.simplecomp.io.OutputDevice;
+import hr.fer.zemris.java.simplecomp.io.StandardInputDevice;
 import hr.fer.zemris.java.simplecomp.models.Computer;
 import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Memory;
 import hr.fer.zemris.java.simplecomp.models.Registers;
 
 /**
@@ -16,6 +24,11 @@ import hr.fer.zemris.java.simplecomp.models.Registers;
  * @version 1.0
  */
 public class InstructionsUtil {
+	/**
+	 * Standard input used by the computers which do not have an
+	 * {@link InputDevice}.
+	 */
+	private static final InputDevice STANDARD_INPUT = new StandardInputDevice();
 
 	/**
 	 * Help method used to validate arguments of the instructions which require
@@ -98,9 +111,8 @@ public class InstructionsUtil {
 		if (argument.isRegister() && RegisterUtil.isIndirect(argValue)) {
 			int index = RegisterUtil.getRegisterIndex(argValue);
 
-			int memoryLocation = (Integer) computer.getRegisters()
-					.getRegisterValue(index)
-					+ RegisterUtil.getRegisterOffset(argValue);
+			int memoryLocation = getIntRegister(computer.getRegisters(),
+					index) + RegisterUtil.getRegisterOffset(argValue);
 
 			value = computer.getMemory().getLocation(memoryLocation);
 		} else {
@@ -132,7 +144,7 @@ public class InstructionsUtil {
 		if (argument.isRegister() && RegisterUtil.isIndirect(argValue)) {
 			int index = RegisterUtil.getRegisterIndex(argValue);
 
-			int memoryLocation = (Integer) registers.getRegisterValue(index)
+			int memoryLocation = getIntRegister(registers, index)
 					+ RegisterUtil.getRegisterOffset(argValue);
 
 			computer.getMemory().setLocation(memoryLocation, value);
@@ -157,4 +169,267 @@ public class InstructionsUtil {
 					"No arguments are required for this instruction.");
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Help method which gets the integer value of the register with the
+	 * provided index. If registers implement {@link IntRegisters}, the value is
+	 * read without unboxing, otherwise it is read as an {@link Object} and cast
+	 * to {@link Integer}.
+	 * 
+	 * @param registers
+	 *            {@link Registers} object
+	 * @param index
+	 *            index of the register
+	 * @return integer value of the register
+	 */
+	public static int getIntRegister(Registers registers, int index) {
+		if (registers instanceof IntRegisters) {
+			return ((IntRegisters) registers).getInt(index);
+		}
+		return (Integer) registers.getRegisterValue(index);
+	}
+
+	/**
+	 * Help method which sets the integer value to the register with the
+	 * provided index. If registers implement {@link IntRegisters}, the value is
+	 * stored without boxing, otherwise it is boxed and stored as an
+	 * {@link Object}.
+	 * 
+	 * @param registers
+	 *            {@link Registers} object
+	 * @param index
+	 *            index of the register
+	 * @param value
+	 *            value which will be stored
+	 */
+	public static void setIntRegister(Registers registers, int index,
+			int value) {
+		if (registers instanceof IntRegisters) {
+			((IntRegisters) registers).setInt(index, value);
+		} else {
+			registers.setRegisterValue(index, Integer.valueOf(value));
+		}
+	}
+
+	/**
+	 * Help method which gets the integer stored on the provided memory
+	 * location. If memory implements {@link IntMemory}, the value is read
+	 * without unboxing, otherwise it is read as an {@link Object} and cast to
+	 * {@link Integer}.
+	 * 
+	 * @param memory
+	 *            {@link Memory} object
+	 * @param location
+	 *            location in the memory
+	 * @return integer stored on the location
+	 */
+	public static int getIntLocation(Memory memory, int location) {
+		if (memory instanceof IntMemory) {
+			return ((IntMemory) memory).getInt(location);
+		}
+		return (Integer) memory.getLocation(location);
+	}
+
+	/**
+	 * Help method which stores the integer to the provided memory location. If
+	 * memory implements {@link IntMemory}, the value is stored without boxing,
+	 * otherwise it is boxed and stored as an {@link Object}.
+	 * 
+	 * @param memory
+	 *            {@link Memory} object
+	 * @param location
+	 *            location in the memory
+	 * @param value
+	 *            value which will be stored
+	 */
+	public static void setIntLocation(Memory memory, int location,
+			int value) {
+		if (memory instanceof IntMemory) {
+			((IntMemory) memory).setInt(location, value);
+		} else {
+			memory.setLocation(location, Integer.valueOf(value));
+		}
+	}
+
+	/**
+	 * Help method which copies the value of the register with the provided
+	 * index to the provided memory location. Integers are copied without
+	 * boxing if both registers and memory of the computer support it.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @param registerIndex
+	 *            index of the register
+	 * @param location
+	 *            location in the memory
+	 */
+	public static void copyRegisterToMemory(Computer computer,
+			int registerIndex, int location) {
+		Registers registers = computer.getRegisters();
+		Memory memory = computer.getMemory();
+
+		if (registers instanceof IntRegisters && memory instanceof IntMemory
+				&& ((IntRegisters) registers).isInt(registerIndex)) {
+			((IntMemory) memory).setInt(location,
+					((IntRegisters) registers).getInt(registerIndex));
+			return;
+		}
+
+		memory.setLocation(location, registers.getRegisterValue(registerIndex));
+	}
+
+	/**
+	 * Help method which copies the value from the provided memory location to
+	 * the register with the provided index. Integers are copied without boxing
+	 * if both registers and memory of the computer support it.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @param location
+	 *            location in the memory
+	 * @param registerIndex
+	 *            index of the register
+	 */
+	public static void copyMemoryToRegister(Computer computer, int location,
+			int registerIndex) {
+		Registers registers = computer.getRegisters();
+		Memory memory = computer.getMemory();
+
+		if (registers instanceof IntRegisters && memory instanceof IntMemory
+				&& ((IntMemory) memory).isInt(location)) {
+			((IntRegisters) registers).setInt(registerIndex,
+					((IntMemory) memory).getInt(location));
+			return;
+		}
+
+		registers.setRegisterValue(registerIndex, memory.getLocation(location));
+	}
+
+	/**
+	 * Help method which copies the value from the location specified by the
+	 * source argument to the location specified by the destination argument.
+	 * Both arguments are registers which can support indirect addressing.
+	 * Integers are copied without boxing if both registers and memory of the
+	 * computer support it.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @param destination
+	 *            {@link InstructionArgument} which specifies the destination
+	 * @param source
+	 *            {@link InstructionArgument} which specifies the source
+	 */
+	public static void copyValue(Computer computer,
+			InstructionArgument destination, InstructionArgument source) {
+		Registers registers = computer.getRegisters();
+		Memory memory = computer.getMemory();
+
+		if (registers instanceof IntRegisters && memory instanceof IntMemory) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+			IntMemory intMemory = (IntMemory) memory;
+			int sourceValue = (Integer) source.getValue();
+
+			if (RegisterUtil.isIndirect(sourceValue)) {
+				int location = intRegisters
+						.getInt(RegisterUtil.getRegisterIndex(sourceValue))
+						+ RegisterUtil.getRegisterOffset(sourceValue);
+
+				if (intMemory.isInt(location)) {
+					setIntToLocation(computer, destination,
+							intMemory.getInt(location));
+					return;
+				}
+			} else if (intRegisters
+					.isInt(RegisterUtil.getRegisterIndex(sourceValue))) {
+				setIntToLocation(computer, destination, intRegisters
+						.getInt(RegisterUtil.getRegisterIndex(sourceValue)));
+				return;
+			}
+		}
+
+		setValueToLocation(computer, destination,
+				getValueFromLocation(computer, source));
+	}
+
+	/**
+	 * Help method which sets the integer to location specified by the
+	 * {@link InstructionArgument} argument. Argument is a register which can
+	 * support indirect addressing.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @param argument
+	 *            {@link InstructionArgument} object
+	 * @param value
+	 *            integer which will be stored to the location specified by
+	 *            the second argument
+	 */
+	public static void setIntToLocation(Computer computer,
+			InstructionArgument argument, int value) {
+		int argValue = (Integer) argument.getValue();
+
+		Registers registers = computer.getRegisters();
+
+		if (argument.isRegister() && RegisterUtil.isIndirect(argValue)) {
+			int index = RegisterUtil.getRegisterIndex(argValue);
+
+			int memoryLocation = getIntRegister(registers, index)
+					+ RegisterUtil.getRegisterOffset(argValue);
+
+			setIntLocation(computer.getMemory(), memoryLocation, value);
+
+		} else {
+			setIntRegister(registers, RegisterUtil.getRegisterIndex(argValue),
+					value);
+		}
+	}
+
+	/**
+	 * Help method which writes the text to the output of the computer. If the
+	 * computer is a {@link ComputerImpl}, text is written to its
+	 * {@link OutputDevice}, otherwise it is printed to the standard output.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @param text
+	 *            text which is written
+	 */
+	public static void print(Computer computer, String text) {
+		if (computer instanceof ComputerImpl) {
+			((ComputerImpl) computer).getOutputDevice().print(text);
+		} else {
+			System.out.print(text);
+		}
+	}
+
+	/**
+	 * Help method which reads the next line of the input of the computer. If
+	 * the computer is a {@link ComputerImpl}, line is read from its
+	 * {@link InputDevice}, otherwise from the standard input.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 * @return next line, or <code>null</code> if there is no more input
+	 * @throws IOException
+	 *             if there has been an input error
+	 */
+	public static String readLine(Computer computer) throws IOException {
+		if (computer instanceof ComputerImpl) {
+			return ((ComputerImpl) computer).getInputDevice().readLine();
+		}
+		return STANDARD_INPUT.readLine();
+	}
+
+	/**
+	 * Help method which flushes the output of the computer, if the computer is
+	 * a {@link ComputerImpl}. Output of other computers is not buffered.
+	 * 
+	 * @param computer
+	 *            {@link Computer} object
+	 */
+	public static void flushOutput(Computer computer) {
+		if (computer instanceof ComputerImpl) {
+			((ComputerImpl) computer).getOutputDevice().flush();
+		}
+	}
+}
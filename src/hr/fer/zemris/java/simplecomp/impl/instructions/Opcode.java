@@ -0,0 +1,219 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+
+/**
+ * Instructions which can be written in the assembly code, each with the name
+ * used in the code (mnemonic), a number which represents it in the binary
+ * image of a program, its class and a reference to the constructor of the
+ * class. Numbers are a part of the image format, so they must never be
+ * changed or reused.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public enum Opcode {
+	/**
+	 * Instruction {@link InstrAdd}.
+	 */
+	ADD(1, "add", InstrAdd.class, InstrAdd::new),
+	/**
+	 * Instruction {@link InstrCall}.
+	 */
+	CALL(2, "call", InstrCall.class, InstrCall::new),
+	/**
+	 * Instruction {@link InstrDecrement}.
+	 */
+	DECREMENT(3, "decrement", InstrDecrement.class, InstrDecrement::new),
+	/**
+	 * Instruction {@link InstrEcho}.
+	 */
+	ECHO(4, "echo", InstrEcho.class, InstrEcho::new),
+	/**
+	 * Instruction {@link InstrHalt}.
+	 */
+	HALT(5, "halt", InstrHalt.class, InstrHalt::new),
+	/**
+	 * Instruction {@link InstrIinput}.
+	 */
+	IINPUT(6, "iinput", InstrIinput.class, InstrIinput::new),
+	/**
+	 * Instruction {@link InstrIncrement}.
+	 */
+	INCREMENT(7, "increment", InstrIncrement.class, InstrIncrement::new),
+	/**
+	 * Instruction {@link InstrJump}.
+	 */
+	JUMP(8, "jump", InstrJump.class, InstrJump::new),
+	/**
+	 * Instruction {@link InstrJumpIfTrue}.
+	 */
+	JUMP_IF_TRUE(9, "jumpIfTrue", InstrJumpIfTrue.class, InstrJumpIfTrue::new),
+	/**
+	 * Instruction {@link InstrLoad}.
+	 */
+	LOAD(10, "load", InstrLoad.class, InstrLoad::new),
+	/**
+	 * Instruction {@link InstrMove}.
+	 */
+	MOVE(11, "move", InstrMove.class, InstrMove::new),
+	/**
+	 * Instruction {@link InstrMul}.
+	 */
+	MUL(12, "mul", InstrMul.class, InstrMul::new),
+	/**
+	 * Instruction {@link InstrPop}.
+	 */
+	POP(13, "pop", InstrPop.class, InstrPop::new),
+	/**
+	 * Instruction {@link InstrPush}.
+	 */
+	PUSH(14, "push", InstrPush.class, InstrPush::new),
+	/**
+	 * Instruction {@link InstrRet}.
+	 */
+	RET(15, "ret", InstrRet.class, InstrRet::new),
+	/**
+	 * Instruction {@link InstrTestEquals}.
+	 */
+	TEST_EQUALS(16, "testEquals", InstrTestEquals.class, InstrTestEquals::new);
+
+	/**
+	 * Opcodes by their numbers.
+	 */
+	private static final Opcode[] BY_CODE = new Opcode[256];
+	/**
+	 * Opcodes by the classes of their instructions.
+	 */
+	private static final Map<Class<?>, Opcode> BY_TYPE = new HashMap<>();
+
+	static {
+		for (Opcode opcode : values()) {
+			BY_CODE[opcode.code] = opcode;
+			BY_TYPE.put(opcode.type, opcode);
+		}
+	}
+
+	/**
+	 * Number which represents the instruction in the binary image.
+	 */
+	private final int code;
+	/**
+	 * Name of the instruction used in the assembly code.
+	 */
+	private final String mnemonic;
+	/**
+	 * Class of the instruction.
+	 */
+	private final Class<? extends Instruction> type;
+	/**
+	 * Factory which creates the instruction from its arguments.
+	 */
+	private final Function<List<InstructionArgument>, Instruction> factory;
+
+	/**
+	 * Constructor which initializes the opcode.
+	 * 
+	 * @param code
+	 *            number which represents the instruction in the binary image
+	 * @param mnemonic
+	 *            name of the instruction used in the assembly code
+	 * @param type
+	 *            class of the instruction
+	 * @param factory
+	 *            factory which creates the instruction from its arguments
+	 */
+	private Opcode(int code, String mnemonic,
+			Class<? extends Instruction> type,
+			Function<List<InstructionArgument>, Instruction> factory) {
+		this.code = code;
+		this.mnemonic = mnemonic;
+		this.type = type;
+		this.factory = factory;
+	}
+
+	/**
+	 * Gets the number which represents the instruction in the binary image.
+	 * 
+	 * @return number of the instruction
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * Gets the name of the instruction used in the assembly code.
+	 * 
+	 * @return name of the instruction
+	 */
+	public String getMnemonic() {
+		return mnemonic;
+	}
+
+	/**
+	 * Creates the instruction from the provided arguments. If the arguments
+	 * are not valid, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param arguments
+	 *            list of {@link InstructionArgument} objects
+	 * @return created instruction
+	 */
+	public Instruction create(List<InstructionArgument> arguments) {
+		return factory.apply(arguments);
+	}
+
+	/**
+	 * Gets the opcode with the provided number. If there is no such opcode, an
+	 * {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param code
+	 *            number of the instruction
+	 * @return opcode with the provided number
+	 */
+	public static Opcode forCode(int code) {
+		Opcode opcode = code >= 0 && code < BY_CODE.length ? BY_CODE[code]
+				: null;
+		if (opcode == null) {
+			throw new IllegalArgumentException("Unknown opcode " + code + "!");
+		}
+		return opcode;
+	}
+
+	/**
+	 * Gets the opcode of the instruction with the provided name. If there is
+	 * no such instruction, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param mnemonic
+	 *            name of the instruction used in the assembly code
+	 * @return opcode of the instruction
+	 */
+	public static Opcode forMnemonic(String mnemonic) {
+		for (Opcode opcode : values()) {
+			if (opcode.mnemonic.equals(mnemonic)) {
+				return opcode;
+			}
+		}
+		throw new IllegalArgumentException(
+				"Unknown instruction " + mnemonic + "!");
+	}
+
+	/**
+	 * Gets the opcode of the provided instruction. Specialized instructions
+	 * have the opcode of their generic instruction, while the fused
+	 * instructions and the instructions of other classes have no opcode.
+	 * 
+	 * @param instruction
+	 *            instruction whose opcode is returned
+	 * @return opcode of the instruction, or <code>null</code> if it has none
+	 */
+	public static Opcode forInstruction(Object instruction) {
+		Object generic = SpecializedInstruction.unwrap(instruction);
+		return generic == null ? null : BY_TYPE.get(generic.getClass());
+	}
+}
@@ -0,0 +1,142 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+/**
+ * <p>
+ * Base class of the instructions which replace the generic instructions when
+ * the types of their registers are known before the execution, for example
+ * from the analysis of the
+ * {@link hr.fer.zemris.java.simplecomp.verifier.TypeVerifier}.
+ * </p>
+ * 
+ * <p>
+ * Specialized instruction only checks that its registers hold the expected
+ * types and then works with them without any casts or boxing. If the check
+ * fails, for example because a string has reached the register, the
+ * instruction deoptimizes: it stores the generic instruction it has replaced
+ * back to its location in the memory and executes it, so from then on the
+ * generic instruction is always executed.
+ * </p>
+ * 
+ * <p>
+ * Checks are skipped when the types are proved, like for the programs which
+ * pass the verification of the
+ * {@link hr.fer.zemris.java.simplecomp.verifier.TypeVerifier}. Such
+ * instructions never deoptimize.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public abstract class SpecializedInstruction implements Instruction {
+	/**
+	 * Address of the location which holds this instruction.
+	 */
+	private final int address;
+	/**
+	 * Generic instruction which is replaced by this instruction.
+	 */
+	private final Instruction generic;
+	/**
+	 * Flag that determines if the types of the registers are checked.
+	 */
+	private final boolean checked;
+
+	/**
+	 * Initializes class variables of this class. Types of the registers are
+	 * checked.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param generic
+	 *            generic instruction which is replaced by this instruction
+	 */
+	protected SpecializedInstruction(int address, Instruction generic) {
+		this(address, generic, true);
+	}
+
+	/**
+	 * Initializes class variables of this class.
+	 * 
+	 * @param address
+	 *            address of the location which holds this instruction
+	 * @param generic
+	 *            generic instruction which is replaced by this instruction
+	 * @param checked
+	 *            <code>false</code> if the types of the registers are proved,
+	 *            so they are not checked
+	 */
+	protected SpecializedInstruction(int address, Instruction generic,
+			boolean checked) {
+		this.address = address;
+		this.generic = generic;
+		this.checked = checked;
+	}
+
+	/**
+	 * Replaces this instruction with the generic instruction and executes it.
+	 * Generic instruction is stored only if the location still holds this
+	 * instruction.
+	 * 
+	 * @param computer
+	 *            computer which executes the instruction
+	 * @return result of the generic instruction
+	 */
+	protected boolean deoptimize(Computer computer) {
+		Memory memory = computer.getMemory();
+		Object current = memory.getLocation(address);
+
+		if (current == this) {
+			memory.setLocation(address, generic);
+		}
+
+		return generic.execute(computer);
+	}
+
+	/**
+	 * Gets the address of the location which holds this instruction.
+	 * 
+	 * @return address of this instruction
+	 */
+	public int getAddress() {
+		return address;
+	}
+
+	/**
+	 * Gets the generic instruction which is replaced by this instruction.
+	 * 
+	 * @return generic instruction
+	 */
+	public Instruction getGeneric() {
+		return generic;
+	}
+
+	/**
+	 * Checks if the instruction checks the types of its registers.
+	 * 
+	 * @return <code>true</code> if the types are checked, <code>false</code>
+	 *         if they are proved
+	 */
+	public final boolean isChecked() {
+		return checked;
+	}
+
+	/**
+	 * Gets the generic instruction which is replaced by the provided value, if
+	 * it is a specialized instruction.
+	 * 
+	 * @param value
+	 *            content of a memory location
+	 * @return generic instruction, or the provided value if it is not a
+	 *         specialized instruction
+	 */
+	public static Object unwrap(Object value) {
+		if (value instanceof SpecializedInstruction) {
+			return ((SpecializedInstruction) value).generic;
+		}
+		return value;
+	}
+}
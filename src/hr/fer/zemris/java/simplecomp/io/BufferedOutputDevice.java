@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+/**
+ * Output device which collects the text in a buffer and writes it to its
+ * destination only when the buffer is full or when the device is flushed. This
+ * way many small writes, for example by the instruction echo in a loop, are
+ * written to the destination all at once.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public abstract class BufferedOutputDevice implements OutputDevice {
+	/**
+	 * Default size of the buffer, in characters.
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/**
+	 * Buffer which collects the text.
+	 */
+	private final StringBuilder buffer;
+	/**
+	 * Number of the characters after which the buffer is flushed.
+	 */
+	private final int capacity;
+
+	/**
+	 * Constructor which creates a device with the buffer of the provided size.
+	 * If the size is not larger than zero, an {@link IllegalArgumentException}
+	 * is thrown.
+	 * 
+	 * @param capacity
+	 *            size of the buffer, in characters
+	 */
+	protected BufferedOutputDevice(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity of the buffer must be larger than zero!");
+		}
+		this.capacity = capacity;
+		this.buffer = new StringBuilder();
+	}
+
+	@Override
+	public void print(String text) {
+		buffer.append(text);
+		if (buffer.length() >= capacity) {
+			flush();
+		}
+	}
+
+	@Override
+	public void flush() {
+		if (buffer.length() > 0) {
+			String text = buffer.toString();
+			buffer.setLength(0);
+			write(text);
+		}
+	}
+
+	/**
+	 * Writes the buffered text to the destination of this device.
+	 * 
+	 * @param text
+	 *            buffered text
+	 */
+	protected abstract void write(String text);
+}
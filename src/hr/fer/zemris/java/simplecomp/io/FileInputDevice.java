@@ -0,0 +1,28 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Input device which reads the lines from a file encoded in UTF-8. Device has
+ * to be closed when it is no longer used.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class FileInputDevice extends ReaderInputDevice {
+
+	/**
+	 * Constructor which opens the file.
+	 * 
+	 * @param file
+	 *            path to the file
+	 * @throws IOException
+	 *             if the file can not be opened
+	 */
+	public FileInputDevice(Path file) throws IOException {
+		super(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,82 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffered output device which writes to a file trough a {@link FileChannel},
+ * encoding the text in UTF-8. If the file can not be written, an
+ * {@link UncheckedIOException} is thrown. Device has to be closed when it is
+ * no longer used.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class FileOutputDevice extends BufferedOutputDevice {
+	/**
+	 * Channel to which the text is written.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Constructor which creates the file, or truncates it if it already
+	 * exists, and creates a device with the buffer of the default size.
+	 * 
+	 * @param file
+	 *            path to the file
+	 * @throws IOException
+	 *             if the file can not be opened
+	 */
+	public FileOutputDevice(Path file) throws IOException {
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates the file, or truncates it if it already
+	 * exists, and creates a device with the buffer of the provided size.
+	 * 
+	 * @param file
+	 *            path to the file
+	 * @param capacity
+	 *            size of the buffer, in characters
+	 * @throws IOException
+	 *             if the file can not be opened
+	 */
+	public FileOutputDevice(Path file, int capacity) throws IOException {
+		super(capacity);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	@Override
+	protected void write(String text) {
+		ByteBuffer bytes = ByteBuffer
+				.wrap(text.getBytes(StandardCharsets.UTF_8));
+		try {
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			flush();
+		} finally {
+			try {
+				channel.close();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Device from which the computer reads its input, for example trough the
+ * instruction iinput.
+ * </p>
+ * 
+ * <p>
+ * Device is read line by line, and it keeps whatever it has read ahead for the
+ * next line, so no input is lost between the reads.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface InputDevice extends AutoCloseable {
+	/**
+	 * Reads the next line from this device, without the line terminator.
+	 * 
+	 * @return next line, or <code>null</code> if there is no more input
+	 * @throws IOException
+	 *             if there has been an input error
+	 */
+	String readLine() throws IOException;
+
+	/**
+	 * Checks if {@link #readLine()} would return without waiting for the
+	 * input, either with the next line or with <code>null</code> at the end of
+	 * the input. Devices which can not tell always return <code>true</code>,
+	 * which is the default.
+	 * 
+	 * @return <code>true</code> if a line can be read without waiting,
+	 *         <code>false</code> otherwise
+	 */
+	default boolean isReady() {
+		return true;
+	}
+
+	/**
+	 * Releases the resources held by this device. By default does nothing.
+	 * 
+	 * @throws IOException
+	 *             if the resources can not be released
+	 */
+	@Override
+	default void close() throws IOException {
+	}
+}
@@ -0,0 +1,85 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input device which provides the lines prepared in the memory, for example by
+ * a test or by a batch of runs. Reading a line never blocks and does not
+ * allocate.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MemoryInputDevice implements InputDevice {
+	/**
+	 * Lines provided by this device.
+	 */
+	private final String[] lines;
+	/**
+	 * Index of the next line.
+	 */
+	private int position;
+
+	/**
+	 * Constructor which creates the device which provides the lines from the
+	 * list.
+	 * 
+	 * @param lines
+	 *            lines provided by the device
+	 */
+	public MemoryInputDevice(List<String> lines) {
+		this.lines = lines.toArray(new String[lines.size()]);
+	}
+
+	/**
+	 * Constructor which creates the device which provides the lines of the
+	 * text. Text is split into the lines the same way a
+	 * {@link BufferedReader} splits it.
+	 * 
+	 * @param text
+	 *            text provided by the device
+	 */
+	public MemoryInputDevice(String text) {
+		this(split(text));
+	}
+
+	@Override
+	public String readLine() {
+		return position < lines.length ? lines[position++] : null;
+	}
+
+	/**
+	 * Gets the number of the lines which have not been read yet.
+	 * 
+	 * @return number of the remaining lines
+	 */
+	public int getRemaining() {
+		return lines.length - position;
+	}
+
+	/**
+	 * Helper method which splits the text into the lines.
+	 * 
+	 * @param text
+	 *            text which is split
+	 * @return lines of the text
+	 */
+	private static List<String> split(String text) {
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new StringReader(text))) {
+			for (String line = reader.readLine(); line != null; line = reader
+					.readLine()) {
+				lines.add(line);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,40 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+/**
+ * Output device which keeps everything written to it in the memory, so it can
+ * be read later, for example by a test or by a batch of runs.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MemoryOutputDevice implements OutputDevice {
+	/**
+	 * Text written to this device.
+	 */
+	private final StringBuilder text = new StringBuilder();
+
+	@Override
+	public void print(String text) {
+		this.text.append(text);
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	/**
+	 * Gets everything written to this device.
+	 * 
+	 * @return text written to this device
+	 */
+	public String getText() {
+		return text.toString();
+	}
+
+	/**
+	 * Removes everything written to this device.
+	 */
+	public void clear() {
+		text.setLength(0);
+	}
+}
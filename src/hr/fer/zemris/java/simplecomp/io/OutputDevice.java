@@ -0,0 +1,41 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+/**
+ * <p>
+ * Device to which the computer writes its output, for example trough the
+ * instruction echo.
+ * </p>
+ * 
+ * <p>
+ * Devices may buffer the output, so it reaches its destination only when the
+ * device is flushed. Execution units flush the output device of the computer
+ * when the program stops, and the instruction iinput flushes it before it
+ * reads the input, so the user can see the messages printed before.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface OutputDevice extends AutoCloseable {
+	/**
+	 * Writes the text to this device.
+	 * 
+	 * @param text
+	 *            text which is written
+	 */
+	void print(String text);
+
+	/**
+	 * Writes all buffered text to the destination of this device.
+	 */
+	void flush();
+
+	/**
+	 * Flushes this device and releases the resources it holds. By default
+	 * only flushes the device.
+	 */
+	@Override
+	default void close() {
+		flush();
+	}
+}
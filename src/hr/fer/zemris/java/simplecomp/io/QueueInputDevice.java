@@ -0,0 +1,86 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import hr.fer.zemris.java.simplecomp.ResumableExecution;
+
+/**
+ * <p>
+ * Input device to which the lines are offered while the program is executed,
+ * for example by a host which feeds many guest computers. Device is not ready
+ * while it has no lines, so a {@link ResumableExecution} stops before the
+ * instruction iinput instead of blocking the thread.
+ * </p>
+ * 
+ * <p>
+ * After the device is closed, it provides the remaining lines and then the end
+ * of the input. Lines can be offered and read by different threads.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class QueueInputDevice implements InputDevice {
+	/**
+	 * Lines which have not been read yet.
+	 */
+	private final Queue<String> lines = new ArrayDeque<>();
+	/**
+	 * Flag that determines if no more lines will be offered.
+	 */
+	private boolean closed;
+
+	/**
+	 * Offers the line to the program. If the device is closed, an
+	 * {@link IllegalStateException} is thrown.
+	 * 
+	 * @param line
+	 *            line which is offered
+	 */
+	public synchronized void offer(String line) {
+		if (closed) {
+			throw new IllegalStateException("Device is closed!");
+		}
+		if (line == null) {
+			throw new IllegalArgumentException("Line can not be null!");
+		}
+		lines.add(line);
+		notifyAll();
+	}
+
+	@Override
+	public synchronized boolean isReady() {
+		return closed || !lines.isEmpty();
+	}
+
+	/**
+	 * Reads the next line. If there are no lines and the device is not
+	 * closed, waits until a line is offered or the device is closed.
+	 * 
+	 * @return next line, or <code>null</code> if the device is closed and
+	 *         all lines have been read
+	 */
+	@Override
+	public synchronized String readLine() {
+		while (lines.isEmpty() && !closed) {
+			try {
+				wait();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+		return lines.poll();
+	}
+
+	/**
+	 * Closes the device, so it provides the end of the input after the
+	 * remaining lines.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+	}
+}
@@ -0,0 +1,43 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Input device which reads the lines from a {@link BufferedReader}. Reader is
+ * created once and kept for the whole life of the device, so the input it
+ * reads ahead is used by the next reads.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ReaderInputDevice implements InputDevice {
+	/**
+	 * Reader from which the lines are read.
+	 */
+	private final BufferedReader reader;
+
+	/**
+	 * Constructor which creates the device which reads from the provided
+	 * reader.
+	 * 
+	 * @param reader
+	 *            reader from which the lines are read
+	 */
+	public ReaderInputDevice(BufferedReader reader) {
+		if (reader == null) {
+			throw new IllegalArgumentException("Reader can not be null!");
+		}
+		this.reader = reader;
+	}
+
+	@Override
+	public String readLine() throws IOException {
+		return reader.readLine();
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,42 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * <p>
+ * Input device which reads the lines from the standard input.
+ * </p>
+ * 
+ * <p>
+ * All instances of this class share a single reader, so the input read ahead
+ * by one of them is not lost for the others. Reader is created when it is
+ * first used, and created again if {@link System#in} is replaced.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class StandardInputDevice implements InputDevice {
+	/**
+	 * Standard input from which the shared reader reads.
+	 */
+	private static InputStream input;
+	/**
+	 * Reader shared by all instances of this class.
+	 */
+	private static BufferedReader reader;
+
+	@Override
+	public String readLine() throws IOException {
+		synchronized (StandardInputDevice.class) {
+			if (reader == null || input != System.in) {
+				input = System.in;
+				reader = new BufferedReader(new InputStreamReader(input));
+			}
+			return reader.readLine();
+		}
+	}
+}
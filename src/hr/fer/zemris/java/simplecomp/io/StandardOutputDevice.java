@@ -0,0 +1,34 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+/**
+ * Buffered output device which writes to the standard output, the same one
+ * used by {@link System#out} at the moment of the flush.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class StandardOutputDevice extends BufferedOutputDevice {
+
+	/**
+	 * Constructor which creates a device with the buffer of the default size.
+	 */
+	public StandardOutputDevice() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates a device with the buffer of the provided size.
+	 * 
+	 * @param capacity
+	 *            size of the buffer, in characters
+	 */
+	public StandardOutputDevice(int capacity) {
+		super(capacity);
+	}
+
+	@Override
+	protected void write(String text) {
+		System.out.print(text);
+		System.out.flush();
+	}
+}
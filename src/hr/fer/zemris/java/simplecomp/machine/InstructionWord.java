@@ -0,0 +1,193 @@
+package hr.fer.zemris.java.simplecomp.machine;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+
+/**
+ * <p>
+ * Utility class which provides methods used for creating the instruction
+ * words executed by the {@link MachineExecutionUnit} and for getting their
+ * fields.
+ * </p>
+ * 
+ * <p>
+ * Instruction word is a 64 bit integer. Bits on positions 63 - 57 hold the
+ * number of the operation, bits on positions 56 - 32 hold a register
+ * descriptor in the same format as described in the {@link RegisterUtil},
+ * and bits on positions 31 - 0 hold the immediate operand, which is an
+ * address, a memory location, a constant or another register descriptor.
+ * Instructions with three registers keep the index of the second register in
+ * the bits 7 - 0 of the immediate operand and the index of the third one in
+ * the bits 15 - 8. Operations which are also in the {@link Opcode} have the
+ * same numbers, and the word 0 is the operation {@link #FETCH}, so a location
+ * which was never encoded fetches the instruction from the memory.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class InstructionWord {
+	/**
+	 * Operation which fetches the instruction from the memory and executes it.
+	 */
+	public static final int FETCH = 0;
+	/**
+	 * Operation add.
+	 */
+	public static final int ADD = 1;
+	/**
+	 * Operation call, whose immediate operand is the address of the
+	 * subroutine.
+	 */
+	public static final int CALL = 2;
+	/**
+	 * Operation decrement.
+	 */
+	public static final int DECREMENT = 3;
+	/**
+	 * Operation halt.
+	 */
+	public static final int HALT = 5;
+	/**
+	 * Operation increment.
+	 */
+	public static final int INCREMENT = 7;
+	/**
+	 * Operation jump, whose immediate operand is the target address.
+	 */
+	public static final int JUMP = 8;
+	/**
+	 * Operation jumpIfTrue, whose immediate operand is the target address.
+	 */
+	public static final int JUMP_IF_TRUE = 9;
+	/**
+	 * Operation load, whose immediate operand is the memory location.
+	 */
+	public static final int LOAD = 10;
+	/**
+	 * Operation move, whose immediate operand is the descriptor of the
+	 * source.
+	 */
+	public static final int MOVE = 11;
+	/**
+	 * Operation mul.
+	 */
+	public static final int MUL = 12;
+	/**
+	 * Operation pop.
+	 */
+	public static final int POP = 13;
+	/**
+	 * Operation push.
+	 */
+	public static final int PUSH = 14;
+	/**
+	 * Operation ret.
+	 */
+	public static final int RET = 15;
+	/**
+	 * Operation testEquals, whose immediate operand is the index of the second
+	 * register.
+	 */
+	public static final int TEST_EQUALS = 16;
+	/**
+	 * Operation move whose immediate operand is the integer which is stored.
+	 */
+	public static final int MOVE_CONSTANT = 64;
+	/**
+	 * Operation which executes an instruction of the program which can not be
+	 * encoded, whose immediate operand is the index of the instruction.
+	 */
+	public static final int EXECUTE = 127;
+
+	/**
+	 * Creates the instruction word from its fields.
+	 * 
+	 * @param operation
+	 *            number of the operation, from 0 to 127
+	 * @param descriptor
+	 *            register descriptor
+	 * @param immediate
+	 *            immediate operand
+	 * @return instruction word
+	 */
+	public static long encode(int operation, int descriptor, int immediate) {
+		if (operation < 0 || operation > 127) {
+			throw new IllegalArgumentException(
+					"Invalid operation " + operation + "!");
+		}
+		return (long) operation << 57 | (descriptor & 0x1FFFFFFL) << 32
+				| immediate & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Creates the immediate operand which holds the indexes of two registers.
+	 * 
+	 * @param second
+	 *            index of the second register of the instruction
+	 * @param third
+	 *            index of the third register of the instruction
+	 * @return immediate operand
+	 */
+	public static int registers(int second, int third) {
+		return (second & 0xFF) | (third & 0xFF) << 8;
+	}
+
+	/**
+	 * Gets the number of the operation, determined by the bits on positions
+	 * 63 - 57 of the word.
+	 * 
+	 * @param word
+	 *            instruction word
+	 * @return number of the operation
+	 */
+	public static int getOperation(long word) {
+		return (int) (word >>> 57);
+	}
+
+	/**
+	 * Gets the register descriptor, determined by the bits on positions 56 -
+	 * 32 of the word.
+	 * 
+	 * @param word
+	 *            instruction word
+	 * @return register descriptor
+	 */
+	public static int getDescriptor(long word) {
+		return (int) (word >>> 32) & 0x1FFFFFF;
+	}
+
+	/**
+	 * Gets the immediate operand, determined by the bits on positions 31 - 0
+	 * of the word. This number can be <b>negative</b>.
+	 * 
+	 * @param word
+	 *            instruction word
+	 * @return immediate operand
+	 */
+	public static int getImmediate(long word) {
+		return (int) word;
+	}
+
+	/**
+	 * Gets the index of the second register from the immediate operand.
+	 * 
+	 * @param immediate
+	 *            immediate operand
+	 * @return index of the second register
+	 */
+	public static int getSecond(int immediate) {
+		return immediate & 0xFF;
+	}
+
+	/**
+	 * Gets the index of the third register from the immediate operand.
+	 * 
+	 * @param immediate
+	 *            immediate operand
+	 * @return index of the third register
+	 */
+	public static int getThird(int immediate) {
+		return (immediate >> 8) & 0xFF;
+	}
+}
@@ -0,0 +1,379 @@
+package hr.fer.zemris.java.simplecomp.machine;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+import hr.fer.zemris.java.simplecomp.threaded.ThreadedExecutionUnit;
+import hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which executes the programs
+ * encoded into the instruction words.
+ * </p>
+ * 
+ * <p>
+ * Before the execution, the whole memory is encoded into a
+ * {@link MachineProgram}, whose words are executed in a single loop which
+ * chooses the operation with a <code>switch</code> statement. Unlike the
+ * {@link ThreadedExecutionUnit}, which calls a different class for every
+ * instruction, the loop has only one place where the operation is chosen and
+ * the whole program is kept in a single array of primitive integers.
+ * </p>
+ * 
+ * <p>
+ * Program is encoded only once, so the programs which store instructions to
+ * the memory while they run are not supported: the locations keep executing
+ * the instructions they held when the program was encoded, and the writes to
+ * them are not detected. Computers whose registers and memory do not
+ * implement {@link IntRegisters} and {@link IntMemory} are executed by the
+ * {@link ExecutionUnitImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MachineExecutionUnit implements ExecutionUnit {
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		// Program whose fixed operands are valid accesses the registers and
+		// the fixed locations without the checks
+		boolean verified = BoundsVerifier.findViolation(memory,
+				ProgramDecoder.getProgramSize(memory),
+				registers.getSize()) == null;
+		MachineProgram program = MachineProgram.encode(memory, verified);
+
+		return execute(computer, program,
+				verified ? registers.unchecked() : registers, memory);
+	}
+
+	/**
+	 * Executes the encoded program from the address 0 until the instruction
+	 * halt. Fixed memory locations of a verified program are accessed trough
+	 * the view of the memory without the checks.
+	 * 
+	 * @param computer
+	 *            computer which executes the program
+	 * @param program
+	 *            encoded program
+	 * @param registers
+	 *            registers, or their view, used by the program
+	 * @param memory
+	 *            memory used by the program
+	 * @return <code>true</code> when the program halts
+	 */
+	public static boolean execute(Computer computer, MachineProgram program,
+			IntRegisters registers, IntMemory memory) {
+		long[] code = program.getCode();
+		IntMemory fixed = program.isVerified() ? memory.unchecked() : memory;
+		int pc = 0;
+
+		try {
+			while (true) {
+				long word = pc >= 0 && pc < code.length ? code[pc]
+						: InstructionWord.FETCH;
+				int descriptor = InstructionWord.getDescriptor(word);
+				int immediate = InstructionWord.getImmediate(word);
+				int next = pc + 1;
+
+				switch (InstructionWord.getOperation(word)) {
+				case InstructionWord.ADD:
+					registers.setInt(descriptor,
+							registers.getInt(InstructionWord.getSecond(
+									immediate))
+									+ registers.getInt(InstructionWord
+											.getThird(immediate)));
+					break;
+
+				case InstructionWord.MUL:
+					registers.setInt(descriptor,
+							registers.getInt(InstructionWord.getSecond(
+									immediate))
+									* registers.getInt(InstructionWord
+											.getThird(immediate)));
+					break;
+
+				case InstructionWord.INCREMENT:
+					registers.setInt(descriptor,
+							registers.getInt(descriptor) + 1);
+					break;
+
+				case InstructionWord.DECREMENT:
+					registers.setInt(descriptor,
+							registers.getInt(descriptor) - 1);
+					break;
+
+				case InstructionWord.TEST_EQUALS:
+					testEquals(registers, descriptor, immediate);
+					break;
+
+				case InstructionWord.JUMP:
+					next = immediate;
+					break;
+
+				case InstructionWord.JUMP_IF_TRUE:
+					if (registers.getFlag()) {
+						next = immediate;
+					}
+					break;
+
+				case InstructionWord.LOAD:
+					if (fixed.isInt(immediate)) {
+						registers.setInt(descriptor, fixed.getInt(immediate));
+					} else {
+						registers.setRegisterValue(descriptor,
+								fixed.getLocation(immediate));
+					}
+					break;
+
+				case InstructionWord.MOVE_CONSTANT:
+					storeInt(registers, memory, descriptor, immediate);
+					break;
+
+				case InstructionWord.MOVE:
+					move(registers, memory, descriptor, immediate);
+					break;
+
+				case InstructionWord.PUSH:
+					push(registers, memory, descriptor);
+					break;
+
+				case InstructionWord.POP:
+					pop(registers, memory, descriptor);
+					break;
+
+				case InstructionWord.CALL: {
+					int topOfStack = registers
+							.getInt(Registers.STACK_REGISTER_INDEX);
+					memory.setInt(topOfStack, next);
+					registers.setInt(Registers.STACK_REGISTER_INDEX,
+							topOfStack - 1);
+					next = immediate;
+					break;
+				}
+
+				case InstructionWord.RET: {
+					int topOfStack = registers
+							.getInt(Registers.STACK_REGISTER_INDEX);
+					next = memory.getInt(topOfStack + 1);
+					registers.setInt(Registers.STACK_REGISTER_INDEX,
+							topOfStack + 1);
+					// checks the address the same way the instruction ret does
+					registers.setProgramCounter(next);
+					break;
+				}
+
+				case InstructionWord.HALT:
+					return true;
+
+				case InstructionWord.EXECUTE:
+					registers.setProgramCounter(next);
+					if (program.getInstruction(immediate).execute(computer)) {
+						return true;
+					}
+					next = registers.getProgramCounter();
+					break;
+
+				case InstructionWord.FETCH: {
+					// Locations which did not hold an instruction fail the
+					// same way they do in ExecutionUnitImpl
+					Instruction instruction = (Instruction) memory
+							.getLocation(pc);
+					registers.setProgramCounter(next);
+					if (instruction.execute(computer)) {
+						return true;
+					}
+					next = registers.getProgramCounter();
+					break;
+				}
+
+				default:
+					throw new IllegalArgumentException(
+							"Word on the address " + pc
+									+ " has an unknown operation "
+									+ InstructionWord.getOperation(word)
+									+ "!");
+				}
+
+				pc = next;
+			}
+		} finally {
+			registers.setProgramCounter(pc + 1);
+			InstructionsUtil.flushOutput(computer);
+		}
+	}
+
+	/**
+	 * Help method which compares the values of two registers and sets the
+	 * flag.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param first
+	 *            index of the first register
+	 * @param second
+	 *            index of the second register
+	 */
+	private static void testEquals(IntRegisters registers, int first,
+			int second) {
+		if (registers.isInt(first) && registers.isInt(second)) {
+			registers.setFlag(
+					registers.getInt(first) == registers.getInt(second));
+		} else {
+			registers.setFlag(registers.getRegisterValue(first)
+					.equals(registers.getRegisterValue(second)));
+		}
+	}
+
+	/**
+	 * Help method which copies a value between registers or memory locations
+	 * determined by indirect addressing.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param destination
+	 *            descriptor of the destination
+	 * @param source
+	 *            descriptor of the source
+	 */
+	private static void move(IntRegisters registers, IntMemory memory,
+			int destination, int source) {
+		if (RegisterUtil.isIndirect(source)) {
+			int location = registers
+					.getInt(RegisterUtil.getRegisterIndex(source))
+					+ RegisterUtil.getRegisterOffset(source);
+
+			if (memory.isInt(location)) {
+				storeInt(registers, memory, destination,
+						memory.getInt(location));
+			} else {
+				store(registers, memory, destination,
+						memory.getLocation(location));
+			}
+
+		} else if (registers.isInt(source)) {
+			storeInt(registers, memory, destination, registers.getInt(source));
+
+		} else {
+			store(registers, memory, destination,
+					registers.getRegisterValue(source));
+		}
+	}
+
+	/**
+	 * Help method which pushes the value of a register to the stack.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param register
+	 *            index of the register
+	 */
+	private static void push(IntRegisters registers, IntMemory memory,
+			int register) {
+		int topOfStack = registers.getInt(Registers.STACK_REGISTER_INDEX);
+
+		if (registers.isInt(register)) {
+			memory.setInt(topOfStack, registers.getInt(register));
+		} else {
+			memory.setLocation(topOfStack,
+					registers.getRegisterValue(register));
+		}
+
+		registers.setInt(Registers.STACK_REGISTER_INDEX, topOfStack - 1);
+	}
+
+	/**
+	 * Help method which pops the value from the stack to a register.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param register
+	 *            index of the register
+	 */
+	private static void pop(IntRegisters registers, IntMemory memory,
+			int register) {
+		int location = registers.getInt(Registers.STACK_REGISTER_INDEX) + 1;
+
+		if (memory.isInt(location)) {
+			int value = memory.getInt(location);
+			registers.setInt(Registers.STACK_REGISTER_INDEX, location);
+			registers.setInt(register, value);
+
+		} else {
+			Object value = memory.getLocation(location);
+			registers.setInt(Registers.STACK_REGISTER_INDEX, location);
+			registers.setRegisterValue(register, value);
+		}
+	}
+
+	/**
+	 * Help method which stores the value to the location specified by the
+	 * descriptor.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param descriptor
+	 *            descriptor of the location
+	 * @param value
+	 *            value which is stored
+	 */
+	private static void store(IntRegisters registers, IntMemory memory,
+			int descriptor, Object value) {
+		if (RegisterUtil.isIndirect(descriptor)) {
+			memory.setLocation(registers
+					.getInt(RegisterUtil.getRegisterIndex(descriptor))
+					+ RegisterUtil.getRegisterOffset(descriptor), value);
+		} else {
+			registers.setRegisterValue(RegisterUtil.getRegisterIndex(descriptor),
+					value);
+		}
+	}
+
+	/**
+	 * Help method which stores the integer to the location specified by the
+	 * descriptor.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param descriptor
+	 *            descriptor of the location
+	 * @param value
+	 *            integer which is stored
+	 */
+	private static void storeInt(IntRegisters registers, IntMemory memory,
+			int descriptor, int value) {
+		if (RegisterUtil.isIndirect(descriptor)) {
+			memory.setInt(registers
+					.getInt(RegisterUtil.getRegisterIndex(descriptor))
+					+ RegisterUtil.getRegisterOffset(descriptor), value);
+		} else {
+			registers.setInt(RegisterUtil.getRegisterIndex(descriptor), value);
+		}
+	}
+}
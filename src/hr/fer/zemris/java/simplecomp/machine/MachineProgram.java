@@ -0,0 +1,297 @@
+package hr.fer.zemris.java.simplecomp.machine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Program in the form of the instruction words described in the
+ * {@link InstructionWord}, executed by the {@link MachineExecutionUnit}.
+ * </p>
+ * 
+ * <p>
+ * Word on index <code>i</code> represents the instruction on the memory
+ * location <code>i</code>. Instructions which can not be encoded, like echo,
+ * iinput and the fused instructions, are kept in a separate list and
+ * represented by the words of the operation {@link InstructionWord#EXECUTE}.
+ * Words can be changed after the program is encoded, so the code can be
+ * generated or patched while it runs.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MachineProgram {
+	/**
+	 * Instruction words.
+	 */
+	private final long[] code;
+	/**
+	 * Instructions which can not be encoded.
+	 */
+	private final List<Instruction> instructions = new ArrayList<>();
+	/**
+	 * Flag that determines if the fixed memory locations of the program were
+	 * verified.
+	 */
+	private final boolean verified;
+
+	/**
+	 * Constructor which creates a program whose words are all
+	 * {@link InstructionWord#FETCH}.
+	 * 
+	 * @param size
+	 *            number of the words
+	 * @param verified
+	 *            flag that determines if the fixed memory locations accessed
+	 *            by the program are valid, so they can be accessed without the
+	 *            checks
+	 */
+	public MachineProgram(int size, boolean verified) {
+		if (size < 0) {
+			throw new IllegalArgumentException(
+					"Size of the program can not be negative. It was " + size
+							+ ".");
+		}
+
+		this.code = new long[size];
+		this.verified = verified;
+	}
+
+	/**
+	 * Encodes the program stored in the memory. Only the part of the memory
+	 * returned by {@link ProgramDecoder#getProgramSize(IntMemory)} is encoded,
+	 * and the locations which do not hold an instruction are left as
+	 * {@link InstructionWord#FETCH}.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param verified
+	 *            flag that determines if the fixed memory locations accessed
+	 *            by the program are valid
+	 * @return encoded program
+	 */
+	public static MachineProgram encode(IntMemory memory, boolean verified) {
+		MachineProgram program = new MachineProgram(
+				ProgramDecoder.getProgramSize(memory), verified);
+
+		for (int address = 0; address < program.code.length; address++) {
+			Object value = memory.getLocation(address);
+			if (value instanceof Instruction) {
+				program.setInstruction(address, (Instruction) value);
+			}
+		}
+
+		return program;
+	}
+
+	/**
+	 * Gets the array of the instruction words. Changes of the array change
+	 * the program.
+	 * 
+	 * @return instruction words
+	 */
+	public long[] getCode() {
+		return code;
+	}
+
+	/**
+	 * Checks if the fixed memory locations accessed by the program were
+	 * verified.
+	 * 
+	 * @return <code>true</code> if the locations were verified
+	 */
+	public boolean isVerified() {
+		return verified;
+	}
+
+	/**
+	 * Gets the instruction word on the provided address.
+	 * 
+	 * @param address
+	 *            address of the word
+	 * @return instruction word
+	 */
+	public long getWord(int address) {
+		checkAddress(address);
+		return code[address];
+	}
+
+	/**
+	 * Sets the instruction word on the provided address.
+	 * 
+	 * @param address
+	 *            address of the word
+	 * @param word
+	 *            instruction word
+	 */
+	public void setWord(int address, long word) {
+		checkAddress(address);
+		int index = InstructionWord.getImmediate(word);
+		if (InstructionWord.getOperation(word) == InstructionWord.EXECUTE
+				&& (index < 0 || index >= instructions.size())) {
+			throw new IllegalArgumentException("Word on the address " + address
+					+ " executes an unknown instruction " + index + "!");
+		}
+		code[address] = word;
+	}
+
+	/**
+	 * Encodes the instruction and stores its word on the provided address.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param instruction
+	 *            instruction which is encoded
+	 */
+	public void setInstruction(int address, Instruction instruction) {
+		checkAddress(address);
+		code[address] = encode(instruction);
+	}
+
+	/**
+	 * Gets the instruction which can not be encoded with the provided index.
+	 * 
+	 * @param index
+	 *            immediate operand of the word of the operation
+	 *            {@link InstructionWord#EXECUTE}
+	 * @return instruction
+	 */
+	public Instruction getInstruction(int index) {
+		return instructions.get(index);
+	}
+
+	/**
+	 * Helper method which encodes a single instruction. Instructions which are
+	 * not known to this encoder are added to the list of the instructions
+	 * which can not be encoded.
+	 * 
+	 * @param instruction
+	 *            instruction which is encoded
+	 * @return instruction word
+	 */
+	private long encode(Instruction instruction) {
+		// Words already work with the primitive integers and choose between
+		// the checked and the unchecked access themselves, so the specialized
+		// and the unchecked instructions are encoded like the generic ones
+		instruction = (Instruction) SpecializedInstruction.unwrap(instruction);
+		Class<?> type = instruction.getClass();
+
+		if (type == InstrAdd.class) {
+			InstrAdd add = (InstrAdd) instruction;
+			return InstructionWord.encode(InstructionWord.ADD,
+					add.getRegisterIndex1(), InstructionWord.registers(
+							add.getRegisterIndex2(), add.getRegisterIndex3()));
+
+		} else if (type == InstrMul.class) {
+			InstrMul mul = (InstrMul) instruction;
+			return InstructionWord.encode(InstructionWord.MUL,
+					mul.getRegisterIndex1(), InstructionWord.registers(
+							mul.getRegisterIndex2(), mul.getRegisterIndex3()));
+
+		} else if (type == InstrIncrement.class) {
+			return InstructionWord.encode(InstructionWord.INCREMENT,
+					((InstrIncrement) instruction).getRegisterIndex(), 0);
+
+		} else if (type == InstrDecrement.class) {
+			return InstructionWord.encode(InstructionWord.DECREMENT,
+					((InstrDecrement) instruction).getRegisterIndex(), 0);
+
+		} else if (type == InstrTestEquals.class) {
+			InstrTestEquals test = (InstrTestEquals) instruction;
+			return InstructionWord.encode(InstructionWord.TEST_EQUALS,
+					test.getRegisterIndex1(), test.getRegisterIndex2());
+
+		} else if (type == InstrJump.class
+				&& ((InstrJump) instruction).getAddress() >= 0) {
+			// negative addresses are rejected by the instructions themselves,
+			// the same way they are in ExecutionUnitImpl
+			return InstructionWord.encode(InstructionWord.JUMP, 0,
+					((InstrJump) instruction).getAddress());
+
+		} else if (type == InstrJumpIfTrue.class
+				&& ((InstrJumpIfTrue) instruction).getAddress() >= 0) {
+			return InstructionWord.encode(InstructionWord.JUMP_IF_TRUE, 0,
+					((InstrJumpIfTrue) instruction).getAddress());
+
+		} else if (type == InstrLoad.class) {
+			InstrLoad load = (InstrLoad) instruction;
+			return InstructionWord.encode(InstructionWord.LOAD,
+					load.getRegisterIndex(), load.getMemoryLocation());
+
+		} else if (type == InstrMove.class) {
+			InstrMove move = (InstrMove) instruction;
+			InstructionArgument second = move.getSecondArgument();
+			int destination = (Integer) move.getFirstArgument().getValue();
+			if (!RegisterUtil.isIndirect(destination)) {
+				destination = RegisterUtil.getRegisterIndex(destination);
+			}
+
+			if (!second.isNumber()) {
+				return InstructionWord.encode(InstructionWord.MOVE,
+						destination, (Integer) second.getValue());
+			} else if (second.getValue() instanceof Integer) {
+				return InstructionWord.encode(InstructionWord.MOVE_CONSTANT,
+						destination, (Integer) second.getValue());
+			}
+
+		} else if (type == InstrPush.class) {
+			return InstructionWord.encode(InstructionWord.PUSH,
+					((InstrPush) instruction).getRegisterIndex(), 0);
+
+		} else if (type == InstrPop.class) {
+			return InstructionWord.encode(InstructionWord.POP,
+					((InstrPop) instruction).getRegisterIndex(), 0);
+
+		} else if (type == InstrCall.class
+				&& ((InstrCall) instruction).getAddress() >= 0) {
+			return InstructionWord.encode(InstructionWord.CALL, 0,
+					((InstrCall) instruction).getAddress());
+
+		} else if (type == InstrRet.class) {
+			return InstructionWord.encode(InstructionWord.RET, 0, 0);
+
+		} else if (type == InstrHalt.class) {
+			return InstructionWord.encode(InstructionWord.HALT, 0, 0);
+		}
+
+		instructions.add(instruction);
+		return InstructionWord.encode(InstructionWord.EXECUTE, 0,
+				instructions.size() - 1);
+	}
+
+	/**
+	 * Helper method which checks if the address is inside the program.
+	 * 
+	 * @param address
+	 *            address which is checked
+	 */
+	private void checkAddress(int address) {
+		if (address < 0 || address >= code.length) {
+			throw new IllegalArgumentException("Address " + address
+					+ " is not in the program of " + code.length
+					+ " words!");
+		}
+	}
+}
@@ -0,0 +1,449 @@
+package hr.fer.zemris.java.simplecomp.memo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPushMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which interprets the program
+ * like the {@link ExecutionUnitImpl} and caches the results of its pure
+ * subroutines.
+ * </p>
+ * 
+ * <p>
+ * Before the execution, the subroutines of the program are analyzed by the
+ * {@link PurityAnalysis}. When a pure subroutine is called, the values of its
+ * arguments on the stack are looked up in the cache. If the subroutine was
+ * already called with the same arguments, it is not executed, but the
+ * register r0 and the flag are set to the values it has returned, and the
+ * return address is stored to the top of the stack, just like the call and
+ * the return would do. Otherwise, the subroutine is executed, and the values
+ * it returns are cached. Calls of the subroutines which are not pure are
+ * always executed.
+ * </p>
+ * 
+ * <p>
+ * Stack can grow into the constant data of the program, so the range of the
+ * locations written trough the register r15 is tracked while the program
+ * runs. Once it reaches the constant data read by a pure subroutine, the
+ * calls of that subroutine are executed like the calls of the subroutines
+ * which are not pure.
+ * </p>
+ * 
+ * <p>
+ * Cache holds at most the provided number of the results, and the least
+ * recently used results are removed from it first. It is emptied on every
+ * execution, while the numbers of the hits and the misses are collected over
+ * all executions. Locations below the top of the stack, which the skipped
+ * subroutine would use for its own stack frame, are not written, so the
+ * programs which read them after the return should not be executed by this
+ * unit, nor the programs which store instructions to the memory while they
+ * run. Computers whose registers and memory do not implement
+ * {@link IntRegisters} and {@link IntMemory} are executed by the
+ * {@link ExecutionUnitImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MemoizingExecutionUnit implements ExecutionUnit {
+	/**
+	 * Default maximal number of the cached results.
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * Maximal number of the cached results.
+	 */
+	private final int capacity;
+
+	/**
+	 * Number of the calls whose results were found in the cache.
+	 */
+	private final LongAdder hits = new LongAdder();
+	/**
+	 * Number of the calls of the pure subroutines which were executed.
+	 */
+	private final LongAdder misses = new LongAdder();
+	/**
+	 * Number of the results stored to the cache.
+	 */
+	private final LongAdder cachedResults = new LongAdder();
+
+	/**
+	 * Constructor which creates an execution unit with the default capacity
+	 * of the cache.
+	 */
+	public MemoizingExecutionUnit() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates an execution unit with the provided capacity
+	 * of the cache.
+	 * 
+	 * @param capacity
+	 *            maximal number of the cached results
+	 */
+	public MemoizingExecutionUnit(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Cache capacity must be positive. It was " + capacity
+							+ ".");
+		}
+
+		this.capacity = capacity;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		Map<Integer, PureRoutine> routines = PurityAnalysis.analyze(memory,
+				registers.getSize());
+		Map<Call, Result> cache = new Cache(capacity);
+		// Calls whose results are cached when they return
+		Deque<Call> pending = new ArrayDeque<>();
+		StackWrites written = new StackWrites();
+
+		registers.setProgramCounter(0);
+
+		try {
+			while (true) {
+				Instruction instruction = (Instruction) memory
+						.getLocation(registers.getProgramCounter());
+				registers.incrementProgramCounter();
+
+				Object executed = SpecializedInstruction.unwrap(instruction);
+				written.update(executed, registers);
+
+				if (executed instanceof InstrCall) {
+					PureRoutine routine = routines
+							.get(((InstrCall) executed).getAddress());
+
+					if (routine != null && !written.reaches(routine)) {
+						Call call = new Call(routine,
+								InstructionsUtil.getIntRegister(registers,
+										Registers.STACK_REGISTER_INDEX),
+								memory);
+						Result result = cache.get(call);
+
+						if (result != null) {
+							hits.increment();
+							result.apply(routine, call.top, registers,
+									memory);
+							continue;
+						}
+						misses.increment();
+						pending.push(call);
+					}
+				}
+
+				if (instruction.execute(computer) == true) {
+					break;
+				}
+
+				if (executed instanceof InstrRet && !pending.isEmpty()
+						&& pending.peek().top == InstructionsUtil
+								.getIntRegister(registers,
+										Registers.STACK_REGISTER_INDEX)) {
+					Call call = pending.pop();
+					// stack of the subroutine could have changed its data
+					if (!written.reaches(routines.get(call.address))) {
+						cache.put(call, new Result(registers));
+						cachedResults.increment();
+					}
+				}
+			}
+		} finally {
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the number of the calls of the pure subroutines which were not
+	 * executed, because their results were found in the cache.
+	 * 
+	 * @return number of the hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of the calls of the pure subroutines which were
+	 * executed, because their results were not found in the cache.
+	 * 
+	 * @return number of the misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of the results which were stored to the cache.
+	 * 
+	 * @return number of the cached results
+	 */
+	public long getCachedResults() {
+		return cachedResults.sum();
+	}
+
+	/**
+	 * Cache of the results which removes the least recently used result when
+	 * it becomes full.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Cache extends LinkedHashMap<Call, Result> {
+		/**
+		 * Serial version.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Maximal number of the cached results.
+		 */
+		private final int capacity;
+
+		/**
+		 * Constructor which creates an empty cache.
+		 * 
+		 * @param capacity
+		 *            maximal number of the cached results
+		 */
+		private Cache(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Call, Result> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	/**
+	 * Range of the locations written trough the register r15 by the
+	 * instructions push, call and move.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class StackWrites {
+		/**
+		 * Lowest location which was written.
+		 */
+		private int lowest = Integer.MAX_VALUE;
+		/**
+		 * Highest location which was written.
+		 */
+		private int highest = Integer.MIN_VALUE;
+
+		/**
+		 * Extends the range by the locations which the instruction writes
+		 * trough the register r15, before it is executed.
+		 * 
+		 * @param instruction
+		 *            instruction which is executed next
+		 * @param registers
+		 *            registers of the computer
+		 */
+		private void update(Object instruction, IntRegisters registers) {
+			if (instruction instanceof InstrPush
+					|| instruction instanceof InstrCall) {
+				int top = top(registers);
+				extend(top, top);
+			} else if (instruction instanceof InstrPushMultiple) {
+				int top = top(registers);
+				extend(top - ((InstrPushMultiple) instruction)
+						.getRegisterIndexes().length + 1, top);
+			} else if (instruction instanceof InstrMove) {
+				int descriptor = (Integer) ((InstrMove) instruction)
+						.getFirstArgument().getValue();
+				if (RegisterUtil.isIndirect(descriptor) && RegisterUtil
+						.getRegisterIndex(descriptor) == Registers.STACK_REGISTER_INDEX) {
+					int location = top(registers)
+							+ RegisterUtil.getRegisterOffset(descriptor);
+					extend(location, location);
+				}
+			}
+		}
+
+		/**
+		 * Checks if the range reaches the constant data read by the
+		 * subroutine.
+		 * 
+		 * @param routine
+		 *            pure subroutine
+		 * @return <code>true</code> if some of its constant data could have
+		 *         been written
+		 */
+		private boolean reaches(PureRoutine routine) {
+			return lowest <= routine.getHighestConstant()
+					&& routine.getLowestConstant() <= highest;
+		}
+
+		/**
+		 * Helper method which extends the range by the provided range.
+		 * 
+		 * @param from
+		 *            lowest location which is written
+		 * @param to
+		 *            highest location which is written
+		 */
+		private void extend(int from, int to) {
+			lowest = Math.min(lowest, from);
+			highest = Math.max(highest, to);
+		}
+
+		/**
+		 * Helper method which gets the value of the register r15.
+		 * 
+		 * @param registers
+		 *            registers of the computer
+		 * @return value of the register r15
+		 */
+		private static int top(IntRegisters registers) {
+			return InstructionsUtil.getIntRegister(registers,
+					Registers.STACK_REGISTER_INDEX);
+		}
+	}
+
+	/**
+	 * Call of a pure subroutine, identified by its address and the values of
+	 * its arguments.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Call {
+		/**
+		 * Address of the subroutine.
+		 */
+		private final int address;
+		/**
+		 * Value of the register r15 before the call.
+		 */
+		private final int top;
+		/**
+		 * Values of the arguments.
+		 */
+		private final Object[] arguments;
+
+		/**
+		 * Constructor which reads the arguments of the call from the stack.
+		 * 
+		 * @param routine
+		 *            subroutine which is called
+		 * @param top
+		 *            value of the register r15 before the call
+		 * @param memory
+		 *            memory which holds the stack
+		 */
+		private Call(PureRoutine routine, int top, IntMemory memory) {
+			this.address = routine.getAddress();
+			this.top = top;
+			this.arguments = new Object[routine.getArguments()];
+			for (int i = 0; i < arguments.length; i++) {
+				arguments[i] = memory.getLocation(top + 1 + i);
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * address + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Call)) {
+				return false;
+			}
+			Call other = (Call) obj;
+			return address == other.address
+					&& Arrays.equals(arguments, other.arguments);
+		}
+	}
+
+	/**
+	 * Values returned by a pure subroutine.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Result {
+		/**
+		 * Value of the register r0.
+		 */
+		private final Object value;
+		/**
+		 * Value of the flag.
+		 */
+		private final boolean flag;
+
+		/**
+		 * Constructor which reads the values from the registers after the
+		 * return.
+		 * 
+		 * @param registers
+		 *            registers of the computer
+		 */
+		private Result(IntRegisters registers) {
+			this.value = registers.getRegisterValue(0);
+			this.flag = registers.getFlag();
+		}
+
+		/**
+		 * Sets the registers as if the subroutine was called and has
+		 * returned.
+		 * 
+		 * @param routine
+		 *            subroutine which is called
+		 * @param top
+		 *            value of the register r15 before the call
+		 * @param registers
+		 *            registers of the computer
+		 * @param memory
+		 *            memory which holds the stack
+		 */
+		private void apply(PureRoutine routine, int top,
+				IntRegisters registers, IntMemory memory) {
+			memory.setInt(top, registers.getProgramCounter());
+			if (routine.writesResult()) {
+				registers.setRegisterValue(0, value);
+			}
+			if (routine.writesFlag()) {
+				registers.setFlag(flag);
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package hr.fer.zemris.java.simplecomp.memo;
+
+/**
+ * Subroutine found by the {@link PurityAnalysis}, whose only effects are the
+ * value of the register r0 and the flag, and which depend only on its
+ * arguments on the stack and the constant data of the program.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class PureRoutine {
+	/**
+	 * Address of the first instruction of the subroutine.
+	 */
+	private final int address;
+	/**
+	 * Number of the arguments which the subroutine reads from the stack.
+	 */
+	private final int arguments;
+	/**
+	 * Flag that determines if the subroutine returns the result in r0.
+	 */
+	private final boolean writesResult;
+	/**
+	 * Flag that determines if the subroutine sets the flag.
+	 */
+	private final boolean writesFlag;
+	/**
+	 * Lowest location of the constant data read by the subroutine.
+	 */
+	private final int lowestConstant;
+	/**
+	 * Highest location of the constant data read by the subroutine.
+	 */
+	private final int highestConstant;
+
+	/**
+	 * Constructor which initializes the subroutine.
+	 * 
+	 * @param address
+	 *            address of the first instruction of the subroutine
+	 * @param arguments
+	 *            number of the arguments which the subroutine reads from the
+	 *            stack
+	 * @param writesResult
+	 *            flag that determines if the subroutine returns the result in
+	 *            r0
+	 * @param writesFlag
+	 *            flag that determines if the subroutine sets the flag
+	 * @param lowestConstant
+	 *            lowest location of the constant data read by the subroutine
+	 * @param highestConstant
+	 *            highest location of the constant data read by the subroutine
+	 */
+	PureRoutine(int address, int arguments, boolean writesResult,
+			boolean writesFlag, int lowestConstant, int highestConstant) {
+		this.address = address;
+		this.arguments = arguments;
+		this.writesResult = writesResult;
+		this.writesFlag = writesFlag;
+		this.lowestConstant = lowestConstant;
+		this.highestConstant = highestConstant;
+	}
+
+	/**
+	 * Gets the address of the first instruction of the subroutine.
+	 * 
+	 * @return address of the subroutine
+	 */
+	public int getAddress() {
+		return address;
+	}
+
+	/**
+	 * Gets the number of the arguments which the subroutine reads from the
+	 * stack. Argument 1 is the one pushed last before the call, on the
+	 * location <code>[r15+2]</code> when the subroutine starts.
+	 * 
+	 * @return number of the arguments
+	 */
+	public int getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * Checks if the subroutine writes its result to the register r0 on every
+	 * path. Otherwise, r0 is not changed by the subroutine.
+	 * 
+	 * @return <code>true</code> if the subroutine writes r0
+	 */
+	public boolean writesResult() {
+		return writesResult;
+	}
+
+	/**
+	 * Checks if the subroutine sets the flag on every path. Otherwise, the
+	 * flag is not changed by the subroutine.
+	 * 
+	 * @return <code>true</code> if the subroutine sets the flag
+	 */
+	public boolean writesFlag() {
+		return writesFlag;
+	}
+
+	/**
+	 * Gets the lowest location of the constant data which the subroutine,
+	 * or some subroutine it calls, reads trough the instruction load.
+	 * 
+	 * @return lowest location, or {@link Integer#MAX_VALUE} if no constant
+	 *         data is read
+	 */
+	public int getLowestConstant() {
+		return lowestConstant;
+	}
+
+	/**
+	 * Gets the highest location of the constant data which the subroutine,
+	 * or some subroutine it calls, reads trough the instruction load.
+	 * 
+	 * @return highest location, or {@link Integer#MIN_VALUE} if no constant
+	 *         data is read
+	 */
+	public int getHighestConstant() {
+		return highestConstant;
+	}
+
+	@Override
+	public int hashCode() {
+		return ((((address * 31 + arguments) * 31 + (writesResult ? 1 : 0))
+				* 31 + (writesFlag ? 1 : 0)) * 31 + lowestConstant) * 31
+				+ highestConstant;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof PureRoutine)) {
+			return false;
+		}
+		PureRoutine other = (PureRoutine) obj;
+		return address == other.address && arguments == other.arguments
+				&& writesResult == other.writesResult
+				&& writesFlag == other.writesFlag
+				&& lowestConstant == other.lowestConstant
+				&& highestConstant == other.highestConstant;
+	}
+
+	@Override
+	public String toString() {
+		return "Subroutine at the address " + address + " with " + arguments
+				+ " arguments";
+	}
+}
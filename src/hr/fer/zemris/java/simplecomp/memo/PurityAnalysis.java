@@ -0,0 +1,749 @@
+package hr.fer.zemris.java.simplecomp.memo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Analysis which finds the subroutines of a program whose results can be
+ * cached, because they are pure functions of their arguments.
+ * </p>
+ * 
+ * <p>
+ * Every target of the instruction call is analyzed by following all paths
+ * from its first instruction and tracking, for every register, every location
+ * of its stack frame and the flag, whether it holds a value computed by the
+ * subroutine or the value it had when the subroutine was called. Subroutine
+ * is pure if it:
+ * </p>
+ * 
+ * <ul>
+ * <li>reads only its arguments, the locations <code>[r15+k]</code> above the
+ * return address, and the constant data, the locations which hold a value
+ * when the program is loaded and are never written by iinput or trough the
+ * registers other than r15,</li>
+ * <li>writes only r0, its own stack frame and the registers which it saves
+ * on the stack and restores before it returns,</li>
+ * <li>calls only pure subroutines, passing them the values it has computed,
+ * and</li>
+ * <li>does not execute echo, iinput, halt or any instruction which is not
+ * known to this analysis, like the fused instructions.</li>
+ * </ul>
+ * 
+ * <p>
+ * Subroutines are first assumed to be pure and the analysis is repeated until
+ * the set of the pure subroutines no longer changes, so recursive subroutines
+ * are pure if nothing else makes them impure.
+ * </p>
+ * 
+ * <p>
+ * Writes trough r15 do not make the locations change here, since the stack
+ * can reach any location only while the program runs. Every pure subroutine
+ * therefore keeps the range of the constant data read by it and the
+ * subroutines it calls, which is checked against the locations written
+ * trough r15 before its result is cached or used.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class PurityAnalysis {
+	/**
+	 * Maximal number of the locations of the stack frame of a subroutine.
+	 */
+	public static final int MAX_FRAME = 64;
+	/**
+	 * Maximal number of the repetitions of the analysis.
+	 */
+	private static final int MAX_PASSES = 100;
+
+	/**
+	 * Register or flag holds the value it had when the subroutine was called.
+	 */
+	private static final byte ENTRY = 0;
+	/**
+	 * Register or flag holds a value computed by the subroutine.
+	 */
+	private static final byte VALUE = 1;
+	/**
+	 * Register or flag holds either, depending on the path.
+	 */
+	private static final byte MIXED = 2;
+
+	/**
+	 * Location of the frame holds a value computed by the subroutine. Other
+	 * non-negative values of the locations are the indexes of the registers
+	 * whose entry values they hold.
+	 */
+	private static final int SLOT_VALUE = -1;
+	/**
+	 * Location of the frame holds an unknown value.
+	 */
+	private static final int SLOT_UNKNOWN = -2;
+
+	/**
+	 * Memory which holds the program.
+	 */
+	private final IntMemory memory;
+	/**
+	 * Number of the locations which hold the program.
+	 */
+	private final int size;
+	/**
+	 * Number of the registers.
+	 */
+	private final int registers;
+	/**
+	 * Locations which can change while the program runs, or
+	 * <code>null</code> if any location can change.
+	 */
+	private final Set<Integer> changing;
+
+	/**
+	 * Constructor which prepares the analysis of the program.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param registers
+	 *            number of the registers
+	 */
+	private PurityAnalysis(IntMemory memory, int registers) {
+		this.memory = memory;
+		this.size = ProgramDecoder.getProgramSize(memory);
+		this.registers = registers;
+		this.changing = findChangingLocations();
+	}
+
+	/**
+	 * Finds the pure subroutines of the program stored in the memory.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param registers
+	 *            number of the registers of the computer
+	 * @return unmodifiable map of the pure subroutines by their addresses
+	 */
+	public static Map<Integer, PureRoutine> analyze(IntMemory memory,
+			int registers) {
+		PurityAnalysis analysis = new PurityAnalysis(memory, registers);
+
+		// Every subroutine is assumed to be pure, with no arguments
+		Map<Integer, PureRoutine> routines = new TreeMap<>();
+		for (int address = 0; address < analysis.size; address++) {
+			Object value = analysis.instruction(address);
+			if (value instanceof InstrCall) {
+				int target = ((InstrCall) value).getAddress();
+				routines.put(target, new PureRoutine(target, 0, true, true,
+						Integer.MAX_VALUE, Integer.MIN_VALUE));
+			}
+		}
+
+		for (int pass = 0; pass < MAX_PASSES; pass++) {
+			Map<Integer, PureRoutine> next = new TreeMap<>();
+			for (int address : routines.keySet()) {
+				PureRoutine routine = analysis.analyzeRoutine(address,
+						routines);
+				if (routine != null) {
+					next.put(address, routine);
+				}
+			}
+
+			if (next.equals(routines)) {
+				return Collections.unmodifiableMap(routines);
+			}
+			routines = next;
+		}
+
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * Helper method which analyzes a single subroutine, assuming that the
+	 * provided subroutines are pure.
+	 * 
+	 * @param entry
+	 *            address of the subroutine
+	 * @param routines
+	 *            subroutines which are assumed to be pure
+	 * @return analyzed subroutine, or <code>null</code> if it is not pure
+	 */
+	private PureRoutine analyzeRoutine(int entry,
+			Map<Integer, PureRoutine> routines) {
+		Map<Integer, State> states = new HashMap<>();
+		Deque<Integer> work = new ArrayDeque<>();
+		states.put(entry, new State(registers));
+		work.add(entry);
+
+		Result result = new Result();
+
+		while (!work.isEmpty()) {
+			int address = work.poll();
+			State state = states.get(address).copy();
+
+			int[] successors = step(address, state, routines, result);
+			if (successors == null) {
+				return null;
+			}
+
+			for (int successor : successors) {
+				State old = states.get(successor);
+				if (old == null) {
+					states.put(successor, state.copy());
+					work.add(successor);
+				} else {
+					Boolean changed = old.merge(state);
+					if (changed == null) {
+						return null;
+					} else if (changed) {
+						work.add(successor);
+					}
+				}
+			}
+		}
+
+		if (result.result == MIXED || result.flag == MIXED) {
+			return null;
+		}
+		return new PureRoutine(entry, result.arguments,
+				result.result == VALUE, result.flag == VALUE,
+				result.lowestConstant, result.highestConstant);
+	}
+
+	/**
+	 * Helper method which changes the state by executing the instruction on
+	 * the provided address.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param state
+	 *            state before the instruction, changed to the state after it
+	 * @param routines
+	 *            subroutines which are assumed to be pure
+	 * @param result
+	 *            values collected from the whole subroutine
+	 * @return addresses of the next instructions, or <code>null</code> if the
+	 *         instruction is not pure
+	 */
+	private int[] step(int address, State state,
+			Map<Integer, PureRoutine> routines, Result result) {
+		Object instruction = instruction(address);
+		int next = address + 1;
+
+		if (instruction instanceof InstrAdd) {
+			InstrAdd add = (InstrAdd) instruction;
+			return state.read(add.getRegisterIndex2())
+					&& state.read(add.getRegisterIndex3())
+					&& state.write(add.getRegisterIndex1()) ? new int[] { next }
+							: null;
+
+		} else if (instruction instanceof InstrMul) {
+			InstrMul mul = (InstrMul) instruction;
+			return state.read(mul.getRegisterIndex2())
+					&& state.read(mul.getRegisterIndex3())
+					&& state.write(mul.getRegisterIndex1()) ? new int[] { next }
+							: null;
+
+		} else if (instruction instanceof InstrIncrement) {
+			int register = ((InstrIncrement) instruction).getRegisterIndex();
+			if (register == Registers.STACK_REGISTER_INDEX) {
+				return state.drop() ? new int[] { next } : null;
+			}
+			return state.read(register) && state.write(register)
+					? new int[] { next } : null;
+
+		} else if (instruction instanceof InstrDecrement) {
+			int register = ((InstrDecrement) instruction).getRegisterIndex();
+			if (register == Registers.STACK_REGISTER_INDEX) {
+				return state.push(SLOT_UNKNOWN) ? new int[] { next } : null;
+			}
+			return state.read(register) && state.write(register)
+					? new int[] { next } : null;
+
+		} else if (instruction instanceof InstrTestEquals) {
+			InstrTestEquals test = (InstrTestEquals) instruction;
+			if (!state.read(test.getRegisterIndex1())
+					|| !state.read(test.getRegisterIndex2())) {
+				return null;
+			}
+			state.flag = VALUE;
+			return new int[] { next };
+
+		} else if (instruction instanceof InstrJump) {
+			return new int[] { ((InstrJump) instruction).getAddress() };
+
+		} else if (instruction instanceof InstrJumpIfTrue) {
+			if (state.flag != VALUE) {
+				return null;
+			}
+			return new int[] { ((InstrJumpIfTrue) instruction).getAddress(),
+					next };
+
+		} else if (instruction instanceof InstrLoad) {
+			InstrLoad load = (InstrLoad) instruction;
+			int location = load.getMemoryLocation();
+			if (!isConstant(location)
+					|| !state.write(load.getRegisterIndex())) {
+				return null;
+			}
+			result.readConstants(location, location);
+			return new int[] { next };
+
+		} else if (instruction instanceof InstrMove) {
+			return move((InstrMove) instruction, state, result)
+					? new int[] { next } : null;
+
+		} else if (instruction instanceof InstrPush) {
+			int register = ((InstrPush) instruction).getRegisterIndex();
+			if (!state.valid(register)) {
+				return null;
+			}
+			int slot = state.registers[register] == VALUE ? SLOT_VALUE
+					: state.registers[register] == ENTRY ? register
+							: SLOT_UNKNOWN;
+			return state.push(slot) ? new int[] { next } : null;
+
+		} else if (instruction instanceof InstrPop) {
+			int register = ((InstrPop) instruction).getRegisterIndex();
+			if (!state.valid(register) || state.depth == 0) {
+				return null;
+			}
+			int slot = state.slots[state.depth - 1];
+			state.registers[register] = slot == SLOT_VALUE ? VALUE
+					: slot == register ? ENTRY : MIXED;
+			return state.drop() ? new int[] { next } : null;
+
+		} else if (instruction instanceof InstrCall) {
+			PureRoutine routine = routines
+					.get(((InstrCall) instruction).getAddress());
+			if (routine == null) {
+				return null;
+			}
+			for (int argument = 1; argument <= routine
+					.getArguments(); argument++) {
+				if (!state.readStack(argument - state.depth, result)) {
+					return null;
+				}
+			}
+			if (routine.writesResult()) {
+				state.registers[0] = VALUE;
+			}
+			if (routine.writesFlag()) {
+				state.flag = VALUE;
+			}
+			result.readConstants(routine.getLowestConstant(),
+					routine.getHighestConstant());
+			Arrays.fill(state.slots, state.depth, MAX_FRAME, SLOT_UNKNOWN);
+			return new int[] { next };
+
+		} else if (instruction instanceof InstrRet) {
+			if (state.depth != 0) {
+				return null;
+			}
+			for (int register = 1; register < registers; register++) {
+				if (register != Registers.STACK_REGISTER_INDEX
+						&& state.registers[register] != ENTRY) {
+					return null;
+				}
+			}
+			result.result = Result.merge(result.result, state.registers[0]);
+			result.flag = Result.merge(result.flag, state.flag);
+			return new int[0];
+		}
+
+		return null;
+	}
+
+	/**
+	 * Helper method which changes the state by executing the instruction
+	 * move.
+	 * 
+	 * @param move
+	 *            instruction move
+	 * @param state
+	 *            state before the instruction, changed to the state after it
+	 * @param result
+	 *            values collected from the whole subroutine
+	 * @return <code>true</code> if the instruction is pure
+	 */
+	private boolean move(InstrMove move, State state, Result result) {
+		InstructionArgument source = move.getSecondArgument();
+
+		if (!source.isNumber()) {
+			int descriptor = (Integer) source.getValue();
+			int register = RegisterUtil.getRegisterIndex(descriptor);
+
+			if (!RegisterUtil.isIndirect(descriptor)) {
+				if (!state.read(register)) {
+					return false;
+				}
+			} else if (register != Registers.STACK_REGISTER_INDEX
+					|| !state.readStack(RegisterUtil.getRegisterOffset(
+							descriptor) - state.depth, result)) {
+				return false;
+			}
+		}
+
+		int descriptor = (Integer) move.getFirstArgument().getValue();
+		int register = RegisterUtil.getRegisterIndex(descriptor);
+
+		if (!RegisterUtil.isIndirect(descriptor)) {
+			return state.write(register);
+		} else if (register != Registers.STACK_REGISTER_INDEX) {
+			return false;
+		}
+
+		// Only the own frame of the subroutine can be written
+		int offset = RegisterUtil.getRegisterOffset(descriptor)
+				- state.depth;
+		if (offset > 0 || -offset >= state.depth) {
+			return false;
+		}
+		state.slots[-offset] = SLOT_VALUE;
+		return true;
+	}
+
+	/**
+	 * Helper method which checks if the location holds constant data.
+	 * 
+	 * @param location
+	 *            memory location
+	 * @return <code>true</code> if the location never changes
+	 */
+	private boolean isConstant(int location) {
+		return changing != null && !changing.contains(location)
+				&& location >= 0 && location < memory.getSize()
+				&& memory.getLocation(location) != null;
+	}
+
+	/**
+	 * Helper method which finds the locations written by the instructions
+	 * iinput. If some instruction writes the memory trough a register other
+	 * than r15, or is not known to this analysis, any location can change, so
+	 * <code>null</code> is returned. Locations written trough r15 are left to
+	 * the {@link MemoizingExecutionUnit}, which tracks them while the program
+	 * runs.
+	 * 
+	 * @return locations which can change, or <code>null</code>
+	 */
+	private Set<Integer> findChangingLocations() {
+		Set<Integer> locations = new HashSet<>();
+
+		for (int address = 0; address < size; address++) {
+			Object value = instruction(address);
+
+			if (value instanceof InstrIinput) {
+				locations.add(((InstrIinput) value).getMemoryLocation());
+			} else if (value instanceof InstrMove) {
+				int descriptor = (Integer) ((InstrMove) value)
+						.getFirstArgument().getValue();
+				if (RegisterUtil.isIndirect(descriptor) && RegisterUtil
+						.getRegisterIndex(descriptor) != Registers.STACK_REGISTER_INDEX) {
+					return null;
+				}
+			} else if (value instanceof Instruction && !isKnown(value)) {
+				return null;
+			}
+		}
+
+		return locations;
+	}
+
+	/**
+	 * Helper method which checks if the instruction is one of the
+	 * instructions of this computer, which write the memory only trough the
+	 * register r15, except move and iinput.
+	 * 
+	 * @param instruction
+	 *            instruction which is checked
+	 * @return <code>true</code> if the instruction is known to this analysis
+	 */
+	private static boolean isKnown(Object instruction) {
+		return instruction.getClass().getPackage() == InstrAdd.class
+				.getPackage();
+	}
+
+	/**
+	 * Helper method which gets the content of the location of the program,
+	 * where the specialized instructions are replaced by the generic ones.
+	 * 
+	 * @param address
+	 *            address of the location
+	 * @return content of the location, or <code>null</code> if the address is
+	 *         outside of the program
+	 */
+	private Object instruction(int address) {
+		if (address < 0 || address >= size) {
+			return null;
+		}
+		return SpecializedInstruction.unwrap(memory.getLocation(address));
+	}
+
+	/**
+	 * Values collected from all the paths of a subroutine.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Result {
+		/**
+		 * Number of the arguments read by the subroutine.
+		 */
+		private int arguments;
+		/**
+		 * State of the register r0 on the returns, or -1 if nothing returned.
+		 */
+		private byte result = -1;
+		/**
+		 * State of the flag on the returns, or -1 if nothing returned.
+		 */
+		private byte flag = -1;
+		/**
+		 * Lowest location of the constant data which is read.
+		 */
+		private int lowestConstant = Integer.MAX_VALUE;
+		/**
+		 * Highest location of the constant data which is read.
+		 */
+		private int highestConstant = Integer.MIN_VALUE;
+
+		/**
+		 * Extends the range of the constant data which is read by the
+		 * provided range.
+		 * 
+		 * @param lowest
+		 *            lowest location which is read
+		 * @param highest
+		 *            highest location which is read
+		 */
+		private void readConstants(int lowest, int highest) {
+			lowestConstant = Math.min(lowestConstant, lowest);
+			highestConstant = Math.max(highestConstant, highest);
+		}
+
+		/**
+		 * Merges the state of a return with the states of the other returns.
+		 * 
+		 * @param old
+		 *            state of the other returns, or -1
+		 * @param state
+		 *            state of this return
+		 * @return merged state
+		 */
+		private static byte merge(byte old, byte state) {
+			return old == -1 || old == state ? state : MIXED;
+		}
+	}
+
+	/**
+	 * State of the registers, the stack frame and the flag before an
+	 * instruction.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class State {
+		/**
+		 * Number of the locations of the stack frame.
+		 */
+		private int depth;
+		/**
+		 * States of the registers.
+		 */
+		private final byte[] registers;
+		/**
+		 * Contents of the locations of the stack frame, where the index 0 is
+		 * the location pushed first.
+		 */
+		private final int[] slots;
+		/**
+		 * State of the flag.
+		 */
+		private byte flag;
+
+		/**
+		 * Constructor which creates the state at the start of a subroutine.
+		 * 
+		 * @param registers
+		 *            number of the registers
+		 */
+		private State(int registers) {
+			this.registers = new byte[registers];
+			this.slots = new int[MAX_FRAME];
+			Arrays.fill(slots, SLOT_UNKNOWN);
+		}
+
+		/**
+		 * Constructor which copies the provided state.
+		 * 
+		 * @param other
+		 *            state which is copied
+		 */
+		private State(State other) {
+			this.depth = other.depth;
+			this.registers = other.registers.clone();
+			this.slots = other.slots.clone();
+			this.flag = other.flag;
+		}
+
+		/**
+		 * Creates a copy of this state.
+		 * 
+		 * @return copy of this state
+		 */
+		private State copy() {
+			return new State(this);
+		}
+
+		/**
+		 * Checks if the register can be used by a pure subroutine.
+		 * 
+		 * @param register
+		 *            index of the register
+		 * @return <code>true</code> if the register exists and is not r15
+		 */
+		private boolean valid(int register) {
+			return register < registers.length
+					&& register != Registers.STACK_REGISTER_INDEX;
+		}
+
+		/**
+		 * Checks if the register holds a value computed by the subroutine.
+		 * 
+		 * @param register
+		 *            index of the register
+		 * @return <code>true</code> if the register can be read
+		 */
+		private boolean read(int register) {
+			return valid(register) && registers[register] == VALUE;
+		}
+
+		/**
+		 * Marks the register as holding a value computed by the subroutine.
+		 * 
+		 * @param register
+		 *            index of the register
+		 * @return <code>true</code> if the register can be written
+		 */
+		private boolean write(int register) {
+			if (!valid(register)) {
+				return false;
+			}
+			registers[register] = VALUE;
+			return true;
+		}
+
+		/**
+		 * Checks if the location of the stack can be read. Offset is relative
+		 * to the value r15 had when the subroutine was called, so the offset
+		 * 1 is the return address, larger offsets are the arguments and the
+		 * offsets up to zero are the frame of the subroutine.
+		 * 
+		 * @param offset
+		 *            offset of the location
+		 * @param result
+		 *            values collected from the whole subroutine
+		 * @return <code>true</code> if the location can be read
+		 */
+		private boolean readStack(int offset, Result result) {
+			if (offset > 1) {
+				result.arguments = Math.max(result.arguments, offset - 1);
+				return true;
+			}
+			return offset < 1 && -offset < depth
+					&& slots[-offset] == SLOT_VALUE;
+		}
+
+		/**
+		 * Pushes a location to the stack frame.
+		 * 
+		 * @param slot
+		 *            content of the location
+		 * @return <code>true</code> if the frame is not too large
+		 */
+		private boolean push(int slot) {
+			if (depth == MAX_FRAME) {
+				return false;
+			}
+			slots[depth++] = slot;
+			return true;
+		}
+
+		/**
+		 * Removes the last location from the stack frame.
+		 * 
+		 * @return <code>true</code> if the frame was not empty
+		 */
+		private boolean drop() {
+			if (depth == 0) {
+				return false;
+			}
+			slots[--depth] = SLOT_UNKNOWN;
+			return true;
+		}
+
+		/**
+		 * Merges the provided state, reached on another path, into this one.
+		 * 
+		 * @param other
+		 *            state reached on another path
+		 * @return <code>true</code> if this state has changed,
+		 *         <code>false</code> if it has not, or <code>null</code> if
+		 *         the paths have different stack frames
+		 */
+		private Boolean merge(State other) {
+			if (depth != other.depth) {
+				return null;
+			}
+
+			boolean changed = false;
+			for (int register = 0; register < registers.length; register++) {
+				if (registers[register] != other.registers[register]
+						&& registers[register] != MIXED) {
+					registers[register] = MIXED;
+					changed = true;
+				}
+			}
+			for (int slot = 0; slot < depth; slot++) {
+				if (slots[slot] != other.slots[slot]
+						&& slots[slot] != SLOT_UNKNOWN) {
+					slots[slot] = SLOT_UNKNOWN;
+					changed = true;
+				}
+			}
+			if (flag != other.flag && flag != MIXED) {
+				flag = MIXED;
+				changed = true;
+			}
+			return changed;
+		}
+	}
+}
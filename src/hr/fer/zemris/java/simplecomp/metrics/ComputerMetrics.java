@@ -0,0 +1,177 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+
+/**
+ * <p>
+ * Metrics of the executions of a computer, or of several computers, collected
+ * by the {@link MeteredExecutionUnit} and exposed trough JMX by the
+ * {@link JmxMetricsRegistry}.
+ * </p>
+ * 
+ * <p>
+ * Execution unit counts in the fields of its own thread and adds the counts
+ * to the metrics only every {@value MeteredExecutionUnit#PUBLISH_INTERVAL}
+ * instructions and when the program stops. Metrics are then added to the
+ * striped counters, so the computers which share the same metrics, or the
+ * same parent metrics, rarely contend. Metrics created with a parent add
+ * every count to the parent as well, so the parent holds the aggregate
+ * metrics of all of its children.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ComputerMetrics implements ComputerMetricsMXBean {
+	/**
+	 * Name under which the instructions without an opcode are counted.
+	 */
+	public static final String OTHER = "other";
+
+	/**
+	 * Metrics to which the counts are added as well, or <code>null</code>.
+	 */
+	private final ComputerMetrics parent;
+
+	/**
+	 * Number of the executed instructions.
+	 */
+	private final LongAdder instructions = new LongAdder();
+	/**
+	 * Time spent in the execution, in nanoseconds.
+	 */
+	private final LongAdder executionNanos = new LongAdder();
+	/**
+	 * Numbers of the executed instructions by the ordinals of their opcodes.
+	 */
+	private final LongAdder[] opcodes;
+	/**
+	 * Maximal depth of the stack.
+	 */
+	private final LongAccumulator maxStackDepth = new LongAccumulator(
+			Math::max, 0);
+	/**
+	 * Number of the bytes written by the instruction echo.
+	 */
+	private final LongAdder echoBytes = new LongAdder();
+	/**
+	 * Time spent waiting for the input, in nanoseconds.
+	 */
+	private final LongAdder inputWaitNanos = new LongAdder();
+	/**
+	 * Depth of the stack when the metrics were last updated.
+	 */
+	private volatile long currentStackDepth;
+
+	/**
+	 * Constructor which creates the metrics without a parent.
+	 */
+	public ComputerMetrics() {
+		this(null);
+	}
+
+	/**
+	 * Constructor which creates the metrics which add their counts to the
+	 * provided parent metrics.
+	 * 
+	 * @param parent
+	 *            metrics which aggregate these metrics, or <code>null</code>
+	 */
+	public ComputerMetrics(ComputerMetrics parent) {
+		this.parent = parent;
+		this.opcodes = new LongAdder[Opcode.values().length + 1];
+		for (int i = 0; i < opcodes.length; i++) {
+			opcodes[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Adds the counters of an execution to these metrics and to their parent.
+	 * 
+	 * @param counters
+	 *            counters of an execution
+	 * @param nanos
+	 *            time spent in the execution since the counters were last
+	 *            added, in nanoseconds
+	 */
+	void add(LocalCounters counters, long nanos) {
+		instructions.add(counters.instructions);
+		executionNanos.add(nanos);
+		for (int i = 0; i < opcodes.length; i++) {
+			if (counters.opcodes[i] != 0) {
+				opcodes[i].add(counters.opcodes[i]);
+			}
+		}
+		maxStackDepth.accumulate(counters.maxStackDepth);
+		currentStackDepth = counters.stackDepth;
+		echoBytes.add(counters.echoBytes);
+		inputWaitNanos.add(counters.inputWaitNanos);
+
+		if (parent != null) {
+			parent.add(counters, nanos);
+		}
+	}
+
+	@Override
+	public long getInstructionsRetired() {
+		return instructions.sum();
+	}
+
+	@Override
+	public double getInstructionsPerSecond() {
+		long nanos = executionNanos.sum();
+		if (nanos == 0) {
+			return 0;
+		}
+		return instructions.sum() * 1e9 / nanos;
+	}
+
+	@Override
+	public Map<String, Long> getOpcodeCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (Opcode opcode : Opcode.values()) {
+			counts.put(opcode.getMnemonic(), opcodes[opcode.ordinal()].sum());
+		}
+		counts.put(OTHER, opcodes[opcodes.length - 1].sum());
+		return counts;
+	}
+
+	/**
+	 * {@inheritDoc} Aggregate metrics hold the depth of the computer which
+	 * has updated them last.
+	 */
+	@Override
+	public long getCurrentStackDepth() {
+		return currentStackDepth;
+	}
+
+	@Override
+	public long getMaxStackDepth() {
+		return maxStackDepth.get();
+	}
+
+	@Override
+	public long getEchoBytes() {
+		return echoBytes.sum();
+	}
+
+	@Override
+	public long getInputWaitNanos() {
+		return inputWaitNanos.sum();
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"%d instructions (%.0f/s), stack depth %d of %d, "
+						+ "%d bytes written, %d ms waiting for input",
+				getInstructionsRetired(), getInstructionsPerSecond(),
+				getCurrentStackDepth(), getMaxStackDepth(), getEchoBytes(),
+				getInputWaitNanos() / 1000000);
+	}
+}
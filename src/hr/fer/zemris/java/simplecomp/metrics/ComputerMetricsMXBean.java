@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface trough which the {@link ComputerMetrics} are exposed
+ * as a JMX MBean.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface ComputerMetricsMXBean {
+	/**
+	 * Gets the number of the executed instructions.
+	 * 
+	 * @return number of the retired instructions
+	 */
+	long getInstructionsRetired();
+
+	/**
+	 * Gets the average number of the instructions executed per second of the
+	 * execution.
+	 * 
+	 * @return instructions per second
+	 */
+	double getInstructionsPerSecond();
+
+	/**
+	 * Gets the numbers of the executed instructions by their mnemonics. Fused
+	 * instructions and the instructions of other classes are counted under
+	 * the name {@value ComputerMetrics#OTHER}.
+	 * 
+	 * @return numbers of the executed instructions by their mnemonics
+	 */
+	Map<String, Long> getOpcodeCounts();
+
+	/**
+	 * Gets the number of the locations between the initial value of the
+	 * register r15, which is the label <code>@stackTop</code> of the parsed
+	 * programs, and its value when the metrics were last updated.
+	 * 
+	 * @return current depth of the stack
+	 */
+	long getCurrentStackDepth();
+
+	/**
+	 * Gets the maximal depth of the stack.
+	 * 
+	 * @return maximal depth of the stack
+	 */
+	long getMaxStackDepth();
+
+	/**
+	 * Gets the number of the bytes written by the instruction echo, encoded
+	 * in UTF-8.
+	 * 
+	 * @return number of the written bytes
+	 */
+	long getEchoBytes();
+
+	/**
+	 * Gets the time spent by the instruction iinput waiting for the input, in
+	 * nanoseconds.
+	 * 
+	 * @return time spent waiting for the input
+	 */
+	long getInputWaitNanos();
+}
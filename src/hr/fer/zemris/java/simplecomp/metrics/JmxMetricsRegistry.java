@@ -0,0 +1,93 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Implementation of the {@link MetricsRegistry} which registers the metrics
+ * as MBeans, by default to the platform MBean server. Metrics with the name
+ * <code>name</code> get the object name
+ * <code>hr.fer.zemris.java.simplecomp:type=Computer,name="name"</code>.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class JmxMetricsRegistry implements MetricsRegistry {
+	/**
+	 * Domain of the object names.
+	 */
+	public static final String DOMAIN = "hr.fer.zemris.java.simplecomp";
+
+	/**
+	 * Server to which the MBeans are registered.
+	 */
+	private final MBeanServer server;
+
+	/**
+	 * Constructor which creates a registry of the platform MBean server.
+	 */
+	public JmxMetricsRegistry() {
+		this(ManagementFactory.getPlatformMBeanServer());
+	}
+
+	/**
+	 * Constructor which creates a registry of the provided MBean server.
+	 * 
+	 * @param server
+	 *            server to which the MBeans are registered
+	 */
+	public JmxMetricsRegistry(MBeanServer server) {
+		if (server == null) {
+			throw new IllegalArgumentException("MBean server can not be null.");
+		}
+
+		this.server = server;
+	}
+
+	@Override
+	public void register(String name, ComputerMetrics metrics) {
+		if (metrics == null) {
+			throw new IllegalArgumentException("Metrics can not be null.");
+		}
+
+		try {
+			server.registerMBean(metrics, getObjectName(name));
+		} catch (JMException ex) {
+			throw new IllegalArgumentException(
+					"Metrics " + name + " can not be registered.", ex);
+		}
+	}
+
+	@Override
+	public void unregister(String name) {
+		try {
+			server.unregisterMBean(getObjectName(name));
+		} catch (InstanceNotFoundException ex) {
+			// Metrics are already removed
+		} catch (JMException ex) {
+			throw new IllegalArgumentException(
+					"Metrics " + name + " can not be unregistered.", ex);
+		}
+	}
+
+	/**
+	 * Creates the object name of the metrics with the provided name.
+	 * 
+	 * @param name
+	 *            name of the metrics
+	 * @return object name of the metrics
+	 * @throws JMException
+	 *             if the object name is not valid
+	 */
+	public static ObjectName getObjectName(String name) throws JMException {
+		if (name == null) {
+			throw new IllegalArgumentException("Name can not be null.");
+		}
+		return new ObjectName(
+				DOMAIN + ":type=Computer,name=" + ObjectName.quote(name));
+	}
+}
@@ -0,0 +1,59 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+
+/**
+ * Counters of a single execution, which are updated only by the thread which
+ * executes the program and periodically added to the {@link ComputerMetrics}.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+class LocalCounters {
+	/**
+	 * Number of the executed instructions.
+	 */
+	long instructions;
+	/**
+	 * Numbers of the executed instructions by the ordinals of their opcodes,
+	 * where the last element counts the instructions without an opcode.
+	 */
+	final long[] opcodes = new long[Opcode.values().length + 1];
+	/**
+	 * Current depth of the stack.
+	 */
+	long stackDepth;
+	/**
+	 * Maximal depth of the stack.
+	 */
+	long maxStackDepth;
+	/**
+	 * Number of the bytes written by the instruction echo.
+	 */
+	long echoBytes;
+	/**
+	 * Time spent waiting for the input, in nanoseconds.
+	 */
+	long inputWaitNanos;
+	/**
+	 * Time when the counters were last added to the metrics.
+	 */
+	long publishedAt = System.nanoTime();
+
+	/**
+	 * Clears the counters after they are added to the metrics. Depth of the
+	 * stack is not cleared, since it is not a counter.
+	 * 
+	 * @param now
+	 *            time when the counters were added to the metrics
+	 */
+	void reset(long now) {
+		instructions = 0;
+		for (int i = 0; i < opcodes.length; i++) {
+			opcodes[i] = 0;
+		}
+		echoBytes = 0;
+		inputWaitNanos = 0;
+		publishedAt = now;
+	}
+}
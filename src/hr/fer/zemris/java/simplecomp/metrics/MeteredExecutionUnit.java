@@ -0,0 +1,387 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.io.InputDevice;
+import hr.fer.zemris.java.simplecomp.io.OutputDevice;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which executes the program
+ * like the {@link ExecutionUnitImpl} and collects its {@link ComputerMetrics}.
+ * </p>
+ * 
+ * <p>
+ * Opcode of every instruction of the program and its effect on the depth of
+ * the stack are found only once, on its first execution. Depth of the stack
+ * is then changed by the effect, and the register r15 is read only after the
+ * instructions which store an unknown value to it, like move, or change it by
+ * an unknown amount, like the fused instructions. Counts are kept in the
+ * fields which only
+ * the executing thread uses, and are added to the shared metrics every
+ * {@value #PUBLISH_INTERVAL} instructions and when the program stops, so the
+ * metrics of the running programs lag behind by at most that many
+ * instructions.
+ * </p>
+ * 
+ * <p>
+ * Bytes written by the instruction echo and the time spent waiting for the
+ * input are measured trough the devices of the {@link ComputerImpl}, which are
+ * wrapped while the program runs. For other computers, they are not measured.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class MeteredExecutionUnit implements ExecutionUnit {
+	/**
+	 * Number of the instructions after which the counts are added to the
+	 * metrics.
+	 */
+	public static final int PUBLISH_INTERVAL = 4096;
+
+	/**
+	 * Index under which the instructions without an opcode are counted.
+	 */
+	private static final int OTHER = Opcode.values().length;
+	/**
+	 * Effect on the depth of the stack of the instructions after which the
+	 * register r15 has to be read.
+	 */
+	private static final int READ_STACK = Integer.MIN_VALUE;
+
+	/**
+	 * Metrics to which the counts are added.
+	 */
+	private final ComputerMetrics metrics;
+
+	/**
+	 * Constructor which creates an execution unit which collects the provided
+	 * metrics.
+	 * 
+	 * @param metrics
+	 *            metrics to which the counts are added
+	 */
+	public MeteredExecutionUnit(ComputerMetrics metrics) {
+		if (metrics == null) {
+			throw new IllegalArgumentException("Metrics can not be null.");
+		}
+
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Gets the metrics to which the counts are added.
+	 * 
+	 * @return metrics of this execution unit
+	 */
+	public ComputerMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		Registers registers = computer.getRegisters();
+		LocalCounters counters = new LocalCounters();
+
+		Memory memory = computer.getMemory();
+		int size = memory instanceof IntMemory
+				? ProgramDecoder.getProgramSize((IntMemory) memory) : 0;
+		// Instructions whose opcodes are known, the indexes of the opcodes and
+		// the effects of the instructions on the depth of the stack
+		Instruction[] program = new Instruction[size];
+		int[] opcodes = new int[size];
+		int[] effects = new int[size];
+
+		Object top = registers.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+		boolean hasStack = top instanceof Integer;
+		int stackTop = hasStack ? (Integer) top : 0;
+
+		ComputerImpl devices = computer instanceof ComputerImpl
+				? (ComputerImpl) computer : null;
+		OutputDevice output = null;
+		InputDevice input = null;
+		if (devices != null) {
+			output = devices.getOutputDevice();
+			input = devices.getInputDevice();
+			devices.setOutputDevice(new CountingOutputDevice(output, counters));
+			devices.setInputDevice(new TimedInputDevice(input, counters));
+		}
+
+		long[] counts = counters.opcodes;
+		registers.setProgramCounter(0);
+
+		try {
+			while (true) {
+				int pc = registers.getProgramCounter();
+				Instruction instruction = (Instruction) memory.getLocation(pc);
+
+				int opcode;
+				int effect;
+				if (pc >= 0 && pc < size) {
+					if (program[pc] != instruction) {
+						program[pc] = instruction;
+						opcodes[pc] = getIndex(instruction);
+						effects[pc] = getStackEffect(instruction);
+					}
+					opcode = opcodes[pc];
+					effect = effects[pc];
+				} else {
+					opcode = getIndex(instruction);
+					effect = getStackEffect(instruction);
+				}
+
+				registers.incrementProgramCounter();
+				boolean halted = instruction.execute(computer);
+
+				counts[opcode]++;
+				if (effect != 0 && hasStack) {
+					if (effect == READ_STACK) {
+						readStackDepth(registers, stackTop, counters);
+					} else {
+						counters.stackDepth += effect;
+					}
+					if (counters.stackDepth > counters.maxStackDepth) {
+						counters.maxStackDepth = counters.stackDepth;
+					}
+				}
+
+				if (halted) {
+					break;
+				}
+				if (++counters.instructions == PUBLISH_INTERVAL) {
+					publish(counters);
+				}
+			}
+			counters.instructions++;
+		} finally {
+			try {
+				InstructionsUtil.flushOutput(computer);
+			} finally {
+				if (devices != null) {
+					devices.setOutputDevice(output);
+					devices.setInputDevice(input);
+				}
+				publish(counters);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Helper method which adds the counters to the metrics and clears them.
+	 * 
+	 * @param counters
+	 *            counters of the execution
+	 */
+	private void publish(LocalCounters counters) {
+		long now = System.nanoTime();
+		metrics.add(counters, now - counters.publishedAt);
+		counters.reset(now);
+	}
+
+	/**
+	 * Helper method which reads the register r15 and sets the depth of the
+	 * stack.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param stackTop
+	 *            initial value of the register r15
+	 * @param counters
+	 *            counters of the execution
+	 */
+	private static void readStackDepth(Registers registers, int stackTop,
+			LocalCounters counters) {
+		int top;
+		if (registers instanceof IntRegisters) {
+			IntRegisters intRegisters = (IntRegisters) registers;
+			if (!intRegisters.isInt(Registers.STACK_REGISTER_INDEX)) {
+				return;
+			}
+			top = intRegisters.getInt(Registers.STACK_REGISTER_INDEX);
+		} else {
+			Object value = registers
+					.getRegisterValue(Registers.STACK_REGISTER_INDEX);
+			if (!(value instanceof Integer)) {
+				return;
+			}
+			top = (Integer) value;
+		}
+
+		counters.stackDepth = stackTop - top;
+	}
+
+	/**
+	 * Helper method which gets the index under which the instruction is
+	 * counted.
+	 * 
+	 * @param instruction
+	 *            executed instruction
+	 * @return ordinal of its opcode, or {@link #OTHER}
+	 */
+	private static int getIndex(Instruction instruction) {
+		Opcode opcode = Opcode.forInstruction(instruction);
+		return opcode == null ? OTHER : opcode.ordinal();
+	}
+
+	/**
+	 * Helper method which gets the number of the locations by which the
+	 * instruction changes the depth of the stack.
+	 * 
+	 * @param instruction
+	 *            executed instruction
+	 * @return change of the depth of the stack, or {@link #READ_STACK} if the
+	 *         register r15 has to be read after the instruction
+	 */
+	private static int getStackEffect(Instruction instruction) {
+		Object generic = SpecializedInstruction.unwrap(instruction);
+		int stack = Registers.STACK_REGISTER_INDEX;
+
+		if (generic instanceof InstrPush || generic instanceof InstrCall) {
+			return 1;
+		} else if (generic instanceof InstrRet) {
+			return -1;
+		} else if (generic instanceof InstrPop) {
+			return ((InstrPop) generic).getRegisterIndex() == stack
+					? READ_STACK : -1;
+		} else if (generic instanceof InstrIncrement) {
+			return ((InstrIncrement) generic).getRegisterIndex() == stack ? -1
+					: 0;
+		} else if (generic instanceof InstrDecrement) {
+			return ((InstrDecrement) generic).getRegisterIndex() == stack ? 1
+					: 0;
+		} else if (generic instanceof InstrMove) {
+			int descriptor = (Integer) ((InstrMove) generic).getFirstArgument()
+					.getValue();
+			return !RegisterUtil.isIndirect(descriptor) && RegisterUtil
+					.getRegisterIndex(descriptor) == stack ? READ_STACK : 0;
+		} else if (generic instanceof InstrAdd) {
+			return ((InstrAdd) generic).getRegisterIndex1() == stack
+					? READ_STACK : 0;
+		} else if (generic instanceof InstrMul) {
+			return ((InstrMul) generic).getRegisterIndex1() == stack
+					? READ_STACK : 0;
+		} else if (generic instanceof InstrLoad) {
+			return ((InstrLoad) generic).getRegisterIndex() == stack
+					? READ_STACK : 0;
+		} else if (Opcode.forInstruction(generic) != null) {
+			return 0;
+		}
+		return READ_STACK;
+	}
+
+	/**
+	 * Output device which counts the bytes written to another device.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class CountingOutputDevice implements OutputDevice {
+		/**
+		 * Device to which the text is written.
+		 */
+		private final OutputDevice device;
+		/**
+		 * Counters of the execution.
+		 */
+		private final LocalCounters counters;
+
+		/**
+		 * Constructor which wraps the provided device.
+		 * 
+		 * @param device
+		 *            device to which the text is written
+		 * @param counters
+		 *            counters of the execution
+		 */
+		private CountingOutputDevice(OutputDevice device,
+				LocalCounters counters) {
+			this.device = device;
+			this.counters = counters;
+		}
+
+		@Override
+		public void print(String text) {
+			counters.echoBytes += text
+					.getBytes(StandardCharsets.UTF_8).length;
+			device.print(text);
+		}
+
+		@Override
+		public void flush() {
+			device.flush();
+		}
+	}
+
+	/**
+	 * Input device which measures the time spent reading from another device.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class TimedInputDevice implements InputDevice {
+		/**
+		 * Device from which the input is read.
+		 */
+		private final InputDevice device;
+		/**
+		 * Counters of the execution.
+		 */
+		private final LocalCounters counters;
+
+		/**
+		 * Constructor which wraps the provided device.
+		 * 
+		 * @param device
+		 *            device from which the input is read
+		 * @param counters
+		 *            counters of the execution
+		 */
+		private TimedInputDevice(InputDevice device, LocalCounters counters) {
+			this.device = device;
+			this.counters = counters;
+		}
+
+		@Override
+		public String readLine() throws IOException {
+			long start = System.nanoTime();
+			try {
+				return device.readLine();
+			} finally {
+				counters.inputWaitNanos += System.nanoTime() - start;
+			}
+		}
+
+		@Override
+		public boolean isReady() {
+			return device.isReady();
+		}
+	}
+}
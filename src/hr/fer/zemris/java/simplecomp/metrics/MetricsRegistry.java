@@ -0,0 +1,30 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+/**
+ * Registry to which the {@link ComputerMetrics} are published under their
+ * names, so they can be read while the computers run.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public interface MetricsRegistry {
+	/**
+	 * Publishes the metrics under the provided name. If the name is already
+	 * used, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param name
+	 *            name of the metrics
+	 * @param metrics
+	 *            metrics which are published
+	 */
+	void register(String name, ComputerMetrics metrics);
+
+	/**
+	 * Removes the metrics with the provided name. If there are no such
+	 * metrics, nothing happens.
+	 * 
+	 * @param name
+	 *            name of the metrics
+	 */
+	void unregister(String name);
+}
@@ -0,0 +1,614 @@
+package hr.fer.zemris.java.simplecomp.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Profile of the program executed by the {@link ProfilingExecutionUnit}. It
+ * holds the number of executions of every address, the number of the taken
+ * backward jumps, from which the hot loops are found, and the number of the
+ * instructions executed inside every subroutine.
+ * </p>
+ * 
+ * <p>
+ * Only the first instruction of every basic block is counted while the program
+ * runs, and the counts of the other instructions of the block are set to the
+ * same value when the execution finishes. If the execution is stopped by an
+ * exception in the middle of a block, the rest of the block is therefore
+ * counted as executed.
+ * </p>
+ * 
+ * <p>
+ * Subroutines are identified by the addresses called by the instruction call,
+ * and the program itself is treated as the subroutine which starts on the
+ * address 0. Inclusive count of a subroutine is the number of the
+ * instructions executed from its call until its return, including the called
+ * subroutines (recursive calls are counted only once), while the exclusive
+ * count includes only its own instructions. Subroutines are named by the
+ * labels provided to the profiler, or by their addresses if no label is
+ * known.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ExecutionProfile {
+	/**
+	 * Index of the number of the calls in the statistics of the subroutine.
+	 */
+	private static final int CALLS = 0;
+	/**
+	 * Index of the inclusive count in the statistics of the subroutine.
+	 */
+	private static final int INCLUSIVE = 1;
+	/**
+	 * Index of the exclusive count in the statistics of the subroutine.
+	 */
+	private static final int EXCLUSIVE = 2;
+	/**
+	 * Number of the addresses listed in the text report.
+	 */
+	private static final int REPORTED_ADDRESSES = 20;
+
+	/**
+	 * Number of the executions by addresses.
+	 */
+	private final long[] counts;
+	/**
+	 * Number of the taken backward jumps by addresses of the jumps.
+	 */
+	private final long[] backwardJumps;
+	/**
+	 * Lengths of the basic blocks by the addresses of their first
+	 * instructions.
+	 */
+	private final int[] blockLengths;
+	/**
+	 * Targets of the backward jumps by addresses of the jumps, or -1.
+	 */
+	private final int[] jumpTargets;
+	/**
+	 * Flags which determine for every address if it holds an unconditional
+	 * backward jump, whose executions are not reported, since it is taken
+	 * every time it is executed.
+	 */
+	private final boolean[] unconditional;
+	/**
+	 * Names of the classes of the instructions by their addresses.
+	 */
+	private final String[] types;
+	/**
+	 * Labels by the addresses.
+	 */
+	private final Map<Integer, List<String>> labels;
+	/**
+	 * Total number of the executed instructions.
+	 */
+	private long executed;
+
+	/**
+	 * Subroutines on the call stack.
+	 */
+	private int[] frames = new int[16];
+	/**
+	 * Number of the executed instructions when the subroutines on the call
+	 * stack were entered.
+	 */
+	private long[] entries = new long[16];
+	/**
+	 * Number of the instructions executed by the subroutines called from the
+	 * subroutines on the call stack.
+	 */
+	private long[] callees = new long[16];
+	/**
+	 * Depth of the call stack.
+	 */
+	private int depth;
+	/**
+	 * Number of the frames of every subroutine on the call stack, by their
+	 * addresses.
+	 */
+	private final int[] active;
+	/**
+	 * Statistics of the subroutines by their addresses.
+	 */
+	private final Map<Integer, long[]> functions = new HashMap<>();
+	/**
+	 * Exclusive counts by call stacks, in folded format.
+	 */
+	private final Map<String, Long> stacks = new HashMap<>();
+
+	/**
+	 * Constructor which creates an empty profile of the program.
+	 * 
+	 * @param size
+	 *            number of the locations which hold the program
+	 * @param labels
+	 *            labels by the addresses
+	 */
+	ExecutionProfile(int size, Map<Integer, List<String>> labels) {
+		counts = new long[size];
+		backwardJumps = new long[size];
+		blockLengths = new int[size];
+		jumpTargets = new int[size];
+		unconditional = new boolean[size];
+		types = new String[size];
+		active = new int[size];
+		this.labels = labels;
+
+		Arrays.fill(jumpTargets, -1);
+	}
+
+	/**
+	 * Records the instruction stored on the address.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param type
+	 *            class of the instruction
+	 * @param blockLength
+	 *            length of the basic block started by the instruction, or zero
+	 *            if it does not start a block
+	 * @param jumpTarget
+	 *            target of the backward jump, or -1 if the instruction is not
+	 *            a backward jump
+	 * @param alwaysTaken
+	 *            flag that determines if the backward jump is unconditional
+	 */
+	void record(int address, Class<?> type, int blockLength, int jumpTarget,
+			boolean alwaysTaken) {
+		types[address] = type.getSimpleName();
+		blockLengths[address] = blockLength;
+		jumpTargets[address] = jumpTarget;
+		unconditional[address] = alwaysTaken;
+	}
+
+	/**
+	 * Counts the execution of the basic block.
+	 * 
+	 * @param address
+	 *            address of the first instruction of the block
+	 * @param blockLength
+	 *            number of the instructions in the block
+	 */
+	void count(int address, int blockLength) {
+		counts[address]++;
+		executed += blockLength;
+	}
+
+	/**
+	 * Counts the taken backward jump on the address.
+	 * 
+	 * @param address
+	 *            address of the jump
+	 */
+	void backwardJump(int address) {
+		backwardJumps[address]++;
+	}
+
+	/**
+	 * Records the call of the subroutine.
+	 * 
+	 * @param function
+	 *            address of the subroutine
+	 */
+	void enter(int function) {
+		if (depth == frames.length) {
+			frames = Arrays.copyOf(frames, depth * 2);
+			entries = Arrays.copyOf(entries, depth * 2);
+			callees = Arrays.copyOf(callees, depth * 2);
+		}
+
+		frames[depth] = function;
+		entries[depth] = executed;
+		callees[depth] = 0;
+		depth++;
+
+		statistics(function)[CALLS]++;
+		if (function >= 0 && function < active.length) {
+			active[function]++;
+		}
+	}
+
+	/**
+	 * Records the return from the subroutine. Returns without a matching call
+	 * are ignored.
+	 */
+	void exit() {
+		if (depth > 1) {
+			pop();
+		}
+	}
+
+	/**
+	 * Starts the profiling of the program.
+	 */
+	void start() {
+		enter(0);
+	}
+
+	/**
+	 * Finishes the profiling of the program, closing all subroutines which are
+	 * still on the call stack.
+	 */
+	void finish() {
+		while (depth > 0) {
+			pop();
+		}
+
+		for (int address = 0; address < counts.length; address++) {
+			for (int i = 1; i < blockLengths[address]; i++) {
+				counts[address + i] = counts[address];
+			}
+		}
+		for (int address = 0; address < counts.length; address++) {
+			if (unconditional[address]) {
+				backwardJumps[address] = counts[address];
+			}
+		}
+	}
+
+	/**
+	 * Helper method which removes the subroutine from the top of the call
+	 * stack and updates its statistics.
+	 */
+	private void pop() {
+		String stack = stack();
+
+		depth--;
+		int function = frames[depth];
+		long inclusive = executed - entries[depth];
+		long exclusive = inclusive - callees[depth];
+
+		long[] statistics = statistics(function);
+		statistics[EXCLUSIVE] += exclusive;
+		if (function >= 0 && function < active.length) {
+			active[function]--;
+			if (active[function] == 0) {
+				statistics[INCLUSIVE] += inclusive;
+			}
+		} else {
+			statistics[INCLUSIVE] += inclusive;
+		}
+
+		if (depth > 0) {
+			callees[depth - 1] += inclusive;
+		}
+		if (exclusive > 0) {
+			stacks.merge(stack, exclusive, Long::sum);
+		}
+	}
+
+	/**
+	 * Helper method which gets the statistics of the subroutine, creating
+	 * them if needed.
+	 * 
+	 * @param function
+	 *            address of the subroutine
+	 * @return statistics of the subroutine
+	 */
+	private long[] statistics(int function) {
+		return functions.computeIfAbsent(function, f -> new long[3]);
+	}
+
+	/**
+	 * Helper method which creates the folded representation of the current
+	 * call stack.
+	 * 
+	 * @return names of the subroutines on the call stack, separated by
+	 *         semicolons
+	 */
+	private String stack() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < depth; i++) {
+			if (i > 0) {
+				sb.append(';');
+			}
+			sb.append(getName(frames[i]));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Gets the total number of the executed instructions.
+	 * 
+	 * @return total number of the executed instructions
+	 */
+	public long getExecuted() {
+		return executed;
+	}
+
+	/**
+	 * Gets the number of the executions of the instruction on the address.
+	 * Addresses outside of the program were never executed.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @return number of the executions
+	 */
+	public long getCount(int address) {
+		return address >= 0 && address < counts.length ? counts[address] : 0;
+	}
+
+	/**
+	 * Gets the number of the executed instructions by their classes, sorted
+	 * from the most executed class.
+	 * 
+	 * @return number of the executed instructions by their classes
+	 */
+	public Map<String, Long> getInstructionCounts() {
+		Map<String, Long> byType = new HashMap<>();
+		for (int address = 0; address < counts.length; address++) {
+			if (counts[address] > 0) {
+				byType.merge(types[address], counts[address], Long::sum);
+			}
+		}
+
+		List<Map.Entry<String, Long>> entries = new ArrayList<>(
+				byType.entrySet());
+		entries.sort(Map.Entry.<String, Long> comparingByValue().reversed());
+
+		Map<String, Long> sorted = new LinkedHashMap<>();
+		for (Map.Entry<String, Long> entry : entries) {
+			sorted.put(entry.getKey(), entry.getValue());
+		}
+		return sorted;
+	}
+
+	/**
+	 * Gets the loops of the program, formed by the taken backward jumps,
+	 * sorted from the loop which executed most instructions.
+	 * 
+	 * @return loops of the program
+	 */
+	public List<HotLoop> getHotLoops() {
+		List<HotLoop> loops = new ArrayList<>();
+
+		for (int address = 0; address < backwardJumps.length; address++) {
+			if (backwardJumps[address] == 0) {
+				continue;
+			}
+
+			int header = jumpTargets[address];
+			long instructions = 0;
+			for (int i = header; i <= address; i++) {
+				instructions += counts[i];
+			}
+			loops.add(new HotLoop(header, address, backwardJumps[address],
+					instructions));
+		}
+
+		loops.sort(Comparator.comparingLong(HotLoop::getInstructions)
+				.reversed());
+		return loops;
+	}
+
+	/**
+	 * Gets the number of the calls of the subroutine.
+	 * 
+	 * @param function
+	 *            address of the subroutine
+	 * @return number of the calls
+	 */
+	public long getCalls(int function) {
+		long[] statistics = functions.get(function);
+		return statistics == null ? 0 : statistics[CALLS];
+	}
+
+	/**
+	 * Gets the inclusive count of the subroutine.
+	 * 
+	 * @param function
+	 *            address of the subroutine
+	 * @return number of the instructions executed from the calls of the
+	 *         subroutine until its returns
+	 */
+	public long getInclusive(int function) {
+		long[] statistics = functions.get(function);
+		return statistics == null ? 0 : statistics[INCLUSIVE];
+	}
+
+	/**
+	 * Gets the exclusive count of the subroutine.
+	 * 
+	 * @param function
+	 *            address of the subroutine
+	 * @return number of the instructions of the subroutine itself
+	 */
+	public long getExclusive(int function) {
+		long[] statistics = functions.get(function);
+		return statistics == null ? 0 : statistics[EXCLUSIVE];
+	}
+
+	/**
+	 * Gets the name of the address: its first label if it is known, or the
+	 * address itself.
+	 * 
+	 * @param address
+	 *            address
+	 * @return name of the address, starting with '@'
+	 */
+	public String getName(int address) {
+		List<String> names = labels.get(address);
+		return "@" + (names == null || names.isEmpty()
+				? Integer.toString(address) : names.get(0));
+	}
+
+	/**
+	 * Creates the text report of this profile.
+	 * 
+	 * @return text report
+	 */
+	public String toText() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Executed instructions: %d%n", executed));
+
+		sb.append(String.format("%nMost executed addresses:%n"));
+		Integer[] addresses = new Integer[counts.length];
+		for (int i = 0; i < addresses.length; i++) {
+			addresses[i] = i;
+		}
+		Arrays.sort(addresses, (a, b) -> Long.compare(counts[b], counts[a]));
+		for (int i = 0; i < REPORTED_ADDRESSES && i < addresses.length
+				&& counts[addresses[i]] > 0; i++) {
+			int address = addresses[i];
+			sb.append(String.format("  %5d %-16s %12d %6.2f%%  %s%n", address,
+					labels.containsKey(address) ? getName(address) : "",
+					counts[address], percent(counts[address]),
+					types[address]));
+		}
+
+		sb.append(String.format("%nInstructions by class:%n"));
+		for (Map.Entry<String, Long> entry : getInstructionCounts()
+				.entrySet()) {
+			sb.append(String.format("  %-22s %12d %6.2f%%%n", entry.getKey(),
+					entry.getValue(), percent(entry.getValue())));
+		}
+
+		sb.append(String.format("%nHot loops:%n"));
+		for (HotLoop loop : getHotLoops()) {
+			sb.append(String.format(
+					"  %-16s %5d-%-5d %10d iterations %12d %6.2f%%%n",
+					getName(loop.getHeader()), loop.getHeader(),
+					loop.getEnd(), loop.getIterations(),
+					loop.getInstructions(),
+					percent(loop.getInstructions())));
+		}
+
+		sb.append(String.format("%nSubroutines:%n"));
+		sb.append(String.format("  %-16s %10s %12s %12s%n", "", "calls",
+				"inclusive", "exclusive"));
+		for (Map.Entry<Integer, long[]> entry : new TreeMap<>(functions)
+				.entrySet()) {
+			long[] statistics = entry.getValue();
+			sb.append(String.format("  %-16s %10d %12d %12d%n",
+					getName(entry.getKey()), statistics[CALLS],
+					statistics[INCLUSIVE], statistics[EXCLUSIVE]));
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the folded representation of the call stacks, in which every
+	 * line holds the names of the subroutines on the call stack separated by
+	 * semicolons, followed by the number of the instructions executed with
+	 * that call stack. This format is read by the tools which draw flame
+	 * graphs.
+	 * 
+	 * @return folded call stacks
+	 */
+	public String toFoldedStacks() {
+		List<String> lines = new ArrayList<>();
+		for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+			lines.add(entry.getKey() + " " + entry.getValue());
+		}
+		Collections.sort(lines);
+
+		StringBuilder sb = new StringBuilder();
+		for (String line : lines) {
+			sb.append(line).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Helper method which calculates the percentage of the executed
+	 * instructions.
+	 * 
+	 * @param count
+	 *            number of the instructions
+	 * @return percentage of the executed instructions
+	 */
+	private double percent(long count) {
+		return executed == 0 ? 0 : 100.0 * count / executed;
+	}
+
+	/**
+	 * Loop of the program, formed by a taken backward jump.
+	 */
+	public static class HotLoop {
+		/**
+		 * Address of the first instruction of the loop.
+		 */
+		private final int header;
+		/**
+		 * Address of the backward jump.
+		 */
+		private final int end;
+		/**
+		 * Number of the taken backward jumps.
+		 */
+		private final long iterations;
+		/**
+		 * Number of the instructions executed on the addresses of the loop.
+		 */
+		private final long instructions;
+
+		/**
+		 * Constructor which initializes the loop.
+		 * 
+		 * @param header
+		 *            address of the first instruction of the loop
+		 * @param end
+		 *            address of the backward jump
+		 * @param iterations
+		 *            number of the taken backward jumps
+		 * @param instructions
+		 *            number of the instructions executed on the addresses of
+		 *            the loop
+		 */
+		HotLoop(int header, int end, long iterations, long instructions) {
+			this.header = header;
+			this.end = end;
+			this.iterations = iterations;
+			this.instructions = instructions;
+		}
+
+		/**
+		 * Gets the address of the first instruction of the loop.
+		 * 
+		 * @return address of the first instruction of the loop
+		 */
+		public int getHeader() {
+			return header;
+		}
+
+		/**
+		 * Gets the address of the backward jump.
+		 * 
+		 * @return address of the backward jump
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * Gets the number of the taken backward jumps.
+		 * 
+		 * @return number of the taken backward jumps
+		 */
+		public long getIterations() {
+			return iterations;
+		}
+
+		/**
+		 * Gets the number of the instructions executed on the addresses of
+		 * the loop.
+		 * 
+		 * @return number of the instructions executed on the addresses of the
+		 *         loop
+		 */
+		public long getInstructions() {
+			return instructions;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package hr.fer.zemris.java.simplecomp.profiler;
+
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+
+/**
+ * Instruction which wraps an instruction of the profiled program. If the
+ * wrapped instruction starts a basic block, its executions are counted in the
+ * {@link ExecutionProfile} together with the length of the block and,
+ * depending on the kind of the wrapped instruction, calls, returns and taken
+ * backward jumps are reported to it as well.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+class ProfiledInstruction implements Instruction {
+	/**
+	 * Kind of the instructions which are only counted.
+	 */
+	static final int PLAIN = 0;
+	/**
+	 * Kind of the instructions which call a subroutine.
+	 */
+	static final int CALL = 1;
+	/**
+	 * Kind of the instructions which return from a subroutine.
+	 */
+	static final int RETURN = 2;
+	/**
+	 * Kind of the instructions which can jump backwards.
+	 */
+	static final int BACKWARD_JUMP = 3;
+
+	/**
+	 * Wrapped instruction.
+	 */
+	final Instruction instruction;
+	/**
+	 * Address of the wrapped instruction.
+	 */
+	private final int address;
+	/**
+	 * Length of the basic block started by the wrapped instruction, or zero if
+	 * it does not start a block.
+	 */
+	private final int blockLength;
+	/**
+	 * Kind of the wrapped instruction.
+	 */
+	private final int kind;
+	/**
+	 * Address of the called subroutine or of the jump target.
+	 */
+	private final int target;
+	/**
+	 * Profile to which the executions are reported.
+	 */
+	private final ExecutionProfile profile;
+
+	/**
+	 * Constructor which initializes the wrapper.
+	 * 
+	 * @param instruction
+	 *            wrapped instruction
+	 * @param address
+	 *            address of the wrapped instruction
+	 * @param blockLength
+	 *            length of the basic block started by the wrapped
+	 *            instruction, or zero if it does not start a block
+	 * @param kind
+	 *            kind of the wrapped instruction
+	 * @param target
+	 *            address of the called subroutine or of the jump target, or
+	 *            -1 if the instruction does neither
+	 * @param profile
+	 *            profile to which the executions are reported
+	 */
+	ProfiledInstruction(Instruction instruction, int address, int blockLength,
+			int kind, int target, ExecutionProfile profile) {
+		this.instruction = instruction;
+		this.address = address;
+		this.blockLength = blockLength;
+		this.kind = kind;
+		this.target = target;
+		this.profile = profile;
+	}
+
+	@Override
+	public boolean execute(Computer computer) {
+		if (blockLength > 0) {
+			profile.count(address, blockLength);
+		}
+
+		if (kind == PLAIN) {
+			return instruction.execute(computer);
+		}
+
+		boolean halt = instruction.execute(computer);
+
+		if (kind == CALL) {
+			profile.enter(target);
+		} else if (kind == RETURN) {
+			profile.exit();
+		} else if (computer.getRegisters().getProgramCounter() == target) {
+			profile.backwardJump(address);
+		}
+
+		return halt;
+	}
+}
@@ -0,0 +1,324 @@
+package hr.fer.zemris.java.simplecomp.profiler;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMoveFromStack;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPopMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPushMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRetWithCleanup;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Execution unit which profiles the program executed by another execution
+ * unit. Before the execution, the instructions which start basic blocks, call
+ * subroutines, return from them or jump backwards are wrapped into
+ * instructions which report their executions to the {@link ExecutionProfile},
+ * and after the execution the original instructions are stored back. Other
+ * instructions are executed without any overhead. Profile of the last
+ * execution is available trough {@link #getProfile()}.
+ * </p>
+ * 
+ * <p>
+ * Since the wrapped instructions are not known to the execution units which
+ * decode or compile the program, they execute them one by one, so the profile
+ * shows where the program spends its time, not how fast the particular
+ * execution unit is. Only the locations returned by
+ * {@link ProgramDecoder#getProgramSize(IntMemory)} are profiled, so large
+ * memories, like the {@link hr.fer.zemris.java.simplecomp.impl.PagedMemory},
+ * cost only as much as their programs. Instructions stored to the memory
+ * while the program runs are not profiled.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ProfilingExecutionUnit implements ExecutionUnit {
+	/**
+	 * Execution unit which executes the program.
+	 */
+	private final ExecutionUnit executionUnit;
+	/**
+	 * Labels by the addresses.
+	 */
+	private final Map<Integer, List<String>> labels;
+	/**
+	 * Profile of the last execution.
+	 */
+	private ExecutionProfile profile;
+
+	/**
+	 * Constructor which creates a profiler of the {@link ExecutionUnitImpl}.
+	 */
+	public ProfilingExecutionUnit() {
+		this(new ExecutionUnitImpl());
+	}
+
+	/**
+	 * Constructor which creates a profiler of the provided execution unit.
+	 * 
+	 * @param executionUnit
+	 *            execution unit which executes the program
+	 */
+	public ProfilingExecutionUnit(ExecutionUnit executionUnit) {
+		this(executionUnit, Collections.emptyMap());
+	}
+
+	/**
+	 * Constructor which creates a profiler of the provided execution unit,
+	 * which names the addresses by the provided labels.
+	 * 
+	 * @param executionUnit
+	 *            execution unit which executes the program
+	 * @param labels
+	 *            labels by the addresses, for example read by the
+	 *            {@link SourceLabels}
+	 */
+	public ProfilingExecutionUnit(ExecutionUnit executionUnit,
+			Map<Integer, List<String>> labels) {
+		if (executionUnit == null) {
+			throw new IllegalArgumentException(
+					"Execution unit can not be null.");
+		}
+		if (labels == null) {
+			throw new IllegalArgumentException("Labels can not be null.");
+		}
+
+		this.executionUnit = executionUnit;
+		this.labels = labels;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getMemory() instanceof IntMemory)) {
+			throw new IllegalArgumentException(
+					"Profiled computer must have memory which implements IntMemory.");
+		}
+
+		IntMemory memory = (IntMemory) computer.getMemory();
+		int size = ProgramDecoder.getProgramSize(memory);
+		ExecutionProfile profile = new ExecutionProfile(size, labels);
+		this.profile = profile;
+
+		Instruction[] program = new Instruction[size];
+		for (int address = 0; address < program.length; address++) {
+			Object value = memory.getLocation(address);
+			if (value instanceof Instruction) {
+				program[address] = (Instruction) value;
+			}
+		}
+
+		int[] blockLengths = findBlocks(program);
+		int[] kinds = new int[program.length];
+		int[] targets = new int[program.length];
+		for (int address = 0; address < program.length; address++) {
+			if (program[address] == null) {
+				continue;
+			}
+
+			kinds[address] = getKind(program[address], address);
+			targets[address] = getTarget(program[address]);
+			boolean backward = kinds[address] == ProfiledInstruction.BACKWARD_JUMP;
+			profile.record(address, program[address].getClass(),
+					blockLengths[address], backward ? targets[address] : -1,
+					backward && program[address] instanceof InstrJump);
+		}
+
+		ProfiledInstruction[] wrappers = new ProfiledInstruction[program.length];
+		for (int address = 0; address < program.length; address++) {
+			boolean reported = kinds[address] != ProfiledInstruction.PLAIN
+					&& !(program[address] instanceof InstrJump);
+
+			if (blockLengths[address] > 0 || reported) {
+				wrappers[address] = new ProfiledInstruction(program[address],
+						address, blockLengths[address], kinds[address],
+						targets[address], profile);
+				memory.setLocation(address, wrappers[address]);
+			}
+		}
+
+		profile.start();
+		try {
+			return executionUnit.go(computer);
+		} finally {
+			profile.finish();
+
+			for (int address = 0; address < wrappers.length; address++) {
+				if (wrappers[address] != null
+						&& memory.getLocation(address) == wrappers[address]) {
+					memory.setLocation(address,
+							wrappers[address].instruction);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the profile of the last execution.
+	 * 
+	 * @return profile of the last execution, or <code>null</code> if nothing
+	 *         was executed
+	 */
+	public ExecutionProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Helper method which finds the basic blocks of the program. Blocks start
+	 * on the address 0, on the targets of the jumps and calls and after the
+	 * instructions which can change the program counter.
+	 * 
+	 * @param program
+	 *            instructions of the program by their addresses
+	 * @return lengths of the blocks by the addresses of their first
+	 *         instructions, zero on other addresses
+	 */
+	private static int[] findBlocks(Instruction[] program) {
+		int length = program.length;
+		boolean[] leaders = new boolean[length];
+		if (length > 0) {
+			leaders[0] = true;
+		}
+
+		for (int address = 0; address < length; address++) {
+			Instruction instruction = program[address];
+
+			int target = getTarget(instruction);
+			if (target >= 0 && target < length) {
+				leaders[target] = true;
+			}
+
+			if (instruction instanceof InstrPushMultiple) {
+				target = address + ((InstrPushMultiple) instruction)
+						.getRegisterIndexes().length;
+			} else if (instruction instanceof InstrPopMultiple) {
+				target = address + ((InstrPopMultiple) instruction)
+						.getRegisterIndexes().length;
+			}
+			if (target >= 0 && target < length) {
+				leaders[target] = true;
+			}
+
+			if (!isSequential(instruction) && address + 1 < length) {
+				leaders[address + 1] = true;
+			}
+		}
+
+		int[] blockLengths = new int[length];
+		for (int start = 0; start < length; start++) {
+			if (!leaders[start] || program[start] == null) {
+				continue;
+			}
+
+			int end = start + 1;
+			while (end < length && !leaders[end]) {
+				end++;
+			}
+			blockLengths[start] = end - start;
+		}
+
+		return blockLengths;
+	}
+
+	/**
+	 * Helper method which checks if the instruction always continues with the
+	 * instruction on the next address. Only the instructions known to do so
+	 * are accepted.
+	 * 
+	 * @param instruction
+	 *            instruction which is checked, or <code>null</code>
+	 * @return <code>true</code> if the instruction always continues with the
+	 *         next instruction, <code>false</code> otherwise
+	 */
+	private static boolean isSequential(Instruction instruction) {
+		if (instruction == null) {
+			return false;
+		}
+
+		Class<?> type = instruction.getClass();
+		if (type == InstrIncrement.class) {
+			// increment r15 after a call can be skipped by InstrRetWithCleanup
+			return ((InstrIncrement) instruction)
+					.getRegisterIndex() != Registers.STACK_REGISTER_INDEX;
+		}
+
+		return type == InstrAdd.class || type == InstrMul.class
+				|| type == InstrDecrement.class
+				|| type == InstrTestEquals.class || type == InstrMove.class
+				|| type == InstrMoveFromStack.class
+				|| type == InstrLoad.class || type == InstrPush.class
+				|| type == InstrPop.class || type == InstrEcho.class
+				|| type == InstrIinput.class;
+	}
+
+	/**
+	 * Helper method which gets the address to which the instruction jumps or
+	 * which it calls.
+	 * 
+	 * @param instruction
+	 *            instruction, or <code>null</code>
+	 * @return target address, or -1 if the instruction does not jump
+	 */
+	private static int getTarget(Instruction instruction) {
+		if (instruction instanceof InstrJump) {
+			return ((InstrJump) instruction).getAddress();
+		} else if (instruction instanceof InstrJumpIfTrue) {
+			return ((InstrJumpIfTrue) instruction).getAddress();
+		} else if (instruction instanceof InstrCompareAndBranch) {
+			return ((InstrCompareAndBranch) instruction).getAddress();
+		} else if (instruction instanceof InstrCall) {
+			return ((InstrCall) instruction).getAddress();
+		}
+		return -1;
+	}
+
+	/**
+	 * Helper method which determines the kind of the instruction.
+	 * 
+	 * @param instruction
+	 *            instruction
+	 * @param address
+	 *            address of the instruction
+	 * @return kind of the instruction, one of the constants of the
+	 *         {@link ProfiledInstruction}
+	 */
+	private static int getKind(Instruction instruction, int address) {
+		if (instruction instanceof InstrCall) {
+			return ProfiledInstruction.CALL;
+		}
+		if (instruction instanceof InstrRet
+				|| instruction instanceof InstrRetWithCleanup) {
+			return ProfiledInstruction.RETURN;
+		}
+
+		int target = getTarget(instruction);
+		if (target >= 0 && target <= address) {
+			return ProfiledInstruction.BACKWARD_JUMP;
+		}
+		return ProfiledInstruction.PLAIN;
+	}
+}
@@ -0,0 +1,157 @@
+package hr.fer.zemris.java.simplecomp.profiler;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class which reads the labels from the assembly code, so the profile can name
+ * the addresses the same way the program does, and the numbers of the lines
+ * which define the memory locations. An address can have more labels, when
+ * several labels are written before the same location. Addresses are counted the same way the
+ * parser counts them: every instruction and every DEFINT or DEFSTR takes one
+ * location, while RESERVE takes one location or the number of the locations
+ * written after the colon.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class SourceLabels {
+
+	/**
+	 * Reads the labels from the file with the assembly code.
+	 * 
+	 * @param fileName
+	 *            path to the file with the assembly code
+	 * @return labels, without the character '@', by their addresses, in the
+	 *         order they are written
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	public static Map<Integer, List<String>> read(String fileName)
+			throws IOException {
+		return read(Files.readAllLines(Paths.get(fileName),
+				StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the labels from the lines of the assembly code.
+	 * 
+	 * @param lines
+	 *            lines of the assembly code
+	 * @return labels, without the character '@', by their addresses, in the
+	 *         order they are written
+	 */
+	public static Map<Integer, List<String>> read(List<String> lines) {
+		Map<Integer, List<String>> labels = new HashMap<>();
+		scan(lines, labels, new HashMap<>());
+		return labels;
+	}
+
+	/**
+	 * Reads the numbers of the lines which define the content of the memory
+	 * locations: instructions, DEFINT, DEFSTR and RESERVE. Lines are numbered
+	 * from 1, and RESERVE is mapped only to its first location.
+	 * 
+	 * @param lines
+	 *            lines of the assembly code
+	 * @return numbers of the lines by the addresses they define
+	 */
+	public static Map<Integer, Integer> readLineNumbers(List<String> lines) {
+		Map<Integer, Integer> numbers = new HashMap<>();
+		scan(lines, new HashMap<>(), numbers);
+		return numbers;
+	}
+
+	/**
+	 * Counts the memory locations which the program takes, including the
+	 * reserved ones.
+	 * 
+	 * @param lines
+	 *            lines of the assembly code
+	 * @return number of the memory locations
+	 */
+	public static int countLocations(List<String> lines) {
+		return scan(lines, new HashMap<>(), new HashMap<>());
+	}
+
+	/**
+	 * Helper method which walks trough the lines of the assembly code,
+	 * counting the addresses the same way the parser does.
+	 * 
+	 * @param lines
+	 *            lines of the assembly code
+	 * @param labels
+	 *            map to which the labels are stored by their addresses
+	 * @param numbers
+	 *            map to which the numbers of the lines are stored by their
+	 *            addresses
+	 * @return number of the memory locations
+	 */
+	private static int scan(List<String> lines,
+			Map<Integer, List<String>> labels,
+			Map<Integer, Integer> numbers) {
+		int address = 0;
+		int number = 0;
+
+		for (String line : lines) {
+			number++;
+			line = stripComment(line).trim();
+
+			if (line.startsWith("@")) {
+				int colon = line.indexOf(':');
+				if (colon < 0) {
+					continue;
+				}
+				labels.computeIfAbsent(address, key -> new ArrayList<>())
+						.add(line.substring(1, colon).trim());
+				line = line.substring(colon + 1).trim();
+			}
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			numbers.put(address, number);
+			if (line.startsWith("RESERVE")) {
+				int colon = line.indexOf(':');
+				address += colon < 0 ? 1
+						: Integer.parseInt(line.substring(colon + 1).trim());
+			} else {
+				address++;
+			}
+		}
+
+		return address;
+	}
+
+	/**
+	 * Helper method which removes the comment from the line. Comments start
+	 * with ';', or with '#' at the beginning of the line, and can not start
+	 * inside a string.
+	 * 
+	 * @param line
+	 *            line of the assembly code
+	 * @return line without the comment
+	 */
+	private static String stripComment(String line) {
+		if (line.trim().startsWith("#")) {
+			return "";
+		}
+
+		boolean string = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				string = !string;
+			} else if (c == ';' && !string) {
+				return line.substring(0, i);
+			}
+		}
+		return line;
+	}
+}
@@ -0,0 +1,256 @@
+package hr.fer.zemris.java.simplecomp.scheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import hr.fer.zemris.java.simplecomp.ExecutionStatus;
+import hr.fer.zemris.java.simplecomp.ResumableExecution;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.io.QueueInputDevice;
+
+/**
+ * <p>
+ * Computer executed by the {@link GuestScheduler}. Guest is executed in
+ * quanta: after every quantum it is put back to the queue, until it halts or
+ * fails. Guest whose next instruction reads the input which was not provided
+ * is parked and does not occupy the threads of the scheduler until a line is
+ * offered by {@link #offer(String)} or the input is closed.
+ * </p>
+ * 
+ * <p>
+ * Methods of the guest can be called from any thread.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class Guest {
+	/**
+	 * States of a guest.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	public static enum State {
+		/**
+		 * Guest is in the queue, waiting for a thread.
+		 */
+		QUEUED,
+		/**
+		 * Guest is executing a quantum.
+		 */
+		RUNNING,
+		/**
+		 * Guest is waiting for the input.
+		 */
+		PARKED,
+		/**
+		 * Program executed the instruction halt.
+		 */
+		HALTED,
+		/**
+		 * Execution of the program threw an exception.
+		 */
+		FAILED
+	}
+
+	/**
+	 * Scheduler which executes the guest.
+	 */
+	private final GuestScheduler scheduler;
+	/**
+	 * Execution of the program.
+	 */
+	private final ResumableExecution execution;
+	/**
+	 * Input of the program.
+	 */
+	private final QueueInputDevice input;
+	/**
+	 * Current state of the guest.
+	 */
+	private final AtomicReference<State> state = new AtomicReference<>(
+			State.QUEUED);
+	/**
+	 * Future which is completed when the guest halts or fails.
+	 */
+	private final CompletableFuture<Guest> completion = new CompletableFuture<>();
+	/**
+	 * Number of the quanta the guest has executed.
+	 */
+	private volatile long quanta;
+	/**
+	 * Exception which stopped the execution, or <code>null</code>.
+	 */
+	private volatile Throwable error;
+
+	/**
+	 * Constructor which prepares the execution of the program on the provided
+	 * computer. Input device of the computer is replaced by the device to
+	 * which the lines are offered by {@link #offer(String)}.
+	 * 
+	 * @param scheduler
+	 *            scheduler which executes the guest
+	 * @param computer
+	 *            computer which executes the program
+	 */
+	Guest(GuestScheduler scheduler, ComputerImpl computer) {
+		this.scheduler = scheduler;
+		this.input = new QueueInputDevice();
+		computer.setInputDevice(input);
+		this.execution = new ResumableExecution(computer);
+	}
+
+	/**
+	 * Offers a line to the input of the program and resumes the guest if it
+	 * is parked.
+	 * 
+	 * @param line
+	 *            line which is offered
+	 */
+	public void offer(String line) {
+		input.offer(line);
+		unpark();
+	}
+
+	/**
+	 * Closes the input of the program, so it reads the end of the input after
+	 * the offered lines, and resumes the guest if it is parked.
+	 */
+	public void closeInput() {
+		input.close();
+		unpark();
+	}
+
+	/**
+	 * Gets the current state of the guest.
+	 * 
+	 * @return state of the guest
+	 */
+	public State getState() {
+		return state.get();
+	}
+
+	/**
+	 * Gets the future which is completed with this guest when it halts or
+	 * fails.
+	 * 
+	 * @return future of the guest
+	 */
+	public CompletableFuture<Guest> getCompletion() {
+		return completion;
+	}
+
+	/**
+	 * Gets the computer which executes the program. It should not be changed
+	 * while the guest is running.
+	 * 
+	 * @return computer of the guest
+	 */
+	public ComputerImpl getComputer() {
+		return (ComputerImpl) execution.getComputer();
+	}
+
+	/**
+	 * Gets the number of the instructions the program executed.
+	 * 
+	 * @return number of the executed instructions
+	 */
+	public long getExecutedInstructions() {
+		return execution.getExecutedInstructions();
+	}
+
+	/**
+	 * Gets the number of the quanta the guest has executed.
+	 * 
+	 * @return number of the quanta
+	 */
+	public long getQuanta() {
+		return quanta;
+	}
+
+	/**
+	 * Gets the exception which stopped the execution.
+	 * 
+	 * @return exception which stopped the execution, or <code>null</code> if
+	 *         the guest did not fail
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Executes a single quantum of the guest and decides where the guest goes
+	 * next: back to the queue, to the parked guests or out of the scheduler.
+	 * Called only by the scheduler, when the guest is queued.
+	 * 
+	 * @param quantum
+	 *            maximal number of the instructions executed in the quantum
+	 */
+	void runQuantum(long quantum) {
+		state.set(State.RUNNING);
+		long before = execution.getExecutedInstructions();
+		ExecutionStatus status;
+
+		try {
+			status = execution.run(quantum);
+		} catch (Exception ex) {
+			error = ex;
+			finish(State.FAILED, before);
+			return;
+		}
+
+		switch (status) {
+		case HALTED:
+			finish(State.HALTED, before);
+			break;
+
+		case WAITING_FOR_INPUT:
+			scheduler.quantumEnded(this,
+					execution.getExecutedInstructions() - before, true);
+			quanta++;
+			state.set(State.PARKED);
+			if (input.isReady()) {
+				unpark();
+			}
+			break;
+
+		default:
+			scheduler.quantumEnded(this,
+					execution.getExecutedInstructions() - before, false);
+			quanta++;
+			state.set(State.QUEUED);
+			scheduler.schedule(this);
+		}
+	}
+
+	/**
+	 * Helper method which moves the guest from the parked guests back to the
+	 * queue. Since both the thread which parks the guest and the thread which
+	 * offers the input call this method, the state decides which of them
+	 * schedules the guest.
+	 */
+	private void unpark() {
+		if (state.compareAndSet(State.PARKED, State.QUEUED)) {
+			scheduler.unparked(this);
+		}
+	}
+
+	/**
+	 * Helper method which removes the guest from the scheduler when it halts
+	 * or fails.
+	 * 
+	 * @param finalState
+	 *            state in which the guest ended
+	 * @param before
+	 *            number of the instructions executed before the last quantum
+	 */
+	private void finish(State finalState, long before) {
+		scheduler.quantumEnded(this,
+				execution.getExecutedInstructions() - before, false);
+		quanta++;
+		state.set(finalState);
+		scheduler.retired(this);
+		completion.complete(this);
+	}
+}
@@ -0,0 +1,215 @@
+package hr.fer.zemris.java.simplecomp.scheduler;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+
+/**
+ * <p>
+ * Scheduler which executes many computers, called guests, on a small number
+ * of threads. Every guest executes a quantum of instructions and is then put
+ * back to the end of the queue, so all guests make progress even if some of
+ * them never halt. Guests which wait for the input are parked outside of the
+ * queue until the input is offered to them, so they do not occupy the
+ * threads.
+ * </p>
+ * 
+ * <p>
+ * Queue is the {@link ForkJoinPool} in the asynchronous mode: a guest which
+ * ends its quantum is put to the end of the queue of its thread, and the
+ * threads with empty queues steal the guests from the others. Guests are
+ * executed by the {@link hr.fer.zemris.java.simplecomp.ResumableExecution},
+ * and the computers of the guests must not share memory or devices, since
+ * they can be executed by different threads at the same time.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class GuestScheduler implements AutoCloseable {
+	/**
+	 * Default number of the instructions in a quantum.
+	 */
+	public static final long DEFAULT_QUANTUM = 1000;
+
+	/**
+	 * Pool which executes the guests.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Maximal number of the instructions a guest executes before it is put
+	 * back to the queue.
+	 */
+	private final long quantum;
+	/**
+	 * Value of {@link System#nanoTime()} when the scheduler was created.
+	 */
+	private final long startTime;
+
+	/**
+	 * Number of the guests which have not halted or failed.
+	 */
+	private final AtomicInteger activeGuests = new AtomicInteger();
+	/**
+	 * Number of the parked guests.
+	 */
+	private final AtomicInteger parkedGuests = new AtomicInteger();
+	/**
+	 * Number of the guests which have halted or failed.
+	 */
+	private final LongAdder retiredGuests = new LongAdder();
+	/**
+	 * Number of the executed quanta.
+	 */
+	private final LongAdder contextSwitches = new LongAdder();
+	/**
+	 * Number of the instructions executed by all guests.
+	 */
+	private final LongAdder executedInstructions = new LongAdder();
+
+	/**
+	 * Constructor which creates a scheduler which uses all available cores
+	 * and the default quantum.
+	 */
+	public GuestScheduler() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUANTUM);
+	}
+
+	/**
+	 * Constructor which creates a scheduler with the provided number of the
+	 * threads and the provided quantum.
+	 * 
+	 * @param parallelism
+	 *            number of the threads which execute the guests
+	 * @param quantum
+	 *            maximal number of the instructions a guest executes before
+	 *            it is put back to the queue
+	 */
+	public GuestScheduler(int parallelism, long quantum) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException(
+					"Parallelism must be positive. It was " + parallelism
+							+ ".");
+		}
+		if (quantum < 1) {
+			throw new IllegalArgumentException(
+					"Quantum must be positive. It was " + quantum + ".");
+		}
+
+		this.pool = new ForkJoinPool(parallelism,
+				ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+		this.quantum = quantum;
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Adds the computer to the queue. Program is executed from the address 0,
+	 * and its input device is replaced by the one to which the lines are
+	 * offered through the returned guest.
+	 * 
+	 * @param computer
+	 *            computer which executes the program
+	 * @return guest which executes the computer
+	 */
+	public Guest submit(ComputerImpl computer) {
+		if (computer == null) {
+			throw new IllegalArgumentException("Computer can not be null!");
+		}
+
+		Guest guest = new Guest(this, computer);
+		activeGuests.incrementAndGet();
+		schedule(guest);
+		return guest;
+	}
+
+	/**
+	 * Gets the current values of the metrics of the scheduler.
+	 * 
+	 * @return metrics of the scheduler
+	 */
+	public SchedulerMetrics getMetrics() {
+		return new SchedulerMetrics(
+				pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount(),
+				activeGuests.get(), parkedGuests.get(), retiredGuests.sum(),
+				contextSwitches.sum(), executedInstructions.sum(), quantum,
+				System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Gets the maximal number of the instructions a guest executes before it
+	 * is put back to the queue.
+	 * 
+	 * @return quantum of the scheduler
+	 */
+	public long getQuantum() {
+		return quantum;
+	}
+
+	/**
+	 * Puts the guest to the end of the queue. If called by a thread of the
+	 * scheduler, guest goes to the queue of that thread.
+	 * 
+	 * @param guest
+	 *            guest which is scheduled
+	 */
+	void schedule(Guest guest) {
+		Runnable task = () -> guest.runQuantum(quantum);
+		if (ForkJoinTask.getPool() == pool) {
+			ForkJoinTask.adapt(task).fork();
+		} else {
+			pool.execute(task);
+		}
+	}
+
+	/**
+	 * Records the end of a quantum.
+	 * 
+	 * @param guest
+	 *            guest which executed the quantum
+	 * @param executed
+	 *            number of the instructions executed in the quantum
+	 * @param parked
+	 *            flag that determines if the guest is parked
+	 */
+	void quantumEnded(Guest guest, long executed, boolean parked) {
+		contextSwitches.increment();
+		executedInstructions.add(executed);
+		if (parked) {
+			parkedGuests.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Puts the parked guest back to the queue.
+	 * 
+	 * @param guest
+	 *            guest which got the input
+	 */
+	void unparked(Guest guest) {
+		parkedGuests.decrementAndGet();
+		schedule(guest);
+	}
+
+	/**
+	 * Records that the guest has halted or failed.
+	 * 
+	 * @param guest
+	 *            guest which has ended
+	 */
+	void retired(Guest guest) {
+		activeGuests.decrementAndGet();
+		retiredGuests.increment();
+	}
+
+	/**
+	 * Shuts the pool down. Guests in the queue are still executed, but the
+	 * parked ones are never resumed.
+	 */
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,168 @@
+package hr.fer.zemris.java.simplecomp.scheduler;
+
+/**
+ * Values of the metrics of a {@link GuestScheduler} at a point in time. Every
+ * executed quantum is counted as a context switch, since after it the thread
+ * switches to another guest.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class SchedulerMetrics {
+	/**
+	 * Number of the guests in the queue.
+	 */
+	private final long queueDepth;
+	/**
+	 * Number of the guests which have not halted or failed.
+	 */
+	private final int activeGuests;
+	/**
+	 * Number of the parked guests.
+	 */
+	private final int parkedGuests;
+	/**
+	 * Number of the guests which have halted or failed.
+	 */
+	private final long retiredGuests;
+	/**
+	 * Number of the executed quanta.
+	 */
+	private final long contextSwitches;
+	/**
+	 * Number of the instructions executed by all guests.
+	 */
+	private final long executedInstructions;
+	/**
+	 * Maximal number of the instructions in a quantum.
+	 */
+	private final long quantum;
+	/**
+	 * Time since the scheduler was created, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+
+	/**
+	 * Constructor which creates the metrics.
+	 * 
+	 * @param queueDepth
+	 *            number of the guests in the queue
+	 * @param activeGuests
+	 *            number of the guests which have not halted or failed
+	 * @param parkedGuests
+	 *            number of the parked guests
+	 * @param retiredGuests
+	 *            number of the guests which have halted or failed
+	 * @param contextSwitches
+	 *            number of the executed quanta
+	 * @param executedInstructions
+	 *            number of the instructions executed by all guests
+	 * @param quantum
+	 *            maximal number of the instructions in a quantum
+	 * @param elapsedNanos
+	 *            time since the scheduler was created, in nanoseconds
+	 */
+	public SchedulerMetrics(long queueDepth, int activeGuests,
+			int parkedGuests, long retiredGuests, long contextSwitches,
+			long executedInstructions, long quantum, long elapsedNanos) {
+		this.queueDepth = queueDepth;
+		this.activeGuests = activeGuests;
+		this.parkedGuests = parkedGuests;
+		this.retiredGuests = retiredGuests;
+		this.contextSwitches = contextSwitches;
+		this.executedInstructions = executedInstructions;
+		this.quantum = quantum;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Gets the number of the guests in the queue. This is an estimate, since
+	 * the queue changes while it is counted.
+	 * 
+	 * @return number of the queued guests
+	 */
+	public long getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * Gets the number of the guests which have not halted or failed.
+	 * 
+	 * @return number of the active guests
+	 */
+	public int getActiveGuests() {
+		return activeGuests;
+	}
+
+	/**
+	 * Gets the number of the guests which wait for the input.
+	 * 
+	 * @return number of the parked guests
+	 */
+	public int getParkedGuests() {
+		return parkedGuests;
+	}
+
+	/**
+	 * Gets the number of the guests which have halted or failed.
+	 * 
+	 * @return number of the retired guests
+	 */
+	public long getRetiredGuests() {
+		return retiredGuests;
+	}
+
+	/**
+	 * Gets the number of the executed quanta.
+	 * 
+	 * @return number of the context switches
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	/**
+	 * Gets the number of the instructions executed by all guests.
+	 * 
+	 * @return number of the executed instructions
+	 */
+	public long getExecutedInstructions() {
+		return executedInstructions;
+	}
+
+	/**
+	 * Gets the part of the quanta which was used for the execution. Quantum
+	 * is not used completely if the guest halts or parks before its end.
+	 * 
+	 * @return quantum utilization, between 0 and 1
+	 */
+	public double getQuantumUtilization() {
+		if (contextSwitches == 0) {
+			return 0;
+		}
+		return (double) executedInstructions / (contextSwitches * quantum);
+	}
+
+	/**
+	 * Gets the average number of the context switches per second since the
+	 * scheduler was created.
+	 * 
+	 * @return context switches per second
+	 */
+	public double getContextSwitchesPerSecond() {
+		if (elapsedNanos == 0) {
+			return 0;
+		}
+		return contextSwitches * 1e9 / elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+				"queue %d, active %d, parked %d, retired %d, "
+						+ "%d switches (%.0f/s), utilization %.2f",
+				queueDepth, activeGuests, parkedGuests, retiredGuests,
+				contextSwitches, getContextSwitchesPerSecond(),
+				getQuantumUtilization());
+	}
+}
@@ -0,0 +1,66 @@
+package hr.fer.zemris.java.simplecomp.threaded;
+
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+
+/**
+ * <p>
+ * Represents a single pre-decoded operation of the
+ * {@link ThreadedExecutionUnit}.
+ * </p>
+ * 
+ * <p>
+ * Operation is created once, when the program is decoded, from the instruction
+ * stored on a certain memory location. All of its operands are stored as
+ * primitive fields, and the address of the operation which follows it is stored
+ * in {@link #next}, so executing the operation does not have to read the
+ * program counter or fetch anything from the memory.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public abstract class Operation {
+	/**
+	 * Value returned by {@link #execute(IntRegisters, IntMemory, Computer)}
+	 * when the computer has to stop.
+	 */
+	public static final int HALT = -1;
+
+	/**
+	 * Address of this operation.
+	 */
+	protected final int address;
+	/**
+	 * Address of the operation which directly follows this one.
+	 */
+	protected final int next;
+
+	/**
+	 * Initializes the address of this operation and the address of the
+	 * operation which follows it.
+	 * 
+	 * @param address
+	 *            address of this operation
+	 */
+	protected Operation(int address) {
+		this.address = address;
+		this.next = address + 1;
+	}
+
+	/**
+	 * Executes this operation.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param computer
+	 *            computer which executes this operation
+	 * @return address of the next operation which has to be executed, or
+	 *         {@link #HALT} if the computer has to stop
+	 */
+	public abstract int execute(IntRegisters registers, IntMemory memory,
+			Computer computer);
+}
@@ -0,0 +1,725 @@
+package hr.fer.zemris.java.simplecomp.threaded;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier;
+
+/**
+ * Class which contains implementations of the {@link Operation} for every
+ * instruction supported by the {@link ThreadedExecutionUnit}. Operations behave
+ * exactly like the instructions from which they were decoded.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class Operations {
+
+	/**
+	 * Operation which sums the values of two registers.
+	 */
+	public static class Add extends Operation {
+		/**
+		 * Index of the register to which the result is stored.
+		 */
+		private final int destination;
+		/**
+		 * Index of the register which holds the first operand.
+		 */
+		private final int first;
+		/**
+		 * Index of the register which holds the second operand.
+		 */
+		private final int second;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param destination
+		 *            index of the register to which the result is stored
+		 * @param first
+		 *            index of the register which holds the first operand
+		 * @param second
+		 *            index of the register which holds the second operand
+		 */
+		public Add(int address, int destination, int first, int second) {
+			super(address);
+			this.destination = destination;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			registers.setInt(destination,
+					registers.getInt(first) + registers.getInt(second));
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which multiplies the values of two registers.
+	 */
+	public static class Mul extends Operation {
+		/**
+		 * Index of the register to which the result is stored.
+		 */
+		private final int destination;
+		/**
+		 * Index of the register which holds the first operand.
+		 */
+		private final int first;
+		/**
+		 * Index of the register which holds the second operand.
+		 */
+		private final int second;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param destination
+		 *            index of the register to which the result is stored
+		 * @param first
+		 *            index of the register which holds the first operand
+		 * @param second
+		 *            index of the register which holds the second operand
+		 */
+		public Mul(int address, int destination, int first, int second) {
+			super(address);
+			this.destination = destination;
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			registers.setInt(destination,
+					registers.getInt(first) * registers.getInt(second));
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which adds a constant to the value of a register. Used for
+	 * both increment and decrement instructions.
+	 */
+	public static class AddConstant extends Operation {
+		/**
+		 * Index of the register.
+		 */
+		private final int register;
+		/**
+		 * Constant which is added to the register.
+		 */
+		private final int constant;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param register
+		 *            index of the register
+		 * @param constant
+		 *            constant which is added to the register
+		 */
+		public AddConstant(int address, int register, int constant) {
+			super(address);
+			this.register = register;
+			this.constant = constant;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			registers.setInt(register, registers.getInt(register) + constant);
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which compares the values of two registers and sets the flag.
+	 */
+	public static class TestEquals extends Operation {
+		/**
+		 * Index of the first register.
+		 */
+		private final int first;
+		/**
+		 * Index of the second register.
+		 */
+		private final int second;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param first
+		 *            index of the first register
+		 * @param second
+		 *            index of the second register
+		 */
+		public TestEquals(int address, int first, int second) {
+			super(address);
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			if (registers.isInt(first) && registers.isInt(second)) {
+				registers.setFlag(
+						registers.getInt(first) == registers.getInt(second));
+			} else {
+				registers.setFlag(registers.getRegisterValue(first)
+						.equals(registers.getRegisterValue(second)));
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which jumps to a fixed address.
+	 */
+	public static class Jump extends Operation {
+		/**
+		 * Address to which the operation jumps.
+		 */
+		private final int target;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param target
+		 *            address to which the operation jumps
+		 */
+		public Jump(int address, int target) {
+			super(address);
+			this.target = target;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			return target;
+		}
+	}
+
+	/**
+	 * Operation which jumps to a fixed address if the flag is set.
+	 */
+	public static class JumpIfTrue extends Operation {
+		/**
+		 * Address to which the operation jumps.
+		 */
+		private final int target;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param target
+		 *            address to which the operation jumps
+		 */
+		public JumpIfTrue(int address, int target) {
+			super(address);
+			this.target = target;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			return registers.getFlag() ? target : next;
+		}
+	}
+
+	/**
+	 * Operation which loads the value from a fixed memory location to a
+	 * register.
+	 */
+	public static class Load extends Operation {
+		/**
+		 * Index of the register.
+		 */
+		private final int register;
+		/**
+		 * Memory location from which the value is loaded.
+		 */
+		private final int location;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param register
+		 *            index of the register
+		 * @param location
+		 *            memory location from which the value is loaded
+		 */
+		public Load(int address, int register, int location) {
+			super(address);
+			this.register = register;
+			this.location = location;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			if (memory.isInt(location)) {
+				registers.setInt(register, memory.getInt(location));
+			} else {
+				registers.setRegisterValue(register,
+						memory.getLocation(location));
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which loads the value from a fixed memory location to a
+	 * register, like {@link Load}, but trough the view of the memory which was
+	 * bound when the program was decoded. Used only for the programs accepted
+	 * by the {@link BoundsVerifier}, so the view can skip the check of the
+	 * location.
+	 */
+	public static class BoundLoad extends Operation {
+		/**
+		 * Index of the register.
+		 */
+		private final int register;
+		/**
+		 * Memory location from which the value is loaded.
+		 */
+		private final int location;
+		/**
+		 * View of the memory from which the value is loaded.
+		 */
+		private final IntMemory view;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param register
+		 *            index of the register
+		 * @param location
+		 *            memory location from which the value is loaded
+		 * @param view
+		 *            view of the memory from which the value is loaded
+		 */
+		public BoundLoad(int address, int register, int location,
+				IntMemory view) {
+			super(address);
+			this.register = register;
+			this.location = location;
+			this.view = view;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			if (view.isInt(location)) {
+				registers.setInt(register, view.getInt(location));
+			} else {
+				registers.setRegisterValue(register,
+						view.getLocation(location));
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which stores a constant to a register or to a memory location
+	 * determined by indirect addressing.
+	 */
+	public static class MoveConstant extends Operation {
+		/**
+		 * Descriptor of the destination.
+		 */
+		private final int destination;
+		/**
+		 * Constant which is stored.
+		 */
+		private final Object constant;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param destination
+		 *            descriptor of the destination
+		 * @param constant
+		 *            constant which is stored
+		 */
+		public MoveConstant(int address, int destination, Object constant) {
+			super(address);
+			this.destination = destination;
+			this.constant = constant;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			store(registers, memory, destination, constant);
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which copies a value between registers or memory locations
+	 * determined by indirect addressing.
+	 */
+	public static class Move extends Operation {
+		/**
+		 * Descriptor of the destination.
+		 */
+		private final int destination;
+		/**
+		 * Descriptor of the source.
+		 */
+		private final int source;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param destination
+		 *            descriptor of the destination
+		 * @param source
+		 *            descriptor of the source
+		 */
+		public Move(int address, int destination, int source) {
+			super(address);
+			this.destination = destination;
+			this.source = source;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			if (RegisterUtil.isIndirect(source)) {
+				int location = registers
+						.getInt(RegisterUtil.getRegisterIndex(source))
+						+ RegisterUtil.getRegisterOffset(source);
+
+				if (memory.isInt(location)) {
+					storeInt(registers, memory, destination,
+							memory.getInt(location));
+				} else {
+					store(registers, memory, destination,
+							memory.getLocation(location));
+				}
+
+			} else if (registers.isInt(source)) {
+				storeInt(registers, memory, destination,
+						registers.getInt(source));
+
+			} else {
+				store(registers, memory, destination,
+						registers.getRegisterValue(source));
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which pushes the value of a register to the stack.
+	 */
+	public static class Push extends Operation {
+		/**
+		 * Index of the register.
+		 */
+		private final int register;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param register
+		 *            index of the register
+		 */
+		public Push(int address, int register) {
+			super(address);
+			this.register = register;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			int topOfStack = registers.getInt(Registers.STACK_REGISTER_INDEX);
+
+			if (registers.isInt(register)) {
+				memory.setInt(topOfStack, registers.getInt(register));
+			} else {
+				memory.setLocation(topOfStack,
+						registers.getRegisterValue(register));
+			}
+
+			registers.setInt(Registers.STACK_REGISTER_INDEX, topOfStack - 1);
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which pops the value from the stack to a register.
+	 */
+	public static class Pop extends Operation {
+		/**
+		 * Index of the register.
+		 */
+		private final int register;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param register
+		 *            index of the register
+		 */
+		public Pop(int address, int register) {
+			super(address);
+			this.register = register;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			int location = registers.getInt(Registers.STACK_REGISTER_INDEX) + 1;
+
+			if (memory.isInt(location)) {
+				int value = memory.getInt(location);
+				registers.setInt(Registers.STACK_REGISTER_INDEX, location);
+				registers.setInt(register, value);
+
+			} else {
+				Object value = memory.getLocation(location);
+				registers.setInt(Registers.STACK_REGISTER_INDEX, location);
+				registers.setRegisterValue(register, value);
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * Operation which calls the subroutine on a fixed address.
+	 */
+	public static class Call extends Operation {
+		/**
+		 * Address of the subroutine.
+		 */
+		private final int target;
+
+		/**
+		 * Creates the operation from the provided operands.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param target
+		 *            address of the subroutine
+		 */
+		public Call(int address, int target) {
+			super(address);
+			this.target = target;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			int topOfStack = registers.getInt(Registers.STACK_REGISTER_INDEX);
+
+			memory.setInt(topOfStack, next);
+
+			registers.setInt(Registers.STACK_REGISTER_INDEX, topOfStack - 1);
+			return target;
+		}
+	}
+
+	/**
+	 * Operation which returns from the subroutine.
+	 */
+	public static class Ret extends Operation {
+
+		/**
+		 * Creates the operation.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 */
+		public Ret(int address) {
+			super(address);
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			int topOfStack = registers.getInt(Registers.STACK_REGISTER_INDEX);
+
+			int target = memory.getInt(topOfStack + 1);
+
+			registers.setInt(Registers.STACK_REGISTER_INDEX, topOfStack + 1);
+
+			// checks the address the same way the instruction ret does
+			registers.setProgramCounter(target);
+			return target;
+		}
+	}
+
+	/**
+	 * Operation which stops the computer.
+	 */
+	public static class Halt extends Operation {
+
+		/**
+		 * Creates the operation.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 */
+		public Halt(int address) {
+			super(address);
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			return HALT;
+		}
+	}
+
+	/**
+	 * Operation which executes an already fetched {@link Instruction}. Used for
+	 * the instructions which are dominated by input and output (echo, iinput)
+	 * and for the instructions which are not known to the decoder.
+	 */
+	public static class Execute extends Operation {
+		/**
+		 * Instruction which is executed.
+		 */
+		private final Instruction instruction;
+
+		/**
+		 * Creates the operation which executes the provided instruction.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 * @param instruction
+		 *            instruction which is executed
+		 */
+		public Execute(int address, Instruction instruction) {
+			super(address);
+			this.instruction = instruction;
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			registers.setProgramCounter(next);
+
+			if (instruction.execute(computer)) {
+				return HALT;
+			}
+			return registers.getProgramCounter();
+		}
+	}
+
+	/**
+	 * Operation which fetches the instruction from the memory when it is
+	 * executed. Used for the locations which did not hold an instruction when
+	 * the program was decoded, so executing them fails the same way it does in
+	 * {@link hr.fer.zemris.java.simplecomp.ExecutionUnitImpl}.
+	 */
+	public static class Fetch extends Operation {
+
+		/**
+		 * Creates the operation.
+		 * 
+		 * @param address
+		 *            address of this operation
+		 */
+		public Fetch(int address) {
+			super(address);
+		}
+
+		@Override
+		public int execute(IntRegisters registers, IntMemory memory,
+				Computer computer) {
+			Instruction instruction = (Instruction) memory.getLocation(address);
+
+			registers.setProgramCounter(next);
+
+			if (instruction.execute(computer)) {
+				return HALT;
+			}
+			return registers.getProgramCounter();
+		}
+	}
+
+	/**
+	 * Help method which stores the value to the location specified by the
+	 * descriptor.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param descriptor
+	 *            descriptor of the location
+	 * @param value
+	 *            value which is stored
+	 */
+	private static void store(IntRegisters registers, IntMemory memory,
+			int descriptor, Object value) {
+		if (RegisterUtil.isIndirect(descriptor)) {
+			memory.setLocation(registers
+					.getInt(RegisterUtil.getRegisterIndex(descriptor))
+					+ RegisterUtil.getRegisterOffset(descriptor), value);
+		} else {
+			registers.setRegisterValue(RegisterUtil.getRegisterIndex(descriptor),
+					value);
+		}
+	}
+
+	/**
+	 * Help method which stores the integer to the location specified by the
+	 * descriptor.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 * @param descriptor
+	 *            descriptor of the location
+	 * @param value
+	 *            integer which is stored
+	 */
+	private static void storeInt(IntRegisters registers, IntMemory memory,
+			int descriptor, int value) {
+		if (RegisterUtil.isIndirect(descriptor)) {
+			memory.setInt(registers
+					.getInt(RegisterUtil.getRegisterIndex(descriptor))
+					+ RegisterUtil.getRegisterOffset(descriptor), value);
+		} else {
+			registers.setInt(RegisterUtil.getRegisterIndex(descriptor), value);
+		}
+	}
+}
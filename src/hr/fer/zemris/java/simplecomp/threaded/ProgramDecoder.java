@@ -0,0 +1,222 @@
+package hr.fer.zemris.java.simplecomp.threaded;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.impl.StackWindowMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier;
+
+/**
+ * Class which decodes the program stored in the memory into an array of
+ * {@link Operation} objects, one for every memory location. Locations which do
+ * not hold an instruction are decoded into operations which fetch the content
+ * of the location when executed.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ProgramDecoder {
+
+	/**
+	 * Decodes the memory into an array of operations. Operation on index
+	 * <code>i</code> represents the instruction stored on the memory location
+	 * <code>i</code>. Only the part of the memory returned by
+	 * {@link #getProgramSize(IntMemory)} is decoded.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @return array of decoded operations
+	 */
+	public static Operation[] decode(IntMemory memory) {
+		return decode(memory, false);
+	}
+
+	/**
+	 * Decodes the memory into an array of operations, like
+	 * {@link #decode(IntMemory)}. If the program was accepted by the
+	 * {@link BoundsVerifier}, operations which access fixed memory locations
+	 * are bound to the view of the memory which does not check the locations.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param verified
+	 *            flag that determines if the program was verified
+	 * @return array of decoded operations
+	 */
+	public static Operation[] decode(IntMemory memory, boolean verified) {
+		Operation[] operations = new Operation[getProgramSize(memory)];
+		IntMemory view = memory.unchecked();
+
+		for (int address = 0; address < operations.length; address++) {
+			Object value = memory.getLocation(address);
+			Object generic = SpecializedInstruction.unwrap(value);
+
+			if (verified && generic != null
+					&& generic.getClass() == InstrLoad.class) {
+				InstrLoad load = (InstrLoad) generic;
+				operations[address] = new Operations.BoundLoad(address,
+						load.getRegisterIndex(), load.getMemoryLocation(),
+						view);
+			} else if (value instanceof Instruction) {
+				operations[address] = decode(address, (Instruction) value);
+			} else {
+				operations[address] = new Operations.Fetch(address);
+			}
+		}
+
+		return operations;
+	}
+
+	/**
+	 * Gets the number of the locations from the start of the memory which can
+	 * hold the program. For a {@link PagedMemory} these are the locations up
+	 * to the end of its last allocated page, for a {@link StackWindowMemory}
+	 * the same as for its underlying memory, and for other memories all of
+	 * them. Execution units which decode the program treat the locations
+	 * after it as if they did not hold decoded instructions.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @return number of the locations which can hold the program
+	 */
+	public static int getProgramSize(IntMemory memory) {
+		if (memory instanceof PagedMemory) {
+			return ((PagedMemory) memory).getUsedSize();
+		} else if (memory instanceof StackWindowMemory) {
+			return getProgramSize(((StackWindowMemory) memory).getMemory());
+		}
+		return memory.getSize();
+	}
+
+	/**
+	 * Decodes a single instruction into an operation. Instructions which are
+	 * not known to this decoder are decoded into an operation which executes
+	 * the instruction itself.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param instruction
+	 *            instruction which is decoded
+	 * @return decoded operation
+	 */
+	public static Operation decode(int address, Instruction instruction) {
+		// Operations already work with the primitive integers and choose
+		// between the checked and the unchecked access themselves, so the
+		// specialized and the unchecked instructions are decoded like the
+		// generic ones
+		instruction = (Instruction) SpecializedInstruction.unwrap(instruction);
+		Class<?> type = instruction.getClass();
+
+		if (type == InstrAdd.class) {
+			InstrAdd add = (InstrAdd) instruction;
+			return new Operations.Add(address, add.getRegisterIndex1(),
+					add.getRegisterIndex2(), add.getRegisterIndex3());
+
+		} else if (type == InstrMul.class) {
+			InstrMul mul = (InstrMul) instruction;
+			return new Operations.Mul(address, mul.getRegisterIndex1(),
+					mul.getRegisterIndex2(), mul.getRegisterIndex3());
+
+		} else if (type == InstrIncrement.class) {
+			return new Operations.AddConstant(address,
+					((InstrIncrement) instruction).getRegisterIndex(), 1);
+
+		} else if (type == InstrDecrement.class) {
+			return new Operations.AddConstant(address,
+					((InstrDecrement) instruction).getRegisterIndex(), -1);
+
+		} else if (type == InstrTestEquals.class) {
+			InstrTestEquals test = (InstrTestEquals) instruction;
+			return new Operations.TestEquals(address,
+					test.getRegisterIndex1(), test.getRegisterIndex2());
+
+		} else if (type == InstrJump.class
+				&& ((InstrJump) instruction).getAddress() >= 0) {
+			// negative addresses are rejected by the instructions themselves,
+			// the same way they are in ExecutionUnitImpl
+			return new Operations.Jump(address,
+					((InstrJump) instruction).getAddress());
+
+		} else if (type == InstrJumpIfTrue.class
+				&& ((InstrJumpIfTrue) instruction).getAddress() >= 0) {
+			return new Operations.JumpIfTrue(address,
+					((InstrJumpIfTrue) instruction).getAddress());
+
+		} else if (type == InstrLoad.class) {
+			InstrLoad load = (InstrLoad) instruction;
+			return new Operations.Load(address, load.getRegisterIndex(),
+					load.getMemoryLocation());
+
+		} else if (type == InstrMove.class) {
+			return decodeMove(address, (InstrMove) instruction);
+
+		} else if (type == InstrPush.class) {
+			return new Operations.Push(address,
+					((InstrPush) instruction).getRegisterIndex());
+
+		} else if (type == InstrPop.class) {
+			return new Operations.Pop(address,
+					((InstrPop) instruction).getRegisterIndex());
+
+		} else if (type == InstrCall.class
+				&& ((InstrCall) instruction).getAddress() >= 0) {
+			return new Operations.Call(address,
+					((InstrCall) instruction).getAddress());
+
+		} else if (type == InstrRet.class) {
+			return new Operations.Ret(address);
+
+		} else if (type == InstrHalt.class) {
+			return new Operations.Halt(address);
+		}
+
+		return new Operations.Execute(address, instruction);
+	}
+
+	/**
+	 * Helper method which decodes the instruction move. Second argument of the
+	 * instruction can be a number, which is decoded into a
+	 * {@link Operations.MoveConstant}, or a register, which is decoded into a
+	 * {@link Operations.Move}.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param move
+	 *            instruction which is decoded
+	 * @return decoded operation
+	 */
+	private static Operation decodeMove(int address, InstrMove move) {
+		InstructionArgument first = move.getFirstArgument();
+		InstructionArgument second = move.getSecondArgument();
+
+		int destination = (Integer) first.getValue();
+		if (!RegisterUtil.isIndirect(destination)) {
+			destination = RegisterUtil.getRegisterIndex(destination);
+		}
+
+		if (second.isNumber()) {
+			return new Operations.MoveConstant(address, destination,
+					second.getValue());
+		}
+
+		return new Operations.Move(address, destination,
+				(Integer) second.getValue());
+	}
+}
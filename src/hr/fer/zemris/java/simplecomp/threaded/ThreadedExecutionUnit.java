@@ -0,0 +1,101 @@
+package hr.fer.zemris.java.simplecomp.threaded;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.verifier.BoundsVerifier;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which executes pre-decoded
+ * programs.
+ * </p>
+ * 
+ * <p>
+ * Before the execution, the whole memory is decoded by the
+ * {@link ProgramDecoder} into an array of {@link Operation} objects which hold
+ * their operands as primitive fields. The execution then runs in a loop which
+ * keeps the program counter in a local variable and does not fetch anything
+ * from the memory, so it is much faster than {@link ExecutionUnitImpl} for the
+ * long running programs.
+ * </p>
+ * 
+ * <p>
+ * Program is decoded only once, so the programs which store instructions to
+ * the memory while they run are not supported: the locations keep executing
+ * the instructions they held when the program was decoded, and the writes to
+ * them are not detected. Computers whose registers and memory do not
+ * implement {@link IntRegisters} and {@link IntMemory} are executed by the
+ * {@link ExecutionUnitImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class ThreadedExecutionUnit implements ExecutionUnit {
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		// Program whose fixed operands are valid accesses the registers and
+		// the fixed locations without the checks
+		boolean verified = BoundsVerifier.findViolation(memory,
+				ProgramDecoder.getProgramSize(memory),
+				registers.getSize()) == null;
+		Operation[] operations = ProgramDecoder.decode(memory, verified);
+
+		return execute(computer, operations,
+				verified ? registers.unchecked() : registers, memory);
+	}
+
+	/**
+	 * Executes the decoded program from the address 0 until the instruction
+	 * halt. Operations access the registers and the memory trough the
+	 * provided objects, which can be the views of the registers and the
+	 * memory of the computer without the checks, if the program was verified
+	 * to be safe without them.
+	 * 
+	 * @param computer
+	 *            computer which executes the program
+	 * @param operations
+	 *            decoded program
+	 * @param registers
+	 *            registers, or their view, used by the operations
+	 * @param memory
+	 *            memory, or its view, used by the operations
+	 * @return <code>true</code> when the program halts
+	 */
+	public static boolean execute(Computer computer, Operation[] operations,
+			IntRegisters registers, IntMemory memory) {
+		int pc = 0;
+		try {
+			while (true) {
+				Operation operation = pc >= 0 && pc < operations.length
+						? operations[pc]
+						: new Operations.Fetch(pc);
+
+				int next = operation.execute(registers, memory, computer);
+
+				if (next == Operation.HALT) {
+					break;
+				}
+				pc = next;
+			}
+		} finally {
+			registers.setProgramCounter(pc + 1);
+			InstructionsUtil.flushOutput(computer);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,267 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMoveFromStack;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionsUtil;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which executes the program
+ * like the {@link ExecutionUnitImpl} and writes the trace of every executed
+ * instruction to a file, trough a {@link TraceBuffer}.
+ * </p>
+ * 
+ * <p>
+ * Record of an instruction holds its address, its opcode, the register it
+ * writes and its value, the value of the register r15, the flag and the last
+ * location it writes to the memory. Register written by an instruction is
+ * found only once for every address, and the writes to the memory are
+ * recorded by a memory which is put in front of the memory of the computer
+ * while the program runs, so the tracing does not allocate per instruction.
+ * Tracing is enabled only by executing the program with this unit, so the
+ * other execution units are not slowed down at all. Instruction which ends
+ * the execution with an exception is not recorded, its address is in the
+ * program counter. Trace can be read by the {@link TraceReader} and printed
+ * by the {@link TraceDump}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class RecordingExecutionUnit implements ExecutionUnit {
+	/**
+	 * File to which the trace is written.
+	 */
+	private final Path file;
+	/**
+	 * Number of the records in the buffer.
+	 */
+	private final int capacity;
+
+	/**
+	 * Constructor which creates an execution unit which writes the trace to
+	 * the provided file, trough the buffer of the default capacity.
+	 * 
+	 * @param file
+	 *            file to which the trace is written
+	 */
+	public RecordingExecutionUnit(Path file) {
+		this(file, TraceBuffer.DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates an execution unit which writes the trace to
+	 * the provided file, trough the buffer of the provided capacity, which
+	 * must be a power of two.
+	 * 
+	 * @param file
+	 *            file to which the trace is written
+	 * @param capacity
+	 *            number of the records in the buffer
+	 */
+	public RecordingExecutionUnit(Path file, int capacity) {
+		if (file == null) {
+			throw new IllegalArgumentException("Trace file can not be null.");
+		}
+		TraceBuffer.checkCapacity(capacity);
+
+		this.file = file;
+		this.capacity = capacity;
+	}
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			throw new IllegalArgumentException(
+					"Traced computer must have registers and memory which implement IntRegisters and IntMemory.");
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory original = (IntMemory) computer.getMemory();
+		RecordingMemory memory = new RecordingMemory(original);
+		Computer traced = withMemory(computer, memory);
+
+		int size = ProgramDecoder.getProgramSize(original);
+		// Instructions whose records are prepared, their opcodes and the
+		// registers they write
+		Instruction[] program = new Instruction[size];
+		int[] opcodes = new int[size];
+		int[] destinations = new int[size];
+		boolean hasStack = registers
+				.getSize() > Registers.STACK_REGISTER_INDEX;
+
+		try (TraceBuffer trace = new TraceBuffer(file, capacity)) {
+			registers.setProgramCounter(0);
+
+			try {
+				while (true) {
+					int pc = registers.getProgramCounter();
+					Instruction instruction = (Instruction) memory
+							.getLocation(pc);
+
+					int opcode;
+					int destination;
+					if (pc >= 0 && pc < size) {
+						if (program[pc] != instruction) {
+							program[pc] = instruction;
+							opcodes[pc] = getOpcode(instruction);
+							destinations[pc] = getDestination(instruction);
+						}
+						opcode = opcodes[pc];
+						destination = destinations[pc];
+					} else {
+						opcode = getOpcode(instruction);
+						destination = getDestination(instruction);
+					}
+
+					registers.incrementProgramCounter();
+					memory.clear();
+					boolean halted = instruction.execute(traced);
+
+					int flags = registers.getFlag() ? TraceFormat.FLAG : 0;
+					int value = 0;
+					if (destination >= 0) {
+						flags |= TraceFormat.REGISTER_WRITTEN;
+						if (registers.isInt(destination)) {
+							flags |= TraceFormat.REGISTER_INT;
+							value = registers.getInt(destination);
+						}
+					}
+					int stack = 0;
+					if (hasStack && registers
+							.isInt(Registers.STACK_REGISTER_INDEX)) {
+						flags |= TraceFormat.STACK_INT;
+						stack = registers
+								.getInt(Registers.STACK_REGISTER_INDEX);
+					}
+					if (memory.isWritten()) {
+						flags |= TraceFormat.MEMORY_WRITTEN;
+						if (memory.isWrittenInt()) {
+							flags |= TraceFormat.MEMORY_INT;
+						}
+					}
+
+					trace.append(pc, opcode, flags, Math.max(destination, 0),
+							value, stack,
+							memory.isWritten() ? memory.getWrittenLocation()
+									: 0,
+							memory.getWrittenValue());
+
+					if (halted) {
+						break;
+					}
+				}
+			} finally {
+				InstructionsUtil.flushOutput(traced);
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Helper method which gets the opcode written to the records of the
+	 * instruction.
+	 * 
+	 * @param instruction
+	 *            executed instruction
+	 * @return number of its opcode, or zero if it has none
+	 */
+	private static int getOpcode(Instruction instruction) {
+		Opcode opcode = Opcode.forInstruction(instruction);
+		return opcode == null ? 0 : opcode.getCode();
+	}
+
+	/**
+	 * Helper method which gets the register other than r15 written by the
+	 * instruction. Fused instructions which write several registers have
+	 * none.
+	 * 
+	 * @param instruction
+	 *            executed instruction
+	 * @return index of the written register, or -1 if there is none
+	 */
+	private static int getDestination(Instruction instruction) {
+		Object generic = SpecializedInstruction.unwrap(instruction);
+		int register = -1;
+
+		if (generic instanceof InstrAdd) {
+			register = ((InstrAdd) generic).getRegisterIndex1();
+		} else if (generic instanceof InstrMul) {
+			register = ((InstrMul) generic).getRegisterIndex1();
+		} else if (generic instanceof InstrLoad) {
+			register = ((InstrLoad) generic).getRegisterIndex();
+		} else if (generic instanceof InstrPop) {
+			register = ((InstrPop) generic).getRegisterIndex();
+		} else if (generic instanceof InstrMoveFromStack) {
+			register = ((InstrMoveFromStack) generic).getRegisterIndex();
+		} else if (generic instanceof InstrIncrement) {
+			register = ((InstrIncrement) generic).getRegisterIndex();
+		} else if (generic instanceof InstrDecrement) {
+			register = ((InstrDecrement) generic).getRegisterIndex();
+		} else if (generic instanceof InstrMove) {
+			int descriptor = (Integer) ((InstrMove) generic).getFirstArgument()
+					.getValue();
+			if (!RegisterUtil.isIndirect(descriptor)) {
+				register = RegisterUtil.getRegisterIndex(descriptor);
+			}
+		}
+
+		return register == Registers.STACK_REGISTER_INDEX ? -1 : register;
+	}
+
+	/**
+	 * Helper method which creates a computer which shares the registers with
+	 * the provided one, but uses the provided memory.
+	 * 
+	 * @param computer
+	 *            computer whose registers are shared
+	 * @param memory
+	 *            memory of the created computer
+	 * @return computer with the provided memory
+	 */
+	private static Computer withMemory(Computer computer, Memory memory) {
+		if (computer instanceof ComputerImpl) {
+			return ((ComputerImpl) computer).withMemory(memory);
+		}
+
+		return new Computer() {
+
+			@Override
+			public Registers getRegisters() {
+				return computer.getRegisters();
+			}
+
+			@Override
+			public Memory getMemory() {
+				return memory;
+			}
+		};
+	}
+}
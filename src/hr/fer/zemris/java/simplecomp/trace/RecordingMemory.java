@@ -0,0 +1,126 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+
+/**
+ * Memory which remembers the last write to another memory, so the
+ * {@link RecordingExecutionUnit} can trace it without boxing the written
+ * integers. All accesses trough {@link #unchecked()} are recorded as well.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+class RecordingMemory implements IntMemory {
+	/**
+	 * Memory to which the values are written.
+	 */
+	private final IntMemory memory;
+	/**
+	 * Flag that determines if a value was written since the last clear.
+	 */
+	private boolean written;
+	/**
+	 * Last written location.
+	 */
+	private int location;
+	/**
+	 * Last written value, if it is an integer.
+	 */
+	private int value;
+	/**
+	 * Flag that determines if the last written value is an integer.
+	 */
+	private boolean integer;
+
+	/**
+	 * Constructor which creates a memory which records the writes to the
+	 * provided memory.
+	 * 
+	 * @param memory
+	 *            memory to which the values are written
+	 */
+	RecordingMemory(IntMemory memory) {
+		this.memory = memory;
+	}
+
+	@Override
+	public void setLocation(int location, Object value) {
+		memory.setLocation(location, value);
+		this.written = true;
+		this.location = location;
+		this.integer = value instanceof Integer;
+		this.value = integer ? (Integer) value : 0;
+	}
+
+	@Override
+	public Object getLocation(int location) {
+		return memory.getLocation(location);
+	}
+
+	@Override
+	public int getInt(int location) {
+		return memory.getInt(location);
+	}
+
+	@Override
+	public void setInt(int location, int value) {
+		memory.setInt(location, value);
+		this.written = true;
+		this.location = location;
+		this.integer = true;
+		this.value = value;
+	}
+
+	@Override
+	public boolean isInt(int location) {
+		return memory.isInt(location);
+	}
+
+	@Override
+	public int getSize() {
+		return memory.getSize();
+	}
+
+	/**
+	 * Checks if a value was written since the last clear.
+	 * 
+	 * @return <code>true</code> if a value was written
+	 */
+	boolean isWritten() {
+		return written;
+	}
+
+	/**
+	 * Gets the last written location.
+	 * 
+	 * @return last written location
+	 */
+	int getWrittenLocation() {
+		return location;
+	}
+
+	/**
+	 * Gets the last written value, or zero if it is not an integer.
+	 * 
+	 * @return last written value
+	 */
+	int getWrittenValue() {
+		return value;
+	}
+
+	/**
+	 * Checks if the last written value is an integer.
+	 * 
+	 * @return <code>true</code> if the last written value is an integer
+	 */
+	boolean isWrittenInt() {
+		return integer;
+	}
+
+	/**
+	 * Forgets the last write.
+	 */
+	void clear() {
+		written = false;
+	}
+}
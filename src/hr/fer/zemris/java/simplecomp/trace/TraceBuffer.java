@@ -0,0 +1,296 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * Ring buffer of the trace records, kept outside of the Java heap, which a
+ * background thread drains to a file in the {@link TraceFormat}.
+ * </p>
+ * 
+ * <p>
+ * Records are appended by a single thread, which writes them directly to the
+ * buffer, so the appending never allocates. Writer thread writes the
+ * appended records to the file in as large blocks as possible. If the buffer
+ * is full, appending waits for the writer, so no record is ever lost, and the
+ * execution is slowed down to the speed of the disk only when the records are
+ * produced faster than they can be written. Buffer has to be closed to write
+ * the remaining records and to close the file.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceBuffer implements AutoCloseable {
+	/**
+	 * Default number of the records in the buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	/**
+	 * Time the writer waits for new records, in nanoseconds.
+	 */
+	private static final long WRITER_PARK_NANOS = 1000000;
+	/**
+	 * Time the appending waits for the writer, in nanoseconds.
+	 */
+	private static final long APPEND_PARK_NANOS = 10000;
+
+	/**
+	 * Buffer which holds the records.
+	 */
+	private final ByteBuffer buffer;
+	/**
+	 * Number of the records in the buffer.
+	 */
+	private final int capacity;
+	/**
+	 * File to which the records are written.
+	 */
+	private final FileChannel channel;
+	/**
+	 * Thread which writes the records to the file.
+	 */
+	private final Thread writer;
+	/**
+	 * Number of the appended records.
+	 */
+	private final AtomicLong head = new AtomicLong();
+	/**
+	 * Number of the records written to the file.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * Number of the records written to the file, as last seen by the
+	 * appending thread.
+	 */
+	private long knownTail;
+	/**
+	 * Flag that determines if the buffer is closed.
+	 */
+	private volatile boolean closed;
+	/**
+	 * Error which has stopped the writer, or <code>null</code>.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Constructor which creates a buffer with the default capacity.
+	 * 
+	 * @param file
+	 *            file to which the records are written
+	 * @throws IOException
+	 *             if the file can not be created
+	 */
+	public TraceBuffer(Path file) throws IOException {
+		this(file, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates the file, writes the header of the trace to it
+	 * and starts the writer thread. Capacity must be a power of two.
+	 * 
+	 * @param file
+	 *            file to which the records are written
+	 * @param capacity
+	 *            number of the records in the buffer
+	 * @throws IOException
+	 *             if the file can not be created
+	 */
+	public TraceBuffer(Path file, int capacity) throws IOException {
+		checkCapacity(capacity);
+
+		this.capacity = capacity;
+		this.buffer = ByteBuffer
+				.allocateDirect(capacity * TraceFormat.RECORD_SIZE);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+			header.putInt(TraceFormat.MAGIC).putShort(TraceFormat.VERSION)
+					.putShort((short) TraceFormat.RECORD_SIZE).flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+		} catch (IOException ex) {
+			channel.close();
+			throw ex;
+		}
+
+		this.writer = new Thread(this::drain, "trace-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Appends a record to the buffer. If the buffer is full, waits until the
+	 * writer writes some records to the file. If the writer has failed, an
+	 * {@link UncheckedIOException} is thrown.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param opcode
+	 *            opcode of the instruction, or zero if it has none
+	 * @param flags
+	 *            flags of the record
+	 * @param register
+	 *            index of the written register
+	 * @param registerValue
+	 *            value of the written register
+	 * @param stack
+	 *            value of the register r15
+	 * @param location
+	 *            written memory location
+	 * @param memoryValue
+	 *            value written to the memory
+	 */
+	public void append(int address, int opcode, int flags, int register,
+			int registerValue, int stack, int location, int memoryValue) {
+		long index = head.get();
+		if (index - knownTail == capacity) {
+			knownTail = awaitSpace(index);
+		}
+
+		int offset = (int) (index & (capacity - 1)) * TraceFormat.RECORD_SIZE;
+		buffer.putLong(offset + TraceFormat.INDEX, index);
+		buffer.putInt(offset + TraceFormat.ADDRESS, address);
+		buffer.put(offset + TraceFormat.OPCODE, (byte) opcode);
+		buffer.put(offset + TraceFormat.FLAGS, (byte) flags);
+		buffer.putShort(offset + TraceFormat.REGISTER, (short) register);
+		buffer.putInt(offset + TraceFormat.REGISTER_VALUE, registerValue);
+		buffer.putInt(offset + TraceFormat.STACK, stack);
+		buffer.putInt(offset + TraceFormat.LOCATION, location);
+		buffer.putInt(offset + TraceFormat.MEMORY_VALUE, memoryValue);
+
+		// Record is in the buffer before the writer can see it
+		head.lazySet(index + 1);
+	}
+
+	/**
+	 * Gets the number of the appended records.
+	 * 
+	 * @return number of the records
+	 */
+	public long getRecords() {
+		return head.get();
+	}
+
+	/**
+	 * Writes the remaining records to the file, stops the writer thread and
+	 * closes the file.
+	 * 
+	 * @throws IOException
+	 *             if the records could not be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(writer);
+
+		boolean interrupted = false;
+		while (writer.isAlive()) {
+			try {
+				writer.join();
+			} catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		channel.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Checks if the provided number of the records can be the capacity of a
+	 * buffer. If it is not a power of two, or the buffer would be too large,
+	 * an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param capacity
+	 *            number of the records in the buffer
+	 */
+	static void checkCapacity(int capacity) {
+		if (capacity < 1 || Integer.bitCount(capacity) != 1
+				|| capacity > Integer.MAX_VALUE / TraceFormat.RECORD_SIZE) {
+			throw new IllegalArgumentException(
+					"Trace buffer capacity must be a power of two. It was "
+							+ capacity + ".");
+		}
+	}
+
+	/**
+	 * Helper method which waits until the writer makes space for the record
+	 * with the provided number.
+	 * 
+	 * @param index
+	 *            number of the record
+	 * @return number of the records written to the file
+	 */
+	private long awaitSpace(long index) {
+		while (true) {
+			long written = tail.get();
+			if (index - written < capacity) {
+				return written;
+			}
+			if (failure != null) {
+				throw new UncheckedIOException(failure);
+			}
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(this, APPEND_PARK_NANOS);
+		}
+	}
+
+	/**
+	 * Helper method run by the writer thread, which writes the appended
+	 * records to the file until the buffer is closed and all records are
+	 * written.
+	 */
+	private void drain() {
+		ByteBuffer view = buffer.duplicate();
+
+		try {
+			while (true) {
+				long written = tail.get();
+				long appended = head.get();
+
+				if (written == appended) {
+					if (closed && head.get() == written) {
+						return;
+					}
+					LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+					continue;
+				}
+
+				// Write the records up to the end of the buffer at once
+				int first = (int) (written & (capacity - 1));
+				int count = (int) Math.min(appended - written,
+						capacity - first);
+				view.clear();
+				view.limit((first + count) * TraceFormat.RECORD_SIZE);
+				view.position(first * TraceFormat.RECORD_SIZE);
+				while (view.hasRemaining()) {
+					channel.write(view);
+				}
+
+				tail.set(written + count);
+			}
+		} catch (IOException ex) {
+			failure = ex;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+
+/**
+ * <p>
+ * Tool which prints the trace written by the {@link RecordingExecutionUnit}
+ * as text, one executed instruction per line: its number, its address, its
+ * mnemonic, the written register and the written memory location with their
+ * values, and the values of the register r15 and the flag after it. Values
+ * which are not integers are printed as "?".
+ * </p>
+ * 
+ * <p>
+ * Program is started with one or two arguments: path to the trace and the
+ * address whose instructions are printed. If the second argument is not
+ * provided, all instructions are printed.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceDump {
+
+	/**
+	 * Method which starts the program.
+	 * 
+	 * @param args
+	 *            command line arguments
+	 * @throws IOException
+	 *             if there has been an error while reading the trace
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Expected one or two arguments!");
+			System.exit(-1);
+		}
+
+		int address = -1;
+		if (args.length == 2) {
+			try {
+				address = Integer.parseInt(args[1]);
+			} catch (NumberFormatException ex) {
+				System.err.println("Invalid address " + args[1] + "!");
+				System.exit(-1);
+			}
+		}
+
+		Writer output = new BufferedWriter(
+				new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		long records = dump(new TraceReader(Paths.get(args[0])), address,
+				output);
+		output.flush();
+		System.err.println(records + " records printed.");
+	}
+
+	/**
+	 * Prints the records of the trace to the provided writer and closes the
+	 * reader.
+	 * 
+	 * @param reader
+	 *            reader of the trace
+	 * @param address
+	 *            address whose instructions are printed, or -1 for all
+	 *            instructions
+	 * @param output
+	 *            writer to which the records are printed
+	 * @return number of the printed records
+	 * @throws IOException
+	 *             if the trace can not be read or the records written
+	 */
+	public static long dump(TraceReader reader, int address, Writer output)
+			throws IOException {
+		long records = 0;
+
+		try (TraceReader input = reader) {
+			TraceRecord record = new TraceRecord();
+			while (input.next(record)) {
+				if (address >= 0 && record.getAddress() != address) {
+					continue;
+				}
+				output.write(record.toString());
+				output.write(System.lineSeparator());
+				records++;
+			}
+		}
+
+		return records;
+	}
+}
@@ -0,0 +1,108 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+/**
+ * <p>
+ * Constants of the binary trace format, written by the {@link TraceBuffer}
+ * and read by the {@link TraceReader}. All numbers are written in big-endian
+ * byte order. Trace starts with the header, which holds the magic number, the
+ * version and the size of a record, and is followed by the records of the
+ * executed instructions, in the order of their execution.
+ * </p>
+ * 
+ * <p>
+ * Every record has the same size and holds the number of the instruction in
+ * the execution, its address, its opcode, the flags, the index and the value
+ * of the register written by the instruction, the value of the register r15
+ * and the location and the value written to the memory. Values which are not
+ * integers are written as zero, without the flag which marks an integer.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+final class TraceFormat {
+	/**
+	 * Magic number at the start of every trace, "SCTR" in ASCII.
+	 */
+	static final int MAGIC = 0x53435452;
+	/**
+	 * Version of the format.
+	 */
+	static final short VERSION = 1;
+	/**
+	 * Size of the header in bytes.
+	 */
+	static final int HEADER_SIZE = 8;
+	/**
+	 * Size of a record in bytes.
+	 */
+	static final int RECORD_SIZE = 32;
+
+	/**
+	 * Offset of the number of the instruction in the execution.
+	 */
+	static final int INDEX = 0;
+	/**
+	 * Offset of the address of the instruction.
+	 */
+	static final int ADDRESS = 8;
+	/**
+	 * Offset of the opcode of the instruction, or zero if it has none.
+	 */
+	static final int OPCODE = 12;
+	/**
+	 * Offset of the flags.
+	 */
+	static final int FLAGS = 13;
+	/**
+	 * Offset of the index of the written register.
+	 */
+	static final int REGISTER = 14;
+	/**
+	 * Offset of the value of the written register.
+	 */
+	static final int REGISTER_VALUE = 16;
+	/**
+	 * Offset of the value of the register r15.
+	 */
+	static final int STACK = 20;
+	/**
+	 * Offset of the written memory location.
+	 */
+	static final int LOCATION = 24;
+	/**
+	 * Offset of the value written to the memory.
+	 */
+	static final int MEMORY_VALUE = 28;
+
+	/**
+	 * Flag of the instructions which write a register.
+	 */
+	static final int REGISTER_WRITTEN = 1;
+	/**
+	 * Flag of the written registers which hold an integer.
+	 */
+	static final int REGISTER_INT = 2;
+	/**
+	 * Flag of the instructions which write the memory.
+	 */
+	static final int MEMORY_WRITTEN = 4;
+	/**
+	 * Flag of the values written to the memory which are integers.
+	 */
+	static final int MEMORY_INT = 8;
+	/**
+	 * Flag of the register r15 which holds an integer.
+	 */
+	static final int STACK_INT = 16;
+	/**
+	 * Value of the flag of the computer after the instruction.
+	 */
+	static final int FLAG = 32;
+
+	/**
+	 * Constructor which prevents the creation of the instances.
+	 */
+	private TraceFormat() {
+	}
+}
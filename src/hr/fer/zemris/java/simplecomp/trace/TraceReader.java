@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of the trace files written by the {@link TraceBuffer}. Records are
+ * read in blocks and filled into the provided {@link TraceRecord}, so reading
+ * does not allocate per record. Record which was only partially written, for
+ * example because the simulator was killed, ends the trace.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceReader implements AutoCloseable {
+	/**
+	 * Number of the records read at once.
+	 */
+	private static final int BLOCK = 1024;
+
+	/**
+	 * File from which the records are read.
+	 */
+	private final FileChannel channel;
+	/**
+	 * Buffer which holds the read records.
+	 */
+	private final ByteBuffer buffer = ByteBuffer
+			.allocate(BLOCK * TraceFormat.RECORD_SIZE);
+
+	/**
+	 * Constructor which opens the trace and reads its header. If the file is
+	 * not a trace, an {@link IllegalArgumentException} is thrown.
+	 * 
+	 * @param file
+	 *            file which holds the trace
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	public TraceReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+
+		try {
+			ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+				// Read until the header is complete or the file ends
+			}
+			header.flip();
+
+			if (header.remaining() < TraceFormat.HEADER_SIZE
+					|| header.getInt() != TraceFormat.MAGIC) {
+				throw new IllegalArgumentException(
+						"File " + file + " is not a trace!");
+			}
+			short version = header.getShort();
+			if (version != TraceFormat.VERSION
+					|| header.getShort() != TraceFormat.RECORD_SIZE) {
+				throw new IllegalArgumentException(
+						"Unsupported version of the trace: " + version + "!");
+			}
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+
+		buffer.limit(0);
+	}
+
+	/**
+	 * Reads the next record of the trace.
+	 * 
+	 * @param record
+	 *            record which is filled
+	 * @return <code>true</code> if the record was read, <code>false</code>
+	 *         if the trace has ended
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	public boolean next(TraceRecord record) throws IOException {
+		if (buffer.remaining() < TraceFormat.RECORD_SIZE) {
+			buffer.compact();
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// Read until the buffer is full or the file ends
+			}
+			buffer.flip();
+
+			if (buffer.remaining() < TraceFormat.RECORD_SIZE) {
+				return false;
+			}
+		}
+
+		record.read(buffer);
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,224 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import java.nio.ByteBuffer;
+
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+
+/**
+ * Record of a single executed instruction, read by the {@link TraceReader}.
+ * Record is filled in place, so a single record can be used for reading the
+ * whole trace.
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TraceRecord {
+	/**
+	 * Number of the instruction in the execution.
+	 */
+	private long index;
+	/**
+	 * Address of the instruction.
+	 */
+	private int address;
+	/**
+	 * Opcode of the instruction, or zero if it has none.
+	 */
+	private int opcode;
+	/**
+	 * Flags of the record.
+	 */
+	private int flags;
+	/**
+	 * Index of the written register.
+	 */
+	private int register;
+	/**
+	 * Value of the written register.
+	 */
+	private int registerValue;
+	/**
+	 * Value of the register r15.
+	 */
+	private int stack;
+	/**
+	 * Written memory location.
+	 */
+	private int location;
+	/**
+	 * Value written to the memory.
+	 */
+	private int memoryValue;
+
+	/**
+	 * Fills this record from the provided buffer, starting at its position.
+	 * 
+	 * @param buffer
+	 *            buffer which holds the record
+	 */
+	void read(ByteBuffer buffer) {
+		int offset = buffer.position();
+		index = buffer.getLong(offset + TraceFormat.INDEX);
+		address = buffer.getInt(offset + TraceFormat.ADDRESS);
+		opcode = buffer.get(offset + TraceFormat.OPCODE) & 0xFF;
+		flags = buffer.get(offset + TraceFormat.FLAGS) & 0xFF;
+		register = buffer.getShort(offset + TraceFormat.REGISTER);
+		registerValue = buffer.getInt(offset + TraceFormat.REGISTER_VALUE);
+		stack = buffer.getInt(offset + TraceFormat.STACK);
+		location = buffer.getInt(offset + TraceFormat.LOCATION);
+		memoryValue = buffer.getInt(offset + TraceFormat.MEMORY_VALUE);
+		buffer.position(offset + TraceFormat.RECORD_SIZE);
+	}
+
+	/**
+	 * Gets the number of the instruction in the execution, starting from 0.
+	 * 
+	 * @return number of the instruction
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Gets the address of the instruction.
+	 * 
+	 * @return address of the instruction
+	 */
+	public int getAddress() {
+		return address;
+	}
+
+	/**
+	 * Gets the opcode of the instruction. Fused instructions and the
+	 * instructions of other classes have no opcode.
+	 * 
+	 * @return opcode of the instruction, or <code>null</code> if it has none
+	 */
+	public Opcode getOpcode() {
+		return opcode == 0 ? null : Opcode.forCode(opcode);
+	}
+
+	/**
+	 * Checks if the instruction has written a register other than r15.
+	 * 
+	 * @return <code>true</code> if a register was written
+	 */
+	public boolean isRegisterWritten() {
+		return (flags & TraceFormat.REGISTER_WRITTEN) != 0;
+	}
+
+	/**
+	 * Gets the index of the written register.
+	 * 
+	 * @return index of the written register
+	 */
+	public int getRegister() {
+		return register;
+	}
+
+	/**
+	 * Checks if the written register holds an integer.
+	 * 
+	 * @return <code>true</code> if the register holds an integer
+	 */
+	public boolean isRegisterInt() {
+		return (flags & TraceFormat.REGISTER_INT) != 0;
+	}
+
+	/**
+	 * Gets the value of the written register, or zero if it is not an
+	 * integer.
+	 * 
+	 * @return value of the written register
+	 */
+	public int getRegisterValue() {
+		return registerValue;
+	}
+
+	/**
+	 * Checks if the register r15 holds an integer after the instruction.
+	 * 
+	 * @return <code>true</code> if the register r15 holds an integer
+	 */
+	public boolean isStackInt() {
+		return (flags & TraceFormat.STACK_INT) != 0;
+	}
+
+	/**
+	 * Gets the value of the register r15 after the instruction, or zero if it
+	 * is not an integer.
+	 * 
+	 * @return value of the register r15
+	 */
+	public int getStack() {
+		return stack;
+	}
+
+	/**
+	 * Checks if the instruction has written the memory.
+	 * 
+	 * @return <code>true</code> if the memory was written
+	 */
+	public boolean isMemoryWritten() {
+		return (flags & TraceFormat.MEMORY_WRITTEN) != 0;
+	}
+
+	/**
+	 * Gets the last location written by the instruction.
+	 * 
+	 * @return written memory location
+	 */
+	public int getLocation() {
+		return location;
+	}
+
+	/**
+	 * Checks if the value written to the memory is an integer.
+	 * 
+	 * @return <code>true</code> if the written value is an integer
+	 */
+	public boolean isMemoryInt() {
+		return (flags & TraceFormat.MEMORY_INT) != 0;
+	}
+
+	/**
+	 * Gets the last value written to the memory, or zero if it is not an
+	 * integer.
+	 * 
+	 * @return value written to the memory
+	 */
+	public int getMemoryValue() {
+		return memoryValue;
+	}
+
+	/**
+	 * Gets the value of the flag after the instruction.
+	 * 
+	 * @return value of the flag
+	 */
+	public boolean getFlag() {
+		return (flags & TraceFormat.FLAG) != 0;
+	}
+
+	@Override
+	public String toString() {
+		Opcode opcode = getOpcode();
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%10d %6d %-10s", index, address,
+				opcode == null ? "?" : opcode.getMnemonic()));
+
+		if (isRegisterWritten()) {
+			sb.append(" r").append(register).append('=')
+					.append(isRegisterInt() ? String.valueOf(registerValue)
+							: "?");
+		}
+		if (isMemoryWritten()) {
+			sb.append(" [").append(location).append("]=")
+					.append(isMemoryInt() ? String.valueOf(memoryValue) : "?");
+		}
+		sb.append(" r15=").append(isStackInt() ? String.valueOf(stack) : "?");
+		sb.append(" flag=").append(getFlag());
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,358 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMoveFromStack;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPopMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPushMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRetWithCleanup;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Pass which checks the fixed operands of all instructions of a program once,
+ * after the program is loaded: addresses of the jumps and calls, memory
+ * locations of the instructions load and iinput, and indexes of all registers
+ * the instructions use, including the stack register. Memory locations
+ * determined by indirect addressing depend on the values of the registers, so
+ * they can only be checked while the program runs.
+ * </p>
+ * 
+ * <p>
+ * Instruction which passes the verification can not use an invalid register or
+ * fixed location, so the execution units which decode the program, like the
+ * {@link hr.fer.zemris.java.simplecomp.threaded.ThreadedExecutionUnit},
+ * access the registers and the fixed locations trough the views returned by
+ * {@link IntRegisters#unchecked()} and {@link IntMemory#unchecked()} if the
+ * whole program passes. Instructions
+ * which are not known to the verifier are not checked, since they are always
+ * executed trough the checked registers and memory of the computer.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class BoundsVerifier {
+
+	/**
+	 * Description returned by {@link #check(Object, int, int)} for the values
+	 * which are not instructions known to this verifier. Such values are not
+	 * violations.
+	 */
+	private static final String UNKNOWN = "is not known to the verifier";
+
+	/**
+	 * Verifies the program loaded into the provided computer. Only the part of
+	 * the memory returned by {@link ProgramDecoder#getProgramSize(IntMemory)}
+	 * is checked. Invalid operands are only reported, since the instruction
+	 * which uses them may never be executed, and it throws an
+	 * {@link IllegalArgumentException} if it is. Computers whose memory or
+	 * registers do not tell their size can not be verified, so they have no
+	 * violations.
+	 * 
+	 * @param computer
+	 *            computer which holds the program
+	 * @return descriptions of the instructions which use an invalid operand,
+	 *         in the order of their addresses
+	 */
+	public static List<String> verify(Computer computer) {
+		List<String> violations = new ArrayList<>();
+		if (!(computer.getMemory() instanceof IntMemory)
+				|| !(computer.getRegisters() instanceof IntRegisters)) {
+			return violations;
+		}
+
+		IntMemory memory = (IntMemory) computer.getMemory();
+		int size = memory.getSize();
+		int registers = ((IntRegisters) computer.getRegisters()).getSize();
+		int programSize = ProgramDecoder.getProgramSize(memory);
+
+		for (int address = 0; address < programSize; address++) {
+			String violation = check(memory.getLocation(address), size,
+					registers);
+
+			if (violation != null && violation != UNKNOWN) {
+				violations.add(describe(address, violation));
+			}
+		}
+
+		return violations;
+	}
+
+	/**
+	 * Checks the instructions stored on the first locations of the provided
+	 * memory.
+	 * 
+	 * @param memory
+	 *            memory which holds the program
+	 * @param programSize
+	 *            number of the locations from the start of the memory which
+	 *            hold the program
+	 * @param registers
+	 *            number of the registers of the computer
+	 * @return description of the first invalid operand, or <code>null</code>
+	 *         if the program is valid
+	 */
+	public static String findViolation(IntMemory memory, int programSize,
+			int registers) {
+		int size = memory.getSize();
+
+		for (int address = 0; address < programSize; address++) {
+			String violation = check(memory.getLocation(address), size,
+					registers);
+
+			if (violation != null && violation != UNKNOWN) {
+				return describe(address, violation);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Helper method which describes the invalid operand of the instruction.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param violation
+	 *            description of the invalid operand
+	 * @return description of the instruction
+	 */
+	private static String describe(int address, String violation) {
+		return "Instruction at the address " + address + " " + violation
+				+ "!";
+	}
+
+	/**
+	 * Helper method which checks the operands of a single instruction.
+	 * 
+	 * @param value
+	 *            content of the memory location
+	 * @param size
+	 *            size of the memory
+	 * @param registers
+	 *            number of the registers
+	 * @return description of the invalid operand, <code>null</code> if the
+	 *         operands are valid, or {@link #UNKNOWN} if the location does not
+	 *         hold a known instruction
+	 */
+	private static String check(Object value, int size, int registers) {
+		value = SpecializedInstruction.unwrap(value);
+		if (value == null) {
+			return UNKNOWN;
+		}
+		Class<?> type = value.getClass();
+
+		if (type == InstrAdd.class) {
+			InstrAdd add = (InstrAdd) value;
+			return checkRegisters(registers, add.getRegisterIndex1(),
+					add.getRegisterIndex2(), add.getRegisterIndex3());
+
+		} else if (type == InstrMul.class) {
+			InstrMul mul = (InstrMul) value;
+			return checkRegisters(registers, mul.getRegisterIndex1(),
+					mul.getRegisterIndex2(), mul.getRegisterIndex3());
+
+		} else if (type == InstrIncrement.class) {
+			return checkRegisters(registers,
+					((InstrIncrement) value).getRegisterIndex());
+
+		} else if (type == InstrDecrement.class) {
+			return checkRegisters(registers,
+					((InstrDecrement) value).getRegisterIndex());
+
+		} else if (type == InstrTestEquals.class) {
+			InstrTestEquals test = (InstrTestEquals) value;
+			return checkRegisters(registers, test.getRegisterIndex1(),
+					test.getRegisterIndex2());
+
+		} else if (type == InstrCompareAndBranch.class) {
+			InstrCompareAndBranch branch = (InstrCompareAndBranch) value;
+			return either(
+					checkRegisters(registers, branch.getRegisterIndex1(),
+							branch.getRegisterIndex2()),
+					checkAddress(size, branch.getAddress()));
+
+		} else if (type == InstrJump.class) {
+			return checkAddress(size, ((InstrJump) value).getAddress());
+
+		} else if (type == InstrJumpIfTrue.class) {
+			return checkAddress(size, ((InstrJumpIfTrue) value).getAddress());
+
+		} else if (type == InstrCall.class) {
+			return either(checkStack(registers),
+					checkAddress(size, ((InstrCall) value).getAddress()));
+
+		} else if (type == InstrLoad.class) {
+			InstrLoad load = (InstrLoad) value;
+			return either(checkRegisters(registers, load.getRegisterIndex()),
+					checkLocation(size, load.getMemoryLocation()));
+
+		} else if (type == InstrIinput.class) {
+			return checkLocation(size,
+					((InstrIinput) value).getMemoryLocation());
+
+		} else if (type == InstrMove.class) {
+			InstrMove move = (InstrMove) value;
+			return either(checkArgument(registers, move.getFirstArgument()),
+					checkArgument(registers, move.getSecondArgument()));
+
+		} else if (type == InstrMoveFromStack.class) {
+			return either(checkStack(registers), checkRegisters(registers,
+					((InstrMoveFromStack) value).getRegisterIndex()));
+
+		} else if (type == InstrEcho.class) {
+			return checkArgument(registers,
+					((InstrEcho) value).getArgument());
+
+		} else if (type == InstrPush.class) {
+			return either(checkStack(registers), checkRegisters(registers,
+					((InstrPush) value).getRegisterIndex()));
+
+		} else if (type == InstrPop.class) {
+			return either(checkStack(registers), checkRegisters(registers,
+					((InstrPop) value).getRegisterIndex()));
+
+		} else if (type == InstrPushMultiple.class) {
+			return either(checkStack(registers), checkRegisters(registers,
+					((InstrPushMultiple) value).getRegisterIndexes()));
+
+		} else if (type == InstrPopMultiple.class) {
+			return either(checkStack(registers), checkRegisters(registers,
+					((InstrPopMultiple) value).getRegisterIndexes()));
+
+		} else if (type == InstrRet.class
+				|| type == InstrRetWithCleanup.class) {
+			return checkStack(registers);
+
+		} else if (type == InstrHalt.class) {
+			return null;
+		}
+
+		return UNKNOWN;
+	}
+
+	/**
+	 * Helper method which checks the indexes of the registers.
+	 * 
+	 * @param registers
+	 *            number of the registers
+	 * @param indexes
+	 *            indexes which are checked
+	 * @return description of the first invalid index, or <code>null</code>
+	 */
+	private static String checkRegisters(int registers, int... indexes) {
+		for (int index : indexes) {
+			if (index < 0 || index >= registers) {
+				return "uses the register r" + index
+						+ ", but the computer has only " + registers
+						+ " registers";
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method which checks that the stack register exists.
+	 * 
+	 * @param registers
+	 *            number of the registers
+	 * @return description of the missing register, or <code>null</code>
+	 */
+	private static String checkStack(int registers) {
+		return checkRegisters(registers, Registers.STACK_REGISTER_INDEX);
+	}
+
+	/**
+	 * Helper method which checks the register of an argument. Arguments which
+	 * are not registers are always valid.
+	 * 
+	 * @param registers
+	 *            number of the registers
+	 * @param argument
+	 *            argument which is checked
+	 * @return description of the invalid register, or <code>null</code>
+	 */
+	private static String checkArgument(int registers,
+			InstructionArgument argument) {
+		if (!argument.isRegister()) {
+			return null;
+		}
+		return checkRegisters(registers,
+				RegisterUtil.getRegisterIndex((Integer) argument.getValue()));
+	}
+
+	/**
+	 * Helper method which checks the target of a jump or a call.
+	 * 
+	 * @param size
+	 *            size of the memory
+	 * @param address
+	 *            address which is checked
+	 * @return description of the invalid address, or <code>null</code>
+	 */
+	private static String checkAddress(int size, int address) {
+		if (address < 0 || address >= size) {
+			return "jumps to the address " + address
+					+ ", which is outside of the memory";
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method which checks a fixed memory location.
+	 * 
+	 * @param size
+	 *            size of the memory
+	 * @param location
+	 *            location which is checked
+	 * @return description of the invalid location, or <code>null</code>
+	 */
+	private static String checkLocation(int size, int location) {
+		if (location < 0 || location >= size) {
+			return "accesses the location " + location
+					+ ", which is outside of the memory";
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method which returns the first of the two descriptions which is
+	 * not <code>null</code>.
+	 * 
+	 * @param first
+	 *            first description
+	 * @param second
+	 *            second description
+	 * @return first description which is not <code>null</code>
+	 */
+	private static String either(String first, String second) {
+		return first != null ? first : second;
+	}
+}
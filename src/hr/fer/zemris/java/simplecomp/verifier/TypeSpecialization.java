@@ -0,0 +1,152 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntAddConstant;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+import hr.fer.zemris.java.simplecomp.verifier.VerificationReport.ValueType;
+
+/**
+ * <p>
+ * Optimization pass which is run on the program after it has been loaded to
+ * the memory. It replaces the instructions add, mul, increment, decrement and
+ * testEquals whose registers always hold integers, according to the
+ * {@link TypeVerifier}, with their specialized versions, which work with the
+ * primitive integers of the registers.
+ * </p>
+ * 
+ * <p>
+ * Types of a program which passes the verification are proved, so the
+ * specialized instructions do not check them. Types are also used for the
+ * programs which do not pass the verification, and then the specialized
+ * instructions check the types of their registers and return to the generic
+ * instructions if they are wrong. Instructions increment
+ * and decrement of the stack register are not replaced, so the
+ * {@link hr.fer.zemris.java.simplecomp.impl.instructions.InstructionFusion},
+ * which has to be run after this pass, can still find them.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TypeSpecialization {
+
+	/**
+	 * Runs the pass on the program loaded into the provided computer.
+	 * Computers whose memory or registers do not implement {@link IntMemory}
+	 * and {@link IntRegisters} are not changed.
+	 * 
+	 * @param computer
+	 *            computer which holds the program
+	 * @return number of the replaced instructions
+	 */
+	public static int specialize(Computer computer) {
+		if (!(computer.getMemory() instanceof IntMemory)
+				|| !(computer.getRegisters() instanceof IntRegisters)) {
+			return 0;
+		}
+
+		IntMemory memory = (IntMemory) computer.getMemory();
+		VerificationReport report = TypeVerifier.verify(computer);
+		int size = ProgramDecoder.getProgramSize(memory);
+		boolean checked = !report.isVerified();
+		int replaced = 0;
+
+		for (int address = 0; address < size; address++) {
+			Object value = memory.getLocation(address);
+			Object specialized = null;
+
+			if (value == null) {
+				continue;
+			} else if (value.getClass() == InstrAdd.class) {
+				InstrAdd add = (InstrAdd) value;
+				if (areInts(report, address, add.getRegisterIndex2(),
+						add.getRegisterIndex3())) {
+					specialized = new InstrIntAdd(address, add, checked);
+				}
+
+			} else if (value.getClass() == InstrMul.class) {
+				InstrMul mul = (InstrMul) value;
+				if (areInts(report, address, mul.getRegisterIndex2(),
+						mul.getRegisterIndex3())) {
+					specialized = new InstrIntMul(address, mul, checked);
+				}
+
+			} else if (value.getClass() == InstrIncrement.class) {
+				InstrIncrement increment = (InstrIncrement) value;
+				if (isGeneral(increment.getRegisterIndex()) && areInts(report,
+						address, increment.getRegisterIndex())) {
+					specialized = new InstrIntAddConstant(address, increment,
+							checked);
+				}
+
+			} else if (value.getClass() == InstrDecrement.class) {
+				InstrDecrement decrement = (InstrDecrement) value;
+				if (isGeneral(decrement.getRegisterIndex()) && areInts(report,
+						address, decrement.getRegisterIndex())) {
+					specialized = new InstrIntAddConstant(address, decrement,
+							checked);
+				}
+
+			} else if (value.getClass() == InstrTestEquals.class) {
+				InstrTestEquals test = (InstrTestEquals) value;
+				if (areInts(report, address, test.getRegisterIndex1(),
+						test.getRegisterIndex2())) {
+					specialized = new InstrIntTestEquals(address, test,
+							checked);
+				}
+			}
+
+			if (specialized != null) {
+				memory.setLocation(address, specialized);
+				replaced++;
+			}
+		}
+
+		return replaced;
+	}
+
+	/**
+	 * Helper method which checks if the provided registers always hold
+	 * integers before the instruction at the provided address.
+	 * 
+	 * @param report
+	 *            report of the verification
+	 * @param address
+	 *            address of the instruction
+	 * @param indexes
+	 *            indexes of the registers
+	 * @return <code>true</code> if all registers hold integers
+	 */
+	private static boolean areInts(VerificationReport report, int address,
+			int... indexes) {
+		for (int index : indexes) {
+			if (report.getRegisterType(address, index) != ValueType.INT) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method which checks if the provided register is not the stack
+	 * register.
+	 * 
+	 * @param index
+	 *            index of the register
+	 * @return <code>true</code> if the register is not the stack register
+	 */
+	private static boolean isGeneral(int index) {
+		return index != Registers.STACK_REGISTER_INDEX;
+	}
+}
@@ -0,0 +1,1340 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMoveFromStack;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPopMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPushMultiple;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRetWithCleanup;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+
+/**
+ * <p>
+ * Verifier which finds, before the program runs, the type errors and the
+ * stack errors which the instructions would otherwise discover while the
+ * program runs, trough the failed casts of the values and the writes of the
+ * stack over the program.
+ * </p>
+ * 
+ * <p>
+ * The program is interpreted abstractly over all of its paths, starting from
+ * the address 0 with the values which the registers hold before the
+ * execution. Instead of a value, every register and every location of the
+ * stack holds a set of the types it can have: no value, an integer, a string
+ * or some other object. Register r15 initially points to the top of the
+ * stack, which is the label <code>@stackTop</code> of the parsed programs,
+ * and the stack has as many locations as there are empty locations from the
+ * top of the stack towards the start of the memory. While the register r15
+ * is changed only by the instructions which use the stack and by the
+ * instructions increment and decrement, the verifier knows the depth of the
+ * stack at every instruction. Instruction which stores some other value to
+ * the register r15 turns it into an ordinary register, which can not be used
+ * by the instructions which use the stack.
+ * </p>
+ * 
+ * <p>
+ * Integers which are known before the execution, like the numbers moved to
+ * the registers and the integers loaded from the locations which the program
+ * never changes, are tracked together with the types. Memory accessed
+ * indirectly trough the registers which hold them is checked just like the
+ * fixed locations.
+ * </p>
+ * 
+ * <p>
+ * Subroutines are analyzed separately for every chain of the calls which
+ * reaches them, so the instruction ret always returns to the known address
+ * with the known depth of the stack. Recursive subroutines do not have a
+ * bounded depth of the stack, so they are reported as errors.
+ * </p>
+ * 
+ * <p>
+ * Types and the known integers of the locations of the program are tracked
+ * in every state, like the ones of the registers, so a location can be read
+ * before a later instruction changes it. Once a path stores a value trough a
+ * register whose value is not known, the store can reach any location, so
+ * from then on the types of a location are the types stored to it anywhere
+ * in the program together with the types stored trough the unknown
+ * addresses. Errors caused by such types name the instruction which made the
+ * store. Types stored anywhere in the program are not known in advance, so
+ * the analysis is repeated until they do not change.
+ * </p>
+ * 
+ * <p>
+ * Only the instructions created by the parser are supported, so the program
+ * has to be verified before the {@link
+ * hr.fer.zemris.java.simplecomp.impl.instructions.InstructionFusion}. Program
+ * which passes the verification can not fail on a cast, use an invalid
+ * register or overflow its stack, so it can be executed by the
+ * {@link VerifiedExecutionUnit} without any checks.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class TypeVerifier {
+	/**
+	 * Type of a location which does not hold any value.
+	 */
+	static final int UNSET = 1;
+	/**
+	 * Type of a location which holds an integer.
+	 */
+	static final int INT = 2;
+	/**
+	 * Type of a location which holds a string.
+	 */
+	static final int STRING = 4;
+	/**
+	 * Type of a location which holds some other object, for example an
+	 * instruction.
+	 */
+	static final int OTHER = 8;
+	/**
+	 * Set of all types.
+	 */
+	static final int ANY = UNSET | INT | STRING | OTHER;
+
+	/**
+	 * Maximum number of the analyzed states, after which the verification
+	 * fails.
+	 */
+	public static final int MAX_STATES = 100000;
+
+	/**
+	 * Depth of the stack when the register r15 does not point to the stack.
+	 */
+	private static final int DETACHED = -1;
+	/**
+	 * Value of a register which is not known before the execution.
+	 */
+	private static final long UNKNOWN = Long.MIN_VALUE;
+
+	/**
+	 * Memory which holds the program.
+	 */
+	private final IntMemory memory;
+	/**
+	 * Number of the locations from the start of the memory which hold the
+	 * program.
+	 */
+	private final int programSize;
+	/**
+	 * Initial state of the registers and the stack.
+	 */
+	private final State initial;
+	/**
+	 * Address of the top of the stack, or <code>-1</code> if the register r15
+	 * does not initially point to the memory.
+	 */
+	private final int stackTop;
+	/**
+	 * Number of the locations of the stack.
+	 */
+	private final int stackCapacity;
+
+	/**
+	 * Types which the locations of the program which are not on the stack
+	 * can hold anywhere in the program. Used after a store trough an unknown
+	 * address.
+	 */
+	private final int[] memoryTypes;
+	/**
+	 * Types of the locations after the program.
+	 */
+	private int outsideTypes = UNSET;
+	/**
+	 * Types stored to the memory trough the registers other than r15.
+	 */
+	private int dynamicWrites;
+	/**
+	 * Flag which determines if the program accesses the memory trough the
+	 * registers other than r15.
+	 */
+	private boolean dynamicAccesses;
+	/**
+	 * Flag which determines if the types of the memory have changed during
+	 * the last analysis.
+	 */
+	private boolean memoryChanged;
+
+	/**
+	 * States reached at every address and chain of the calls.
+	 */
+	private Map<Context, State> states;
+	/**
+	 * Reached states which have to be analyzed.
+	 */
+	private Deque<Context> worklist;
+	/**
+	 * First error found at every address.
+	 */
+	private TreeMap<Integer, String> diagnostics;
+	/**
+	 * Types of the registers before every instruction, or <code>null</code>
+	 * for the instructions which are never reached.
+	 */
+	private int[][] registerTypes;
+	/**
+	 * Maximum depth of the stack.
+	 */
+	private int maxStackDepth;
+
+	/**
+	 * Constructor which prepares the verification of the program stored in
+	 * the provided memory.
+	 * 
+	 * @param registers
+	 *            registers of the computer
+	 * @param memory
+	 *            memory of the computer
+	 */
+	private TypeVerifier(IntRegisters registers, IntMemory memory) {
+		this.memory = memory;
+		programSize = ProgramDecoder.getProgramSize(memory);
+
+		memoryTypes = new int[programSize];
+		long[] locationConstants = new long[programSize];
+		for (int location = 0; location < programSize; location++) {
+			memoryTypes[location] = typeOf(memory.getLocation(location));
+			locationConstants[location] = memory.isInt(location)
+					? memory.getInt(location) : UNKNOWN;
+		}
+
+		int[] types = new int[registers.getSize()];
+		long[] constants = new long[types.length];
+		for (int index = 0; index < types.length; index++) {
+			boolean isInt = registers.isInt(index);
+
+			types[index] = isInt ? INT
+					: typeOf(registers.getRegisterValue(index));
+			constants[index] = isInt ? registers.getInt(index) : UNKNOWN;
+		}
+
+		int top = -1;
+		int capacity = 0;
+		if (types.length > Registers.STACK_REGISTER_INDEX
+				&& types[Registers.STACK_REGISTER_INDEX] == INT) {
+			top = registers.getInt(Registers.STACK_REGISTER_INDEX);
+
+			if (top >= 0 && top < memory.getSize()) {
+				for (int location = top; location >= 0 && memory
+						.getLocation(location) == null; location--) {
+					capacity++;
+				}
+			} else {
+				top = -1;
+			}
+		}
+		stackTop = top;
+		stackCapacity = capacity;
+		if (top >= 0) {
+			constants[Registers.STACK_REGISTER_INDEX] = UNKNOWN;
+		}
+
+		initial = new State(types, constants, top < 0 ? DETACHED : 0,
+				new int[0], memoryTypes.clone(), locationConstants);
+	}
+
+	/**
+	 * Verifies the program loaded into the provided computer. Program is not
+	 * executed and the computer is not changed.
+	 * 
+	 * @param computer
+	 *            computer which holds the program
+	 * @return report of the verification
+	 */
+	public static VerificationReport verify(Computer computer) {
+		if (!(computer.getMemory() instanceof IntMemory)
+				|| !(computer.getRegisters() instanceof IntRegisters)) {
+			throw new IllegalArgumentException(
+					"Only the computers whose memory and registers implement IntMemory and IntRegisters can be verified!");
+		}
+
+		IntMemory memory = (IntMemory) computer.getMemory();
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+
+		String violation = BoundsVerifier.findViolation(memory,
+				ProgramDecoder.getProgramSize(memory), registers.getSize());
+		if (violation != null) {
+			return new VerificationReport(Arrays.asList(violation), null, 0,
+					0, true);
+		}
+
+		return new TypeVerifier(registers, memory).verify();
+	}
+
+	/**
+	 * Analyzes the program until the types of the memory do not change.
+	 * 
+	 * @return report of the verification
+	 */
+	private VerificationReport verify() {
+		do {
+			memoryChanged = false;
+			analyze();
+		} while (memoryChanged);
+
+		return new VerificationReport(diagnostics.values(), registerTypes,
+				maxStackDepth, stackCapacity, dynamicAccesses);
+	}
+
+	/**
+	 * Analyzes all states of the program reachable from the initial state,
+	 * with the current types of the memory.
+	 */
+	private void analyze() {
+		states = new HashMap<>();
+		worklist = new ArrayDeque<>();
+		diagnostics = new TreeMap<>();
+		registerTypes = new int[programSize][];
+		maxStackDepth = 0;
+
+		propagate(0, null, initial.copy());
+
+		int analyzed = 0;
+		while (!worklist.isEmpty()) {
+			if (++analyzed > MAX_STATES) {
+				diagnostics.put(Integer.MAX_VALUE,
+						"Verification was stopped after " + MAX_STATES
+								+ " states!");
+				return;
+			}
+
+			Context context = worklist.poll();
+			step(context.address, context.frame,
+					states.get(context).copy());
+		}
+	}
+
+	/**
+	 * Analyzes a single instruction in the provided state and propagates the
+	 * resulting states to its successors.
+	 * 
+	 * @param pc
+	 *            address of the instruction
+	 * @param frame
+	 *            chain of the calls which reached the instruction
+	 * @param state
+	 *            state before the instruction, which can be changed
+	 */
+	private void step(int pc, Frame frame, State state) {
+		Object value = pc < programSize
+				? SpecializedInstruction.unwrap(memory.getLocation(pc)) : null;
+		if (!(value instanceof Instruction)) {
+			report(pc, "Location " + pc
+					+ " does not hold an instruction, but the execution can reach it");
+			return;
+		}
+
+		int[] types = registerTypes[pc];
+		if (types == null) {
+			registerTypes[pc] = state.registers.clone();
+		} else {
+			for (int index = 0; index < types.length; index++) {
+				types[index] |= state.registers[index];
+			}
+		}
+
+		Step step = new Step(pc, value);
+		Class<?> type = value.getClass();
+
+		if (type == InstrAdd.class || type == InstrMul.class) {
+			int[] indexes = type == InstrAdd.class
+					? new int[] { ((InstrAdd) value).getRegisterIndex1(),
+							((InstrAdd) value).getRegisterIndex2(),
+							((InstrAdd) value).getRegisterIndex3() }
+					: new int[] { ((InstrMul) value).getRegisterIndex1(),
+							((InstrMul) value).getRegisterIndex2(),
+							((InstrMul) value).getRegisterIndex3() };
+
+			if (step.requireInt(state, indexes[1])
+					&& step.requireInt(state, indexes[2])) {
+				long value1 = state.constants[indexes[1]];
+				long value2 = state.constants[indexes[2]];
+				long result = UNKNOWN;
+				if (value1 != UNKNOWN && value2 != UNKNOWN) {
+					result = type == InstrAdd.class ? (int) (value1 + value2)
+							: (int) (value1 * value2);
+				}
+
+				setRegister(state, indexes[0], INT, result);
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrIncrement.class
+				|| type == InstrDecrement.class) {
+			int index = type == InstrIncrement.class
+					? ((InstrIncrement) value).getRegisterIndex()
+					: ((InstrDecrement) value).getRegisterIndex();
+
+			if (index == Registers.STACK_REGISTER_INDEX
+					&& state.depth != DETACHED) {
+				boolean valid = type == InstrIncrement.class
+						? step.pop(state) >= 0 : step.push(state, ANY);
+				if (valid) {
+					propagate(pc + 1, frame, state);
+				}
+
+			} else if (step.requireInt(state, index)) {
+				long constant = state.constants[index];
+				if (constant != UNKNOWN) {
+					constant = type == InstrIncrement.class
+							? (int) (constant + 1) : (int) (constant - 1);
+				}
+
+				setRegister(state, index, INT, constant);
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrTestEquals.class) {
+			int index = ((InstrTestEquals) value).getRegisterIndex1();
+
+			if ((state.registers[index] & UNSET) != 0) {
+				step.fail("compares the register r" + index
+						+ ", which can hold no value"
+						+ step.widenedBy(state, UNSET));
+			} else {
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrJump.class) {
+			propagate(((InstrJump) value).getAddress(), frame, state);
+
+		} else if (type == InstrJumpIfTrue.class) {
+			propagate(((InstrJumpIfTrue) value).getAddress(), frame,
+					state.copy());
+			propagate(pc + 1, frame, state);
+
+		} else if (type == InstrLoad.class) {
+			InstrLoad load = (InstrLoad) value;
+
+			setRegister(state, load.getRegisterIndex(),
+					readLocation(state, load.getMemoryLocation()),
+					constantAt(state, load.getMemoryLocation()));
+			propagate(pc + 1, frame, state);
+
+		} else if (type == InstrIinput.class) {
+			if (step.writeLocation(state,
+					((InstrIinput) value).getMemoryLocation(), INT,
+					UNKNOWN)) {
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrMove.class) {
+			InstrMove move = (InstrMove) value;
+			InstructionArgument source = move.getSecondArgument();
+
+			int stored;
+			long constant;
+			if (source.isNumber()) {
+				stored = INT;
+				constant = (Integer) source.getValue();
+			} else {
+				stored = step.read(state, (Integer) source.getValue());
+				constant = constantOf(state, (Integer) source.getValue());
+			}
+
+			if (stored != 0 && step.write(state,
+					(Integer) move.getFirstArgument().getValue(), stored,
+					constant)) {
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrEcho.class) {
+			if (step.read(state,
+					(Integer) ((InstrEcho) value).getArgument()
+							.getValue()) != 0) {
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrPush.class) {
+			if (step.push(state,
+					state.registers[((InstrPush) value).getRegisterIndex()])) {
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrPop.class) {
+			int popped = step.pop(state);
+			if (popped >= 0) {
+				setRegister(state, ((InstrPop) value).getRegisterIndex(),
+						popped, UNKNOWN);
+				propagate(pc + 1, frame, state);
+			}
+
+		} else if (type == InstrCall.class) {
+			int address = ((InstrCall) value).getAddress();
+
+			for (Frame caller = frame; caller != null; caller = caller.parent) {
+				if (caller.entry == address) {
+					step.fail("calls the subroutine at the address " + address
+							+ " recursively, so the depth of the stack can not be bounded");
+					return;
+				}
+			}
+
+			int depth = state.depth;
+			if (step.push(state, INT)) {
+				propagate(address, new Frame(address, pc + 1, depth, frame),
+						state);
+			}
+
+		} else if (type == InstrRet.class) {
+			if (frame == null) {
+				step.fail("returns, but it is not inside of a subroutine");
+				return;
+			}
+			if (!step.requireStack(state)) {
+				return;
+			}
+
+			int values = state.depth - frame.depthAtCall - 1;
+			if (values != 0) {
+				step.fail("returns with " + values
+						+ " values on the stack above the return address");
+			} else if (state.slots[state.depth - 1] != INT) {
+				step.fail(
+						"expects the return address on the top of the stack, but it can hold "
+								+ describe(state.slots[state.depth - 1]));
+			} else {
+				step.pop(state);
+				propagate(frame.returnAddress, frame.parent, state);
+			}
+
+		} else if (type == InstrHalt.class) {
+			return;
+
+		} else if (type == InstrPushMultiple.class
+				|| type == InstrPopMultiple.class
+				|| type == InstrMoveFromStack.class
+				|| type == InstrCompareAndBranch.class
+				|| type == InstrRetWithCleanup.class) {
+			step.fail(
+					"is created by the instruction fusion, so the program has to be verified before the fusion");
+
+		} else {
+			step.fail("is not supported by the verifier");
+		}
+	}
+
+	/**
+	 * Joins the provided state with the state already reached at the same
+	 * address and chain of the calls. If the joined state has changed, it is
+	 * analyzed again.
+	 * 
+	 * @param address
+	 *            address of the next instruction
+	 * @param frame
+	 *            chain of the calls
+	 * @param state
+	 *            state before the next instruction
+	 */
+	private void propagate(int address, Frame frame, State state) {
+		Context context = new Context(address, frame);
+		State reached = states.get(context);
+
+		if (reached == null) {
+			states.put(context, state);
+			worklist.add(context);
+
+		} else if (reached.depth != state.depth && reached.depth != DETACHED
+				&& state.depth != DETACHED) {
+			report(address, "Location " + address
+					+ " is reached with the stack depths " + reached.depth
+					+ " and " + state.depth);
+
+		} else if (reached.join(state)) {
+			worklist.add(context);
+		}
+	}
+
+	/**
+	 * Stores the provided types to a register. Register r15 which is written
+	 * this way no longer points to the stack.
+	 * 
+	 * @param state
+	 *            state which is changed
+	 * @param index
+	 *            index of the register
+	 * @param types
+	 *            stored types
+	 * @param constant
+	 *            stored integer, or {@link #UNKNOWN}
+	 */
+	private static void setRegister(State state, int index, int types,
+			long constant) {
+		state.registers[index] = types;
+		state.constants[index] = constant;
+
+		if (index == Registers.STACK_REGISTER_INDEX) {
+			state.depth = DETACHED;
+			state.slots = new int[0];
+		}
+	}
+
+	/**
+	 * Gets the types of a memory location which is accessed directly.
+	 * Locations of the stack are changed by the program, so they can hold
+	 * anything.
+	 * 
+	 * @param state
+	 *            state before the instruction
+	 * @param location
+	 *            memory location
+	 * @return types of the location
+	 */
+	private int readLocation(State state, int location) {
+		if (isStack(location)) {
+			return ANY;
+		}
+		if (location >= programSize) {
+			return outsideTypes | dynamicTypes(state);
+		}
+		return state.dynamicStore < 0 ? state.locations[location]
+				: memoryTypes[location] | dynamicWrites;
+	}
+
+	/**
+	 * Gets the integer which a memory location accessed directly always
+	 * holds. Only the locations of the program hold the known integers, and
+	 * only until a store trough an unknown address.
+	 * 
+	 * @param state
+	 *            state before the instruction
+	 * @param location
+	 *            memory location
+	 * @return integer, or {@link #UNKNOWN}
+	 */
+	private long constantAt(State state, int location) {
+		if (location < 0 || location >= programSize
+				|| state.dynamicStore >= 0) {
+			return UNKNOWN;
+		}
+		return state.locationConstants[location];
+	}
+
+	/**
+	 * Gets the types which the stores trough the unknown addresses could have
+	 * left in any location reached in the provided state.
+	 * 
+	 * @param state
+	 *            state before the instruction
+	 * @return types stored trough the unknown addresses, or <code>0</code> if
+	 *         no such store precedes the state
+	 */
+	private int dynamicTypes(State state) {
+		return state.dynamicStore < 0 ? 0 : dynamicWrites;
+	}
+
+	/**
+	 * Gets the integer which a register, or a memory location addressed
+	 * indirectly trough a register, always holds.
+	 * 
+	 * @param state
+	 *            state before the instruction
+	 * @param descriptor
+	 *            descriptor of the register
+	 * @return integer, or {@link #UNKNOWN}
+	 */
+	private long constantOf(State state, int descriptor) {
+		int index = RegisterUtil.getRegisterIndex(descriptor);
+		if (!RegisterUtil.isIndirect(descriptor)) {
+			return state.constants[index];
+		}
+
+		long base = state.constants[index];
+		if (base == UNKNOWN || index == Registers.STACK_REGISTER_INDEX
+				&& state.depth != DETACHED) {
+			return UNKNOWN;
+		}
+		return constantAt(state,
+				(int) base + RegisterUtil.getRegisterOffset(descriptor));
+	}
+
+	/**
+	 * Checks if the provided memory location belongs to the stack.
+	 * 
+	 * @param location
+	 *            memory location
+	 * @return <code>true</code> if the location belongs to the stack
+	 */
+	private boolean isStack(int location) {
+		return location <= stackTop && location > stackTop - stackCapacity;
+	}
+
+	/**
+	 * Stores the types to a memory location which is not on the stack, and
+	 * adds them to the types the location can hold anywhere in the program.
+	 * 
+	 * @param state
+	 *            state which is changed
+	 * @param location
+	 *            memory location
+	 * @param types
+	 *            stored types
+	 * @param constant
+	 *            stored integer, or {@link #UNKNOWN}
+	 */
+	private void addLocationTypes(State state, int location, int types,
+			long constant) {
+		if (location < programSize) {
+			state.locations[location] = types;
+			state.locationConstants[location] = constant;
+
+			if ((memoryTypes[location] | types) != memoryTypes[location]) {
+				memoryTypes[location] |= types;
+				memoryChanged = true;
+			}
+		} else if ((outsideTypes | types) != outsideTypes) {
+			outsideTypes |= types;
+			memoryChanged = true;
+		}
+	}
+
+	/**
+	 * Stores an error found at the provided address. Only the first error of
+	 * every address is kept.
+	 * 
+	 * @param address
+	 *            address of the error
+	 * @param message
+	 *            description of the error
+	 */
+	private void report(int address, String message) {
+		diagnostics.putIfAbsent(address, message + "!");
+	}
+
+	/**
+	 * Gets the types of the provided value.
+	 * 
+	 * @param value
+	 *            value
+	 * @return types of the value
+	 */
+	private static int typeOf(Object value) {
+		if (value == null) {
+			return UNSET;
+		} else if (value instanceof Integer) {
+			return INT;
+		} else if (value instanceof String) {
+			return STRING;
+		}
+		return OTHER;
+	}
+
+	/**
+	 * Describes the provided types other than the integer.
+	 * 
+	 * @param types
+	 *            types
+	 * @return description of the types
+	 */
+	private static String describe(int types) {
+		StringBuilder sb = new StringBuilder();
+		if ((types & UNSET) != 0) {
+			sb.append("no value");
+		}
+		if ((types & STRING) != 0) {
+			sb.append(sb.length() == 0 ? "" : " or ").append("a string");
+		}
+		if ((types & OTHER) != 0) {
+			sb.append(sb.length() == 0 ? "" : " or ").append("an object");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Analysis of a single instruction, which reports the errors together
+	 * with the address and the name of the instruction.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private class Step {
+		/**
+		 * Address of the instruction.
+		 */
+		private final int pc;
+		/**
+		 * Name of the instruction.
+		 */
+		private final String name;
+
+		/**
+		 * Constructor which initializes the analysis of the provided
+		 * instruction.
+		 * 
+		 * @param pc
+		 *            address of the instruction
+		 * @param instruction
+		 *            instruction
+		 */
+		public Step(int pc, Object instruction) {
+			this.pc = pc;
+
+			String simpleName = instruction.getClass().getSimpleName();
+			if (simpleName.startsWith("Instr")) {
+				simpleName = simpleName.substring(5);
+			}
+			name = simpleName.isEmpty() ? simpleName
+					: Character.toLowerCase(simpleName.charAt(0))
+							+ simpleName.substring(1);
+		}
+
+		/**
+		 * Reports an error of the instruction.
+		 * 
+		 * @param message
+		 *            description of the error, without the instruction
+		 */
+		public void fail(String message) {
+			report(pc, "Instruction " + name + " at the address " + pc + " "
+					+ message);
+		}
+
+		/**
+		 * Checks that the provided register always holds an integer.
+		 * 
+		 * @param state
+		 *            state before the instruction
+		 * @param index
+		 *            index of the register
+		 * @return <code>true</code> if the register holds an integer
+		 */
+		public boolean requireInt(State state, int index) {
+			if (state.registers[index] != INT) {
+				fail("expects an integer in the register r" + index
+						+ ", but it can hold "
+						+ describe(state.registers[index])
+						+ widenedBy(state, state.registers[index]));
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Names the store trough an unknown address which could have left
+		 * some of the provided types, other than the integer, in the memory.
+		 * 
+		 * @param state
+		 *            state before the instruction
+		 * @param types
+		 *            types which cause the error
+		 * @return description of the store, or an empty string if it can
+		 *         not cause the types
+		 */
+		public String widenedBy(State state, int types) {
+			if ((types & dynamicTypes(state) & ~INT) == 0) {
+				return "";
+			}
+			return ", since the instruction at the address "
+					+ state.dynamicStore
+					+ " can store such a value to any location trough a register whose value is not known";
+		}
+
+		/**
+		 * Checks that the register r15 points to the stack.
+		 * 
+		 * @param state
+		 *            state before the instruction
+		 * @return <code>true</code> if the register r15 points to the stack
+		 */
+		public boolean requireStack(State state) {
+			if (state.depth == DETACHED) {
+				fail("uses the stack, but the register r15 does not point to it");
+				return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Pushes the provided types to the stack.
+		 * 
+		 * @param state
+		 *            state which is changed
+		 * @param types
+		 *            pushed types
+		 * @return <code>true</code> if the stack has enough locations
+		 */
+		public boolean push(State state, int types) {
+			if (!requireStack(state)) {
+				return false;
+			}
+			if (state.depth == stackCapacity) {
+				fail("overflows the stack of " + stackCapacity + " locations");
+				return false;
+			}
+
+			state.slots = Arrays.copyOf(state.slots, state.depth + 1);
+			state.slots[state.depth++] = types;
+			maxStackDepth = Math.max(maxStackDepth, state.depth);
+			return true;
+		}
+
+		/**
+		 * Pops the types from the top of the stack.
+		 * 
+		 * @param state
+		 *            state which is changed
+		 * @return popped types, or <code>-1</code> if the stack is empty
+		 */
+		public int pop(State state) {
+			if (!requireStack(state)) {
+				return -1;
+			}
+			if (state.depth == 0) {
+				fail("pops from the empty stack");
+				return -1;
+			}
+
+			int types = state.slots[--state.depth] | dynamicTypes(state);
+			state.slots = Arrays.copyOf(state.slots, state.depth);
+			return types;
+		}
+
+		/**
+		 * Gets the types of a register, or of a memory location addressed
+		 * indirectly trough a register.
+		 * 
+		 * @param state
+		 *            state before the instruction
+		 * @param descriptor
+		 *            descriptor of the register
+		 * @return types of the value, or <code>0</code> if the access is not
+		 *         valid
+		 */
+		public int read(State state, int descriptor) {
+			int index = RegisterUtil.getRegisterIndex(descriptor);
+			if (!RegisterUtil.isIndirect(descriptor)) {
+				return state.registers[index];
+			}
+
+			int offset = RegisterUtil.getRegisterOffset(descriptor);
+			if (index == Registers.STACK_REGISTER_INDEX
+					&& state.depth != DETACHED) {
+				int slot = state.depth - offset + 1;
+
+				if (slot >= 1 && slot <= state.depth) {
+					return state.slots[slot - 1] | dynamicTypes(state);
+				} else if (slot < 1) {
+					int location = stackTop + 1 - slot;
+					return checkLocation(location)
+							? readLocation(state, location) : 0;
+				} else if (slot <= stackCapacity) {
+					return ANY;
+				}
+				fail("accesses the location " + offset
+						+ " places from the top of the stack, which is below the stack");
+				return 0;
+			}
+
+			if (!requireInt(state, index)) {
+				return 0;
+			}
+			if (state.constants[index] != UNKNOWN) {
+				int location = (int) state.constants[index] + offset;
+				return checkLocation(location)
+						? readLocation(state, location) : 0;
+			}
+			if (!dynamicAccesses) {
+				dynamicAccesses = true;
+				memoryChanged = true;
+			}
+			return ANY;
+		}
+
+		/**
+		 * Stores the provided types to a register, or to a memory location
+		 * addressed indirectly trough a register.
+		 * 
+		 * @param state
+		 *            state which is changed
+		 * @param descriptor
+		 *            descriptor of the register
+		 * @param types
+		 *            stored types
+		 * @param constant
+		 *            stored integer, or {@link TypeVerifier#UNKNOWN}
+		 * @return <code>true</code> if the access is valid
+		 */
+		public boolean write(State state, int descriptor, int types,
+				long constant) {
+			int index = RegisterUtil.getRegisterIndex(descriptor);
+			if (!RegisterUtil.isIndirect(descriptor)) {
+				setRegister(state, index, types, constant);
+				return true;
+			}
+
+			int offset = RegisterUtil.getRegisterOffset(descriptor);
+			if (index == Registers.STACK_REGISTER_INDEX
+					&& state.depth != DETACHED) {
+				int slot = state.depth - offset + 1;
+
+				if (slot >= 1 && slot <= state.depth) {
+					state.slots[slot - 1] = types;
+					return true;
+				} else if (slot < 1) {
+					return writeLocation(state, stackTop + 1 - slot, types,
+							constant);
+				} else if (slot <= stackCapacity) {
+					return true;
+				}
+				fail("accesses the location " + offset
+						+ " places from the top of the stack, which is below the stack");
+				return false;
+			}
+
+			if (!requireInt(state, index)) {
+				return false;
+			}
+			if (state.constants[index] != UNKNOWN) {
+				return writeLocation(state,
+						(int) state.constants[index] + offset, types,
+						constant);
+			}
+			if (state.dynamicStore < 0) {
+				state.dynamicStore = pc;
+			}
+			if (!dynamicAccesses || (dynamicWrites | types) != dynamicWrites) {
+				dynamicAccesses = true;
+				dynamicWrites |= types;
+				memoryChanged = true;
+			}
+			return true;
+		}
+
+		/**
+		 * Stores the provided types to a memory location which is not on the
+		 * stack. Locations which hold the instructions can not be written,
+		 * since the program is decoded only once.
+		 * 
+		 * @param state
+		 *            state which is changed
+		 * @param location
+		 *            memory location
+		 * @param types
+		 *            stored types
+		 * @param constant
+		 *            stored integer, or {@link TypeVerifier#UNKNOWN}
+		 * @return <code>true</code> if the location can be written
+		 */
+		public boolean writeLocation(State state, int location, int types,
+				long constant) {
+			if (!checkLocation(location)) {
+				return false;
+			}
+			if (isStack(location)) {
+				fail("stores to the location " + location
+						+ ", which belongs to the stack");
+				return false;
+			}
+			if (location < programSize
+					&& memory.getLocation(location) instanceof Instruction) {
+				fail("overwrites the instruction at the address "
+						+ location);
+				return false;
+			}
+
+			addLocationTypes(state, location, types, constant);
+			return true;
+		}
+
+		/**
+		 * Checks that the provided location is inside of the memory.
+		 * 
+		 * @param location
+		 *            memory location
+		 * @return <code>true</code> if the location is valid
+		 */
+		private boolean checkLocation(int location) {
+			if (location < 0 || location >= memory.getSize()) {
+				fail("accesses the location " + location
+						+ ", which is outside of the memory");
+				return false;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Types of the registers and of the stack before an instruction.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class State {
+		/**
+		 * Types of the registers.
+		 */
+		private int[] registers;
+		/**
+		 * Integers which the registers always hold, or
+		 * {@link TypeVerifier#UNKNOWN}.
+		 */
+		private long[] constants;
+		/**
+		 * Number of the values on the stack, or {@link TypeVerifier#DETACHED}
+		 * if the register r15 does not point to the stack.
+		 */
+		private int depth;
+		/**
+		 * Types of the values on the stack, starting from the top of the
+		 * stack.
+		 */
+		private int[] slots;
+		/**
+		 * Types of the locations of the program.
+		 */
+		private int[] locations;
+		/**
+		 * Integers which the locations of the program always hold, or
+		 * {@link TypeVerifier#UNKNOWN}.
+		 */
+		private long[] locationConstants;
+		/**
+		 * Address of the first instruction which has stored a value trough an
+		 * unknown address on some path to this state, or <code>-1</code>.
+		 */
+		private int dynamicStore = -1;
+
+		/**
+		 * Constructor which initializes the state.
+		 * 
+		 * @param registers
+		 *            types of the registers
+		 * @param constants
+		 *            integers which the registers always hold
+		 * @param depth
+		 *            number of the values on the stack
+		 * @param slots
+		 *            types of the values on the stack
+		 * @param locations
+		 *            types of the locations of the program
+		 * @param locationConstants
+		 *            integers which the locations of the program always hold
+		 */
+		public State(int[] registers, long[] constants, int depth,
+				int[] slots, int[] locations, long[] locationConstants) {
+			this.registers = registers;
+			this.constants = constants;
+			this.depth = depth;
+			this.slots = slots;
+			this.locations = locations;
+			this.locationConstants = locationConstants;
+		}
+
+		/**
+		 * Creates a copy of this state.
+		 * 
+		 * @return copy of this state
+		 */
+		public State copy() {
+			State copy = new State(registers.clone(), constants.clone(),
+					depth, slots.clone(), locations.clone(),
+					locationConstants.clone());
+			copy.dynamicStore = dynamicStore;
+			return copy;
+		}
+
+		/**
+		 * Adds the types of the provided state, which has the same depth of
+		 * the stack or does not point to the stack, to this state.
+		 * 
+		 * @param other
+		 *            joined state
+		 * @return <code>true</code> if this state has changed
+		 */
+		public boolean join(State other) {
+			boolean changed = false;
+
+			for (int index = 0; index < registers.length; index++) {
+				int types = registers[index] | other.registers[index];
+				changed |= types != registers[index];
+				registers[index] = types;
+
+				if (constants[index] != other.constants[index]
+						&& constants[index] != UNKNOWN) {
+					constants[index] = UNKNOWN;
+					changed = true;
+				}
+			}
+
+			for (int location = 0; location < locations.length; location++) {
+				int types = locations[location] | other.locations[location];
+				changed |= types != locations[location];
+				locations[location] = types;
+
+				if (locationConstants[location] != other.locationConstants[location]
+						&& locationConstants[location] != UNKNOWN) {
+					locationConstants[location] = UNKNOWN;
+					changed = true;
+				}
+			}
+
+			if (other.dynamicStore >= 0 && (dynamicStore < 0
+					|| other.dynamicStore < dynamicStore)) {
+				dynamicStore = other.dynamicStore;
+				changed = true;
+			}
+
+			if (other.depth == DETACHED) {
+				changed |= depth != DETACHED;
+				depth = DETACHED;
+				slots = new int[0];
+			} else if (depth != DETACHED) {
+				for (int slot = 0; slot < slots.length; slot++) {
+					int types = slots[slot] | other.slots[slot];
+					changed |= types != slots[slot];
+					slots[slot] = types;
+				}
+			}
+
+			return changed;
+		}
+	}
+
+	/**
+	 * Call of a subroutine which is not yet returned from.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Frame {
+		/**
+		 * Address of the subroutine.
+		 */
+		private final int entry;
+		/**
+		 * Address to which the subroutine returns.
+		 */
+		private final int returnAddress;
+		/**
+		 * Depth of the stack before the call.
+		 */
+		private final int depthAtCall;
+		/**
+		 * Call which has called the subroutine, or <code>null</code> if it is
+		 * called from the main program.
+		 */
+		private final Frame parent;
+
+		/**
+		 * Constructor which initializes the call.
+		 * 
+		 * @param entry
+		 *            address of the subroutine
+		 * @param returnAddress
+		 *            address to which the subroutine returns
+		 * @param depthAtCall
+		 *            depth of the stack before the call
+		 * @param parent
+		 *            call which has called the subroutine
+		 */
+		public Frame(int entry, int returnAddress, int depthAtCall,
+				Frame parent) {
+			this.entry = entry;
+			this.returnAddress = returnAddress;
+			this.depthAtCall = depthAtCall;
+			this.parent = parent;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(entry, returnAddress, depthAtCall, parent);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Frame)) {
+				return false;
+			}
+			Frame other = (Frame) obj;
+			return entry == other.entry
+					&& returnAddress == other.returnAddress
+					&& depthAtCall == other.depthAtCall
+					&& Objects.equals(parent, other.parent);
+		}
+	}
+
+	/**
+	 * Address of an instruction together with the chain of the calls which
+	 * has reached it.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	private static class Context {
+		/**
+		 * Address of the instruction.
+		 */
+		private final int address;
+		/**
+		 * Chain of the calls, or <code>null</code> in the main program.
+		 */
+		private final Frame frame;
+
+		/**
+		 * Constructor which initializes the context.
+		 * 
+		 * @param address
+		 *            address of the instruction
+		 * @param frame
+		 *            chain of the calls
+		 */
+		public Context(int address, Frame frame) {
+			this.address = address;
+			this.frame = frame;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * address + Objects.hashCode(frame);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Context)) {
+				return false;
+			}
+			Context other = (Context) obj;
+			return address == other.address
+					&& Objects.equals(frame, other.frame);
+		}
+	}
+}
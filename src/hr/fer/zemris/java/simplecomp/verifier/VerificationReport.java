@@ -0,0 +1,180 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Result of the verification of a program by the {@link TypeVerifier}.
+ * </p>
+ * 
+ * <p>
+ * Report holds the errors found in the program, ordered by their addresses,
+ * and the types which the registers can hold before every reached
+ * instruction. Program is verified if no errors were found.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class VerificationReport {
+
+	/**
+	 * Type of the value which a register holds before an instruction.
+	 * 
+	 * @author Luka Lazanja
+	 * @version 1.0
+	 */
+	public enum ValueType {
+		/**
+		 * Register always holds an integer.
+		 */
+		INT,
+		/**
+		 * Register always holds a string.
+		 */
+		STRING,
+		/**
+		 * Register can hold different types, no value or some other object.
+		 */
+		UNKNOWN
+	}
+
+	/**
+	 * Descriptions of the errors found in the program.
+	 */
+	private final List<String> diagnostics;
+	/**
+	 * Types of the registers before every instruction, or <code>null</code>.
+	 */
+	private final int[][] registerTypes;
+	/**
+	 * Maximum depth of the stack.
+	 */
+	private final int maxStackDepth;
+	/**
+	 * Number of the locations of the stack.
+	 */
+	private final int stackCapacity;
+	/**
+	 * Flag which determines if the program accesses the memory trough the
+	 * registers other than r15.
+	 */
+	private final boolean dynamicAccesses;
+
+	/**
+	 * Constructor which initializes the report.
+	 * 
+	 * @param diagnostics
+	 *            descriptions of the errors found in the program
+	 * @param registerTypes
+	 *            types of the registers before every instruction, or
+	 *            <code>null</code> if they are not known
+	 * @param maxStackDepth
+	 *            maximum depth of the stack
+	 * @param stackCapacity
+	 *            number of the locations of the stack
+	 * @param dynamicAccesses
+	 *            flag which determines if the program accesses the memory
+	 *            trough the registers other than r15
+	 */
+	VerificationReport(Collection<String> diagnostics, int[][] registerTypes,
+			int maxStackDepth, int stackCapacity, boolean dynamicAccesses) {
+		this.diagnostics = Collections
+				.unmodifiableList(new ArrayList<>(diagnostics));
+		this.registerTypes = registerTypes;
+		this.maxStackDepth = maxStackDepth;
+		this.stackCapacity = stackCapacity;
+		this.dynamicAccesses = dynamicAccesses;
+	}
+
+	/**
+	 * Checks if the program has passed the verification.
+	 * 
+	 * @return <code>true</code> if no errors were found
+	 */
+	public boolean isVerified() {
+		return diagnostics.isEmpty();
+	}
+
+	/**
+	 * Gets the descriptions of the errors found in the program, ordered by
+	 * their addresses.
+	 * 
+	 * @return unmodifiable list of the errors
+	 */
+	public List<String> getDiagnostics() {
+		return diagnostics;
+	}
+
+	/**
+	 * Gets the maximum number of the values on the stack.
+	 * 
+	 * @return maximum depth of the stack
+	 */
+	public int getMaxStackDepth() {
+		return maxStackDepth;
+	}
+
+	/**
+	 * Gets the number of the empty locations from the initial value of the
+	 * register r15 towards the start of the memory.
+	 * 
+	 * @return number of the locations of the stack
+	 */
+	public int getStackCapacity() {
+		return stackCapacity;
+	}
+
+	/**
+	 * Checks if the program accesses the memory trough the registers other
+	 * than r15. Such accesses are not checked by the verifier, so they have to
+	 * be checked while the program runs.
+	 * 
+	 * @return <code>true</code> if the program accesses the memory trough the
+	 *         registers other than r15
+	 */
+	public boolean hasDynamicAccesses() {
+		return dynamicAccesses;
+	}
+
+	/**
+	 * Gets the type of the value which the provided register holds before the
+	 * instruction at the provided address. Registers of the instructions
+	 * which are never reached have the unknown type.
+	 * 
+	 * @param address
+	 *            address of the instruction
+	 * @param register
+	 *            index of the register
+	 * @return type of the value of the register
+	 */
+	public ValueType getRegisterType(int address, int register) {
+		if (registerTypes == null || address < 0
+				|| address >= registerTypes.length
+				|| registerTypes[address] == null || register < 0
+				|| register >= registerTypes[address].length) {
+			return ValueType.UNKNOWN;
+		}
+
+		switch (registerTypes[address][register]) {
+		case TypeVerifier.INT:
+			return ValueType.INT;
+		case TypeVerifier.STRING:
+			return ValueType.STRING;
+		default:
+			return ValueType.UNKNOWN;
+		}
+	}
+
+	@Override
+	public String toString() {
+		if (isVerified()) {
+			return "Program is verified, it uses " + maxStackDepth + " of "
+					+ stackCapacity + " locations of the stack.";
+		}
+		return String.join(System.lineSeparator(), diagnostics);
+	}
+}
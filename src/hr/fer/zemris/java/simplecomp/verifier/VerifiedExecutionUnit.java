@@ -0,0 +1,58 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.threaded.ProgramDecoder;
+import hr.fer.zemris.java.simplecomp.threaded.ThreadedExecutionUnit;
+
+/**
+ * <p>
+ * Implementation of the computer execution unit which executes only the
+ * programs verified by the {@link TypeVerifier}.
+ * </p>
+ * 
+ * <p>
+ * Before the execution, the program is verified. If the verification fails,
+ * an {@link IllegalArgumentException} with the errors of the program is
+ * thrown, instead of a {@link ClassCastException} while the program runs.
+ * Verified program is decoded just like by the {@link ThreadedExecutionUnit},
+ * and executed trough the views of the registers and the memory which do not
+ * check the indexes. Memory is accessed trough its checked methods only if
+ * the program accesses it trough the registers other than r15, since those
+ * addresses are known only while the program runs.
+ * </p>
+ * 
+ * <p>
+ * Program has to be loaded without the instruction fusion, and the computers
+ * whose registers and memory do not implement {@link IntRegisters} and
+ * {@link IntMemory} are executed by the {@link ExecutionUnitImpl}.
+ * </p>
+ * 
+ * @author Luka Lazanja
+ * @version 1.0
+ */
+public class VerifiedExecutionUnit implements ExecutionUnit {
+
+	@Override
+	public boolean go(Computer computer) {
+		if (!(computer.getRegisters() instanceof IntRegisters)
+				|| !(computer.getMemory() instanceof IntMemory)) {
+			return new ExecutionUnitImpl().go(computer);
+		}
+
+		VerificationReport report = TypeVerifier.verify(computer);
+		if (!report.isVerified()) {
+			throw new IllegalArgumentException(report.toString());
+		}
+
+		IntRegisters registers = (IntRegisters) computer.getRegisters();
+		IntMemory memory = (IntMemory) computer.getMemory();
+
+		return ThreadedExecutionUnit.execute(computer,
+				ProgramDecoder.decode(memory, true), registers.unchecked(),
+				report.hasDynamicAccesses() ? memory : memory.unchecked());
+	}
+}
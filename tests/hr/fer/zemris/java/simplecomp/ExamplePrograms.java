@@ -0,0 +1,62 @@
+package hr.fer.zemris.java.simplecomp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.io.MemoryInputDevice;
+import hr.fer.zemris.java.simplecomp.io.MemoryOutputDevice;
+import hr.fer.zemris.java.simplecomp.models.ExecutionUnit;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+
+@SuppressWarnings("javadoc")
+public final class ExamplePrograms {
+
+	public static final List<String> NAMES = Arrays.asList("asmProgram1",
+			"asmProgram2", "asmProgram3", "asmProgram4", "asmProgram5",
+			"prim1", "prim2", "prim3");
+
+	private ExamplePrograms() {
+	}
+
+	public static String path(String name) {
+		return "examples/" + name + ".txt";
+	}
+
+	public static ComputerImpl create(String name) {
+		ComputerImpl computer = new ComputerImpl(256, 16);
+		computer.setInputDevice(new MemoryInputDevice(
+				name.equals("prim3") ? "10\n" : "7\n"));
+		computer.setOutputDevice(new MemoryOutputDevice());
+		return computer;
+	}
+
+	public static ComputerImpl load(String name) throws Exception {
+		ComputerImpl computer = create(name);
+		ProgramParser.parse(path(name), computer, new InstructionRegistry());
+		return computer;
+	}
+
+	public static String run(String name, ExecutionUnit unit)
+			throws Exception {
+		ComputerImpl computer = load(name);
+		unit.go(computer);
+		return describe(computer);
+	}
+
+	public static String describe(ComputerImpl computer) {
+		StringBuilder sb = new StringBuilder(
+				((MemoryOutputDevice) computer.getOutputDevice()).getText());
+
+		Registers registers = computer.getRegisters();
+		for (int index = 0; index < 16; index++) {
+			sb.append("\nr").append(index).append(" = ")
+					.append(registers.getRegisterValue(index));
+		}
+		sb.append("\nflag = ").append(registers.getFlag());
+
+		return sb.toString();
+	}
+}
@@ -1,6 +1,8 @@
 package hr.fer.zemris.java.simplecomp;
 
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -362,6 +364,34 @@ public class InstructionsTests {
 				.setRegisterValue(Registers.STACK_REGISTER_INDEX, 201);
 	}
 
+	// Stack pointer is not changed when the popped location is invalid
+	@Test
+	public void testPopFromInvalidLocation() {
+		initialization();
+
+		initArgAsRegister(arg1, 0, true);
+
+		List<InstructionArgument> arguments = new ArrayList<>();
+
+		arguments.add(arg1);
+
+		InstrPop pop = new InstrPop(arguments);
+
+		when(registers.getRegisterValue(Registers.STACK_REGISTER_INDEX))
+				.thenReturn(200);
+		when(memory.getLocation(201))
+				.thenThrow(new IllegalArgumentException());
+
+		try {
+			pop.execute(computer);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+
+		verify(registers, never())
+				.setRegisterValue(Registers.STACK_REGISTER_INDEX, 201);
+	}
+
 	// Invalid number of arguments
 	@Test(expected = IllegalArgumentException.class)
 	public void testInvalidPopInstructionConstructor1() {
@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.simplecomp;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.io.QueueInputDevice;
+
+@SuppressWarnings("javadoc")
+public class ResumableExecutionTests {
+
+	@Test
+	public void testBudget() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrIncrement(args(register(0))));
+		computer.getMemory().setLocation(1, new InstrJump(args(number(0))));
+		computer.getRegisters().setRegisterValue(0, 0);
+
+		ResumableExecution execution = new ResumableExecution(computer);
+
+		assertEquals(ExecutionStatus.BUDGET_EXHAUSTED, execution.run(5));
+		assertEquals(3, computer.getRegisters().getRegisterValue(0));
+		assertEquals(1, computer.getRegisters().getProgramCounter());
+
+		assertEquals(ExecutionStatus.BUDGET_EXHAUSTED, execution.run(5));
+		assertEquals(5, computer.getRegisters().getRegisterValue(0));
+		assertEquals(10, execution.getExecutedInstructions());
+
+		assertEquals(ExecutionStatus.BUDGET_EXHAUSTED,
+				execution.run(Long.MAX_VALUE, System.nanoTime()));
+		assertEquals(1034, execution.getExecutedInstructions());
+	}
+
+	@Test
+	public void testWaitingForInput() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0, new InstrIinput(args(number(10))));
+		computer.getMemory().setLocation(1,
+				new InstrLoad(args(register(0), number(10))));
+		computer.getMemory().setLocation(2, new InstrHalt(args()));
+		QueueInputDevice input = new QueueInputDevice();
+		computer.setInputDevice(input);
+
+		ResumableExecution execution = new ResumableExecution(computer);
+
+		assertEquals(ExecutionStatus.WAITING_FOR_INPUT, execution.run(100));
+		assertEquals(ExecutionStatus.WAITING_FOR_INPUT, execution.run(100));
+		assertEquals(0, computer.getRegisters().getProgramCounter());
+		assertEquals(0, execution.getExecutedInstructions());
+
+		input.offer("42");
+		assertEquals(ExecutionStatus.HALTED, execution.run(100));
+		assertTrue(execution.isHalted());
+		assertEquals(42, computer.getRegisters().getRegisterValue(0));
+		assertEquals(3, execution.getExecutedInstructions());
+
+		assertEquals(ExecutionStatus.HALTED, execution.run(100));
+		assertEquals(3, execution.getExecutedInstructions());
+	}
+
+	@Test
+	public void testClosedInput() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0, new InstrIinput(args(number(10))));
+		computer.getMemory().setLocation(1, new InstrHalt(args()));
+		QueueInputDevice input = new QueueInputDevice();
+		computer.setInputDevice(input);
+		computer.getRegisters().setFlag(true);
+
+		ResumableExecution execution = new ResumableExecution(computer);
+
+		assertEquals(ExecutionStatus.WAITING_FOR_INPUT, execution.run(100));
+		input.close();
+		assertEquals(ExecutionStatus.HALTED, execution.run(100));
+		assertFalse(computer.getRegisters().getFlag());
+		assertEquals(2, execution.getExecutedInstructions());
+	}
+}
@@ -0,0 +1,60 @@
+package hr.fer.zemris.java.simplecomp;
+
+import java.util.Arrays;
+import java.util.List;
+
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+
+@SuppressWarnings("javadoc")
+public final class TestArguments {
+
+	private TestArguments() {
+	}
+
+	public static List<InstructionArgument> args(
+			InstructionArgument... arguments) {
+		return Arrays.asList(arguments);
+	}
+
+	public static InstructionArgument register(int index) {
+		return new Argument(true, index);
+	}
+
+	public static InstructionArgument indirect(int index, int offset) {
+		return new Argument(true, 1 << 24 | (offset & 0xFFFF) << 8 | index);
+	}
+
+	public static InstructionArgument number(int value) {
+		return new Argument(false, value);
+	}
+
+	private static class Argument implements InstructionArgument {
+		private final boolean register;
+		private final Integer value;
+
+		Argument(boolean register, int value) {
+			this.register = register;
+			this.value = value;
+		}
+
+		@Override
+		public boolean isRegister() {
+			return register;
+		}
+
+		@Override
+		public boolean isString() {
+			return false;
+		}
+
+		@Override
+		public boolean isNumber() {
+			return !register;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package hr.fer.zemris.java.simplecomp;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.indirect;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public final class TestPrograms {
+
+	private TestPrograms() {
+	}
+
+	// Pushes the argument 21 and calls the subroutine at the address 10
+	// twice, moving r0 to r2 between the calls; subroutine saves r1, doubles
+	// its argument into r1, executes the provided instruction and restores r1
+	public static ComputerImpl subroutine(Instruction instruction) {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(21))));
+		memory.setLocation(1, new InstrPush(args(register(0))));
+		memory.setLocation(2, new InstrCall(args(number(10))));
+		memory.setLocation(3, new InstrMove(args(register(2), register(0))));
+		memory.setLocation(4, new InstrCall(args(number(10))));
+		memory.setLocation(5, new InstrIncrement(args(register(15))));
+		memory.setLocation(6, new InstrHalt(args()));
+		memory.setLocation(10, new InstrPush(args(register(1))));
+		memory.setLocation(11,
+				new InstrMove(args(register(1), indirect(15, 3))));
+		memory.setLocation(12,
+				new InstrAdd(args(register(1), register(1), register(1))));
+		memory.setLocation(13, instruction);
+		memory.setLocation(14, new InstrPop(args(register(1))));
+		memory.setLocation(15, new InstrRet(args()));
+		computer.getRegisters().setRegisterValue(15, 31);
+		return computer;
+	}
+
+	// Sums the numbers smaller than the provided count into r0, counting
+	// them in r1, then loads a string to r3 and pushes the sum
+	public static ComputerImpl sum(int count) {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(0))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(0))));
+		memory.setLocation(2,
+				new InstrAdd(args(register(0), register(0), register(1))));
+		memory.setLocation(3, new InstrIncrement(args(register(1))));
+		memory.setLocation(4,
+				new InstrTestEquals(args(register(1), register(2))));
+		memory.setLocation(5, new InstrJumpIfTrue(args(number(7))));
+		memory.setLocation(6, new InstrJump(args(number(2))));
+		memory.setLocation(7, new InstrLoad(args(register(3), number(10))));
+		memory.setLocation(8, new InstrPush(args(register(0))));
+		memory.setLocation(9, new InstrHalt(args()));
+		memory.setLocation(10, "kukumar");
+		computer.getRegisters().setRegisterValue(2, count);
+		computer.getRegisters().setRegisterValue(15, 31);
+		return computer;
+	}
+}
@@ -0,0 +1,119 @@
+package hr.fer.zemris.java.simplecomp.batch;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.batch.RunResult.Status;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class BatchRunnerTests {
+
+	@Test
+	public void testEveryRunHasItsOwnOutput() {
+		ProgramImage image = echoInput();
+		List<String> inputs = Arrays.asList("1\n", "22\n", "333\n", "4\n");
+
+		List<RunResult> results;
+		try (BatchRunner runner = new BatchRunner(2)) {
+			results = runner.run(image, inputs, 100)
+					.collect(Collectors.toList());
+		}
+
+		assertEquals(4, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			RunResult result = results.get(i);
+			assertEquals(i, result.getIndex());
+			assertEquals(inputs.get(i), result.getInput());
+			assertEquals(inputs.get(i).trim(), result.getOutput());
+			assertEquals(Status.HALTED, result.getStatus());
+			assertEquals(4, result.getCycles());
+			assertNull(result.getError());
+		}
+		assertNull(image.newComputer().getMemory().getLocation(10));
+	}
+
+	@Test
+	public void testCycleLimit() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrEcho(args(register(0))));
+		memory.setLocation(1, new InstrJump(args(number(0))));
+		computer.getRegisters().setRegisterValue(0, "x");
+
+		RunResult result = BatchRunner.execute(3,
+				ProgramImage.of(computer, 16), "", 10);
+
+		assertEquals(3, result.getIndex());
+		assertEquals(Status.CYCLE_LIMIT_EXCEEDED, result.getStatus());
+		assertEquals(10, result.getCycles());
+		assertEquals("xxxxx", result.getOutput());
+		assertTrue(result.getError() instanceof CycleLimitExceededException);
+	}
+
+	@Test
+	public void testFailedRun() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0, new InstrEcho(args(register(0))));
+		computer.getRegisters().setRegisterValue(0, "x");
+
+		RunResult result = BatchRunner.execute(0,
+				ProgramImage.of(computer, 16), "", 10);
+
+		assertEquals(Status.FAILED, result.getStatus());
+		assertEquals("x", result.getOutput());
+		assertEquals(2, result.getCycles());
+	}
+
+	@Test
+	public void testDifferentPrograms() {
+		ComputerImpl looping = new ComputerImpl(16, 16);
+		looping.getMemory().setLocation(0, new InstrJump(args(number(0))));
+
+		List<RunResult> results;
+		try (BatchRunner runner = new BatchRunner(2)) {
+			results = runner.run(
+					Arrays.asList(echoInput(), ProgramImage.of(looping, 16)),
+					Arrays.asList("5\n", ""), 50).collect(Collectors.toList());
+		}
+
+		assertEquals(Status.HALTED, results.get(0).getStatus());
+		assertEquals("5", results.get(0).getOutput());
+		assertEquals(Status.CYCLE_LIMIT_EXCEEDED, results.get(1).getStatus());
+		assertEquals(50, results.get(1).getCycles());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInputsDoNotMatchPrograms() {
+		try (BatchRunner runner = new BatchRunner(1)) {
+			runner.run(Arrays.asList(echoInput()), Arrays.asList("1", "2"),
+					10);
+		}
+	}
+
+	private static ProgramImage echoInput() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrIinput(args(number(10))));
+		memory.setLocation(1, new InstrLoad(args(register(0), number(10))));
+		memory.setLocation(2, new InstrEcho(args(register(0))));
+		memory.setLocation(3, new InstrHalt(args()));
+		return ProgramImage.of(computer, 16);
+	}
+}
@@ -0,0 +1,185 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.RegistersImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCompareAndBranch;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class CompilingExecutionUnitTests {
+
+	@Test
+	public void testBlockDeoptimizesForString() {
+		Instruction[] program = {
+				new InstrMove(args(register(0), number(7))),
+				new InstrAdd(args(register(1), register(2), register(2))),
+				new InstrJump(args(number(0))) };
+		CompiledBlock block = new BlockCompiler().compile(program, 0, 3);
+		assertNotNull(block);
+
+		RegistersImpl registers = new RegistersImpl(16);
+		registers.setRegisterValue(0, 1);
+		registers.setRegisterValue(2, "kukumar");
+
+		assertEquals(CompiledBlock.DEOPTIMIZE, block.execute(registers));
+		assertEquals(1, registers.getRegisterValue(0));
+		assertNull(registers.getRegisterValue(1));
+
+		registers.setRegisterValue(2, 21);
+		assertEquals(0, block.execute(registers));
+		assertEquals(7, registers.getRegisterValue(0));
+		assertEquals(42, registers.getRegisterValue(1));
+	}
+
+	@Test
+	public void testStringIsInterpretedAfterDeoptimization() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrLoad(args(register(1), number(10))));
+		memory.setLocation(1, new InstrLoad(args(register(2), number(11))));
+		memory.setLocation(2,
+				new InstrTestEquals(args(register(1), register(2))));
+		memory.setLocation(3, new InstrJumpIfTrue(args(number(5))));
+		memory.setLocation(4, new InstrHalt(args()));
+		memory.setLocation(5, new InstrMove(args(register(3), number(1))));
+		memory.setLocation(6, new InstrHalt(args()));
+		memory.setLocation(10, new String("kukumar"));
+		memory.setLocation(11, new String("kukumar"));
+
+		new CompilingExecutionUnit(1).go(computer);
+
+		assertTrue(computer.getRegisters().getFlag());
+		assertEquals(1, computer.getRegisters().getRegisterValue(3));
+	}
+
+	@Test
+	public void testFlagIsStoredAtJumpIfTrue() {
+		Instruction[] program = {
+				new InstrTestEquals(args(register(0), register(1))),
+				new InstrJumpIfTrue(args(number(10))) };
+		CompiledBlock block = new BlockCompiler().compile(program, 0, 2);
+
+		RegistersImpl registers = new RegistersImpl(16);
+		registers.setRegisterValue(0, 3);
+		registers.setRegisterValue(1, 3);
+
+		assertEquals(10, block.execute(registers));
+		assertTrue(registers.getFlag());
+
+		registers.setRegisterValue(1, 4);
+		assertEquals(2, block.execute(registers));
+		assertFalse(registers.getFlag());
+	}
+
+	@Test
+	public void testFlagIsReadAtJumpIfTrue() {
+		Instruction[] program = {
+				new InstrIncrement(args(register(0))),
+				new InstrJumpIfTrue(args(number(10))) };
+		CompiledBlock block = new BlockCompiler().compile(program, 0, 2);
+
+		RegistersImpl registers = new RegistersImpl(16);
+		registers.setRegisterValue(0, 0);
+
+		assertEquals(2, block.execute(registers));
+		registers.setFlag(true);
+		assertEquals(10, block.execute(registers));
+		assertTrue(registers.getFlag());
+		assertEquals(2, registers.getRegisterValue(0));
+	}
+
+	@Test
+	public void testFlagIsStoredAtCompareAndBranch() {
+		InstrTestEquals test = new InstrTestEquals(
+				args(register(0), register(1)));
+		InstrJumpIfTrue jump = new InstrJumpIfTrue(args(number(10)));
+		Instruction[] program = { new InstrCompareAndBranch(test, jump),
+				jump };
+		CompiledBlock block = new BlockCompiler().compile(program, 0, 1);
+
+		RegistersImpl registers = new RegistersImpl(16);
+		registers.setRegisterValue(0, 5);
+		registers.setRegisterValue(1, 5);
+
+		assertEquals(10, block.execute(registers));
+		assertTrue(registers.getFlag());
+
+		registers.setRegisterValue(1, 6);
+		assertEquals(2, block.execute(registers));
+		assertFalse(registers.getFlag());
+	}
+
+	@Test
+	public void testUncompilableBlock() {
+		Instruction[] program = { new InstrPush(args(register(0))),
+				new InstrJump(args(number(0))) };
+
+		assertNull(new BlockCompiler().compile(program, 0, 2));
+		assertEquals(0, BlockCompiler.findBlocks(program)[0]);
+	}
+
+	@Test
+	public void testUncompilableInstructionsAreInterpreted() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(0))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(3))));
+		memory.setLocation(2, new InstrIncrement(args(register(0))));
+		memory.setLocation(3, new InstrPush(args(register(0))));
+		memory.setLocation(4, new InstrPop(args(register(2))));
+		memory.setLocation(5,
+				new InstrTestEquals(args(register(0), register(1))));
+		memory.setLocation(6, new InstrJumpIfTrue(args(number(8))));
+		memory.setLocation(7, new InstrJump(args(number(2))));
+		memory.setLocation(8, new InstrHalt(args()));
+		computer.getRegisters().setRegisterValue(15, 15);
+
+		new CompilingExecutionUnit(1).go(computer);
+
+		assertEquals(3, computer.getRegisters().getRegisterValue(0));
+		assertEquals(3, computer.getRegisters().getRegisterValue(2));
+		assertEquals(15, computer.getRegisters().getRegisterValue(15));
+	}
+
+	@Test
+	public void testExamplesMatchInterpreter() throws Exception {
+		for (String name : ExamplePrograms.NAMES) {
+			assertEquals(name,
+					ExamplePrograms.run(name, new ExecutionUnitImpl()),
+					ExamplePrograms.run(name, new CompilingExecutionUnit(1)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testJumpToNegativeAddress() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrJump(args(number(-1))));
+
+		new CompilingExecutionUnit().go(computer);
+	}
+}
@@ -0,0 +1,87 @@
+package hr.fer.zemris.java.simplecomp.compiler;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class TracingExecutionUnitTests {
+
+	@Test
+	public void testLoopIsTraced() {
+		ComputerImpl computer = TestPrograms.sum(1000);
+		TracingExecutionUnit unit = new TracingExecutionUnit(10);
+
+		unit.go(computer);
+
+		assertEquals(499500, computer.getRegisters().getRegisterValue(0));
+		assertEquals(1000, computer.getRegisters().getRegisterValue(1));
+
+		TraceStatistics statistics = unit.getStatistics();
+		assertEquals(1, statistics.getTracesCompiled());
+		assertEquals(1, statistics.getTraceEntries());
+		assertEquals(1, statistics.getGuardExits());
+		assertEquals(0, statistics.getDeoptimizations());
+	}
+
+	@Test
+	public void testTraceIsDiscardedForString() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(0))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(0))));
+		memory.setLocation(2,
+				new InstrAdd(args(register(0), register(0), register(1))));
+		memory.setLocation(3, new InstrMove(args(register(5), register(4))));
+		memory.setLocation(4, new InstrIncrement(args(register(1))));
+		memory.setLocation(5,
+				new InstrTestEquals(args(register(1), register(2))));
+		memory.setLocation(6, new InstrJumpIfTrue(args(number(8))));
+		memory.setLocation(7, new InstrJump(args(number(2))));
+		memory.setLocation(8, new InstrIncrement(args(register(6))));
+		memory.setLocation(9,
+				new InstrTestEquals(args(register(6), register(7))));
+		memory.setLocation(10, new InstrJumpIfTrue(args(number(14))));
+		memory.setLocation(11, new InstrLoad(args(register(4), number(20))));
+		memory.setLocation(12, new InstrMove(args(register(1), number(0))));
+		memory.setLocation(13, new InstrJump(args(number(2))));
+		memory.setLocation(14, new InstrHalt(args()));
+		memory.setLocation(20, "kukumar");
+		computer.getRegisters().setRegisterValue(2, 1000);
+		computer.getRegisters().setRegisterValue(4, 0);
+		computer.getRegisters().setRegisterValue(6, 0);
+		computer.getRegisters().setRegisterValue(7, 2);
+		TracingExecutionUnit unit = new TracingExecutionUnit(10);
+
+		unit.go(computer);
+
+		assertEquals(999000, computer.getRegisters().getRegisterValue(0));
+		assertEquals("kukumar", computer.getRegisters().getRegisterValue(5));
+
+		TraceStatistics statistics = unit.getStatistics();
+		assertEquals(1, statistics.getTracesCompiled());
+		assertEquals(2, statistics.getTraceEntries());
+		assertEquals(1, statistics.getGuardExits());
+		assertEquals(1, statistics.getDeoptimizations());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() {
+		new TracingExecutionUnit(0);
+	}
+}
@@ -0,0 +1,150 @@
+package hr.fer.zemris.java.simplecomp.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstructionRegistry;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.InstructionArgument;
+import hr.fer.zemris.java.simplecomp.parser.ProgramParser;
+import hr.fer.zemris.java.simplecomp.profiler.SourceLabels;
+
+@SuppressWarnings("javadoc")
+public class AssemblerTests {
+
+	private static final Pattern REFERENCE = Pattern.compile("@(\\w+)");
+
+	@Test
+	public void testImageRoundTrip() throws Exception {
+		Path image = Files.createTempFile("simplecomp", ImageFormat.EXTENSION);
+		try {
+			for (String name : ExamplePrograms.NAMES) {
+				String source = ExamplePrograms.path(name);
+				Assembler.assemble(source, image.toString());
+
+				ComputerImpl computer = ExamplePrograms.create(name);
+				SourceMap sourceMap = ImageLoader.load(image.toString(),
+						computer, new InstructionRegistry());
+				new ExecutionUnitImpl().go(computer);
+
+				assertEquals(name,
+						ExamplePrograms.run(name, new ExecutionUnitImpl()),
+						ExamplePrograms.describe(computer));
+				assertEquals(name, SourceLabels.read(source),
+						sourceMap.getLabels());
+				assertEquals(name, SourceLabels.readLineNumbers(lines(name)),
+						sourceMap.getLineNumbers());
+			}
+		} finally {
+			Files.delete(image);
+		}
+	}
+
+	@Test
+	public void testLabelsOfSameAddress() throws Exception {
+		Path source = Files.createTempFile("simplecomp", ".txt");
+		Path image = Files.createTempFile("simplecomp", ImageFormat.EXTENSION);
+		try {
+			Files.write(source, Arrays.asList("@prvi:", "@drugi:\thalt",
+					"@treci:\tjump @drugi"), StandardCharsets.UTF_8);
+			Assembler.assemble(source.toString(), image.toString());
+
+			SourceMap sourceMap = ImageLoader.load(image.toString(),
+					new ComputerImpl(256, 16), new InstructionRegistry());
+
+			assertEquals(Arrays.asList("prvi", "drugi"),
+					sourceMap.getLabels().get(0));
+			assertEquals(Arrays.asList("treci"), sourceMap.getLabels().get(1));
+			assertEquals(2, sourceMap.getLabels().size());
+		} finally {
+			Files.delete(source);
+			Files.delete(image);
+		}
+	}
+
+	@Test
+	public void testLabelsMatchParser() throws Exception {
+		for (String name : ExamplePrograms.NAMES) {
+			List<String> lines = lines(name);
+			Map<String, Integer> addresses = new HashMap<>();
+			for (Map.Entry<Integer, List<String>> entry : SourceLabels
+					.read(lines).entrySet()) {
+				for (String label : entry.getValue()) {
+					addresses.put(label, entry.getKey());
+				}
+			}
+
+			ComputerImpl computer = new ComputerImpl(256, 16);
+			RecordingInstructionCreator creator = new RecordingInstructionCreator(
+					new InstructionRegistry());
+			ProgramParser.parse(ExamplePrograms.path(name), computer,
+					creator);
+
+			for (Map.Entry<Integer, Integer> entry : SourceLabels
+					.readLineNumbers(lines).entrySet()) {
+				String line = code(lines.get(entry.getValue() - 1));
+				Object value = computer.getMemory()
+						.getLocation(entry.getKey());
+
+				if (line.startsWith("DEFINT")) {
+					assertTrue(line, value instanceof Integer);
+					continue;
+				} else if (line.startsWith("DEFSTR")) {
+					assertTrue(line, value instanceof String);
+					continue;
+				} else if (line.startsWith("RESERVE")) {
+					continue;
+				}
+
+				assertTrue(line, value instanceof Instruction);
+				List<Object> values = new ArrayList<>();
+				for (InstructionArgument argument : creator
+						.getArguments((Instruction) value)) {
+					values.add(argument.getValue());
+				}
+
+				Matcher matcher = REFERENCE.matcher(line);
+				while (matcher.find()) {
+					Integer address = addresses.get(matcher.group(1));
+					assertNotNull(line, address);
+					assertTrue(line, values.contains(address));
+				}
+			}
+		}
+	}
+
+	private static List<String> lines(String name) throws Exception {
+		return Files.readAllLines(Paths.get(ExamplePrograms.path(name)),
+				StandardCharsets.UTF_8);
+	}
+
+	private static String code(String line) {
+		int comment = line.indexOf(';');
+		if (comment >= 0 && line.lastIndexOf('"', comment) < 0) {
+			line = line.substring(0, comment);
+		}
+		line = line.trim();
+		if (line.startsWith("@")) {
+			line = line.substring(line.indexOf(':') + 1).trim();
+		}
+		return line;
+	}
+}
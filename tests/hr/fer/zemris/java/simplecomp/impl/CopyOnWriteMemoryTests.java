@@ -0,0 +1,102 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CopyOnWriteMemoryTests {
+
+	@Test
+	public void testValues() {
+		CopyOnWriteMemory memory = new CopyOnWriteMemory(200);
+		Object instruction = new Object();
+
+		memory.setInt(150, 1234);
+		memory.setLocation(0, instruction);
+
+		assertTrue(memory.isInt(150));
+		assertEquals(1234, memory.getInt(150));
+		assertSame(instruction, memory.getLocation(0));
+		assertFalse(memory.isInt(199));
+		assertNull(memory.getLocation(199));
+		assertEquals(200, memory.getSize());
+	}
+
+	@Test
+	public void testForkIsolation() {
+		CopyOnWriteMemory parent = new CopyOnWriteMemory(256);
+		parent.setLocation(0, "program");
+		parent.setInt(255, 1);
+
+		CopyOnWriteMemory child = parent.fork();
+		child.setInt(255, 2);
+		parent.setInt(254, 3);
+
+		assertEquals("program", child.getLocation(0));
+		assertEquals(1, parent.getInt(255));
+		assertEquals(2, child.getInt(255));
+		assertFalse(child.isInt(254));
+		assertEquals(3, parent.getInt(254));
+	}
+
+	@Test
+	public void testUncheckedViewCopiesSharedPages() {
+		CopyOnWriteMemory parent = new CopyOnWriteMemory(256);
+		parent.setInt(255, 1);
+
+		CopyOnWriteMemory child = parent.fork();
+		IntMemory view = child.unchecked();
+		view.setInt(255, 2);
+		view.setLocation(0, "program");
+
+		assertEquals(2, child.getInt(255));
+		assertEquals("program", child.getLocation(0));
+		assertEquals(1, parent.getInt(255));
+		assertNull(parent.getLocation(0));
+		assertTrue(view.isInt(255));
+		assertEquals(2, child.getOwnedPages());
+	}
+
+	@Test
+	public void testOnlyWrittenPagesAreCopied() {
+		CopyOnWriteMemory parent = new CopyOnWriteMemory(256);
+		for (int i = 0; i < 256; i++) {
+			parent.setInt(i, i);
+		}
+
+		CopyOnWriteMemory child = parent.fork();
+		assertEquals(0, child.getOwnedPages());
+
+		child.setInt(250, -1);
+		child.setInt(251, -2);
+		assertEquals(1, child.getOwnedPages());
+		assertEquals(0, parent.getOwnedPages());
+		assertEquals(100, child.getInt(100));
+	}
+
+	@Test
+	public void testComputerFork() {
+		ComputerImpl computer = new ComputerImpl(new CopyOnWriteMemory(16),
+				16);
+		computer.getRegisters().setRegisterValue(15, 15);
+		computer.getRegisters().setFlag(true);
+
+		ComputerImpl copy = computer.fork();
+		copy.getRegisters().setRegisterValue(15, 14);
+		copy.getMemory().setLocation(15, 7);
+
+		assertEquals(15, computer.getRegisters().getRegisterValue(15));
+		assertTrue(copy.getRegisters().getFlag());
+		assertNull(computer.getMemory().getLocation(15));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testForkWithoutCopyOnWriteMemory() {
+		new ComputerImpl(16, 16).fork();
+	}
+}
@@ -0,0 +1,88 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class PagedMemoryTests {
+
+	@Test
+	public void testValues() {
+		PagedMemory memory = new PagedMemory(5000);
+		Object instruction = new Object();
+
+		memory.setInt(4999, 1234);
+		memory.setLocation(0, instruction);
+		memory.setLocation(1, 5);
+		memory.setLocation(1, null);
+
+		assertTrue(memory.isInt(4999));
+		assertEquals(1234, memory.getInt(4999));
+		assertSame(instruction, memory.getLocation(0));
+		assertFalse(memory.isInt(1));
+		assertNull(memory.getLocation(1));
+		assertNull(memory.getLocation(2500));
+		assertEquals(5000, memory.getSize());
+	}
+
+	@Test
+	public void testOnlyWrittenPagesAreAllocated() {
+		PagedMemory memory = new PagedMemory(Integer.MAX_VALUE);
+		assertEquals(0, memory.getAllocatedPages());
+		assertEquals(0, memory.getUsedSize());
+
+		memory.setInt(0, 1);
+		memory.setInt(Integer.MAX_VALUE - 1, 2);
+		memory.setInt(Integer.MAX_VALUE - 2, 3);
+		assertNull(memory.getLocation(1 << 30));
+
+		assertEquals(2, memory.getAllocatedPages());
+		assertEquals(Integer.MAX_VALUE, memory.getUsedSize());
+		assertEquals(1, memory.getInt(0));
+		assertEquals(2, memory.getInt(Integer.MAX_VALUE - 1));
+		assertEquals(3, memory.getInt(Integer.MAX_VALUE - 2));
+	}
+
+	@Test
+	public void testUsedSize() {
+		PagedMemory memory = new PagedMemory(1 << 20);
+		memory.setInt(PagedMemory.PAGE_SIZE + 5, 1);
+
+		assertEquals(2 * PagedMemory.PAGE_SIZE, memory.getUsedSize());
+		assertEquals(1, memory.getAllocatedPages());
+	}
+
+	@Test
+	public void testUncheckedViewSharesValues() {
+		PagedMemory memory = new PagedMemory(5000);
+		IntMemory view = memory.unchecked();
+		Object instruction = new Object();
+
+		view.setInt(4999, 7);
+		memory.setLocation(3, instruction);
+		view.setLocation(4, "kukumar");
+
+		assertEquals(7, memory.getInt(4999));
+		assertSame(instruction, view.getLocation(3));
+		assertEquals("kukumar", memory.getLocation(4));
+		assertFalse(view.isInt(4));
+		assertNull(view.getLocation(2500));
+		assertEquals(2, memory.getAllocatedPages());
+		assertEquals(5000, view.getSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLocation() {
+		new PagedMemory(100).getLocation(100);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testEmptyInt() {
+		new PagedMemory(100).getInt(5);
+	}
+}
@@ -0,0 +1,85 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class RegistersImplTests {
+
+	@Test
+	public void testIntegerLane() {
+		RegistersImpl registers = new RegistersImpl(16);
+
+		registers.setInt(3, 42);
+
+		assertTrue(registers.isInt(3));
+		assertEquals(42, registers.getInt(3));
+		assertEquals(Integer.valueOf(42), registers.getRegisterValue(3));
+	}
+
+	@Test
+	public void testBoxedIntegerGoesToIntegerLane() {
+		RegistersImpl registers = new RegistersImpl(16);
+
+		registers.setRegisterValue(5, Integer.valueOf(-7));
+
+		assertTrue(registers.isInt(5));
+		assertEquals(-7, registers.getInt(5));
+	}
+
+	@Test
+	public void testReferenceLane() {
+		RegistersImpl registers = new RegistersImpl(16);
+
+		registers.setInt(2, 1);
+		registers.setRegisterValue(2, "Đava");
+
+		assertFalse(registers.isInt(2));
+		assertEquals("Đava", registers.getRegisterValue(2));
+
+		registers.setInt(2, 10);
+		assertEquals(Integer.valueOf(10), registers.getRegisterValue(2));
+	}
+
+	@Test
+	public void testUnsetRegister() {
+		RegistersImpl registers = new RegistersImpl(16);
+
+		assertFalse(registers.isInt(0));
+		assertNull(registers.getRegisterValue(0));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetIntFromString() {
+		RegistersImpl registers = new RegistersImpl(16);
+
+		registers.setRegisterValue(7, "kukumar");
+		registers.getInt(7);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidIndex() {
+		new RegistersImpl(16).getInt(16);
+	}
+
+	@Test
+	public void testUncheckedViewSharesValues() {
+		RegistersImpl registers = new RegistersImpl(16);
+		IntRegisters view = registers.unchecked();
+
+		view.setInt(2, 5);
+		registers.setRegisterValue(3, "kukumar");
+		view.setProgramCounter(10);
+		view.setFlag(true);
+
+		assertEquals(5, registers.getInt(2));
+		assertEquals("kukumar", view.getRegisterValue(3));
+		assertEquals(10, registers.getProgramCounter());
+		assertTrue(registers.getFlag());
+		assertEquals(16, view.getSize());
+	}
+}
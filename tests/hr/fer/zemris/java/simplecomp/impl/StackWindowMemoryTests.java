@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.StackWindowExecutionUnit;
+
+@SuppressWarnings("javadoc")
+public class StackWindowMemoryTests {
+
+	@Test
+	public void testWindowIsCopiedAndFlushed() {
+		MemoryImpl memory = new MemoryImpl(16);
+		memory.setInt(14, 7);
+		memory.setLocation(15, "kukumar");
+		memory.setInt(2, 3);
+
+		StackWindowMemory window = new StackWindowMemory(memory, 15, 4);
+
+		assertEquals(7, window.getInt(14));
+		assertEquals("kukumar", window.getLocation(15));
+		assertFalse(window.isInt(15));
+		assertNull(window.getLocation(12));
+
+		window.setInt(15, 1);
+		window.setLocation(13, "Đava");
+		window.setInt(2, 4);
+
+		assertEquals("kukumar", memory.getLocation(15));
+		assertEquals(4, memory.getInt(2));
+
+		window.flush();
+
+		assertEquals(1, memory.getInt(15));
+		assertEquals("Đava", memory.getLocation(13));
+		assertEquals(7, memory.getInt(14));
+		assertNull(memory.getLocation(12));
+	}
+
+	@Test
+	public void testWindowStopsAtZero() {
+		MemoryImpl memory = new MemoryImpl(16);
+		StackWindowMemory window = new StackWindowMemory(memory, 3, 100);
+
+		window.setInt(0, 5);
+		window.flush();
+
+		assertEquals(5, memory.getInt(0));
+		assertEquals(16, window.getSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLocationOutsideOfWindow() {
+		new StackWindowMemory(new MemoryImpl(16), 15, 4).getLocation(16);
+	}
+
+	@Test
+	public void testExecutionIsObservablyTheSame() throws Exception {
+		for (String name : ExamplePrograms.NAMES) {
+			assertEquals(name,
+					ExamplePrograms.run(name, new ExecutionUnitImpl()),
+					ExamplePrograms.run(name, new StackWindowExecutionUnit()));
+		}
+	}
+}
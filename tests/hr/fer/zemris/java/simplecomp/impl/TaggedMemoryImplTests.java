@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.simplecomp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class TaggedMemoryImplTests {
+
+	@Test
+	public void testIntegers() {
+		TaggedMemoryImpl memory = new TaggedMemoryImpl(10);
+
+		memory.setInt(4, 1234);
+		memory.setLocation(5, Integer.valueOf(-5));
+
+		assertTrue(memory.isInt(4));
+		assertTrue(memory.isInt(5));
+		assertEquals(1234, memory.getInt(4));
+		assertEquals(Integer.valueOf(-5), memory.getLocation(5));
+	}
+
+	@Test
+	public void testReferences() {
+		TaggedMemoryImpl memory = new TaggedMemoryImpl(10);
+		Object instruction = new Object();
+
+		memory.setLocation(0, instruction);
+		memory.setLocation(1, "Đava");
+
+		assertFalse(memory.isInt(0));
+		assertSame(instruction, memory.getLocation(0));
+		assertEquals("Đava", memory.getLocation(1));
+	}
+
+	@Test
+	public void testOverwrite() {
+		TaggedMemoryImpl memory = new TaggedMemoryImpl(10);
+
+		memory.setLocation(3, "kukumar");
+		memory.setInt(3, 7);
+		assertEquals(Integer.valueOf(7), memory.getLocation(3));
+
+		memory.setLocation(3, null);
+		assertFalse(memory.isInt(3));
+		assertNull(memory.getLocation(3));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void testGetIntFromString() {
+		TaggedMemoryImpl memory = new TaggedMemoryImpl(10);
+
+		memory.setLocation(2, "Đava");
+		memory.getInt(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidLocation() {
+		new TaggedMemoryImpl(10).setInt(10, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSize() {
+		new TaggedMemoryImpl(0);
+	}
+}
@@ -0,0 +1,191 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.indirect;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.models.Registers;
+
+@SuppressWarnings("javadoc")
+public class InstructionFusionTests {
+
+	@Test
+	public void testFusions() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(1))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(2))));
+		memory.setLocation(2, new InstrPush(args(register(0))));
+		memory.setLocation(3, new InstrPush(args(register(1))));
+		memory.setLocation(4, new InstrCall(args(number(12))));
+		memory.setLocation(5, new InstrIncrement(args(register(15))));
+		memory.setLocation(6, new InstrIncrement(args(register(15))));
+		memory.setLocation(7,
+				new InstrTestEquals(args(register(2), register(3))));
+		memory.setLocation(8, new InstrJumpIfTrue(args(number(10))));
+		memory.setLocation(9, new InstrHalt(args()));
+		memory.setLocation(10, new InstrMove(args(register(5), number(1))));
+		memory.setLocation(11, new InstrHalt(args()));
+		memory.setLocation(12,
+				new InstrMove(args(register(2), indirect(15, 2))));
+		memory.setLocation(13,
+				new InstrMove(args(register(4), indirect(15, 3))));
+		memory.setLocation(14,
+				new InstrAdd(args(register(2), register(2), register(4))));
+		memory.setLocation(15, new InstrRet(args()));
+		computer.getRegisters().setRegisterValue(3, 3);
+		computer.getRegisters().setRegisterValue(15, 31);
+
+		assertEquals(5, InstructionFusion.fuse((IntMemory) memory));
+		assertTrue(memory.getLocation(2) instanceof InstrPushMultiple);
+		assertTrue(memory.getLocation(7) instanceof InstrCompareAndBranch);
+		assertTrue(memory.getLocation(12) instanceof InstrMoveFromStack);
+		assertTrue(memory.getLocation(13) instanceof InstrMoveFromStack);
+		assertTrue(memory.getLocation(15) instanceof InstrRetWithCleanup);
+
+		new ExecutionUnitImpl().go(computer);
+
+		Registers registers = computer.getRegisters();
+		assertEquals(3, registers.getRegisterValue(2));
+		assertEquals(1, registers.getRegisterValue(5));
+		assertEquals(31, registers.getRegisterValue(15));
+	}
+
+	@Test
+	public void testJumpIntoCompareAndBranch() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0,
+				new InstrTestEquals(args(register(0), register(0))));
+		memory.setLocation(1, new InstrJump(args(number(3))));
+		memory.setLocation(2,
+				new InstrTestEquals(args(register(0), register(1))));
+		memory.setLocation(3, new InstrJumpIfTrue(args(number(6))));
+		memory.setLocation(4, new InstrMove(args(register(2), number(1))));
+		memory.setLocation(5, new InstrHalt(args()));
+		memory.setLocation(6, new InstrMove(args(register(2), number(2))));
+		memory.setLocation(7, new InstrHalt(args()));
+		computer.getRegisters().setRegisterValue(0, 1);
+		computer.getRegisters().setRegisterValue(1, 2);
+
+		assertEquals(1, InstructionFusion.fuse((IntMemory) memory));
+		assertTrue(memory.getLocation(2) instanceof InstrCompareAndBranch);
+		assertTrue(memory.getLocation(3) instanceof InstrJumpIfTrue);
+
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(2, computer.getRegisters().getRegisterValue(2));
+	}
+
+	@Test
+	public void testJumpIntoPushRun() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrJump(args(number(2))));
+		memory.setLocation(1, new InstrPush(args(register(0))));
+		memory.setLocation(2, new InstrPush(args(register(1))));
+		memory.setLocation(3, new InstrPush(args(register(2))));
+		memory.setLocation(4, new InstrHalt(args()));
+		Registers registers = computer.getRegisters();
+		registers.setRegisterValue(0, 10);
+		registers.setRegisterValue(1, 11);
+		registers.setRegisterValue(2, 12);
+		registers.setRegisterValue(15, 31);
+
+		assertEquals(1, InstructionFusion.fuse((IntMemory) memory));
+		assertTrue(memory.getLocation(1) instanceof InstrPushMultiple);
+		assertTrue(memory.getLocation(2) instanceof InstrPush);
+
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(11, memory.getLocation(31));
+		assertEquals(12, memory.getLocation(30));
+		assertEquals(29, registers.getRegisterValue(15));
+	}
+
+	@Test
+	public void testRunsWithStackRegister() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrPush(args(register(0))));
+		memory.setLocation(1, new InstrPush(args(register(15))));
+		memory.setLocation(2, new InstrPush(args(register(1))));
+		memory.setLocation(3, new InstrPop(args(register(2))));
+		memory.setLocation(4, new InstrPop(args(register(15))));
+		memory.setLocation(5, new InstrPop(args(register(3))));
+		memory.setLocation(6, new InstrHalt(args()));
+		Registers registers = computer.getRegisters();
+		registers.setRegisterValue(0, 10);
+		registers.setRegisterValue(1, 11);
+		registers.setRegisterValue(15, 31);
+
+		assertEquals(2, InstructionFusion.fuse((IntMemory) memory));
+		assertTrue(memory.getLocation(0) instanceof InstrPushMultiple);
+		assertTrue(memory.getLocation(3) instanceof InstrPopMultiple);
+
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(10, memory.getLocation(31));
+		assertEquals(30, memory.getLocation(30));
+		assertEquals(11, memory.getLocation(29));
+		assertEquals(11, registers.getRegisterValue(2));
+		assertEquals(10, registers.getRegisterValue(3));
+		assertEquals(31, registers.getRegisterValue(15));
+	}
+
+	@Test
+	public void testRetSkipsOnlyCleanup() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrPush(args(register(0))));
+		memory.setLocation(1, new InstrPush(args(register(0))));
+		memory.setLocation(2, new InstrCall(args(number(10))));
+		memory.setLocation(3, new InstrIncrement(args(register(15))));
+		memory.setLocation(4, new InstrIncrement(args(register(15))));
+		memory.setLocation(5, new InstrIncrement(args(register(1))));
+		memory.setLocation(6, new InstrCall(args(number(10))));
+		memory.setLocation(7, new InstrMove(args(register(2), number(5))));
+		memory.setLocation(8, new InstrHalt(args()));
+		memory.setLocation(10, new InstrIncrement(args(register(3))));
+		memory.setLocation(11, new InstrRet(args()));
+		Registers registers = computer.getRegisters();
+		registers.setRegisterValue(0, 0);
+		registers.setRegisterValue(1, 0);
+		registers.setRegisterValue(3, 0);
+		registers.setRegisterValue(15, 31);
+
+		assertEquals(2, InstructionFusion.fuse((IntMemory) memory));
+		Instruction ret = (Instruction) memory.getLocation(11);
+		assertTrue(ret instanceof InstrRetWithCleanup);
+
+		registers.setRegisterValue(15, 20);
+		memory.setLocation(21, 3);
+		ret.execute(computer);
+		assertEquals(5, registers.getProgramCounter());
+		assertEquals(23, registers.getRegisterValue(15));
+
+		registers.setRegisterValue(15, 20);
+		memory.setLocation(21, 7);
+		ret.execute(computer);
+		assertEquals(7, registers.getProgramCounter());
+		assertEquals(21, registers.getRegisterValue(15));
+
+		registers.setRegisterValue(15, 31);
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(1, registers.getRegisterValue(1));
+		assertEquals(5, registers.getRegisterValue(2));
+		assertEquals(2, registers.getRegisterValue(3));
+		assertEquals(31, registers.getRegisterValue(15));
+	}
+}
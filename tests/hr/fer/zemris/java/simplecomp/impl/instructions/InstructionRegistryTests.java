@@ -0,0 +1,79 @@
+package hr.fer.zemris.java.simplecomp.impl.instructions;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+
+@SuppressWarnings("javadoc")
+public class InstructionRegistryTests {
+
+	@Test
+	public void testKnownMnemonics() {
+		InstructionRegistry registry = new InstructionRegistry();
+
+		assertTrue(registry.getInstruction("halt",
+				args()) instanceof InstrHalt);
+		assertTrue(registry.getInstruction("move",
+				args(register(0), number(1))) instanceof InstrMove);
+		assertTrue(registry.getInstruction("jumpIfTrue",
+				args(number(3))) instanceof InstrJumpIfTrue);
+		assertTrue(registry.getInstruction("add", args(register(0),
+				register(1), register(2))) instanceof InstrAdd);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownMnemonic() {
+		new InstructionRegistry().getInstruction("nop", args());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMnemonicIsCaseSensitive() {
+		new InstructionRegistry().getInstruction("HALT", args());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidArgumentsOfKnownMnemonic() {
+		new InstructionRegistry().getInstruction("halt", args(number(1)));
+	}
+
+	@Test
+	public void testRegisteredInstruction() {
+		InstructionRegistry registry = new InstructionRegistry();
+		Instruction nop = computer -> false;
+		registry.register("nop", arguments -> nop);
+
+		assertSame(nop, registry.getInstruction("nop", args()));
+	}
+
+	@Test
+	public void testDuplicateRegistrationReplacesFactory() {
+		InstructionRegistry registry = new InstructionRegistry();
+		Instruction first = computer -> false;
+		Instruction second = computer -> true;
+
+		registry.register("nop", arguments -> first);
+		registry.register("nop", arguments -> second);
+		assertSame(second, registry.getInstruction("nop", args()));
+
+		registry.register("halt", arguments -> first);
+		assertSame(first, registry.getInstruction("halt", args()));
+		assertTrue(new InstructionRegistry().getInstruction("halt",
+				args()) instanceof InstrHalt);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullFactory() {
+		new InstructionRegistry().register("nop", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullMnemonic() {
+		new InstructionRegistry().register(null, arguments -> null);
+	}
+}
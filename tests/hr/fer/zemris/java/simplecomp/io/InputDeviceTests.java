@@ -0,0 +1,121 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+
+@SuppressWarnings("javadoc")
+public class InputDeviceTests {
+
+	@Test
+	public void testMemoryInputDeviceFeedsIinput() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		MemoryInputDevice input = new MemoryInputDevice("7\nsedam\n-3\n");
+		computer.setInputDevice(input);
+		InstrIinput iinput = new InstrIinput(args(number(10)));
+		assertEquals(3, input.getRemaining());
+
+		iinput.execute(computer);
+		assertTrue(computer.getRegisters().getFlag());
+		assertEquals(7, computer.getMemory().getLocation(10));
+
+		iinput.execute(computer);
+		assertFalse(computer.getRegisters().getFlag());
+		assertEquals(7, computer.getMemory().getLocation(10));
+
+		iinput.execute(computer);
+		assertTrue(computer.getRegisters().getFlag());
+		assertEquals(-3, computer.getMemory().getLocation(10));
+		assertEquals(0, input.getRemaining());
+
+		iinput.execute(computer);
+		assertFalse(computer.getRegisters().getFlag());
+		assertEquals(-3, computer.getMemory().getLocation(10));
+	}
+
+	@Test
+	public void testMemoryInputDeviceLines() {
+		MemoryInputDevice input = new MemoryInputDevice(
+				Arrays.asList("1", "", "3"));
+
+		assertTrue(input.isReady());
+		assertEquals("1", input.readLine());
+		assertEquals("", input.readLine());
+		assertEquals("3", input.readLine());
+		assertNull(input.readLine());
+		assertNull(input.readLine());
+	}
+
+	@Test
+	public void testMemoryInputDeviceLineSeparators() {
+		MemoryInputDevice input = new MemoryInputDevice("1\r\n2\r3");
+
+		assertEquals("1", input.readLine());
+		assertEquals("2", input.readLine());
+		assertEquals("3", input.readLine());
+		assertNull(input.readLine());
+	}
+
+	@Test
+	public void testReaderInputDevice() throws Exception {
+		try (ReaderInputDevice input = new ReaderInputDevice(
+				new BufferedReader(new StringReader("5\n6")))) {
+			assertEquals("5", input.readLine());
+			assertEquals("6", input.readLine());
+			assertNull(input.readLine());
+		}
+	}
+
+	@Test
+	public void testFileInputDevice() throws Exception {
+		Path file = Files.createTempFile("simplecomp", ".txt");
+		try {
+			Files.write(file, Arrays.asList("12", "\u0161est"),
+					StandardCharsets.UTF_8);
+			try (FileInputDevice input = new FileInputDevice(file)) {
+				assertEquals("12", input.readLine());
+				assertEquals("\u0161est", input.readLine());
+				assertNull(input.readLine());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testStandardInputDevice() throws Exception {
+		InputStream original = System.in;
+		try {
+			System.setIn(new ByteArrayInputStream(
+					"8\n9\n".getBytes(StandardCharsets.UTF_8)));
+			StandardInputDevice input = new StandardInputDevice();
+			assertEquals("8", input.readLine());
+			assertEquals("9", new StandardInputDevice().readLine());
+			assertNull(input.readLine());
+		} finally {
+			System.setIn(original);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullReader() {
+		new ReaderInputDevice(null);
+	}
+}
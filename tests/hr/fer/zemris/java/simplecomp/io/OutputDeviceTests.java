@@ -0,0 +1,136 @@
+package hr.fer.zemris.java.simplecomp.io;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class OutputDeviceTests {
+
+	@Test
+	public void testBufferIsWrittenWhenFull() {
+		RecordingDevice device = new RecordingDevice(4);
+
+		device.print("ab");
+		assertEquals(0, device.writes.size());
+		device.print("cd");
+		assertEquals(Arrays.asList("abcd"), device.writes);
+		device.print("e");
+		device.flush();
+		device.flush();
+		assertEquals(Arrays.asList("abcd", "e"), device.writes);
+
+		device.print("f");
+		device.close();
+		assertEquals(Arrays.asList("abcd", "e", "f"), device.writes);
+	}
+
+	@Test
+	public void testHaltFlushesOutput() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		RecordingDevice device = new RecordingDevice(1024);
+		computer.setOutputDevice(device);
+		computer.getRegisters().setRegisterValue(0, "kukumar");
+
+		new InstrEcho(args(register(0))).execute(computer);
+		assertEquals(0, device.writes.size());
+
+		new InstrHalt(args()).execute(computer);
+		assertEquals(Arrays.asList("kukumar"), device.writes);
+	}
+
+	@Test
+	public void testIinputFlushesOutputBeforeReading() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		RecordingDevice device = new RecordingDevice(1024);
+		List<String> writtenBeforeInput = new ArrayList<>();
+		computer.setOutputDevice(device);
+		computer.setInputDevice(() -> {
+			writtenBeforeInput.addAll(device.writes);
+			return "42";
+		});
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrEcho(args(register(0))));
+		memory.setLocation(1, new InstrIinput(args(number(10))));
+		memory.setLocation(2, new InstrEcho(args(register(0))));
+		memory.setLocation(3, new InstrHalt(args()));
+		computer.getRegisters().setRegisterValue(0, "Unesi broj: ");
+
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(Arrays.asList("Unesi broj: "), writtenBeforeInput);
+		assertEquals(Arrays.asList("Unesi broj: ", "Unesi broj: "),
+				device.writes);
+		assertEquals(42, memory.getLocation(10));
+	}
+
+	@Test
+	public void testMemoryOutputDevice() {
+		MemoryOutputDevice device = new MemoryOutputDevice();
+
+		device.print("prvi ");
+		device.print("drugi");
+		assertEquals("prvi drugi", device.getText());
+
+		device.clear();
+		device.print("treci");
+		assertEquals("treci", device.getText());
+	}
+
+	@Test
+	public void testFileOutputDevice() throws Exception {
+		Path file = Files.createTempFile("simplecomp", ".txt");
+		try {
+			FileOutputDevice device = new FileOutputDevice(file, 4);
+			device.print("\u0161um");
+			assertEquals("", read(file));
+			device.print("ica");
+			assertEquals("\u0161umica", read(file));
+			device.print("!");
+			device.close();
+
+			assertEquals("\u0161umica!", read(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new RecordingDevice(0);
+	}
+
+	private static String read(Path file) throws Exception {
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	private static class RecordingDevice extends BufferedOutputDevice {
+		private final List<String> writes = new ArrayList<>();
+
+		RecordingDevice(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		protected void write(String text) {
+			writes.add(text);
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.simplecomp.machine;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.RegisterUtil;
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.IntRegisters;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+
+@SuppressWarnings("javadoc")
+public class MachineExecutionUnitTests {
+
+	@Test
+	public void testWordFields() {
+		int descriptor = 1 << 24 | (-2 & 0xFFFF) << 8 | 15;
+		long word = InstructionWord.encode(InstructionWord.MOVE, descriptor,
+				-5);
+
+		assertEquals(InstructionWord.MOVE, InstructionWord.getOperation(word));
+		assertEquals(descriptor, InstructionWord.getDescriptor(word));
+		assertEquals(-5, InstructionWord.getImmediate(word));
+		assertTrue(RegisterUtil
+				.isIndirect(InstructionWord.getDescriptor(word)));
+		assertEquals(-2, RegisterUtil
+				.getRegisterOffset(InstructionWord.getDescriptor(word)));
+		assertEquals(0, InstructionWord.getOperation(0L));
+	}
+
+	@Test
+	public void testSubroutine() {
+		ComputerImpl computer = TestPrograms
+				.subroutine(new InstrMove(args(register(0), register(1))));
+
+		new MachineExecutionUnit().go(computer);
+
+		assertEquals(42, computer.getRegisters().getRegisterValue(0));
+		assertEquals(42, computer.getRegisters().getRegisterValue(2));
+		assertEquals(31, computer.getRegisters().getRegisterValue(15));
+		assertEquals(7, computer.getRegisters().getProgramCounter());
+	}
+
+	@Test
+	public void testGeneratedCode() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		MachineProgram program = new MachineProgram(8, false);
+		program.setWord(0,
+				InstructionWord.encode(InstructionWord.MOVE_CONSTANT, 0, 5));
+		program.setWord(1,
+				InstructionWord.encode(InstructionWord.MOVE_CONSTANT, 2, 0));
+		program.setWord(2, InstructionWord.encode(InstructionWord.ADD, 1,
+				InstructionWord.registers(1, 0)));
+		program.setWord(3,
+				InstructionWord.encode(InstructionWord.DECREMENT, 0, 0));
+		program.setWord(4,
+				InstructionWord.encode(InstructionWord.TEST_EQUALS, 0, 2));
+		program.setWord(5,
+				InstructionWord.encode(InstructionWord.JUMP_IF_TRUE, 0, 7));
+		program.setWord(6, InstructionWord.encode(InstructionWord.JUMP, 0, 2));
+		program.setWord(7, InstructionWord.encode(InstructionWord.HALT, 0, 0));
+		computer.getRegisters().setRegisterValue(1, 0);
+
+		MachineExecutionUnit.execute(computer, program,
+				(IntRegisters) computer.getRegisters(),
+				(IntMemory) computer.getMemory());
+
+		assertEquals(15, computer.getRegisters().getRegisterValue(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownInstruction() {
+		new MachineProgram(4, false).setWord(0,
+				InstructionWord.encode(InstructionWord.EXECUTE, 0, 0));
+	}
+
+	@Test
+	public void testExamplesMatchInterpreter() throws Exception {
+		for (String name : ExamplePrograms.NAMES) {
+			assertEquals(name,
+					ExamplePrograms.run(name, new ExecutionUnitImpl()),
+					ExamplePrograms.run(name, new MachineExecutionUnit()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testJumpToNegativeAddress() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrJump(args(number(-1))));
+
+		new MachineExecutionUnit().go(computer);
+	}
+}
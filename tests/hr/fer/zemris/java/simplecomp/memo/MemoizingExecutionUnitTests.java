@@ -0,0 +1,116 @@
+package hr.fer.zemris.java.simplecomp.memo;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.indirect;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.IntMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.io.MemoryOutputDevice;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class MemoizingExecutionUnitTests {
+
+	@Test
+	public void testRepeatedCallIsCached() {
+		ComputerImpl computer = TestPrograms.subroutine(
+				new InstrMove(args(register(0), register(1))));
+
+		Map<Integer, PureRoutine> routines = PurityAnalysis
+				.analyze((IntMemory) computer.getMemory(), 16);
+		assertEquals(1, routines.size());
+		assertEquals(1, routines.get(10).getArguments());
+		assertTrue(routines.get(10).writesResult());
+		assertFalse(routines.get(10).writesFlag());
+
+		MemoizingExecutionUnit unit = new MemoizingExecutionUnit();
+		unit.go(computer);
+
+		assertEquals(42, computer.getRegisters().getRegisterValue(2));
+		assertEquals(42, computer.getRegisters().getRegisterValue(0));
+		assertEquals(31, computer.getRegisters().getRegisterValue(15));
+		assertEquals(1, unit.getHits());
+		assertEquals(1, unit.getMisses());
+		assertEquals(1, unit.getCachedResults());
+	}
+
+	@Test
+	public void testRoutineWithOutputIsNotCached() {
+		ComputerImpl computer = TestPrograms.subroutine(new InstrEcho(args(register(1))));
+		MemoryOutputDevice output = new MemoryOutputDevice();
+		computer.setOutputDevice(output);
+
+		assertTrue(PurityAnalysis
+				.analyze((IntMemory) computer.getMemory(), 16).isEmpty());
+
+		MemoizingExecutionUnit unit = new MemoizingExecutionUnit();
+		unit.go(computer);
+
+		assertEquals("4242", output.getText());
+		assertEquals(0, unit.getHits());
+		assertEquals(0, unit.getMisses());
+	}
+
+	@Test
+	public void testUnrestoredRegisterIsNotPure() {
+		ComputerImpl computer = TestPrograms.subroutine(
+				new InstrMove(args(register(3), register(1))));
+
+		assertTrue(PurityAnalysis
+				.analyze((IntMemory) computer.getMemory(), 16).isEmpty());
+	}
+
+	@Test
+	public void testStackWritesConstantData() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(5), number(100))));
+		memory.setLocation(1, new InstrCall(args(number(10))));
+		memory.setLocation(2, new InstrEcho(args(register(0))));
+		memory.setLocation(3,
+				new InstrMove(args(indirect(15, 1), register(5))));
+		memory.setLocation(4, new InstrCall(args(number(10))));
+		memory.setLocation(5, new InstrEcho(args(register(0))));
+		memory.setLocation(6, new InstrHalt(args()));
+		memory.setLocation(10, new InstrLoad(args(register(0), number(21))));
+		memory.setLocation(11, new InstrRet(args()));
+		// constant data just above the top of the stack
+		memory.setLocation(21, 1);
+		computer.getRegisters().setRegisterValue(15, 20);
+		MemoryOutputDevice output = new MemoryOutputDevice();
+		computer.setOutputDevice(output);
+
+		PureRoutine routine = PurityAnalysis
+				.analyze((IntMemory) computer.getMemory(), 16).get(10);
+		assertEquals(21, routine.getLowestConstant());
+		assertEquals(21, routine.getHighestConstant());
+
+		MemoizingExecutionUnit unit = new MemoizingExecutionUnit();
+		unit.go(computer);
+
+		assertEquals("1100", output.getText());
+		assertEquals(0, unit.getHits());
+		assertEquals(1, unit.getMisses());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new MemoizingExecutionUnit(0);
+	}
+}
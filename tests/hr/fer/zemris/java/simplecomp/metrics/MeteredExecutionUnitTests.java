@@ -0,0 +1,91 @@
+package hr.fer.zemris.java.simplecomp.metrics;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrEcho;
+import hr.fer.zemris.java.simplecomp.io.MemoryOutputDevice;
+
+@SuppressWarnings("javadoc")
+public class MeteredExecutionUnitTests {
+
+	@Test
+	public void testMetrics() {
+		ComputerMetrics aggregate = new ComputerMetrics();
+		ComputerMetrics metrics = new ComputerMetrics(aggregate);
+		ComputerImpl computer = program();
+		MemoryOutputDevice output = new MemoryOutputDevice();
+		computer.setOutputDevice(output);
+
+		new MeteredExecutionUnit(metrics).go(computer);
+
+		assertEquals("4242", output.getText());
+		assertSame(output, computer.getOutputDevice());
+		assertEquals(19, metrics.getInstructionsRetired());
+		assertEquals(4, metrics.getEchoBytes());
+		assertEquals(3, metrics.getMaxStackDepth());
+		assertEquals(0, metrics.getCurrentStackDepth());
+		assertTrue(metrics.getInstructionsPerSecond() > 0);
+
+		Map<String, Long> counts = metrics.getOpcodeCounts();
+		assertEquals(Long.valueOf(2), counts.get("echo"));
+		assertEquals(Long.valueOf(2), counts.get("call"));
+		assertEquals(Long.valueOf(0), counts.get(ComputerMetrics.OTHER));
+
+		ComputerMetrics other = new ComputerMetrics(aggregate);
+		new MeteredExecutionUnit(other).go(program());
+		assertEquals(19, other.getInstructionsRetired());
+		assertEquals(38, aggregate.getInstructionsRetired());
+	}
+
+	@Test
+	public void testJmxRegistry() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		MetricsRegistry registry = new JmxMetricsRegistry(server);
+		ComputerMetrics metrics = new ComputerMetrics();
+		new MeteredExecutionUnit(metrics).go(program());
+
+		registry.register("test", metrics);
+		try {
+			assertEquals(19L, server.getAttribute(
+					JmxMetricsRegistry.getObjectName("test"),
+					"InstructionsRetired"));
+		} finally {
+			registry.unregister("test");
+		}
+		assertFalse(
+				server.isRegistered(JmxMetricsRegistry.getObjectName("test")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateName() {
+		MetricsRegistry registry = new JmxMetricsRegistry();
+		registry.register("duplicate", new ComputerMetrics());
+		try {
+			registry.register("duplicate", new ComputerMetrics());
+		} finally {
+			registry.unregister("duplicate");
+		}
+	}
+
+	// Prints the doubled argument from the subroutine on both calls
+	private static ComputerImpl program() {
+		ComputerImpl computer = TestPrograms
+				.subroutine(new InstrEcho(args(register(1))));
+		computer.setOutputDevice(new MemoryOutputDevice());
+		return computer;
+	}
+}
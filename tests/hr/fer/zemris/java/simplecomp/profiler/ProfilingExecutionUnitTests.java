@@ -0,0 +1,147 @@
+package hr.fer.zemris.java.simplecomp.profiler;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Computer;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+
+@SuppressWarnings("javadoc")
+public class ProfilingExecutionUnitTests {
+
+	@Test
+	public void testLargeMemory() {
+		Computer computer = new ComputerImpl(
+				new PagedMemory(Integer.MAX_VALUE), 16);
+		computer.getMemory().setLocation(0,
+				new InstrMove(args(register(0), number(2))));
+		computer.getMemory().setLocation(1,
+				new InstrDecrement(args(register(0))));
+		computer.getMemory().setLocation(2,
+				new InstrTestEquals(args(register(0), register(1))));
+		computer.getMemory().setLocation(3,
+				new InstrJumpIfTrue(args(number(5))));
+		computer.getMemory().setLocation(4, new InstrJump(args(number(1))));
+		computer.getMemory().setLocation(5, new InstrHalt(args()));
+		computer.getRegisters().setRegisterValue(1, 0);
+
+		ProfilingExecutionUnit unit = new ProfilingExecutionUnit();
+		unit.go(computer);
+		ExecutionProfile profile = unit.getProfile();
+
+		assertEquals(9, profile.getExecuted());
+		assertEquals(2, profile.getCount(1));
+		assertEquals(0, profile.getCount(Integer.MAX_VALUE - 1));
+	}
+
+	@Test
+	public void testLoop() {
+		Computer computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrMove(args(register(1), number(0))));
+		computer.getMemory().setLocation(1,
+				new InstrMove(args(register(0), number(3))));
+		computer.getMemory().setLocation(2,
+				new InstrDecrement(args(register(0))));
+		computer.getMemory().setLocation(3,
+				new InstrTestEquals(args(register(0), register(1))));
+		computer.getMemory().setLocation(4,
+				new InstrJumpIfTrue(args(number(6))));
+		computer.getMemory().setLocation(5, new InstrJump(args(number(2))));
+		Instruction halt = new InstrHalt(args());
+		computer.getMemory().setLocation(6, halt);
+
+		ProfilingExecutionUnit unit = new ProfilingExecutionUnit();
+		unit.go(computer);
+		ExecutionProfile profile = unit.getProfile();
+
+		assertEquals(14, profile.getExecuted());
+		assertEquals(1, profile.getCount(0));
+		assertEquals(3, profile.getCount(2));
+		assertEquals(3, profile.getCount(4));
+		assertEquals(2, profile.getCount(5));
+		assertEquals(Long.valueOf(3),
+				profile.getInstructionCounts().get("InstrDecrement"));
+
+		assertEquals(1, profile.getHotLoops().size());
+		assertEquals(2, profile.getHotLoops().get(0).getHeader());
+		assertEquals(5, profile.getHotLoops().get(0).getEnd());
+		assertEquals(2, profile.getHotLoops().get(0).getIterations());
+
+		assertSame(halt, computer.getMemory().getLocation(6));
+	}
+
+	@Test
+	public void testCalls() {
+		Computer computer = new ComputerImpl(32, 16);
+		computer.getRegisters().setRegisterValue(15, 31);
+		computer.getMemory().setLocation(0, new InstrCall(args(number(2))));
+		computer.getMemory().setLocation(1, new InstrHalt(args()));
+		computer.getMemory().setLocation(2,
+				new InstrMove(args(register(0), number(5))));
+		computer.getMemory().setLocation(3, new InstrRet(args()));
+
+		ProfilingExecutionUnit unit = new ProfilingExecutionUnit(
+				new ExecutionUnitImpl(), Collections.singletonMap(2,
+						Collections.singletonList("sub")));
+		unit.go(computer);
+		ExecutionProfile profile = unit.getProfile();
+
+		assertEquals(4, profile.getExecuted());
+		assertEquals(1, profile.getCalls(2));
+		assertEquals(2, profile.getInclusive(2));
+		assertEquals(2, profile.getExclusive(2));
+		assertEquals(4, profile.getInclusive(0));
+		assertEquals(2, profile.getExclusive(0));
+		assertEquals("@0 2\n@0;@sub 2\n", profile.toFoldedStacks());
+	}
+
+	@Test
+	public void testSourceLabels() {
+		Map<Integer, List<String>> labels = SourceLabels.read(Arrays.asList(
+				"# komentar", "@start:\tload r0, @broj ; @ne:",
+				"\t\techo \"@isto; ne\"", "@broj:\tDEFINT 5", "RESERVE:10",
+				"@stackTop:\tRESERVE", "@kraj:\thalt"));
+
+		assertEquals(Arrays.asList("start"), labels.get(0));
+		assertEquals(Arrays.asList("broj"), labels.get(2));
+		assertEquals(Arrays.asList("stackTop"), labels.get(13));
+		assertEquals(Arrays.asList("kraj"), labels.get(14));
+		assertEquals(4, labels.size());
+	}
+
+	@Test
+	public void testLabelsOfSameAddress() {
+		Map<Integer, List<String>> labels = SourceLabels.read(Arrays.asList(
+				"@prvi:", "@drugi:\t; komentar", "@treci:\thalt",
+				"@kraj:\thalt"));
+
+		assertEquals(Arrays.asList("prvi", "drugi", "treci"), labels.get(0));
+		assertEquals(Arrays.asList("kraj"), labels.get(1));
+
+		ExecutionProfile profile = new ExecutionProfile(2, labels);
+		assertEquals("@prvi", profile.getName(0));
+		assertEquals("@kraj", profile.getName(1));
+	}
+}
@@ -0,0 +1,144 @@
+package hr.fer.zemris.java.simplecomp.scheduler;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+
+@SuppressWarnings("javadoc")
+public class GuestSchedulerTests {
+
+	@Test(timeout = 5000)
+	public void testGuestHalts() throws Exception {
+		try (GuestScheduler scheduler = new GuestScheduler(2, 10)) {
+			Guest guest = scheduler.submit(counter(25));
+
+			assertSame(guest, guest.getCompletion().get(5, TimeUnit.SECONDS));
+			assertEquals(Guest.State.HALTED, guest.getState());
+			assertNull(guest.getError());
+			assertEquals(25, guest.getComputer().getRegisters()
+					.getRegisterValue(0));
+			assertEquals(101, guest.getExecutedInstructions());
+			assertEquals(11, guest.getQuanta());
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void testParkedGuestIsResumedByOffer() throws Exception {
+		try (GuestScheduler scheduler = new GuestScheduler(1, 10)) {
+			Guest guest = scheduler.submit(reader());
+
+			awaitParked(guest);
+			assertEquals(1, scheduler.getMetrics().getParkedGuests());
+			assertEquals(0, guest.getExecutedInstructions());
+
+			guest.offer("42");
+			guest.getCompletion().get(5, TimeUnit.SECONDS);
+
+			assertEquals(Guest.State.HALTED, guest.getState());
+			assertEquals(42, guest.getComputer().getRegisters()
+					.getRegisterValue(0));
+			assertTrue(guest.getComputer().getRegisters().getFlag());
+			assertEquals(0, scheduler.getMetrics().getParkedGuests());
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void testCloseInputResumesParkedGuest() throws Exception {
+		try (GuestScheduler scheduler = new GuestScheduler(1, 10)) {
+			Guest guest = scheduler.submit(reader());
+
+			awaitParked(guest);
+			guest.closeInput();
+			guest.getCompletion().get(5, TimeUnit.SECONDS);
+
+			assertEquals(Guest.State.HALTED, guest.getState());
+			assertFalse(guest.getComputer().getRegisters().getFlag());
+			assertEquals(0, scheduler.getMetrics().getParkedGuests());
+		}
+	}
+
+	@Test(timeout = 5000)
+	public void testMetrics() throws Exception {
+		try (GuestScheduler scheduler = new GuestScheduler(2, 10)) {
+			Guest first = scheduler.submit(counter(25));
+			Guest second = scheduler.submit(counter(5));
+			Guest reader = scheduler.submit(reader());
+
+			first.getCompletion().get(5, TimeUnit.SECONDS);
+			second.getCompletion().get(5, TimeUnit.SECONDS);
+			awaitParked(reader);
+
+			SchedulerMetrics metrics = scheduler.getMetrics();
+			assertEquals(1, metrics.getActiveGuests());
+			assertEquals(1, metrics.getParkedGuests());
+			assertEquals(2, metrics.getRetiredGuests());
+			assertEquals(first.getQuanta() + second.getQuanta()
+					+ reader.getQuanta(), metrics.getContextSwitches());
+			assertEquals(101 + 21, metrics.getExecutedInstructions());
+
+			reader.offer("1");
+			reader.getCompletion().get(5, TimeUnit.SECONDS);
+
+			metrics = scheduler.getMetrics();
+			assertEquals(0, metrics.getActiveGuests());
+			assertEquals(0, metrics.getParkedGuests());
+			assertEquals(3, metrics.getRetiredGuests());
+			assertEquals(101 + 21 + 3, metrics.getExecutedInstructions());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidQuantum() {
+		new GuestScheduler(1, 0);
+	}
+
+	private static ComputerImpl counter(int limit) {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrMove(args(register(1), number(limit))));
+		computer.getMemory().setLocation(1,
+				new InstrIncrement(args(register(0))));
+		computer.getMemory().setLocation(2,
+				new InstrTestEquals(args(register(0), register(1))));
+		computer.getMemory().setLocation(3,
+				new InstrJumpIfTrue(args(number(5))));
+		computer.getMemory().setLocation(4, new InstrJump(args(number(1))));
+		computer.getMemory().setLocation(5, new InstrHalt(args()));
+		computer.getRegisters().setRegisterValue(0, 0);
+		return computer;
+	}
+
+	private static ComputerImpl reader() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0, new InstrIinput(args(number(10))));
+		computer.getMemory().setLocation(1,
+				new InstrLoad(args(register(0), number(10))));
+		computer.getMemory().setLocation(2, new InstrHalt(args()));
+		return computer;
+	}
+
+	private static void awaitParked(Guest guest) throws InterruptedException {
+		while (guest.getState() != Guest.State.PARKED) {
+			Thread.sleep(1);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package hr.fer.zemris.java.simplecomp.threaded;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPop;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrRet;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class ThreadedExecutionUnitTests {
+
+	@Test
+	public void testSubroutine() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(5))));
+		memory.setLocation(1, new InstrPush(args(register(0))));
+		memory.setLocation(2, new InstrCall(args(number(6))));
+		memory.setLocation(3, new InstrPop(args(register(1))));
+		memory.setLocation(4, new InstrHalt(args()));
+		memory.setLocation(6, new InstrIncrement(args(register(0))));
+		memory.setLocation(7, new InstrRet(args()));
+		computer.getRegisters().setRegisterValue(15, 31);
+
+		assertTrue(new ThreadedExecutionUnit().go(computer));
+
+		assertEquals(6, computer.getRegisters().getRegisterValue(0));
+		assertEquals(5, computer.getRegisters().getRegisterValue(1));
+		assertEquals(31, computer.getRegisters().getRegisterValue(15));
+		assertEquals(5, computer.getRegisters().getProgramCounter());
+	}
+
+	@Test
+	public void testStrings() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrLoad(args(register(0), number(10))));
+		memory.setLocation(1, new InstrLoad(args(register(1), number(11))));
+		memory.setLocation(2,
+				new InstrTestEquals(args(register(0), register(1))));
+		memory.setLocation(3, new InstrMove(args(register(2), register(0))));
+		memory.setLocation(4, new InstrHalt(args()));
+		memory.setLocation(10, new String("kukumar"));
+		memory.setLocation(11, new String("kukumar"));
+
+		new ThreadedExecutionUnit().go(computer);
+
+		assertTrue(computer.getRegisters().getFlag());
+		assertEquals("kukumar", computer.getRegisters().getRegisterValue(2));
+	}
+
+	@Test
+	public void testExamplesMatchInterpreter() throws Exception {
+		for (String name : ExamplePrograms.NAMES) {
+			assertEquals(name,
+					ExamplePrograms.run(name, new ExecutionUnitImpl()),
+					ExamplePrograms.run(name, new ThreadedExecutionUnit()));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testJumpToNegativeAddress() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		computer.getMemory().setLocation(0,
+				new InstrJump(args(number(-1))));
+
+		new ThreadedExecutionUnit().go(computer);
+	}
+}
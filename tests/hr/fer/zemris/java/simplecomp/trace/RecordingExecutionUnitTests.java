@@ -0,0 +1,77 @@
+package hr.fer.zemris.java.simplecomp.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.instructions.Opcode;
+
+@SuppressWarnings("javadoc")
+public class RecordingExecutionUnitTests {
+
+	@Test
+	public void testTraceIsWrittenAndRead() throws IOException {
+		Path file = Files.createTempFile("simplecomp", ".sct");
+		try {
+			// Buffer of four records is filled many times by the loop
+			new RecordingExecutionUnit(file, 4).go(TestPrograms.sum(100));
+
+			TraceRecord record = new TraceRecord();
+			long records = 0;
+			try (TraceReader reader = new TraceReader(file)) {
+				while (reader.next(record)) {
+					assertEquals(records++, record.getIndex());
+
+					if (record.getIndex() == 0) {
+						assertEquals(Opcode.MOVE, record.getOpcode());
+						assertTrue(record.isRegisterWritten());
+						assertEquals(0, record.getRegister());
+						assertEquals(0, record.getRegisterValue());
+						assertEquals(31, record.getStack());
+						assertFalse(record.isMemoryWritten());
+					} else if (record.getAddress() == 7) {
+						assertEquals(Opcode.LOAD, record.getOpcode());
+						assertEquals(3, record.getRegister());
+						assertFalse(record.isRegisterInt());
+						assertTrue(record.getFlag());
+					} else if (record.getAddress() == 8) {
+						assertFalse(record.isRegisterWritten());
+						assertTrue(record.isMemoryWritten());
+						assertEquals(31, record.getLocation());
+						assertEquals(4950, record.getMemoryValue());
+						assertEquals(30, record.getStack());
+					}
+				}
+			}
+
+			assertEquals(Opcode.HALT, record.getOpcode());
+			assertEquals(504, records);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotATrace() throws IOException {
+		Path file = Files.createTempFile("simplecomp", ".sct");
+		try {
+			Files.write(file, "kukumar".getBytes("UTF-8"));
+			new TraceReader(file).close();
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new RecordingExecutionUnit(Paths.get("trace.sct"), 3);
+	}
+}
@@ -0,0 +1,75 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.indirect;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.PagedMemory;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIncrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class BoundsVerifierTests {
+
+	@Test
+	public void testInvalidOperandsAreReported() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(21))));
+		memory.setLocation(1,
+				new InstrAdd(args(register(0), register(0), register(0))));
+		memory.setLocation(2, new InstrHalt(args()));
+		memory.setLocation(3, new InstrJump(args(number(100))));
+		memory.setLocation(4, new InstrIncrement(args(register(20))));
+
+		assertEquals(Arrays.asList(
+				"Instruction at the address 3 jumps to the address 100, which is outside of the memory!",
+				"Instruction at the address 4 uses the register r20, but the computer has only 16 registers!"),
+				BoundsVerifier.verify(computer));
+
+		new ExecutionUnitImpl().go(computer);
+		assertEquals(42, computer.getRegisters().getRegisterValue(0));
+	}
+
+	@Test(timeout = 1000)
+	public void testOnlyProgramIsVerified() {
+		PagedMemory memory = new PagedMemory(Integer.MAX_VALUE);
+		ComputerImpl computer = new ComputerImpl(memory, 16);
+		memory.setLocation(0, new InstrHalt(args()));
+		int usedSize = memory.getUsedSize();
+
+		assertTrue(BoundsVerifier.verify(computer).isEmpty());
+		assertNull(BoundsVerifier.findViolation(memory, 1, 16));
+		assertEquals(usedSize, memory.getUsedSize());
+	}
+
+	@Test
+	public void testFirstViolationIsFound() {
+		PagedMemory memory = new PagedMemory(16);
+		memory.setLocation(0, new InstrPush(args(register(0))));
+		memory.setLocation(1,
+				new InstrMove(args(register(1), indirect(15, 1))));
+		memory.setLocation(2, new InstrJump(args(number(100))));
+		memory.setLocation(3, new InstrIncrement(args(register(20))));
+
+		assertNull(BoundsVerifier.findViolation(memory, 2, 16));
+		assertEquals(
+				"Instruction at the address 2 jumps to the address 100, which is outside of the memory!",
+				BoundsVerifier.findViolation(memory, 4, 16));
+	}
+}
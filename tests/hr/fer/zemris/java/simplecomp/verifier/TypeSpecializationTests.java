@@ -0,0 +1,106 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrDecrement;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntAddConstant;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJumpIfTrue;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMul;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.SpecializedInstruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+
+@SuppressWarnings("javadoc")
+public class TypeSpecializationTests {
+
+	@Test
+	public void testVerifiedProgramIsNotChecked() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(5))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(1))));
+		memory.setLocation(2, new InstrMove(args(register(2), number(0))));
+		memory.setLocation(3,
+				new InstrMul(args(register(1), register(1), register(0))));
+		memory.setLocation(4, new InstrDecrement(args(register(0))));
+		memory.setLocation(5,
+				new InstrTestEquals(args(register(0), register(2))));
+		memory.setLocation(6, new InstrJumpIfTrue(args(number(8))));
+		memory.setLocation(7, new InstrJump(args(number(3))));
+		memory.setLocation(8,
+				new InstrAdd(args(register(3), register(1), register(1))));
+		memory.setLocation(9, new InstrHalt(args()));
+
+		assertTrue(TypeVerifier.verify(computer).isVerified());
+		assertEquals(4, TypeSpecialization.specialize(computer));
+		assertTrue(memory.getLocation(3) instanceof InstrIntMul);
+		assertTrue(memory.getLocation(4) instanceof InstrIntAddConstant);
+		assertTrue(memory.getLocation(5) instanceof InstrIntTestEquals);
+		assertTrue(memory.getLocation(8) instanceof InstrIntAdd);
+		for (int address : new int[] { 3, 4, 5, 8 }) {
+			assertFalse(specialized(memory, address).isChecked());
+		}
+
+		new ExecutionUnitImpl().go(computer);
+
+		assertEquals(120, computer.getRegisters().getRegisterValue(1));
+		assertEquals(240, computer.getRegisters().getRegisterValue(3));
+	}
+
+	@Test
+	public void testUnverifiedProgramDeoptimizes() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		InstrTestEquals test = new InstrTestEquals(
+				args(register(0), register(1)));
+		memory.setLocation(0, test);
+		memory.setLocation(1, new InstrJumpIfTrue(args(number(4))));
+		memory.setLocation(2, new InstrMove(args(register(4), number(1))));
+		memory.setLocation(3, new InstrHalt(args()));
+		memory.setLocation(4, new InstrLoad(args(register(2), number(10))));
+		memory.setLocation(5,
+				new InstrAdd(args(register(3), register(2), register(2))));
+		memory.setLocation(6, new InstrHalt(args()));
+		memory.setLocation(10, "kukumar");
+		computer.getRegisters().setRegisterValue(0, 1);
+		computer.getRegisters().setRegisterValue(1, 2);
+
+		assertFalse(TypeVerifier.verify(computer).isVerified());
+		assertEquals(1, TypeSpecialization.specialize(computer));
+		SpecializedInstruction specialized = specialized(memory, 0);
+		assertTrue(specialized instanceof InstrIntTestEquals);
+		assertTrue(specialized.isChecked());
+		assertEquals(0, specialized.getAddress());
+
+		computer.getRegisters().setRegisterValue(0, "kukumar");
+		computer.getRegisters().setRegisterValue(1, "kupus");
+		new ExecutionUnitImpl().go(computer);
+
+		assertSame(test, memory.getLocation(0));
+		assertFalse(computer.getRegisters().getFlag());
+		assertEquals(1, computer.getRegisters().getRegisterValue(4));
+	}
+
+	private static SpecializedInstruction specialized(Memory memory,
+			int address) {
+		return (SpecializedInstruction) memory.getLocation(address);
+	}
+}
@@ -0,0 +1,183 @@
+package hr.fer.zemris.java.simplecomp.verifier;
+
+import static hr.fer.zemris.java.simplecomp.TestArguments.args;
+import static hr.fer.zemris.java.simplecomp.TestArguments.indirect;
+import static hr.fer.zemris.java.simplecomp.TestArguments.number;
+import static hr.fer.zemris.java.simplecomp.TestArguments.register;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.simplecomp.ExamplePrograms;
+import hr.fer.zemris.java.simplecomp.ExecutionUnitImpl;
+import hr.fer.zemris.java.simplecomp.TestPrograms;
+import hr.fer.zemris.java.simplecomp.impl.ComputerImpl;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrCall;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrHalt;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIinput;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntAdd;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrIntTestEquals;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrJump;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrLoad;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrMove;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrPush;
+import hr.fer.zemris.java.simplecomp.impl.instructions.InstrTestEquals;
+import hr.fer.zemris.java.simplecomp.models.Instruction;
+import hr.fer.zemris.java.simplecomp.models.Memory;
+import hr.fer.zemris.java.simplecomp.verifier.VerificationReport.ValueType;
+
+@SuppressWarnings("javadoc")
+public class TypeVerifierTests {
+
+	@Test
+	public void testSubroutine() {
+		ComputerImpl computer = TestPrograms
+				.subroutine(new InstrMove(args(register(0), register(1))));
+
+		VerificationReport report = TypeVerifier.verify(computer);
+
+		assertTrue(report.isVerified());
+		assertEquals(3, report.getMaxStackDepth());
+		assertEquals(16, report.getStackCapacity());
+		assertFalse(report.hasDynamicAccesses());
+		assertEquals(ValueType.UNKNOWN, report.getRegisterType(0, 1));
+		assertEquals(ValueType.INT, report.getRegisterType(13, 1));
+		assertEquals(ValueType.UNKNOWN, report.getRegisterType(3, 1));
+
+		new VerifiedExecutionUnit().go(computer);
+
+		assertEquals(42, computer.getRegisters().getRegisterValue(0));
+		assertEquals(42, computer.getRegisters().getRegisterValue(2));
+		assertEquals(31, computer.getRegisters().getRegisterValue(15));
+	}
+
+	@Test
+	public void testStringInArithmetic() {
+		ComputerImpl computer = stringProgram();
+
+		VerificationReport report = TypeVerifier.verify(computer);
+
+		assertFalse(report.isVerified());
+		assertEquals(Arrays.asList(
+				"Instruction add at the address 1 expects an integer in the register r0, but it can hold a string!"),
+				report.getDiagnostics());
+		assertEquals(ValueType.STRING, report.getRegisterType(1, 0));
+	}
+
+	@Test
+	public void testLocationReadBeforeStore() throws Exception {
+		VerificationReport report = TypeVerifier
+				.verify(ExamplePrograms.load("asmProgram4"));
+
+		assertTrue(report.getDiagnostics().toString(), report.isVerified());
+	}
+
+	@Test
+	public void testStoreTroughUnknownAddress() {
+		ComputerImpl computer = new ComputerImpl(32, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrIinput(args(number(20))));
+		memory.setLocation(1, new InstrLoad(args(register(1), number(20))));
+		memory.setLocation(2, new InstrLoad(args(register(0), number(21))));
+		memory.setLocation(3,
+				new InstrMove(args(indirect(1, 0), register(0))));
+		memory.setLocation(4, new InstrLoad(args(register(2), number(22))));
+		memory.setLocation(5,
+				new InstrAdd(args(register(3), register(2), register(2))));
+		memory.setLocation(6, new InstrHalt(args()));
+		memory.setLocation(21, "kukumar");
+		memory.setLocation(22, 5);
+
+		VerificationReport report = TypeVerifier.verify(computer);
+
+		assertEquals(Arrays.asList(
+				"Instruction add at the address 5 expects an integer in the register r2, but it can hold a string, since the instruction at the address 3 can store such a value to any location trough a register whose value is not known!"),
+				report.getDiagnostics());
+		assertTrue(report.hasDynamicAccesses());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVerifiedExecutionRejectsProgram() {
+		new VerifiedExecutionUnit().go(stringProgram());
+	}
+
+	@Test
+	public void testRecursion() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrCall(args(number(2))));
+		memory.setLocation(1, new InstrHalt(args()));
+		memory.setLocation(2, new InstrCall(args(number(2))));
+		computer.getRegisters().setRegisterValue(15, 15);
+
+		VerificationReport report = TypeVerifier.verify(computer);
+
+		assertEquals(Arrays.asList(
+				"Instruction call at the address 2 calls the subroutine at the address 2 recursively, so the depth of the stack can not be bounded!"),
+				report.getDiagnostics());
+	}
+
+	@Test
+	public void testUnboundedStack() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrPush(args(register(0))));
+		memory.setLocation(1, new InstrJump(args(number(0))));
+		computer.getRegisters().setRegisterValue(0, 1);
+		computer.getRegisters().setRegisterValue(15, 15);
+
+		VerificationReport report = TypeVerifier.verify(computer);
+
+		assertEquals(
+				Arrays.asList(
+						"Location 0 is reached with the stack depths 0 and 1!"),
+				report.getDiagnostics());
+	}
+
+	@Test
+	public void testSpecializationAndDeoptimization() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrMove(args(register(0), number(1))));
+		memory.setLocation(1, new InstrMove(args(register(1), number(2))));
+		memory.setLocation(2,
+				new InstrAdd(args(register(2), register(0), register(1))));
+		memory.setLocation(3,
+				new InstrTestEquals(args(register(2), register(3))));
+		memory.setLocation(4, new InstrHalt(args()));
+
+		assertEquals(1, TypeSpecialization.specialize(computer));
+		assertTrue(memory.getLocation(2) instanceof InstrIntAdd);
+
+		new ExecutionUnitImpl().go(computer);
+		assertEquals(3, computer.getRegisters().getRegisterValue(2));
+
+		InstrTestEquals test = new InstrTestEquals(
+				args(register(0), register(1)));
+		memory.setLocation(5, new InstrIntTestEquals(5, test));
+		computer.getRegisters().setRegisterValue(0, "kukumar");
+		computer.getRegisters().setRegisterValue(1, "kukumar");
+
+		((Instruction) memory.getLocation(5)).execute(computer);
+
+		assertTrue(computer.getRegisters().getFlag());
+		assertSame(test, memory.getLocation(5));
+	}
+
+	private static ComputerImpl stringProgram() {
+		ComputerImpl computer = new ComputerImpl(16, 16);
+		Memory memory = computer.getMemory();
+		memory.setLocation(0, new InstrLoad(args(register(0), number(3))));
+		memory.setLocation(1,
+				new InstrAdd(args(register(1), register(0), register(0))));
+		memory.setLocation(2, new InstrHalt(args()));
+		memory.setLocation(3, "kukumar");
+		return computer;
+	}
+}